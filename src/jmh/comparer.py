@@ -0,0 +1,84 @@
+#!/usr/bin/env python3
+"""
+Comparer deux résultats JMH (format JSON, -rf json) benchmark par benchmark.
+
+    python3 src/jmh/comparer.py src/jmh/resultats/reference.json target/jmh-resultats.json [--seuil 10]
+
+Un écart n'est signalé (REGRESSION / AMELIORATION) que s'il dépasse le seuil en pourcentage
+et la somme des deux marges d'erreur à 99,9 %. Code de sortie 1 si une régression est trouvée,
+pour pouvoir s'en servir dans un script d'intégration.
+"""
+
+import argparse
+import json
+import math
+import sys
+
+# Modes où une valeur plus grande est meilleure (opérations par unité de temps)
+PLUS_GRAND_MEILLEUR = {"thrpt"}
+
+
+def charger(chemin):
+    with open(chemin, encoding="utf-8") as fichier:
+        resultats = {}
+        for entree in json.load(fichier):
+            parametres = entree.get("params") or {}
+            cle = entree["benchmark"].rsplit(".", 2)[-2:]
+            nom = ".".join(cle)
+            if parametres:
+                nom += " [" + ", ".join(f"{k}={v}" for k, v in sorted(parametres.items())) + "]"
+            mesure = entree["primaryMetric"]
+            # Une seule itération : JMH écrit "NaN" (chaîne) comme marge d'erreur
+            erreur = float(mesure.get("scoreError") or 0.0)
+            resultats[nom] = {
+                "mode": entree["mode"],
+                "score": float(mesure["score"]),
+                "erreur": 0.0 if math.isnan(erreur) else erreur,
+                "unite": mesure["scoreUnit"],
+            }
+        return resultats
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Comparer deux exécutions JMH")
+    parser.add_argument("reference", help="résultats de référence (JSON JMH)")
+    parser.add_argument("candidat", help="nouveaux résultats (JSON JMH)")
+    parser.add_argument("--seuil", type=float, default=10.0,
+                        help="écart minimal signalé, en pourcentage (défaut : 10)")
+    args = parser.parse_args()
+
+    reference = charger(args.reference)
+    candidat = charger(args.candidat)
+
+    regressions = 0
+    largeur = max((len(nom) for nom in reference.keys() | candidat.keys()), default=10)
+    print(f"{'Benchmark':<{largeur}}  {'Référence':>14}  {'Candidat':>14}  {'Écart':>8}  Verdict")
+    for nom in sorted(reference.keys() | candidat.keys()):
+        avant, apres = reference.get(nom), candidat.get(nom)
+        if avant is None or apres is None:
+            print(f"{nom:<{largeur}}  {'absent' if avant is None else format(avant['score'], '.3f'):>14}  "
+                  f"{'absent' if apres is None else format(apres['score'], '.3f'):>14}  {'':>8}  -")
+            continue
+        if avant["unite"] != apres["unite"] or avant["mode"] != apres["mode"]:
+            print(f"{nom:<{largeur}}  unités ou modes différents ({avant['unite']} {avant['mode']} / "
+                  f"{apres['unite']} {apres['mode']})")
+            continue
+
+        ecart = (apres["score"] - avant["score"]) / avant["score"] * 100 if avant["score"] else 0.0
+        significatif = abs(apres["score"] - avant["score"]) > avant["erreur"] + apres["erreur"]
+        pire = ecart < 0 if avant["mode"] in PLUS_GRAND_MEILLEUR else ecart > 0
+        verdict = "="
+        if significatif and abs(ecart) >= args.seuil:
+            verdict = "REGRESSION" if pire else "AMELIORATION"
+            regressions += pire
+        print(f"{nom:<{largeur}}  {avant['score']:>14.3f}  {apres['score']:>14.3f}  {ecart:>+7.1f}%  "
+              f"{verdict} ({apres['unite']})")
+
+    if regressions:
+        print(f"\n{regressions} régression(s) au-delà de {args.seuil:g} %")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
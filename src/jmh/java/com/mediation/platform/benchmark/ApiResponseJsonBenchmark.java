@@ -0,0 +1,62 @@
+package com.mediation.platform.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Projet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des réponses de liste (ApiResponse de projets et de dons avec leurs
+ * associations et donateurs), avec un ObjectMapper configuré comme celui de Spring Boot
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseJsonBenchmark {
+
+    @Param({"20", "200"})
+    private int taille;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Projet>> reponseProjets;
+    private ApiResponse<List<Don>> reponseDons;
+
+    @Setup
+    public void preparer() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        JeuDeDonnees donnees = new JeuDeDonnees(taille, taille, taille);
+        reponseProjets = ApiResponse.success("Projets récupérés avec succès", donnees.getProjets());
+        reponseDons = ApiResponse.success("Dons récupérés avec succès", donnees.getDons());
+    }
+
+    @Benchmark
+    public byte[] projets() throws Exception {
+        return objectMapper.writeValueAsBytes(reponseProjets);
+    }
+
+    @Benchmark
+    public byte[] dons() throws Exception {
+        return objectMapper.writeValueAsBytes(reponseDons);
+    }
+}
@@ -0,0 +1,51 @@
+package com.mediation.platform.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hachage et vérification des mots de passe (inscription, connexion). Le coût 10 est celui
+ * de SecurityConfig (BCryptPasswordEncoder par défaut) ; -p cout=12 pour évaluer un durcissement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptBenchmark {
+
+    @Param({"10"})
+    private int cout;
+
+    private BCryptPasswordEncoder encodeur;
+    private String empreinte;
+
+    @Setup
+    public void preparer() {
+        encodeur = new BCryptPasswordEncoder(cout);
+        empreinte = encodeur.encode("MotDePasse2024!");
+    }
+
+    @Benchmark
+    public String encoder() {
+        return encodeur.encode("MotDePasse2024!");
+    }
+
+    @Benchmark
+    public boolean verifier() {
+        return encodeur.matches("MotDePasse2024!", empreinte);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mediation.platform.benchmark;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.entity.Transaction;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.enums.StatutTransaction;
+import com.mediation.platform.enums.StatutUtilisateur;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Entités en mémoire pour les benchmarks, reproductibles (graine fixe) : une association,
+ * ses projets, des donateurs et des dons répartis sur les 18 derniers mois
+ * (80 % validés, 10 % en attente, 10 % refusés, un tiers avec message).
+ */
+public class JeuDeDonnees {
+
+    private static final String[] DOMAINES = {"Éducation", "Santé", "Environnement", "Culture"};
+
+    private final Association association;
+    private final List<Projet> projets = new ArrayList<>();
+    private final List<Donateur> donateurs = new ArrayList<>();
+    private final List<Don> dons = new ArrayList<>();
+    private final List<Transaction> transactions = new ArrayList<>();
+
+    public JeuDeDonnees(int nombreProjets, int nombreDonateurs, int nombreDons) {
+        Random aleatoire = new Random(42);
+        LocalDate aujourdhui = LocalDate.now();
+
+        association = new Association("Diallo", "Awa", "contact@association.sn", "motdepasse", "Solidarité Dakar");
+        association.setIdUtilisateur(1L);
+        association.setStatut(StatutUtilisateur.ACTIF);
+        association.setStatutValidation(true);
+        association.setDomaineActivite(DOMAINES[0]);
+        association.setDescription("Association de quartier pour l'accès à l'éducation et à la santé");
+
+        for (int i = 0; i < nombreProjets; i++) {
+            Projet projet = new Projet("Projet " + i, "Description du projet " + i + " : construction et équipement",
+                    "Objectif " + i, 1_000_000.0 + aleatoire.nextInt(9_000_000), association,
+                    aujourdhui.minusMonths(18), aujourdhui.plusMonths(6));
+            projet.setIdProjet((long) i + 1);
+            projet.setStatut(i % 10 == 9 ? StatutProjet.TERMINE : StatutProjet.EN_COURS);
+            projet.setDateCreation(LocalDateTime.now().minusMonths(18));
+            projets.add(projet);
+        }
+        association.setProjets(projets);
+
+        for (int i = 0; i < nombreDonateurs; i++) {
+            Donateur donateur = new Donateur("Nom" + i, "Prenom" + i, "donateur" + i + "@exemple.sn", "motdepasse");
+            donateur.setIdUtilisateur((long) i + 2);
+            donateur.setStatut(StatutUtilisateur.ACTIF);
+            donateurs.add(donateur);
+        }
+
+        for (int i = 0; i < nombreDons; i++) {
+            Projet projet = projets.get(aleatoire.nextInt(projets.size()));
+            Donateur donateur = donateurs.get(aleatoire.nextInt(donateurs.size()));
+            Don don = new Don(1000.0 + aleatoire.nextInt(200) * 500, donateur, projet,
+                    i % 3 == 0 ? "Bon courage pour le projet" : null, i % 7 == 0);
+            don.setIdDon((long) i + 1);
+            don.setDate(aujourdhui.minusDays(aleatoire.nextInt(540)));
+            int tirage = aleatoire.nextInt(10);
+            don.setStatut(tirage < 8 ? StatutDon.VALIDE : tirage == 8 ? StatutDon.EN_ATTENTE : StatutDon.REFUSE);
+            don.setDateCreation(don.getDate().atStartOfDay());
+            dons.add(don);
+            projet.getDons().add(don);
+            donateur.getDons().add(don);
+            if (don.getStatut() == StatutDon.VALIDE) {
+                projet.setMontantCollecte(projet.getMontantCollecte() + don.getMontant());
+            }
+
+            Transaction transaction = new Transaction(don.getMontant(), don, "WAVE");
+            transaction.setStatut(don.getStatut() == StatutDon.REFUSE ? StatutTransaction.ECHEC : StatutTransaction.REUSSIE);
+            transactions.add(transaction);
+        }
+    }
+
+    public Association getAssociation() {
+        return association;
+    }
+
+    public List<Projet> getProjets() {
+        return projets;
+    }
+
+    public List<Donateur> getDonateurs() {
+        return donateurs;
+    }
+
+    public List<Don> getDons() {
+        return dons;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mediation.platform.benchmark;
+
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.enums.StatutUtilisateur;
+import com.mediation.platform.security.JwtAuthenticationFilter;
+import com.mediation.platform.security.JwtUtil;
+import com.mediation.platform.security.UserDetailsImpl;
+import com.mediation.platform.security.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête du filtre JWT, hors chargement de l'utilisateur en base
+ * (UserDetailsService en mémoire) : jeton valide, requête sans jeton et route publique
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filtre;
+    private String entete;
+
+    @Setup
+    public void preparer() {
+        SortieMuette.activer();
+        Donateur donateur = new Donateur("Ndiaye", "Fatou", "fatou.ndiaye@exemple.sn", "motdepasse");
+        donateur.setIdUtilisateur(42L);
+        donateur.setStatut(StatutUtilisateur.ACTIF);
+        UserDetails utilisateur = UserDetailsImpl.build(donateur);
+
+        JwtUtil jwtUtil = JwtBenchmark.creerJwtUtil();
+        filtre = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtre, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filtre, "userDetailsService", new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return utilisateur;
+            }
+        });
+        entete = "Bearer " + jwtUtil.generateToken(donateur.getEmail(), donateur.getRole().name(), 42L);
+    }
+
+    @TearDown
+    public void terminer() {
+        SortieMuette.desactiver();
+    }
+
+    @Benchmark
+    public Authentication jetonValide() throws Exception {
+        MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/api/dons/mes-dons");
+        requete.addHeader("Authorization", entete);
+        return filtrer(requete);
+    }
+
+    @Benchmark
+    public Authentication sansJeton() throws Exception {
+        return filtrer(new MockHttpServletRequest("POST", "/api/dons"));
+    }
+
+    @Benchmark
+    public Authentication routePublique() throws Exception {
+        return filtrer(new MockHttpServletRequest("GET", "/api/projets"));
+    }
+
+    private Authentication filtrer(MockHttpServletRequest requete) throws Exception {
+        try {
+            filtre.doFilter(requete, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.mediation.platform.benchmark;
+
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.enums.StatutUtilisateur;
+import com.mediation.platform.security.JwtUtil;
+import com.mediation.platform.security.UserDetailsImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération et validation des jetons JWT (HS256, secret et durée de application.properties)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private UserDetails utilisateur;
+    private String jeton;
+
+    @Setup
+    public void preparer() {
+        SortieMuette.activer();
+        jwtUtil = creerJwtUtil();
+        Donateur donateur = new Donateur("Ndiaye", "Fatou", "fatou.ndiaye@exemple.sn", "motdepasse");
+        donateur.setIdUtilisateur(42L);
+        donateur.setStatut(StatutUtilisateur.ACTIF);
+        utilisateur = UserDetailsImpl.build(donateur);
+        jeton = jwtUtil.generateToken(donateur.getEmail(), donateur.getRole().name(), donateur.getIdUtilisateur());
+    }
+
+    @TearDown
+    public void terminer() {
+        SortieMuette.desactiver();
+    }
+
+    static JwtUtil creerJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "myVerySecretKeyForJWTTokenGenerationThatIsAtLeast32CharactersLong");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604800L);
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generer() {
+        return jwtUtil.generateToken("fatou.ndiaye@exemple.sn", "DONATEUR", 42L);
+    }
+
+    @Benchmark
+    public boolean valider() {
+        return jwtUtil.validateToken(jeton);
+    }
+
+    @Benchmark
+    public boolean validerPourUtilisateur() {
+        return jwtUtil.validateToken(jeton, utilisateur);
+    }
+
+    @Benchmark
+    public String extraireUtilisateur() {
+        return jwtUtil.extractUsername(jeton);
+    }
+}
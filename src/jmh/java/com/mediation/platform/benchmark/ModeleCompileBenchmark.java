@@ -0,0 +1,79 @@
+package com.mediation.platform.benchmark;
+
+import com.mediation.platform.template.ModeleCompile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu d'un corps d'email (notification de nouveau don) : String.format historique
+ * contre le modèle compilé une fois au démarrage par ModeleEmailService
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModeleCompileBenchmark {
+
+    private static final String FORMAT =
+            "Bonjour %s %s,\n\n" +
+                    "Excellente nouvelle ! Vous avez reçu un nouveau don.\n\n" +
+                    "Détails du don :\n" +
+                    "- Montant : %.2f DH\n" +
+                    "- Donateur : %s\n" +
+                    "- Projet : %s\n\n" +
+                    "Merci de continuer à faire la différence !\n\n" +
+                    "Cordialement,\n" +
+                    "L'équipe %s";
+
+    private static final String MODELE =
+            "Bonjour {{prenom}} {{nom}},\n\n" +
+                    "Excellente nouvelle ! Vous avez reçu un nouveau don.\n\n" +
+                    "Détails du don :\n" +
+                    "- Montant : {{montant:%.2f}} DH\n" +
+                    "- Donateur : {{nomDonateur}}\n" +
+                    "- Projet : {{nomProjet}}\n\n" +
+                    "Merci de continuer à faire la différence !\n\n" +
+                    "Cordialement,\n" +
+                    "L'équipe {{appName}}";
+
+    private ModeleCompile modele;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void preparer() {
+        modele = ModeleCompile.compiler(MODELE, Locale.FRENCH, false);
+        variables = new HashMap<>();
+        variables.put("prenom", "Amal");
+        variables.put("nom", "Bennani");
+        variables.put("montant", 150.0);
+        variables.put("nomDonateur", "Youssef Alami");
+        variables.put("nomProjet", "Puits du douar");
+        variables.put("appName", "Plateforme de Médiation");
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(Locale.FRENCH, FORMAT, "Amal", "Bennani", 150.0,
+                "Youssef Alami", "Puits du douar", "Plateforme de Médiation");
+    }
+
+    @Benchmark
+    public String modeleCompile() {
+        return modele.rendre(variables);
+    }
+}
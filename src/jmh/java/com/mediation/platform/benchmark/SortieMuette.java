@@ -0,0 +1,36 @@
+package com.mediation.platform.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Les filtres et utilitaires JWT écrivent beaucoup sur System.out/err : pendant un benchmark
+ * ces lignes sont formatées comme en production mais jetées, pour ne pas mesurer la console.
+ */
+final class SortieMuette {
+
+    private static PrintStream sortie;
+    private static PrintStream erreurs;
+
+    private SortieMuette() {
+    }
+
+    static synchronized void activer() {
+        if (sortie == null) {
+            sortie = System.out;
+            erreurs = System.err;
+            PrintStream muette = new PrintStream(OutputStream.nullOutputStream());
+            System.setOut(muette);
+            System.setErr(muette);
+        }
+    }
+
+    static synchronized void desactiver() {
+        if (sortie != null) {
+            System.setOut(sortie);
+            System.setErr(erreurs);
+            sortie = null;
+            erreurs = null;
+        }
+    }
+}
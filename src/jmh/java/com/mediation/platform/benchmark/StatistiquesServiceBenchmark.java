@@ -0,0 +1,113 @@
+package com.mediation.platform.benchmark;
+
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.service.AssociationService;
+import com.mediation.platform.service.DonService;
+import com.mediation.platform.service.DonateurService;
+import com.mediation.platform.service.ProjetService;
+import com.mediation.platform.service.StatistiquesService;
+import com.mediation.platform.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Agrégations de StatistiquesService sur des entités déjà chargées : les services d'accès
+ * aux données sont remplacés par des doublures qui renvoient le jeu en mémoire, seul le
+ * calcul (filtres, sommes, distinct, répartition mensuelle) est mesuré.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatistiquesServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int nombreDons;
+
+    private StatistiquesService statistiquesService;
+    private Long idProjet;
+    private Long idDonateur;
+    private LocalDate debut;
+    private LocalDate fin;
+
+    @Setup
+    public void preparer() {
+        JeuDeDonnees donnees = new JeuDeDonnees(50, Math.max(10, nombreDons / 20), nombreDons);
+        // Le projet et le donateur les plus actifs du jeu
+        Projet projet = donnees.getProjets().stream()
+                .max((p1, p2) -> Integer.compare(p1.getDons().size(), p2.getDons().size())).orElseThrow();
+        Donateur donateur = donnees.getDonateurs().stream()
+                .max((d1, d2) -> Integer.compare(d1.getDons().size(), d2.getDons().size())).orElseThrow();
+        idProjet = projet.getIdProjet();
+        idDonateur = donateur.getIdUtilisateur();
+        fin = LocalDate.now();
+        debut = fin.minusMonths(6);
+
+        ProjetService projetService = mock(ProjetService.class);
+        DonService donService = mock(DonService.class);
+        DonateurService donateurService = mock(DonateurService.class);
+        AssociationService associationService = mock(AssociationService.class);
+        TransactionService transactionService = mock(TransactionService.class);
+
+        when(projetService.findById(idProjet)).thenReturn(projet);
+        when(projetService.findByAssociation(donnees.getAssociation())).thenReturn(donnees.getProjets());
+        when(donService.findByProjet(projet)).thenReturn(projet.getDons());
+        when(donateurService.findById(idDonateur)).thenReturn(donateur);
+        when(donService.findByDonateur(donateur)).thenReturn(donateur.getDons());
+        when(associationService.findById(donnees.getAssociation().getIdUtilisateur())).thenReturn(donnees.getAssociation());
+        when(associationService.findRecentlyValidated(any(LocalDateTime.class))).thenReturn(List.of(donnees.getAssociation()));
+        // Même liste pour la période et la période précédente : deux parcours complets
+        when(donService.findByPeriod(any(), any())).thenReturn(donnees.getDons());
+        when(transactionService.findByPeriod(any(), any())).thenReturn(donnees.getTransactions());
+
+        statistiquesService = new StatistiquesService();
+        ReflectionTestUtils.setField(statistiquesService, "projetService", projetService);
+        ReflectionTestUtils.setField(statistiquesService, "donService", donService);
+        ReflectionTestUtils.setField(statistiquesService, "donateurService", donateurService);
+        ReflectionTestUtils.setField(statistiquesService, "associationService", associationService);
+        ReflectionTestUtils.setField(statistiquesService, "transactionService", transactionService);
+    }
+
+    @Benchmark
+    public Map<String, Object> projet() {
+        return statistiquesService.getStatistiquesProjet(idProjet);
+    }
+
+    @Benchmark
+    public Map<String, Object> donateur() {
+        return statistiquesService.getStatistiquesDonateur(idDonateur);
+    }
+
+    @Benchmark
+    public Map<String, Object> association() {
+        return statistiquesService.getStatistiquesAssociation(1L);
+    }
+
+    @Benchmark
+    public Map<String, Object> periode() {
+        return statistiquesService.getStatistiquesPeriode(debut, fin);
+    }
+}
@@ -0,0 +1,390 @@
+package com.mediation.platform.benchmark;
+
+import com.mediation.platform.dto.request.RegisterAssociationRequest;
+import com.mediation.platform.dto.request.RegisterDonateurRequest;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.enums.StatutUtilisateur;
+import com.mediation.platform.exception.BusinessException;
+import com.mediation.platform.monitoring.HistogrammeLatence;
+import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import com.mediation.platform.repository.UtilisateurRepository;
+import com.mediation.platform.service.AuthenticationService;
+import com.mediation.platform.service.DonService;
+import com.mediation.platform.service.LivraisonNotificationService;
+import com.mediation.platform.service.ProjetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Banc d'essai des envois d'email (profil smtp-local) : exécute les parcours réels
+ * (inscription, validation de don, rappels d'échéance) à grande échelle et mesure
+ * le débit reçu par le serveur SMTP local, la profondeur des files de livraison
+ * et la latence de bout en bout (appel du service → message accepté par le serveur).
+ */
+@Service
+@Profile("smtp-local")
+public class BenchmarkEmailService {
+
+    private static final String MOT_DE_PASSE = "benchmark123";
+    private static final int DONS_PAR_PROJET = 100;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private DonService donService;
+
+    @Autowired
+    private ProjetService projetService;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LivraisonNotificationService livraisonNotificationService;
+
+    @Autowired
+    private ServeurSmtpLocal serveurSmtpLocal;
+
+    @Value("${app.benchmark.email.delai-max-ms:120000}")
+    private long delaiMaxMs;
+
+    @Value("${app.benchmark.email.echantillonnage-file-ms:10}")
+    private long echantillonnageFileMs;
+
+    @Value("${app.benchmark.email.suite:}")
+    private String suiteAuDemarrage;
+
+    private final AtomicBoolean enCours = new AtomicBoolean(false);
+
+    public enum Scenario {
+        INSCRIPTION_DONATEUR,
+        INSCRIPTION_ASSOCIATION,
+        VALIDATION_DON,
+        RAPPEL_ECHEANCE
+    }
+
+    /**
+     * Exécuter un scénario ; un seul banc d'essai à la fois
+     */
+    public Map<String, Object> executer(Scenario scenario, int volume, int concurrence) {
+        if (volume <= 0 || concurrence <= 0) {
+            throw new BusinessException("Le volume et la concurrence doivent être positifs");
+        }
+        if (!enCours.compareAndSet(false, true)) {
+            throw new BusinessException("Un banc d'essai email est déjà en cours");
+        }
+
+        try {
+            String campagne = Long.toString(System.currentTimeMillis(), 36);
+            List<Appel> appels = preparer(scenario, volume, campagne);
+            return mesurer(scenario, volume, concurrence, appels);
+        } finally {
+            enCours.set(false);
+        }
+    }
+
+    /**
+     * Suite lancée au démarrage : app.benchmark.email.suite=SCENARIO:volume:concurrence,...
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void executerSuiteAuDemarrage() {
+        if (suiteAuDemarrage == null || suiteAuDemarrage.isBlank()) {
+            return;
+        }
+
+        for (String element : suiteAuDemarrage.split(",")) {
+            String[] parties = element.trim().split(":");
+            try {
+                Scenario scenario = Scenario.valueOf(parties[0].trim().toUpperCase(Locale.ROOT));
+                int volume = parties.length > 1 ? Integer.parseInt(parties[1].trim()) : 100;
+                int concurrence = parties.length > 2 ? Integer.parseInt(parties[2].trim()) : 4;
+
+                Map<String, Object> resultat = executer(scenario, volume, concurrence);
+                System.out.println(resumer(resultat));
+            } catch (Exception e) {
+                System.err.println("Erreur banc d'essai email '" + element + "': " + e.getMessage());
+            }
+        }
+    }
+
+    private List<Appel> preparer(Scenario scenario, int volume, String campagne) {
+        return switch (scenario) {
+            case INSCRIPTION_DONATEUR -> preparerInscriptionsDonateurs(volume, campagne);
+            case INSCRIPTION_ASSOCIATION -> preparerInscriptionsAssociations(volume, campagne);
+            case VALIDATION_DON -> preparerValidationsDons(volume, campagne);
+            case RAPPEL_ECHEANCE -> preparerRappelsEcheance(volume, campagne);
+        };
+    }
+
+    private List<Appel> preparerInscriptionsDonateurs(int volume, String campagne) {
+        List<Appel> appels = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            RegisterDonateurRequest request = new RegisterDonateurRequest();
+            request.setNom("Bench" + i);
+            request.setPrenom("Donateur");
+            request.setEmail(email("donateur", campagne, i));
+            request.setMotDePasse(MOT_DE_PASSE);
+            appels.add(new Appel(List.of(request.getEmail()), () -> authenticationService.registerDonateur(request)));
+        }
+        return appels;
+    }
+
+    private List<Appel> preparerInscriptionsAssociations(int volume, String campagne) {
+        List<Appel> appels = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            RegisterAssociationRequest request = new RegisterAssociationRequest();
+            request.setNom("Bench" + i);
+            request.setPrenom("Responsable");
+            request.setEmail(email("association", campagne, i));
+            request.setMotDePasse(MOT_DE_PASSE);
+            request.setNomAssociation("Association banc d'essai " + campagne + "-" + i);
+            appels.add(new Appel(List.of(request.getEmail()), () -> authenticationService.registerAssociation(request)));
+        }
+        return appels;
+    }
+
+    /**
+     * Un don en attente par donateur, répartis sur des projets de DONS_PAR_PROJET dons
+     */
+    private List<Appel> preparerValidationsDons(int volume, String campagne) {
+        String motDePasse = passwordEncoder.encode(MOT_DE_PASSE);
+        Association association = utilisateurRepository.save(association(campagne, 0, motDePasse));
+
+        int nombreProjets = (volume + DONS_PAR_PROJET - 1) / DONS_PAR_PROJET;
+        List<Projet> projets = new ArrayList<>(nombreProjets);
+        for (int p = 0; p < nombreProjets; p++) {
+            projets.add(projet(association, "Projet banc d'essai " + campagne + "-" + p,
+                    1_000_000_000.0, LocalDate.now().plusMonths(3)));
+        }
+        projets = projetRepository.saveAll(projets);
+
+        List<Donateur> donateurs = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            Donateur donateur = new Donateur("Bench" + i, "Donateur", email("donateur", campagne, i), motDePasse);
+            donateur.setStatut(StatutUtilisateur.ACTIF);
+            donateurs.add(donateur);
+        }
+        donateurs = utilisateurRepository.saveAll(donateurs);
+
+        List<Don> dons = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            dons.add(new Don(10.0 + (i % 50), donateurs.get(i), projets.get(i / DONS_PAR_PROJET)));
+        }
+        dons = donRepository.saveAll(dons);
+
+        List<Appel> appels = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            Long idDon = dons.get(i).getIdDon();
+            appels.add(new Appel(List.of(donateurs.get(i).getEmail()), () -> donService.validerDon(idDon)));
+        }
+        return appels;
+    }
+
+    /**
+     * Une association par projet proche de l'échéance, puis un seul passage du rappel
+     */
+    private List<Appel> preparerRappelsEcheance(int volume, String campagne) {
+        String motDePasse = passwordEncoder.encode(MOT_DE_PASSE);
+
+        List<Association> associations = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            associations.add(association(campagne, i, motDePasse));
+        }
+        associations = utilisateurRepository.saveAll(associations);
+
+        List<Projet> projets = new ArrayList<>(volume);
+        List<String> destinataires = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            Association association = associations.get(i);
+            projets.add(projet(association, "Projet échéance " + campagne + "-" + i,
+                    10_000.0, LocalDate.now().plusDays(1 + i % 7)));
+            destinataires.add(association.getEmail());
+        }
+        projetRepository.saveAll(projets);
+
+        return List.of(new Appel(destinataires, () -> projetService.envoyerRappelsEcheance()));
+    }
+
+    private Map<String, Object> mesurer(Scenario scenario, int volume, int concurrence, List<Appel> appels) {
+        Map<String, Long> debutsParDestinataire = new ConcurrentHashMap<>();
+        HistogrammeLatence latence = new HistogrammeLatence();
+        LongAdder emailsRecus = new LongAdder();
+        AtomicLong derniereReception = new AtomicLong();
+
+        // Seuls les destinataires du banc d'essai sont comptés (les autres envois ne sont pas corrélés)
+        Consumer<ServeurSmtpLocal.MessageRecu> ecouteur = message -> {
+            for (String destinataire : message.destinataires()) {
+                Long debut = debutsParDestinataire.remove(destinataire);
+                if (debut != null) {
+                    latence.enregistrer(message.recuNanos() - debut);
+                    emailsRecus.increment();
+                    derniereReception.accumulateAndGet(message.recuNanos(), Math::max);
+                }
+            }
+        };
+
+        AtomicInteger fileMax = new AtomicInteger();
+        LongAdder fileCumul = new LongAdder();
+        LongAdder fileEchantillons = new LongAdder();
+        ScheduledExecutorService echantillonneur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "benchmark-email-file");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        int emailsAttendus = appels.stream().mapToInt(appel -> appel.destinataires().size()).sum();
+        LongAdder erreursAppels = new LongAdder();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrence);
+
+        serveurSmtpLocal.ajouterEcouteur(ecouteur);
+        echantillonneur.scheduleAtFixedRate(() -> {
+            int file = livraisonNotificationService.getNombreEnAttente();
+            fileMax.accumulateAndGet(file, Math::max);
+            fileCumul.add(file);
+            fileEchantillons.increment();
+        }, 0, Math.max(1, echantillonnageFileMs), TimeUnit.MILLISECONDS);
+
+        long debut = System.nanoTime();
+        long finAppels;
+        try {
+            for (Appel appel : appels) {
+                clients.execute(() -> {
+                    long debutAppel = System.nanoTime();
+                    for (String destinataire : appel.destinataires()) {
+                        debutsParDestinataire.put(destinataire.toLowerCase(Locale.ROOT), debutAppel);
+                    }
+                    try {
+                        appel.action().run();
+                    } catch (Exception e) {
+                        erreursAppels.increment();
+                        // Aucun email ne sera envoyé : inutile de l'attendre
+                        for (String destinataire : appel.destinataires()) {
+                            debutsParDestinataire.remove(destinataire.toLowerCase(Locale.ROOT));
+                        }
+                        System.err.println("Erreur appel banc d'essai " + scenario + ": " + e.getMessage());
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(delaiMaxMs, TimeUnit.MILLISECONDS);
+            finAppels = System.nanoTime();
+
+            // Attendre la livraison des emails encore en file
+            long limite = debut + TimeUnit.MILLISECONDS.toNanos(delaiMaxMs);
+            while (emailsRecus.sum() + erreursAppels.sum() < emailsAttendus && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finAppels = System.nanoTime();
+        } finally {
+            clients.shutdownNow();
+            echantillonneur.shutdownNow();
+            serveurSmtpLocal.retirerEcouteur(ecouteur);
+        }
+
+        long fin = Math.max(derniereReception.get(), finAppels);
+        double dureeTotaleSecondes = (fin - debut) / 1_000_000_000.0;
+        double dureeAppelsSecondes = (finAppels - debut) / 1_000_000_000.0;
+        long recus = emailsRecus.sum();
+
+        Map<String, Object> file = new LinkedHashMap<>();
+        file.put("max", fileMax.get());
+        file.put("moyenne", fileEchantillons.sum() > 0 ? (double) fileCumul.sum() / fileEchantillons.sum() : 0.0);
+        file.put("echantillons", fileEchantillons.sum());
+
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("scenario", scenario.name());
+        resultat.put("volume", volume);
+        resultat.put("concurrence", concurrence);
+        resultat.put("date", LocalDateTime.now());
+        resultat.put("appels", appels.size());
+        resultat.put("erreursAppels", erreursAppels.sum());
+        resultat.put("dureeAppelsMs", Math.round(dureeAppelsSecondes * 1000));
+        resultat.put("dureeTotaleMs", Math.round(dureeTotaleSecondes * 1000));
+        resultat.put("appelsParSeconde", dureeAppelsSecondes > 0 ? appels.size() / dureeAppelsSecondes : 0.0);
+        resultat.put("emailsAttendus", emailsAttendus);
+        resultat.put("emailsRecus", recus);
+        resultat.put("emailsManquants", debutsParDestinataire.size());
+        resultat.put("emailsParSeconde", dureeTotaleSecondes > 0 ? recus / dureeTotaleSecondes : 0.0);
+        resultat.put("latenceBoutEnBout", latence.toMap());
+        resultat.put("fileAttente", file);
+        resultat.put("livraison", livraisonNotificationService.getStatistiques());
+        return resultat;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String resumer(Map<String, Object> resultat) {
+        Map<String, Object> latence = (Map<String, Object>) resultat.get("latenceBoutEnBout");
+        Map<String, Object> file = (Map<String, Object>) resultat.get("fileAttente");
+        return String.format(Locale.ROOT,
+                "[benchmark-email] %s volume=%s concurrence=%s emails=%s/%s (%.1f emails/s) "
+                        + "latence p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms fileMax=%s erreurs=%s",
+                resultat.get("scenario"), resultat.get("volume"), resultat.get("concurrence"),
+                resultat.get("emailsRecus"), resultat.get("emailsAttendus"), resultat.get("emailsParSeconde"),
+                latence.get("p50Ms"), latence.get("p95Ms"), latence.get("p99Ms"), latence.get("maxMs"),
+                file.get("max"), resultat.get("erreursAppels"));
+    }
+
+    private static Association association(String campagne, int index, String motDePasse) {
+        Association association = new Association("Bench" + index, "Responsable",
+                email("association", campagne, index), motDePasse,
+                "Association banc d'essai " + campagne + "-" + index);
+        association.setStatut(StatutUtilisateur.ACTIF);
+        association.setStatutValidation(true);
+        association.setDateValidation(LocalDateTime.now());
+        return association;
+    }
+
+    private static Projet projet(Association association, String titre, Double montantDemande, LocalDate dateFin) {
+        Projet projet = new Projet(titre, "Projet généré par le banc d'essai email", "Banc d'essai",
+                montantDemande, association, LocalDate.now().minusDays(1), dateFin);
+        projet.setStatut(StatutProjet.EN_COURS);
+        return projet;
+    }
+
+    private static String email(String role, String campagne, int index) {
+        return "bench-" + role + "-" + campagne + "-" + index + "@bench.local";
+    }
+
+    private record Appel(List<String> destinataires, Runnable action) {
+    }
+}
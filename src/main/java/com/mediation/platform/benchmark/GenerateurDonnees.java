@@ -0,0 +1,508 @@
+package com.mediation.platform.benchmark;
+
+import com.mediation.platform.chargement.ChargementMasse;
+import com.mediation.platform.chargement.DonneesDerivees;
+import com.mediation.platform.entity.Administrateur;
+import com.mediation.platform.enums.RoleUtilisateur;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.enums.StatutTransaction;
+import com.mediation.platform.enums.StatutUtilisateur;
+import com.mediation.platform.exception.BusinessException;
+import com.mediation.platform.recherche.Gazetteer;
+import com.mediation.platform.repository.UtilisateurRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Générateur de données synthétiques pour les tests de charge (profil charge), reproductible
+ * à graine égale : donateurs, associations, projets, dons et transactions chargés en masse
+ * (COPY sur PostgreSQL, lots JDBC sinon), puis agrégats, classements et index recalculés.
+ * La popularité des projets et l'activité des donateurs suivent des lois de Zipf ; les dates
+ * des dons suivent une saisonnalité mensuelle (pic de décembre, creux de l'été) et une
+ * croissance de l'activité sur l'historique.
+ */
+@Service
+@Profile("charge")
+public class GenerateurDonnees {
+
+    /** Mot de passe commun à tous les comptes générés */
+    public static final String MOT_DE_PASSE = "charge123";
+    public static final String EMAIL_ADMINISTRATEUR = "admin@charge.local";
+    public static final String DOMAINE_EMAIL = "@charge.local";
+
+    // Activité relative de janvier à décembre
+    private static final double[] SAISONNALITE = {1.1, 0.9, 1.0, 1.0, 1.05, 0.85, 0.65, 0.6, 0.9, 1.0, 1.25, 1.9};
+    // Croissance mensuelle de l'activité sur l'historique
+    private static final double CROISSANCE_MENSUELLE = 0.03;
+    // Tirages de projet avant de se rabattre sur un jour de la période du dernier tiré
+    private static final int ESSAIS_PROJET = 50;
+
+    private static final String[] PRENOMS = {"Youssef", "Fatima", "Mohamed", "Khadija", "Omar", "Salma", "Amine",
+            "Nadia", "Hicham", "Meryem", "Karim", "Imane", "Rachid", "Sanaa", "Mehdi", "Laila"};
+    private static final String[] NOMS = {"Alaoui", "Bennani", "El Idrissi", "Tazi", "Berrada", "Chraibi", "Fassi",
+            "Lahlou", "Benjelloun", "Ouazzani", "Amrani", "Sebti", "Naciri", "Kettani", "Haddad", "Ziani"};
+    private static final String[] PROFESSIONS = {"Enseignant", "Ingénieur", "Médecin", "Commerçant", "Étudiant",
+            "Fonctionnaire", "Artisan", "Retraité", "Infirmier", "Comptable"};
+    private static final String[] RUES = {"avenue Hassan II", "boulevard Mohammed V", "rue des Orangers",
+            "rue Ibn Sina", "avenue Al Massira", "rue de la Liberté"};
+    private static final String[] NOMS_ASSOCIATIONS = {"Al Amal", "Espoir", "Main Tendue", "Avenir", "Solidarité",
+            "Al Khair", "Enfance Heureuse", "Terre Verte", "Nour", "Entraide"};
+    private static final String[] DOMAINES = {"Éducation", "Santé", "Environnement", "Aide sociale",
+            "Protection de l'enfance", "Culture", "Eau et assainissement", "Agriculture"};
+    private static final String[] ACTIONS = {"Construction", "Rénovation", "Équipement", "Création", "Extension",
+            "Réhabilitation", "Financement", "Agrandissement"};
+    private static final String[] OBJETS = {"d'une école", "d'un dispensaire", "d'un puits", "d'une bibliothèque",
+            "d'un centre de formation", "de jardins potagers", "d'une cantine scolaire", "d'un foyer d'accueil",
+            "de classes numériques", "d'un réseau d'irrigation"};
+    private static final String[] OBJECTIFS = {"Scolariser les enfants du quartier", "Améliorer l'accès aux soins",
+            "Garantir l'accès à l'eau potable", "Former les jeunes aux métiers du numérique",
+            "Soutenir les familles en difficulté", "Préserver les ressources naturelles"};
+    private static final String[] PRIORITES = {"BASSE", "MOYENNE", "MOYENNE", "HAUTE", "HAUTE", "TRÈS HAUTE"};
+    private static final String[] MESSAGES = {"Bon courage pour ce beau projet", "Pour les enfants",
+            "En mémoire de ma mère", "Bravo à toute l'équipe", "Petit geste, grand cœur"};
+
+    /** Mots présents dans les titres et objectifs générés, pour les recherches du scénario */
+    public static final List<String> TERMES_RECHERCHE = List.of("école", "puits", "dispensaire", "bibliothèque",
+            "formation", "eau", "enfants", "cantine", "irrigation", "soins");
+
+    @Autowired
+    private ChargementMasse chargementMasse;
+
+    @Autowired
+    private DonneesDerivees donneesDerivees;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.charge.donateurs:10000}")
+    private int donateursParDefaut;
+
+    @Value("${app.charge.associations:200}")
+    private int associationsParDefaut;
+
+    @Value("${app.charge.projets:2000}")
+    private int projetsParDefaut;
+
+    @Value("${app.charge.dons:200000}")
+    private int donsParDefaut;
+
+    @Value("${app.charge.exposant-projets:1.1}")
+    private double exposantProjetsParDefaut;
+
+    @Value("${app.charge.exposant-donateurs:0.8}")
+    private double exposantDonateursParDefaut;
+
+    @Value("${app.charge.mois-historique:24}")
+    private int moisHistoriqueParDefaut;
+
+    @Value("${app.charge.graine:42}")
+    private long graineParDefaut;
+
+    private final AtomicBoolean enCours = new AtomicBoolean(false);
+
+    public Parametres parametresParDefaut() {
+        return new Parametres(donateursParDefaut, associationsParDefaut, projetsParDefaut, donsParDefaut,
+                exposantProjetsParDefaut, exposantDonateursParDefaut, moisHistoriqueParDefaut, graineParDefaut);
+    }
+
+    /**
+     * Générer et charger un jeu de données ; s'ajoute aux données existantes (adresses email
+     * propres à chaque génération). Une seule génération à la fois
+     */
+    public Map<String, Object> generer(Parametres parametres) {
+        parametres.valider();
+        if (!enCours.compareAndSet(false, true)) {
+            throw new BusinessException("Une génération de données est déjà en cours");
+        }
+
+        try {
+            long debut = System.currentTimeMillis();
+            creerAdministrateur();
+            Contexte contexte = new Contexte(parametres);
+
+            Map<String, Object> lignes = new LinkedHashMap<>();
+            lignes.put("utilisateurs", chargerUtilisateurs(contexte));
+            lignes.put("associations", chargerAssociations(contexte));
+            lignes.put("donateurs", chargerDonateurs(contexte));
+            lignes.put("projets", chargerProjets(contexte));
+            lignes.put("dons", chargerDons(contexte));
+            lignes.put("transactions", chargerTransactions(contexte));
+            chargementMasse.reprendreIdentifiants("utilisateurs", "id_utilisateur");
+            chargementMasse.reprendreIdentifiants("projets", "id_projet");
+            chargementMasse.reprendreIdentifiants("dons", "id_don");
+            chargementMasse.reprendreIdentifiants("transactions", "id_transaction");
+            long dureeChargement = System.currentTimeMillis() - debut;
+
+            Map<String, Long> derivees = donneesDerivees.recalculer();
+
+            Map<String, Object> resultat = new LinkedHashMap<>();
+            resultat.put("parametres", parametres);
+            resultat.put("campagne", contexte.campagne);
+            resultat.put("lignes", lignes);
+            resultat.put("dureeChargementMs", dureeChargement);
+            resultat.put("donsParSeconde", dureeChargement > 0 ? parametres.getDons() * 1000L / dureeChargement : 0);
+            resultat.put("dureesDeriveesMs", derivees);
+            resultat.put("dureeTotaleMs", System.currentTimeMillis() - debut);
+            resultat.put("motDePasse", MOT_DE_PASSE);
+            resultat.put("administrateur", EMAIL_ADMINISTRATEUR);
+            System.out.println("[charge] generation campagne=" + contexte.campagne + " donateurs=" + parametres.getDonateurs()
+                    + " associations=" + parametres.getAssociations() + " projets=" + parametres.getProjets()
+                    + " dons=" + parametres.getDons() + " chargementMs=" + dureeChargement
+                    + " totalMs=" + resultat.get("dureeTotaleMs"));
+            return resultat;
+        } finally {
+            enCours.set(false);
+        }
+    }
+
+    private void creerAdministrateur() {
+        if (utilisateurRepository.existsByEmail(EMAIL_ADMINISTRATEUR)) {
+            return;
+        }
+        Administrateur admin = new Administrateur("Charge", "Admin", EMAIL_ADMINISTRATEUR,
+                passwordEncoder.encode(MOT_DE_PASSE), "SUPER_ADMIN", "Tests de charge");
+        admin.setStatut(StatutUtilisateur.ACTIF);
+        utilisateurRepository.save(admin);
+    }
+
+    private long chargerUtilisateurs(Contexte c) {
+        return chargementMasse.inserer("utilisateurs", List.of("id_utilisateur", "nom", "prenom", "email",
+                "mot_de_passe", "telephone", "date_creation", "statut", "role"), ecrivain -> {
+            SplittableRandom aleatoire = new SplittableRandom(c.graine);
+            for (int i = 0; i < c.parametres.getAssociations(); i++) {
+                ecrivain.ligne(c.idAssociation(i), choisir(NOMS, aleatoire), choisir(PRENOMS, aleatoire),
+                        "association." + c.campagne + "." + i + DOMAINE_EMAIL, c.motDePasse, telephone(aleatoire),
+                        c.debutHistorique.minusDays(aleatoire.nextInt(365)).atTime(9, 0),
+                        StatutUtilisateur.ACTIF, RoleUtilisateur.ASSOCIATION);
+            }
+            for (int i = 0; i < c.parametres.getDonateurs(); i++) {
+                LocalDate inscription = c.debutHistorique.plusDays(aleatoire.nextInt(c.joursHistorique) - 180L);
+                ecrivain.ligne(c.idDonateur(i), choisir(NOMS, aleatoire), choisir(PRENOMS, aleatoire),
+                        "donateur." + c.campagne + "." + i + DOMAINE_EMAIL, c.motDePasse, telephone(aleatoire),
+                        inscription.atTime(aleatoire.nextInt(8, 23), aleatoire.nextInt(60)),
+                        StatutUtilisateur.ACTIF, RoleUtilisateur.DONATEUR);
+            }
+        });
+    }
+
+    private long chargerAssociations(Contexte c) {
+        return chargementMasse.inserer("associations", List.of("id_utilisateur", "nom_association", "adresse",
+                "latitude", "longitude", "site_web", "description", "domaine_activite", "statut_validation",
+                "date_validation"), ecrivain -> {
+            SplittableRandom aleatoire = new SplittableRandom(c.graine + 1);
+            for (int i = 0; i < c.parametres.getAssociations(); i++) {
+                Gazetteer.Lieu lieu = c.lieux.get(aleatoire.nextInt(c.lieux.size()));
+                String nom = choisir(NOMS_ASSOCIATIONS, aleatoire) + " " + lieu.getNom();
+                c.domaineAssociation[i] = choisir(DOMAINES, aleatoire);
+                c.nomAssociation[i] = nom;
+                c.villeAssociation[i] = lieu.getNom();
+                // 5 % des associations attendent encore leur validation (aucun projet ouvert aux dons)
+                boolean validee = aleatoire.nextInt(20) > 0;
+                ecrivain.ligne(c.idAssociation(i), nom, adresse(lieu, aleatoire),
+                        lieu.getLatitude() + aleatoire.nextDouble(-0.05, 0.05),
+                        lieu.getLongitude() + aleatoire.nextDouble(-0.05, 0.05),
+                        "https://association-" + i + ".charge.local",
+                        "Association de " + lieu.getNom() + " active dans le domaine " + c.domaineAssociation[i]
+                                + " depuis " + (2000 + aleatoire.nextInt(24)) + ".",
+                        c.domaineAssociation[i], validee, validee ? c.debutHistorique.atTime(10, 0) : null);
+            }
+        });
+    }
+
+    private long chargerDonateurs(Contexte c) {
+        return chargementMasse.inserer("donateurs", List.of("id_utilisateur", "adresse", "latitude", "longitude",
+                "date_naissance", "profession"), ecrivain -> {
+            SplittableRandom aleatoire = new SplittableRandom(c.graine + 2);
+            for (int i = 0; i < c.parametres.getDonateurs(); i++) {
+                Gazetteer.Lieu lieu = c.lieux.get(aleatoire.nextInt(c.lieux.size()));
+                ecrivain.ligne(c.idDonateur(i), adresse(lieu, aleatoire),
+                        lieu.getLatitude() + aleatoire.nextDouble(-0.05, 0.05),
+                        lieu.getLongitude() + aleatoire.nextDouble(-0.05, 0.05),
+                        LocalDate.of(1950 + aleatoire.nextInt(55), 1 + aleatoire.nextInt(12), 1 + aleatoire.nextInt(28)),
+                        choisir(PROFESSIONS, aleatoire));
+            }
+        });
+    }
+
+    private long chargerProjets(Contexte c) {
+        return chargementMasse.inserer("projets", List.of("id_projet", "titre", "description", "objectif",
+                "montant_demande", "montant_collecte", "date_debut", "date_fin", "statut", "priorite",
+                "date_creation", "id_association"), ecrivain -> {
+            SplittableRandom aleatoire = new SplittableRandom(c.graine + 3);
+            int associations = c.parametres.getAssociations();
+            for (int j = 0; j < c.parametres.getProjets(); j++) {
+                // Chaque association a au moins un projet, les suivants sont répartis au hasard
+                int association = j < associations ? j : aleatoire.nextInt(associations);
+                LocalDate debut = c.aujourdhui.minusDays(aleatoire.nextInt(c.joursHistorique + 180));
+                LocalDate fin = debut.plusDays(aleatoire.nextInt(90, 540));
+                c.debutProjet[j] = debut.toEpochDay();
+                c.finProjet[j] = fin.toEpochDay();
+
+                StatutProjet statut;
+                int tirage = aleatoire.nextInt(100);
+                if (fin.isBefore(c.aujourdhui)) {
+                    statut = tirage < 85 ? StatutProjet.TERMINE : tirage < 95 ? StatutProjet.ANNULE : StatutProjet.SUSPENDU;
+                } else {
+                    statut = tirage < 92 ? StatutProjet.EN_COURS : tirage < 97 ? StatutProjet.SUSPENDU : StatutProjet.ANNULE;
+                }
+                String objectif = choisir(OBJECTIFS, aleatoire);
+                String titre = choisir(ACTIONS, aleatoire) + " " + choisir(OBJETS, aleatoire)
+                        + " à " + c.villeAssociation[association];
+                double montantDemande = Math.round(Math.exp(aleatoire.nextDouble(Math.log(5_000), Math.log(500_000))) / 100) * 100.0;
+                ecrivain.ligne(c.idProjet(j), titre,
+                        "Projet porté par " + c.nomAssociation[association] + " (" + c.domaineAssociation[association]
+                                + ") : " + titre.toLowerCase() + ". " + objectif + " pour environ "
+                                + (50 + aleatoire.nextInt(2000)) + " bénéficiaires.",
+                        objectif, montantDemande, 0.0, debut, fin, statut, choisir(PRIORITES, aleatoire),
+                        debut.atTime(9, 0), c.idAssociation(association));
+            }
+        });
+    }
+
+    private long chargerDons(Contexte c) {
+        return chargementMasse.inserer("dons", List.of("id_don", "montant", "date", "message", "anonyme", "statut",
+                "date_creation", "id_donateur", "id_projet"), ecrivain -> parcourirDons(c, don ->
+                ligne(ecrivain, don.id, don.montant, don.date, don.message, don.anonyme, don.statut,
+                        don.dateCreation, c.idDonateur(don.donateur), c.idProjet(don.projet))));
+    }
+
+    private long chargerTransactions(Contexte c) {
+        return chargementMasse.inserer("transactions", List.of("id_transaction", "montant", "date_transaction",
+                "mode_payment", "reference_externe", "statut", "frais", "message_erreur", "id_don"), ecrivain -> {
+            long[] id = {c.premierIdTransaction};
+            parcourirDons(c, don -> {
+                StatutTransaction statut = switch (don.statut) {
+                    case VALIDE -> StatutTransaction.REUSSIE;
+                    case REFUSE -> StatutTransaction.ECHEC;
+                    case ANNULE -> StatutTransaction.ANNULE;
+                    case REMBOURSE -> StatutTransaction.REMBOURSE;
+                    case EN_ATTENTE -> StatutTransaction.EN_ATTENTE;
+                };
+                ligne(ecrivain, id[0]++, don.montant, don.dateCreation.plusMinutes(2),
+                        don.id % 5 < 2 ? "PayPal" : "CB", "CHG-" + c.campagne + "-" + don.id, statut,
+                        Math.round((don.montant * 0.029 + 0.30) * 100) / 100.0,
+                        statut == StatutTransaction.ECHEC ? "Paiement refusé par la banque" : null, don.id);
+            });
+        });
+    }
+
+    /**
+     * Tirer la suite des dons ; rejouée à l'identique (même graine) pour les dons puis leurs transactions
+     */
+    private void parcourirDons(Contexte c, Consumer<DonGenere> consommateur) {
+        SplittableRandom aleatoire = new SplittableRandom(c.graine + 4);
+        LoiZipf projets = new LoiZipf(c.parametres.getProjets(), c.parametres.getExposantProjets(), aleatoire);
+        LoiZipf donateurs = new LoiZipf(c.parametres.getDonateurs(), c.parametres.getExposantDonateurs(), aleatoire);
+        DonGenere don = new DonGenere();
+        for (int i = 0; i < c.parametres.getDons(); i++) {
+            don.id = c.premierIdDon + i;
+            // Le jour d'abord (saisonnalité), puis un projet ouvert ce jour-là selon sa popularité
+            long jour = c.tirerJour(aleatoire);
+            int essais = 0;
+            do {
+                don.projet = projets.tirer(aleatoire);
+            } while (!c.ouvert(don.projet, jour) && ++essais < ESSAIS_PROJET);
+            don.date = c.ouvert(don.projet, jour) ? LocalDate.ofEpochDay(jour) : c.jourDuProjet(don.projet, aleatoire);
+            don.donateur = donateurs.tirer(aleatoire);
+            // Montants log-normaux : médiane vers 200, quelques gros dons
+            don.montant = Math.max(10, Math.min(100_000, Math.round(Math.exp(Math.log(200) + aleatoire.nextGaussian()) / 10) * 10.0));
+            don.message = aleatoire.nextInt(4) == 0 ? choisir(MESSAGES, aleatoire) : null;
+            don.anonyme = aleatoire.nextInt(10) == 0;
+            don.statut = statut(c.aujourdhui.toEpochDay() - don.date.toEpochDay(), aleatoire.nextInt(100));
+            don.dateCreation = don.date.atTime(aleatoire.nextInt(7, 24), aleatoire.nextInt(60));
+            consommateur.accept(don);
+        }
+    }
+
+    /**
+     * Les dons de la dernière semaine sont souvent encore en attente de validation
+     */
+    private static StatutDon statut(long ageJours, int tirage) {
+        if (ageJours < 7) {
+            return tirage < 60 ? StatutDon.EN_ATTENTE : tirage < 95 ? StatutDon.VALIDE : StatutDon.REFUSE;
+        }
+        return tirage < 90 ? StatutDon.VALIDE : tirage < 95 ? StatutDon.REFUSE : tirage < 98 ? StatutDon.ANNULE : StatutDon.REMBOURSE;
+    }
+
+    // Les erreurs SQL des lignes remontent par le chargement (interrompu et annulé)
+    private static void ligne(ChargementMasse.Ecrivain ecrivain, Object... valeurs) {
+        try {
+            ecrivain.ligne(valeurs);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static String choisir(String[] valeurs, SplittableRandom aleatoire) {
+        return valeurs[aleatoire.nextInt(valeurs.length)];
+    }
+
+    private static String telephone(SplittableRandom aleatoire) {
+        return "06" + (10_000_000 + aleatoire.nextInt(90_000_000));
+    }
+
+    private static String adresse(Gazetteer.Lieu lieu, SplittableRandom aleatoire) {
+        return (1 + aleatoire.nextInt(200)) + " " + choisir(RUES, aleatoire) + ", " + lieu.getNom();
+    }
+
+    /**
+     * État d'une génération : identifiants réservés, lieux, dates des projets, calendrier des dons
+     */
+    private class Contexte {
+        private final Parametres parametres;
+        private final long graine;
+        private final String campagne = Long.toString(System.currentTimeMillis(), 36);
+        private final String motDePasse = passwordEncoder.encode(MOT_DE_PASSE);
+        private final List<Gazetteer.Lieu> lieux = gazetteer.getLieux();
+        private final LocalDate aujourdhui = LocalDate.now();
+        private final LocalDate debutHistorique;
+        private final int joursHistorique;
+
+        private final long premierIdUtilisateur = chargementMasse.prochainIdentifiant("utilisateurs", "id_utilisateur");
+        private final long premierIdProjet = chargementMasse.prochainIdentifiant("projets", "id_projet");
+        private final long premierIdDon = chargementMasse.prochainIdentifiant("dons", "id_don");
+        private final long premierIdTransaction = chargementMasse.prochainIdentifiant("transactions", "id_transaction");
+
+        private final String[] domaineAssociation;
+        private final String[] nomAssociation;
+        private final String[] villeAssociation;
+        private final long[] debutProjet;
+        private final long[] finProjet;
+
+        // Poids cumulés des jours de l'historique (saison × croissance)
+        private final double[] cumulJours;
+
+        private Contexte(Parametres parametres) {
+            this.parametres = parametres;
+            this.graine = parametres.getGraine();
+            this.debutHistorique = aujourdhui.minusMonths(parametres.getMoisHistorique());
+            this.joursHistorique = (int) (aujourdhui.toEpochDay() - debutHistorique.toEpochDay()) + 1;
+            if (lieux.isEmpty()) {
+                throw new BusinessException("Le gazetteer ne contient aucune ville");
+            }
+            domaineAssociation = new String[parametres.getAssociations()];
+            nomAssociation = new String[parametres.getAssociations()];
+            villeAssociation = new String[parametres.getAssociations()];
+            debutProjet = new long[parametres.getProjets()];
+            finProjet = new long[parametres.getProjets()];
+
+            cumulJours = new double[joursHistorique];
+            double total = 0;
+            for (int jour = 0; jour < joursHistorique; jour++) {
+                LocalDate date = debutHistorique.plusDays(jour);
+                total += SAISONNALITE[date.getMonthValue() - 1] * Math.pow(1 + CROISSANCE_MENSUELLE, jour / 30.0);
+                cumulJours[jour] = total;
+            }
+        }
+
+        private long idAssociation(int i) {
+            return premierIdUtilisateur + i;
+        }
+
+        private long idDonateur(int i) {
+            return premierIdUtilisateur + parametres.getAssociations() + i;
+        }
+
+        private long idProjet(int j) {
+            return premierIdProjet + j;
+        }
+
+        /**
+         * Jour de l'historique selon le calendrier (saison × croissance)
+         */
+        private long tirerJour(SplittableRandom aleatoire) {
+            double cible = aleatoire.nextDouble() * cumulJours[cumulJours.length - 1];
+            int jour = Arrays.binarySearch(cumulJours, cible);
+            return debutHistorique.toEpochDay() + (jour >= 0 ? jour : Math.min(-jour - 1, cumulJours.length - 1));
+        }
+
+        private boolean ouvert(int projet, long jour) {
+            return jour >= debutProjet[projet] && jour <= Math.min(finProjet[projet], aujourdhui.toEpochDay());
+        }
+
+        /**
+         * Jour uniforme dans la période du projet, bornée à aujourd'hui
+         */
+        private LocalDate jourDuProjet(int projet, SplittableRandom aleatoire) {
+            long dernier = Math.max(debutProjet[projet], Math.min(finProjet[projet], aujourdhui.toEpochDay()));
+            return LocalDate.ofEpochDay(debutProjet[projet] + aleatoire.nextLong(dernier - debutProjet[projet] + 1));
+        }
+    }
+
+    private static class DonGenere {
+        private long id;
+        private int projet;
+        private int donateur;
+        private LocalDate date;
+        private double montant;
+        private String message;
+        private boolean anonyme;
+        private StatutDon statut;
+        private LocalDateTime dateCreation;
+    }
+
+    /**
+     * Volumes et forme des données générées
+     */
+    public static class Parametres {
+        private final int donateurs;
+        private final int associations;
+        private final int projets;
+        private final int dons;
+        private final double exposantProjets;
+        private final double exposantDonateurs;
+        private final int moisHistorique;
+        private final long graine;
+
+        public Parametres(int donateurs, int associations, int projets, int dons,
+                          double exposantProjets, double exposantDonateurs, int moisHistorique, long graine) {
+            this.donateurs = donateurs;
+            this.associations = associations;
+            this.projets = projets;
+            this.dons = dons;
+            this.exposantProjets = exposantProjets;
+            this.exposantDonateurs = exposantDonateurs;
+            this.moisHistorique = moisHistorique;
+            this.graine = graine;
+        }
+
+        private void valider() {
+            if (donateurs <= 0 || associations <= 0 || projets <= 0 || dons < 0 || moisHistorique <= 0) {
+                throw new BusinessException("Les volumes et l'historique doivent être positifs");
+            }
+            if (exposantProjets < 0 || exposantDonateurs < 0) {
+                throw new BusinessException("Les exposants de Zipf doivent être positifs");
+            }
+        }
+
+        public int getDonateurs() { return donateurs; }
+        public int getAssociations() { return associations; }
+        public int getProjets() { return projets; }
+        public int getDons() { return dons; }
+        public double getExposantProjets() { return exposantProjets; }
+        public double getExposantDonateurs() { return exposantDonateurs; }
+        public int getMoisHistorique() { return moisHistorique; }
+        public long getGraine() { return graine; }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mediation.platform.benchmark;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Tirage d'un indice dans [0, n) selon une loi de Zipf d'exposant s : le k-ième élément le plus
+ * populaire a un poids 1 / k^s. Les rangs sont répartis au hasard sur les indices (les éléments
+ * populaires ne sont pas les premiers créés). Tirage par recherche dichotomique, O(log n).
+ */
+public class LoiZipf {
+
+    private final double[] cumul;
+    private final int[] indiceParRang;
+
+    public LoiZipf(int n, double exposant, RandomGenerator aleatoire) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("La loi de Zipf demande au moins un élément");
+        }
+        cumul = new double[n];
+        double total = 0;
+        for (int rang = 0; rang < n; rang++) {
+            total += 1.0 / Math.pow(rang + 1, exposant);
+            cumul[rang] = total;
+        }
+        indiceParRang = new int[n];
+        for (int i = 0; i < n; i++) {
+            indiceParRang[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = aleatoire.nextInt(i + 1);
+            int echange = indiceParRang[i];
+            indiceParRang[i] = indiceParRang[j];
+            indiceParRang[j] = echange;
+        }
+    }
+
+    public int tirer(RandomGenerator aleatoire) {
+        double cible = aleatoire.nextDouble() * cumul[cumul.length - 1];
+        int rang = Arrays.binarySearch(cumul, cible);
+        rang = rang >= 0 ? rang : Math.min(-rang - 1, cumul.length - 1);
+        return indiceParRang[rang];
+    }
+
+    /**
+     * Indice de l'élément de rang donné (0 = le plus populaire)
+     */
+    public int indiceDuRang(int rang) {
+        return indiceParRang[rang];
+    }
+}
@@ -0,0 +1,342 @@
+package com.mediation.platform.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediation.platform.exception.BusinessException;
+import com.mediation.platform.monitoring.HistogrammeLatence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scénario de charge HTTP (profil charge) contre l'API, locale ou distante, sur les données
+ * du générateur : chaque utilisateur virtuel enchaîne des visites (connexion, liste, facettes,
+ * recherche, détail d'un projet, don) ; le don est validé par l'administrateur et le tableau
+ * de bord consulté toutes les N visites. Latences (p50/p95/p99/max) et erreurs par étape.
+ */
+@Service
+@Profile("charge")
+public class ScenarioCharge {
+
+    private static final Duration DELAI_REQUETE = Duration.ofSeconds(30);
+    private static final int DONATEURS_MAX = 10_000;
+
+    public enum Etape {
+        CONNEXION,
+        LISTE_PROJETS,
+        FACETTES,
+        RECHERCHE,
+        DETAIL_PROJET,
+        DON,
+        VALIDATION,
+        TABLEAU_DE_BORD
+    }
+
+    @Autowired
+    private GenerateurDonnees generateurDonnees;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.charge.generer-au-demarrage:false}")
+    private boolean genererAuDemarrage;
+
+    @Value("${app.charge.scenario.utilisateurs:8}")
+    private int utilisateursParDefaut;
+
+    @Value("${app.charge.scenario.duree-secondes:0}")
+    private int dureeAuDemarrage;
+
+    @Value("${app.charge.scenario.tableau-de-bord-toutes-les:20}")
+    private int tableauDeBordToutesLes;
+
+    @Value("${app.charge.scenario.pause-ms:0}")
+    private long pauseMs;
+
+    // Vide : l'application elle-même (port local et context-path)
+    @Value("${app.charge.scenario.url:}")
+    private String urlCible;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final AtomicBoolean enCours = new AtomicBoolean(false);
+
+    /**
+     * Génération des données puis scénario, selon app.charge.generer-au-demarrage et
+     * app.charge.scenario.duree-secondes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void executerAuDemarrage() {
+        try {
+            if (genererAuDemarrage) {
+                generateurDonnees.generer(generateurDonnees.parametresParDefaut());
+            }
+            if (dureeAuDemarrage > 0) {
+                executer(utilisateursParDefaut, dureeAuDemarrage);
+            }
+        } catch (Exception e) {
+            System.err.println("Erreur test de charge au démarrage: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lancer le scénario pendant la durée donnée ; un seul à la fois
+     */
+    public Map<String, Object> executer(int utilisateurs, int dureeSecondes) {
+        if (utilisateurs <= 0 || dureeSecondes <= 0) {
+            throw new BusinessException("Le nombre d'utilisateurs et la durée doivent être positifs");
+        }
+        if (!enCours.compareAndSet(false, true)) {
+            throw new BusinessException("Un test de charge est déjà en cours");
+        }
+
+        try {
+            return mesurer(utilisateurs, dureeSecondes);
+        } finally {
+            enCours.set(false);
+        }
+    }
+
+    private Map<String, Object> mesurer(int utilisateurs, int dureeSecondes) {
+        String base = urlDeBase();
+        List<String> donateurs = jdbcTemplate.queryForList(
+                "SELECT u.email FROM utilisateurs u JOIN donateurs d ON d.id_utilisateur = u.id_utilisateur "
+                        + "WHERE u.statut = 'ACTIF' AND u.email LIKE ? ORDER BY u.id_utilisateur LIMIT " + DONATEURS_MAX,
+                String.class, "%" + GenerateurDonnees.DOMAINE_EMAIL);
+        List<Long> projets = jdbcTemplate.queryForList(
+                "SELECT p.id_projet FROM projets p JOIN associations a ON a.id_utilisateur = p.id_association "
+                        + "WHERE p.statut = 'EN_COURS' AND a.statut_validation = TRUE "
+                        + "AND (p.date_fin IS NULL OR p.date_fin >= ?) ORDER BY p.id_projet",
+                Long.class, LocalDate.now());
+        if (donateurs.isEmpty() || projets.isEmpty()) {
+            throw new BusinessException("Aucune donnée générée : lancer d'abord la génération");
+        }
+
+        Map<Etape, Mesure> mesures = new LinkedHashMap<>();
+        for (Etape etape : Etape.values()) {
+            mesures.put(etape, new Mesure());
+        }
+        String jetonAdministrateur = connecter(base, GenerateurDonnees.EMAIL_ADMINISTRATEUR, mesures.get(Etape.CONNEXION));
+        if (jetonAdministrateur == null) {
+            throw new BusinessException("Connexion de l'administrateur " + GenerateurDonnees.EMAIL_ADMINISTRATEUR + " impossible");
+        }
+
+        // Donateurs et projets les plus actifs d'abord, comme dans les données générées
+        SplittableRandom graine = new SplittableRandom(generateurDonnees.parametresParDefaut().getGraine());
+        LoiZipf loiProjets = new LoiZipf(projets.size(), generateurDonnees.parametresParDefaut().getExposantProjets(), graine);
+        LoiZipf loiDonateurs = new LoiZipf(donateurs.size(), generateurDonnees.parametresParDefaut().getExposantDonateurs(), graine);
+
+        AtomicLong visites = new AtomicLong();
+        long debut = System.nanoTime();
+        long fin = debut + TimeUnit.SECONDS.toNanos(dureeSecondes);
+        ExecutorService executeur = Executors.newFixedThreadPool(utilisateurs);
+        for (int u = 0; u < utilisateurs; u++) {
+            SplittableRandom aleatoire = graine.split();
+            executeur.submit(() -> {
+                while (System.nanoTime() < fin) {
+                    long numero = visites.incrementAndGet();
+                    visiter(base, donateurs.get(loiDonateurs.tirer(aleatoire)), projets.get(loiProjets.tirer(aleatoire)),
+                            numero % tableauDeBordToutesLes == 0, jetonAdministrateur, aleatoire, mesures);
+                    if (pauseMs > 0) {
+                        try {
+                            Thread.sleep(pauseMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+            });
+        }
+        executeur.shutdown();
+        try {
+            if (!executeur.awaitTermination(dureeSecondes + DELAI_REQUETE.toSeconds() * Etape.values().length, TimeUnit.SECONDS)) {
+                executeur.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executeur.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("url", base);
+        resultat.put("utilisateurs", utilisateurs);
+        resultat.put("dureeSecondes", Math.round(secondes * 10) / 10.0);
+        resultat.put("visites", visites.get());
+        long requetes = 0;
+        long erreurs = 0;
+        Map<String, Object> etapes = new LinkedHashMap<>();
+        for (Map.Entry<Etape, Mesure> entree : mesures.entrySet()) {
+            Mesure mesure = entree.getValue();
+            requetes += mesure.latence.getNombre();
+            erreurs += mesure.erreurs.sum();
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("requetes", mesure.latence.getNombre());
+            detail.put("erreurs", mesure.erreurs.sum());
+            detail.put("derniereErreur", mesure.derniereErreur);
+            detail.put("latence", mesure.latence.toMap());
+            etapes.put(entree.getKey().name(), detail);
+        }
+        resultat.put("requetes", requetes);
+        resultat.put("erreurs", erreurs);
+        resultat.put("requetesParSeconde", Math.round(requetes / secondes * 10) / 10.0);
+        resultat.put("visitesParSeconde", Math.round(visites.get() / secondes * 10) / 10.0);
+        resultat.put("etapes", etapes);
+        System.out.println(resumer(resultat, mesures));
+        return resultat;
+    }
+
+    /**
+     * Une visite : connexion du donateur, navigation, détail et don ; validation par l'administrateur
+     * puis, si demandé, consultation du tableau de bord
+     */
+    private void visiter(String base, String email, Long idProjet, boolean tableauDeBord, String jetonAdministrateur,
+                         SplittableRandom aleatoire, Map<Etape, Mesure> mesures) {
+        String jeton = connecter(base, email, mesures.get(Etape.CONNEXION));
+        if (jeton == null) {
+            return;
+        }
+        appeler(get(base + "/projets", null), mesures.get(Etape.LISTE_PROJETS));
+        appeler(get(base + "/projets/facettes?statut=EN_COURS&priorite=HAUTE", null), mesures.get(Etape.FACETTES));
+        String terme = GenerateurDonnees.TERMES_RECHERCHE.get(aleatoire.nextInt(GenerateurDonnees.TERMES_RECHERCHE.size()));
+        appeler(get(base + "/projets/recherche-texte?q=" + URLEncoder.encode(terme, StandardCharsets.UTF_8), null),
+                mesures.get(Etape.RECHERCHE));
+        appeler(get(base + "/projets/" + idProjet, null), mesures.get(Etape.DETAIL_PROJET));
+
+        Map<String, Object> don = new LinkedHashMap<>();
+        don.put("montant", Math.max(10, Math.round(Math.exp(Math.log(200) + aleatoire.nextGaussian()) / 10) * 10.0));
+        don.put("idProjet", idProjet);
+        don.put("anonyme", aleatoire.nextInt(10) == 0);
+        don.put("message", aleatoire.nextInt(4) == 0 ? "Test de charge" : null);
+        JsonNode cree = appeler(post(base + "/dons", jeton, don), mesures.get(Etape.DON));
+        if (cree != null && cree.path("data").hasNonNull("idDon")) {
+            appeler(post(base + "/dons/" + cree.path("data").path("idDon").asLong() + "/valider", jetonAdministrateur, null),
+                    mesures.get(Etape.VALIDATION));
+        }
+        if (tableauDeBord) {
+            appeler(get(base + "/statistiques/tableau-de-bord", jetonAdministrateur), mesures.get(Etape.TABLEAU_DE_BORD));
+        }
+    }
+
+    private String connecter(String base, String email, Mesure mesure) {
+        Map<String, Object> corps = Map.of("email", email, "motDePasse", GenerateurDonnees.MOT_DE_PASSE);
+        JsonNode reponse = appeler(post(base + "/auth/login", null, corps), mesure);
+        return reponse != null && reponse.path("data").hasNonNull("token") ? reponse.path("data").path("token").asText() : null;
+    }
+
+    /**
+     * Envoyer une requête et mesurer sa durée jusqu'au corps complet ; null si erreur (statut >= 400)
+     */
+    private JsonNode appeler(HttpRequest requete, Mesure mesure) {
+        long debut = System.nanoTime();
+        try {
+            HttpResponse<byte[]> reponse = client.send(requete, HttpResponse.BodyHandlers.ofByteArray());
+            mesure.latence.enregistrer(System.nanoTime() - debut);
+            if (reponse.statusCode() >= 400) {
+                mesure.erreur(requete.method() + " " + requete.uri().getPath() + " -> " + reponse.statusCode());
+                return null;
+            }
+            return reponse.body().length > 0 ? objectMapper.readTree(reponse.body()) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            mesure.erreur("interrompu");
+            return null;
+        } catch (Exception e) {
+            mesure.latence.enregistrer(System.nanoTime() - debut);
+            mesure.erreur(requete.method() + " " + requete.uri().getPath() + " -> " + e.getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    private HttpRequest get(String url, String jeton) {
+        HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create(url)).timeout(DELAI_REQUETE).GET();
+        if (jeton != null) {
+            requete.header("Authorization", "Bearer " + jeton);
+        }
+        return requete.build();
+    }
+
+    private HttpRequest post(String url, String jeton, Object corps) {
+        try {
+            HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create(url)).timeout(DELAI_REQUETE)
+                    .header("Content-Type", "application/json")
+                    .POST(corps != null
+                            ? HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(corps))
+                            : HttpRequest.BodyPublishers.noBody());
+            if (jeton != null) {
+                requete.header("Authorization", "Bearer " + jeton);
+            }
+            return requete.build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Corps de requête invalide pour " + url, e);
+        }
+    }
+
+    private String urlDeBase() {
+        if (urlCible != null && !urlCible.isBlank()) {
+            return urlCible.endsWith("/") ? urlCible.substring(0, urlCible.length() - 1) : urlCible;
+        }
+        String port = environment.getProperty("local.server.port", environment.getProperty("server.port", "8080"));
+        return "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+    }
+
+    private static String resumer(Map<String, Object> resultat, Map<Etape, Mesure> mesures) {
+        StringBuilder ligne = new StringBuilder("[charge] scenario utilisateurs=").append(resultat.get("utilisateurs"))
+                .append(" dureeS=").append(resultat.get("dureeSecondes"))
+                .append(" visites=").append(resultat.get("visites"))
+                .append(" req/s=").append(resultat.get("requetesParSeconde"))
+                .append(" erreurs=").append(resultat.get("erreurs"));
+        mesures.forEach((etape, mesure) -> {
+            if (mesure.latence.getNombre() > 0) {
+                ligne.append(' ').append(etape.name().toLowerCase()).append(".p95Ms=")
+                        .append(mesure.latence.getPercentileMs(0.95));
+            }
+        });
+        return ligne.toString();
+    }
+
+    private static class Mesure {
+        private final HistogrammeLatence latence = new HistogrammeLatence();
+        private final LongAdder erreurs = new LongAdder();
+        private volatile String derniereErreur;
+
+        private void erreur(String description) {
+            erreurs.increment();
+            derniereErreur = description;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.mediation.platform.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Serveur SMTP minimal en mémoire (profil smtp-local) : accepte tous les messages
+ * sans authentification ni TLS, les compte et conserve les derniers reçus.
+ * Sert à mesurer les chemins d'envoi d'email hors ligne, sans relais réel.
+ */
+public class ServeurSmtpLocal {
+
+    private final int portDemande;
+    private final int capaciteBoite;
+    private final boolean conserverContenu;
+
+    private final ConcurrentLinkedDeque<MessageRecu> derniersMessages = new ConcurrentLinkedDeque<>();
+    private final List<Consumer<MessageRecu>> ecouteurs = new CopyOnWriteArrayList<>();
+    private final LongAdder messagesRecus = new LongAdder();
+    private final LongAdder connexions = new LongAdder();
+    private final AtomicInteger tailleBoite = new AtomicInteger();
+
+    private ServerSocket serveur;
+    private ExecutorService sessions;
+    private Thread accepteur;
+    private volatile boolean actif;
+
+    public ServeurSmtpLocal(int port, int capaciteBoite, boolean conserverContenu) {
+        this.portDemande = port;
+        this.capaciteBoite = capaciteBoite;
+        this.conserverContenu = conserverContenu;
+    }
+
+    /**
+     * Démarrer l'écoute sur 127.0.0.1 (port 0 = port libre choisi par le système)
+     */
+    public synchronized void demarrer() throws IOException {
+        if (actif) {
+            return;
+        }
+        serveur = new ServerSocket(portDemande, 200, InetAddress.getLoopbackAddress());
+        AtomicInteger numero = new AtomicInteger();
+        sessions = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "smtp-local-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        actif = true;
+
+        accepteur = new Thread(this::accepter, "smtp-local-accept");
+        accepteur.setDaemon(true);
+        accepteur.start();
+        System.out.println("Serveur SMTP local démarré sur 127.0.0.1:" + getPort());
+    }
+
+    public synchronized void arreter() {
+        actif = false;
+        try {
+            if (serveur != null) {
+                serveur.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur arrêt serveur SMTP local: " + e.getMessage());
+        }
+        if (sessions != null) {
+            sessions.shutdownNow();
+        }
+    }
+
+    public int getPort() {
+        return serveur != null ? serveur.getLocalPort() : portDemande;
+    }
+
+    public long getNombreMessagesRecus() {
+        return messagesRecus.sum();
+    }
+
+    public long getNombreConnexions() {
+        return connexions.sum();
+    }
+
+    /**
+     * Derniers messages reçus, du plus récent au plus ancien
+     */
+    public List<MessageRecu> getDerniersMessages(int limite) {
+        List<MessageRecu> resultat = new ArrayList<>(Math.min(limite, capaciteBoite));
+        for (MessageRecu message : derniersMessages) {
+            if (resultat.size() >= limite) {
+                break;
+            }
+            resultat.add(message);
+        }
+        return resultat;
+    }
+
+    public void viderBoite() {
+        derniersMessages.clear();
+        tailleBoite.set(0);
+    }
+
+    public void ajouterEcouteur(Consumer<MessageRecu> ecouteur) {
+        ecouteurs.add(ecouteur);
+    }
+
+    public void retirerEcouteur(Consumer<MessageRecu> ecouteur) {
+        ecouteurs.remove(ecouteur);
+    }
+
+    private void accepter() {
+        while (actif) {
+            try {
+                Socket socket = serveur.accept();
+                connexions.increment();
+                sessions.execute(() -> traiterSession(socket));
+            } catch (SocketException e) {
+                // Fermeture du serveur
+            } catch (Exception e) {
+                if (actif) {
+                    System.err.println("Erreur connexion SMTP local: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void traiterSession(Socket socket) {
+        try (socket;
+             BufferedReader entree = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+             OutputStream sortie = socket.getOutputStream()) {
+
+            repondre(sortie, "220 localhost ESMTP smtp-local");
+
+            String expediteur = null;
+            List<String> destinataires = new ArrayList<>();
+            String ligne;
+
+            while ((ligne = entree.readLine()) != null) {
+                String commande = ligne.length() >= 4 ? ligne.substring(0, 4).toUpperCase(Locale.ROOT) : ligne.toUpperCase(Locale.ROOT);
+
+                switch (commande) {
+                    case "EHLO" -> repondre(sortie, "250-localhost\r\n250 HELP");
+                    case "HELO", "NOOP" -> repondre(sortie, "250 OK");
+                    case "MAIL" -> {
+                        expediteur = extraireAdresse(ligne);
+                        destinataires = new ArrayList<>();
+                        repondre(sortie, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        destinataires.add(extraireAdresse(ligne));
+                        repondre(sortie, "250 OK");
+                    }
+                    case "DATA" -> {
+                        repondre(sortie, "354 End data with <CR><LF>.<CR><LF>");
+                        String contenu = lireDonnees(entree);
+                        enregistrer(new MessageRecu(expediteur, Collections.unmodifiableList(destinataires),
+                                conserverContenu ? contenu : null, contenu.length(),
+                                System.nanoTime(), LocalDateTime.now()));
+                        expediteur = null;
+                        destinataires = new ArrayList<>();
+                        repondre(sortie, "250 OK queued");
+                    }
+                    case "RSET" -> {
+                        expediteur = null;
+                        destinataires = new ArrayList<>();
+                        repondre(sortie, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        repondre(sortie, "221 Bye");
+                        return;
+                    }
+                    default -> repondre(sortie, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            if (actif) {
+                System.err.println("Erreur session SMTP local: " + e.getMessage());
+            }
+        }
+    }
+
+    private String lireDonnees(BufferedReader entree) throws IOException {
+        StringBuilder contenu = new StringBuilder(2048);
+        String ligne;
+        while ((ligne = entree.readLine()) != null && !ligne.equals(".")) {
+            // Transparence SMTP (RFC 5321 §4.5.2) : un point initial doublé est retiré
+            contenu.append(ligne.startsWith("..") ? ligne.substring(1) : ligne).append("\r\n");
+        }
+        return contenu.toString();
+    }
+
+    private void enregistrer(MessageRecu message) {
+        messagesRecus.increment();
+
+        derniersMessages.addFirst(message);
+        if (tailleBoite.incrementAndGet() > capaciteBoite && derniersMessages.pollLast() != null) {
+            tailleBoite.decrementAndGet();
+        }
+
+        for (Consumer<MessageRecu> ecouteur : ecouteurs) {
+            try {
+                ecouteur.accept(message);
+            } catch (Exception e) {
+                System.err.println("Erreur écouteur SMTP local: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String extraireAdresse(String ligne) {
+        int debut = ligne.indexOf('<');
+        int fin = ligne.indexOf('>', debut + 1);
+        if (debut >= 0 && fin > debut) {
+            return ligne.substring(debut + 1, fin).trim().toLowerCase(Locale.ROOT);
+        }
+        int deuxPoints = ligne.indexOf(':');
+        return deuxPoints >= 0 ? ligne.substring(deuxPoints + 1).trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static void repondre(OutputStream sortie, String reponse) throws IOException {
+        sortie.write((reponse + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        sortie.flush();
+    }
+
+    /**
+     * Message accepté par le serveur (contenu absent si la conservation est désactivée)
+     */
+    public record MessageRecu(String expediteur, List<String> destinataires, String contenu,
+                              int taille, long recuNanos, LocalDateTime recuLe) {
+    }
+}
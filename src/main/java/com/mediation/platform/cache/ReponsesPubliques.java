@@ -0,0 +1,147 @@
+package com.mediation.platform.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mediation.platform.dto.response.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Réponses HTTP conditionnelles des GET publics : 304 si l'ETag ou la date du client
+ * sont à jour, sinon corps JSON. Les collections les plus consultées sont sérialisées
+ * une seule fois par version et servies telles quelles depuis un cache borné.
+ */
+@Component
+public class ReponsesPubliques {
+
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.cache.http.max-age-secondes:10}")
+    private long maxAgeSecondes;
+
+    @Value("${app.cache.http.entrees:100}")
+    private long entrees;
+
+    private Cache<String, byte[]> rendus;
+
+    @PostConstruct
+    public void initialiser() {
+        rendus = Caffeine.newBuilder()
+                .maximumSize(entrees)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Réponse d'une collection : ETag et Last-Modified issus des versions, corps mis en cache
+     * sous la clé et l'ETag (une version périmée n'est plus jamais demandée et sort du cache)
+     */
+    public ResponseEntity<?> collection(WebRequest requete, String cle, String message,
+                                        Supplier<?> calcul, String... collections) {
+        // Version lue avant le calcul : une écriture concurrente ne peut qu'invalider l'entrée
+        String etag = versionsPubliques.etag(collections);
+        long derniereModification = versionsPubliques.derniereModification(collections);
+        if (requete.checkNotModified(etag, derniereModification)) {
+            return nonModifie(etag);
+        }
+
+        byte[] corps = rendus.get(cle + "@" + etag, k -> serialiser(ApiResponse.success(message, calcul.get())));
+        return json(etag, derniereModification, corps);
+    }
+
+    /**
+     * Réponse d'un corps JSON déjà sérialisé (instantané calculé en arrière-plan)
+     */
+    public ResponseEntity<?> instantane(WebRequest requete, String etag, long derniereModification, byte[] corps) {
+        if (requete.checkNotModified(etag, derniereModification)) {
+            return nonModifie(etag);
+        }
+        return json(etag, derniereModification, corps);
+    }
+
+    /**
+     * Réponse d'un élément. L'ETag vient d'un validateur lu à peu de frais : dates de modification
+     * de l'élément et de ce qu'il reprend (Last-Modified), totaux tenus en colonne, nombres d'enfants.
+     * L'élément n'est chargé que si le client n'est pas à jour, puis sérialisé une fois par ETag
+     */
+    public ResponseEntity<?> element(WebRequest requete, String type, Long id, String message,
+                                     Object[] validateur, Supplier<?> chargement) {
+        long derniereModification = 0;
+        StringBuilder jeton = new StringBuilder();
+        for (Object valeur : validateur) {
+            if (valeur instanceof LocalDateTime date) {
+                derniereModification = Math.max(derniereModification,
+                        date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            } else {
+                jeton.append('.').append(valeur);
+            }
+        }
+        String etag = "\"" + type + "-" + id + "-" + Long.toString(derniereModification, 36) + jeton + "\"";
+        if (requete.checkNotModified(etag, derniereModification)) {
+            return nonModifie(etag);
+        }
+
+        byte[] corps = rendus.get(etag, k -> serialiser(ApiResponse.success(message, chargement.get())));
+        return json(etag, derniereModification, corps);
+    }
+
+    public Map<String, Object> getStatistiques() {
+        CacheStats stats = rendus.stats();
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("entrees", rendus.estimatedSize());
+        resultat.put("succes", stats.hitCount());
+        resultat.put("echecs", stats.missCount());
+        resultat.put("tauxSucces", Math.round(stats.hitRate() * 1000.0) / 10.0);
+        return resultat;
+    }
+
+    /**
+     * Sérialiser une réponse une fois pour la servir ensuite octet pour octet
+     */
+    public byte[] serialiser(Object corps) {
+        try {
+            return objectMapper.writeValueAsBytes(corps);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<?> json(String etag, long derniereModification, byte[] corps) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(derniereModification)
+                .cacheControl(cacheControl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(corps);
+    }
+
+    private ResponseEntity<?> nonModifie(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl()).build();
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSecondes)).cachePublic();
+    }
+}
@@ -0,0 +1,90 @@
+package com.mediation.platform.cache;
+
+import com.mediation.platform.recherche.ApresCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Numéro de version et date de dernière modification de chaque collection publique,
+ * incrémentés après la validation de toute écriture qui la concerne. Ils servent
+ * d'ETag et de Last-Modified aux réponses publiques.
+ */
+@Component
+public class VersionsPubliques {
+
+    public static final String PROJETS = "projets";
+    public static final String ASSOCIATIONS = "associations";
+    public static final String DONS = "dons";
+
+    // Distingue les versions d'un démarrage à l'autre (les compteurs repartent de zéro)
+    private final String demarrage = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Etat> etats = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> ecouteurs = new CopyOnWriteArrayList<>();
+
+    /**
+     * Signaler une modification des collections, prise en compte au commit
+     */
+    public void incrementer(String... collections) {
+        ApresCommit.executer(() -> {
+            for (String collection : collections) {
+                etat(collection).incrementer();
+                for (Consumer<String> ecouteur : ecouteurs) {
+                    ecouteur.accept(collection);
+                }
+            }
+        });
+    }
+
+    /**
+     * Être prévenu (après commit, dans le thread de l'écriture) de chaque collection modifiée
+     */
+    public void ecouter(Consumer<String> ecouteur) {
+        ecouteurs.add(ecouteur);
+    }
+
+    /**
+     * ETag fort d'une combinaison de collections, ex. "projets.12-associations.3-lq2x1c"
+     */
+    public String etag(String... collections) {
+        StringBuilder etag = new StringBuilder("\"");
+        for (String collection : collections) {
+            etag.append(collection).append('.').append(etat(collection).version.get()).append('-');
+        }
+        return etag.append(demarrage).append('"').toString();
+    }
+
+    /**
+     * Date (ms) de la modification la plus récente parmi les collections
+     */
+    public long derniereModification(String... collections) {
+        long derniere = 0;
+        for (String collection : collections) {
+            derniere = Math.max(derniere, etat(collection).modification);
+        }
+        return derniere;
+    }
+
+    public long getVersion(String collection) {
+        return etat(collection).version.get();
+    }
+
+    private Etat etat(String collection) {
+        return etats.computeIfAbsent(collection, c -> new Etat());
+    }
+
+    private static final class Etat {
+        final AtomicLong version = new AtomicLong();
+        volatile long modification = System.currentTimeMillis();
+
+        void incrementer() {
+            modification = System.currentTimeMillis();
+            version.incrementAndGet();
+        }
+    }
+}
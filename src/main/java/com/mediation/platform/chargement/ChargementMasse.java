@@ -0,0 +1,209 @@
+package com.mediation.platform.chargement;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Écriture en masse de lignes produites au fil de l'eau, sans passer par JPA ni garder les
+ * lignes en mémoire : COPY ... FROM STDIN (format CSV) sur PostgreSQL, INSERT par lots JDBC
+ * sur les autres bases (H2). Chaque table est chargée sur sa propre connexion et validée
+ * en une fois ; les identifiants sont fournis par l'appelant puis les séquences recalées.
+ */
+@Component
+public class ChargementMasse {
+
+    // Taille du tampon CSV envoyé au serveur pendant un COPY
+    private static final int TAMPON_COPY = 64 * 1024;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.chargement.taille-lot:1000}")
+    private int tailleLot;
+
+    // false : INSERT par lots même sur PostgreSQL (comparaison des deux modes)
+    @Value("${app.chargement.copy:true}")
+    private boolean copyAutorise;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Reçoit les lignes d'une table, valeurs dans l'ordre des colonnes
+     */
+    public interface Ecrivain {
+        void ligne(Object... valeurs) throws SQLException;
+    }
+
+    /**
+     * Produit toutes les lignes d'une table
+     */
+    public interface Producteur {
+        void produire(Ecrivain ecrivain) throws Exception;
+    }
+
+    /**
+     * Charger une table ; tout ou rien (annulé à la première erreur). Nombre de lignes écrites
+     */
+    public long inserer(String table, List<String> colonnes, Producteur producteur) {
+        long debut = System.currentTimeMillis();
+        boolean copy = copyAutorise && estPostgres();
+        try (Connection connexion = dataSource.getConnection()) {
+            boolean autoCommit = connexion.getAutoCommit();
+            connexion.setAutoCommit(false);
+            try {
+                long lignes = copy
+                        ? copier(connexion, table, colonnes, producteur)
+                        : insererParLots(connexion, table, colonnes, producteur);
+                connexion.commit();
+                System.out.println("CHARGEMENT table=" + table + " lignes=" + lignes
+                        + " mode=" + (copy ? "copy" : "lots") + " dureeMs=" + (System.currentTimeMillis() - debut));
+                return lignes;
+            } catch (Exception e) {
+                connexion.rollback();
+                throw new IllegalStateException("Chargement de la table " + table + " interrompu : " + e.getMessage(), e);
+            } finally {
+                connexion.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Connexion impossible pour charger la table " + table, e);
+        }
+    }
+
+    /**
+     * Premier identifiant libre d'une table (les lignes chargées prennent les suivants)
+     */
+    public long prochainIdentifiant(String table, String colonne) {
+        Long maximum = jdbcTemplate.queryForObject(
+                "SELECT coalesce(max(" + colonne + "), 0) FROM " + table, Long.class);
+        return (maximum != null ? maximum : 0) + 1;
+    }
+
+    /**
+     * Recaler la génération d'identifiants après un chargement à identifiants explicites
+     */
+    public void reprendreIdentifiants(String table, String colonne) {
+        long suivant = prochainIdentifiant(table, colonne);
+        if (estPostgres()) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, ?), ?, false)",
+                    Long.class, table, colonne, suivant);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + colonne + " RESTART WITH " + suivant);
+        }
+    }
+
+    public boolean estPostgres() {
+        if (postgres == null) {
+            try (Connection connexion = dataSource.getConnection()) {
+                postgres = "PostgreSQL".equalsIgnoreCase(connexion.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                throw new IllegalStateException("Base de données inaccessible", e);
+            }
+        }
+        return postgres;
+    }
+
+    private long copier(Connection connexion, String table, List<String> colonnes, Producteur producteur) throws Exception {
+        CopyIn flux = connexion.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                "COPY " + table + " (" + String.join(", ", colonnes) + ") FROM STDIN WITH (FORMAT csv)");
+        try {
+            StringBuilder tampon = new StringBuilder(TAMPON_COPY + 1024);
+            long[] lignes = {0};
+            producteur.produire(valeurs -> {
+                verifierNombre(table, colonnes, valeurs);
+                for (int i = 0; i < valeurs.length; i++) {
+                    if (i > 0) {
+                        tampon.append(',');
+                    }
+                    ecrireCsv(tampon, valeurs[i]);
+                }
+                tampon.append('\n');
+                lignes[0]++;
+                if (tampon.length() >= TAMPON_COPY) {
+                    envoyer(flux, tampon);
+                }
+            });
+            envoyer(flux, tampon);
+            flux.endCopy();
+            return lignes[0];
+        } finally {
+            if (flux.isActive()) {
+                flux.cancelCopy();
+            }
+        }
+    }
+
+    private long insererParLots(Connection connexion, String table, List<String> colonnes, Producteur producteur) throws Exception {
+        String requete = "INSERT INTO " + table + " (" + String.join(", ", colonnes) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(colonnes.size(), "?")) + ")";
+        try (PreparedStatement insertion = connexion.prepareStatement(requete)) {
+            long[] lignes = {0};
+            producteur.produire(valeurs -> {
+                verifierNombre(table, colonnes, valeurs);
+                for (int i = 0; i < valeurs.length; i++) {
+                    insertion.setObject(i + 1, valeurs[i] instanceof Enum<?> e ? e.name() : valeurs[i]);
+                }
+                insertion.addBatch();
+                if (++lignes[0] % tailleLot == 0) {
+                    insertion.executeBatch();
+                }
+            });
+            insertion.executeBatch();
+            return lignes[0];
+        }
+    }
+
+    private static void envoyer(CopyIn flux, StringBuilder tampon) throws SQLException {
+        if (tampon.length() > 0) {
+            byte[] octets = tampon.toString().getBytes(StandardCharsets.UTF_8);
+            flux.writeToCopy(octets, 0, octets.length);
+            tampon.setLength(0);
+        }
+    }
+
+    /**
+     * Valeur CSV pour COPY : vide non guillemeté = NULL, texte toujours entre guillemets
+     * (une chaîne vide reste une chaîne vide), dates au format ISO
+     */
+    static void ecrireCsv(StringBuilder tampon, Object valeur) {
+        if (valeur == null) {
+            return;
+        }
+        if (valeur instanceof Enum<?> e) {
+            tampon.append(e.name());
+        } else if (valeur instanceof CharSequence texte) {
+            tampon.append('"');
+            for (int i = 0; i < texte.length(); i++) {
+                char c = texte.charAt(i);
+                if (c == '"') {
+                    tampon.append('"');
+                }
+                tampon.append(c);
+            }
+            tampon.append('"');
+        } else {
+            tampon.append(valeur);
+        }
+    }
+
+    private static void verifierNombre(String table, List<String> colonnes, Object[] valeurs) {
+        if (valeurs.length != colonnes.size()) {
+            throw new IllegalArgumentException("Ligne de " + valeurs.length + " valeurs pour "
+                    + colonnes.size() + " colonnes de " + table);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.mediation.platform.chargement;
+
+import com.mediation.platform.cache.VersionsPubliques;
+import com.mediation.platform.classement.Classements;
+import com.mediation.platform.recherche.FacettesProjets;
+import com.mediation.platform.recherche.IndexAssociations;
+import com.mediation.platform.recherche.IndexAutocompletion;
+import com.mediation.platform.recherche.MoteurRechercheMemoire;
+import com.mediation.platform.service.AgregatsService;
+import com.mediation.platform.service.CacheEntitesService;
+import com.mediation.platform.service.ProximiteService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remise en cohérence de tout ce qui est dérivé des tables après un chargement en masse
+ * (écritures hors JPA, sans les mises à jour incrémentales des services) : agrégats,
+ * classements, index en mémoire et caches. Durée de chaque étape en ms.
+ */
+@Service
+public class DonneesDerivees {
+
+    @Autowired
+    private AgregatsService agregatsService;
+
+    @Autowired
+    private Classements classements;
+
+    @Autowired
+    private ObjectProvider<MoteurRechercheMemoire> moteurRechercheMemoire;
+
+    @Autowired
+    private FacettesProjets facettesProjets;
+
+    @Autowired
+    private IndexAssociations indexAssociations;
+
+    @Autowired
+    private IndexAutocompletion indexAutocompletion;
+
+    @Autowired
+    private ProximiteService proximiteService;
+
+    @Autowired
+    private CacheEntitesService cacheEntitesService;
+
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
+    public Map<String, Long> recalculer() {
+        Map<String, Long> durees = new LinkedHashMap<>();
+        // Les agrégats d'abord : classements et index relisent les montants collectés
+        mesurer(durees, "agregats", agregatsService::recalculerTout);
+        mesurer(durees, "caches", cacheEntitesService::vider);
+        mesurer(durees, "classements", classements::reconstruire);
+        mesurer(durees, "rechercheTexte", () -> moteurRechercheMemoire.ifAvailable(MoteurRechercheMemoire::reconstruire));
+        mesurer(durees, "facettes", facettesProjets::reconstruire);
+        mesurer(durees, "associations", indexAssociations::reconstruire);
+        mesurer(durees, "autocompletion", indexAutocompletion::reconstruire);
+        mesurer(durees, "proximite", proximiteService::reconstruire);
+        // Invalide les réponses publiques en cache ; les statistiques publiques sont recalculées
+        // en arrière-plan par leur écouteur de versions
+        mesurer(durees, "versionsPubliques", () -> versionsPubliques.incrementer(
+                VersionsPubliques.PROJETS, VersionsPubliques.ASSOCIATIONS, VersionsPubliques.DONS));
+        System.out.println("Données dérivées recalculées : " + durees);
+        return durees;
+    }
+
+    private static void mesurer(Map<String, Long> durees, String etape, Runnable action) {
+        long debut = System.currentTimeMillis();
+        action.run();
+        durees.put(etape, System.currentTimeMillis() - debut);
+    }
+}
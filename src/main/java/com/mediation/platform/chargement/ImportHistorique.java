@@ -0,0 +1,511 @@
+package com.mediation.platform.chargement;
+
+import com.mediation.platform.enums.RoleUtilisateur;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.enums.StatutUtilisateur;
+import com.mediation.platform.exception.BusinessException;
+import com.mediation.platform.recherche.Gazetteer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Reprise des donateurs et des dons d'autres plateformes, sans passer par l'inscription ni par
+ * DonService (pas de BCrypt imposé par ligne, ni notification, ni email) :
+ * - CSV lu au fil de l'eau, lignes validées en parallèle par blocs puis écrites dans l'ordre du fichier ;
+ * - lignes valides chargées par COPY dans une table de transit, puis versées dans les tables par
+ *   INSERT ... SELECT en une transaction (doublons et donateurs des dons résolus en base) ;
+ * - agrégats, classements et index recalculés une seule fois, à la fin ou plus tard.
+ * La mémoire est bornée par les blocs en cours de validation, quelle que soit la taille du fichier.
+ * Les dons repris n'ont pas de transaction de paiement (payés sur l'ancienne plateforme) et
+ * réimporter un même fichier de dons les ajoute une seconde fois.
+ */
+@Service
+public class ImportHistorique {
+
+    // Lignes validées ensemble par un thread
+    private static final int TAILLE_BLOC = 1000;
+
+    // Rejets détaillés dans le rapport, les suivants sont seulement comptés
+    private static final int REJETS_DETAILLES = 100;
+
+    // Compte importé sans mot de passe : aucun hachage BCrypt ne correspond, connexion refusée
+    // jusqu'à la réinitialisation par email
+    static final String MOT_DE_PASSE_A_DEFINIR = "{import}";
+
+    private static final Pattern HACHAGE_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String TRANSIT_DONATEURS = "import_donateurs";
+    private static final String TRANSIT_DONS = "import_dons";
+
+    private static final String DDL_TRANSIT_DONATEURS = TRANSIT_DONATEURS + " (ligne BIGINT PRIMARY KEY, "
+            + "email VARCHAR(150) NOT NULL, nom VARCHAR(100) NOT NULL, prenom VARCHAR(100) NOT NULL, "
+            + "telephone VARCHAR(20), mot_de_passe VARCHAR(255) NOT NULL, adresse VARCHAR(255), "
+            + "latitude DOUBLE PRECISION, longitude DOUBLE PRECISION, date_naissance DATE, "
+            + "profession VARCHAR(100), date_creation TIMESTAMP NOT NULL, rejet VARCHAR(255))";
+
+    private static final String DDL_TRANSIT_DONS = TRANSIT_DONS + " (ligne BIGINT PRIMARY KEY, "
+            + "email VARCHAR(150) NOT NULL, id_projet BIGINT NOT NULL, montant DOUBLE PRECISION NOT NULL, "
+            + "date_don DATE NOT NULL, message VARCHAR(500), anonyme BOOLEAN NOT NULL, statut VARCHAR(20) NOT NULL, "
+            + "date_creation TIMESTAMP NOT NULL, rejet VARCHAR(255))";
+
+    // Emails répétés regroupés une fois (agrégat et jointure) plutôt qu'une sous-requête par ligne
+    private static final String DOUBLONS_FICHIER = "UPDATE import_donateurs SET rejet = ? WHERE ligne IN ("
+            + "SELECT d.ligne FROM import_donateurs d JOIN (SELECT email, min(ligne) AS premiere FROM import_donateurs "
+            + "GROUP BY email HAVING count(*) > 1) r ON r.email = d.email WHERE d.ligne > r.premiere)";
+
+    private static final String EMAILS_EXISTANTS = "UPDATE import_donateurs SET rejet = ? WHERE rejet IS NULL "
+            + "AND EXISTS (SELECT 1 FROM utilisateurs u WHERE u.email = import_donateurs.email)";
+
+    private static final String VERSEMENT_UTILISATEURS = "INSERT INTO utilisateurs "
+            + "(nom, prenom, email, mot_de_passe, telephone, date_creation, statut, role) "
+            + "SELECT nom, prenom, email, mot_de_passe, telephone, date_creation, ?, ? "
+            + "FROM import_donateurs WHERE rejet IS NULL ORDER BY ligne";
+
+    private static final String VERSEMENT_DONATEURS = "INSERT INTO donateurs "
+            + "(id_utilisateur, adresse, latitude, longitude, date_naissance, profession) "
+            + "SELECT u.id_utilisateur, s.adresse, s.latitude, s.longitude, s.date_naissance, s.profession "
+            + "FROM import_donateurs s JOIN utilisateurs u ON u.email = s.email WHERE s.rejet IS NULL";
+
+    private static final String DONATEURS_INCONNUS = "UPDATE import_dons SET rejet = ? WHERE NOT EXISTS ("
+            + "SELECT 1 FROM utilisateurs u JOIN donateurs d ON d.id_utilisateur = u.id_utilisateur "
+            + "WHERE u.email = import_dons.email)";
+
+    private static final String VERSEMENT_DONS = "INSERT INTO dons "
+            + "(montant, date, message, anonyme, statut, date_creation, id_donateur, id_projet) "
+            + "SELECT s.montant, s.date_don, s.message, s.anonyme, s.statut, s.date_creation, u.id_utilisateur, s.id_projet "
+            + "FROM import_dons s JOIN utilisateurs u ON u.email = s.email WHERE s.rejet IS NULL ORDER BY s.ligne";
+
+    @Autowired
+    private ChargementMasse chargementMasse;
+
+    @Autowired
+    private DonneesDerivees donneesDerivees;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    @Autowired
+    @Qualifier("importExecutor")
+    private ThreadPoolTaskExecutor importExecutor;
+
+    private final AtomicBoolean enCours = new AtomicBoolean(false);
+
+    /**
+     * Importer des donateurs. Colonnes : email, nom, prenom (obligatoires), telephone, adresse,
+     * date_naissance, profession, date_inscription, et mot_de_passe_hache (BCrypt, repris tel quel)
+     * ou mot_de_passe (en clair, haché pendant la validation). Email déjà inscrit ou répété dans
+     * le fichier : ligne rejetée (la première occurrence est gardée)
+     */
+    public RapportImport importerDonateurs(Reader source, boolean recalculer) {
+        return importer("donateurs", recalculer, rapport -> {
+            LecteurCsv csv = new LecteurCsv(source);
+            csv.exiger("email", "nom", "prenom");
+            creerTransit(DDL_TRANSIT_DONATEURS);
+            try {
+                chargementMasse.inserer(TRANSIT_DONATEURS, List.of("ligne", "email", "nom", "prenom", "telephone",
+                        "mot_de_passe", "adresse", "latitude", "longitude", "date_naissance", "profession",
+                        "date_creation"), ecrivain -> valider(csv, this::validerDonateur, ecrivain, rapport));
+                jdbcTemplate.execute("CREATE INDEX idx_import_donateurs_email ON import_donateurs (email)");
+                analyser(TRANSIT_DONATEURS);
+                rapport.importees = transaction().execute(statut -> {
+                    jdbcTemplate.update(DOUBLONS_FICHIER, "email en double dans le fichier");
+                    jdbcTemplate.update(EMAILS_EXISTANTS, "email déjà inscrit sur la plateforme");
+                    int utilisateurs = jdbcTemplate.update(VERSEMENT_UTILISATEURS,
+                            StatutUtilisateur.ACTIF.name(), RoleUtilisateur.DONATEUR.name());
+                    jdbcTemplate.update(VERSEMENT_DONATEURS);
+                    return utilisateurs;
+                });
+                relireRejets(TRANSIT_DONATEURS, rapport);
+            } finally {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + TRANSIT_DONATEURS);
+            }
+        });
+    }
+
+    /**
+     * Importer des dons de donateurs déjà présents (importés ou inscrits). Colonnes : email_donateur,
+     * id_projet, montant, date (obligatoires), statut (VALIDE par défaut), anonyme, message, date_creation
+     */
+    public RapportImport importerDons(Reader source, boolean recalculer) {
+        return importer("dons", recalculer, rapport -> {
+            LecteurCsv csv = new LecteurCsv(source);
+            csv.exiger("email_donateur", "id_projet", "montant", "date");
+            Set<Long> projets = Set.copyOf(jdbcTemplate.queryForList("SELECT id_projet FROM projets", Long.class));
+            creerTransit(DDL_TRANSIT_DONS);
+            try {
+                chargementMasse.inserer(TRANSIT_DONS, List.of("ligne", "email", "id_projet", "montant", "date_don",
+                        "message", "anonyme", "statut", "date_creation"),
+                        ecrivain -> valider(csv, enregistrement -> validerDon(enregistrement, projets), ecrivain, rapport));
+                analyser(TRANSIT_DONS);
+                rapport.importees = transaction().execute(statut -> {
+                    jdbcTemplate.update(DONATEURS_INCONNUS, "aucun donateur avec cet email");
+                    return jdbcTemplate.update(VERSEMENT_DONS);
+                });
+                relireRejets(TRANSIT_DONS, rapport);
+            } finally {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + TRANSIT_DONS);
+            }
+        });
+    }
+
+    private RapportImport importer(String fichier, boolean recalculer, Etape etape) {
+        if (!enCours.compareAndSet(false, true)) {
+            throw new BusinessException("Un import est déjà en cours");
+        }
+        try {
+            long debut = System.currentTimeMillis();
+            RapportImport rapport = new RapportImport(fichier);
+            etape.executer(rapport);
+            if (recalculer) {
+                rapport.dureesDeriveesMs = donneesDerivees.recalculer();
+            }
+            rapport.dureeMs = System.currentTimeMillis() - debut;
+            System.out.println("IMPORT fichier=" + fichier + " lues=" + rapport.lues + " valides=" + rapport.valides
+                    + " importees=" + rapport.importees + " rejetees=" + rapport.rejetees + " dureeMs=" + rapport.dureeMs);
+            return rapport;
+        } catch (IOException e) {
+            throw new IllegalStateException("Lecture du fichier " + fichier + " impossible : " + e.getMessage(), e);
+        } finally {
+            enCours.set(false);
+        }
+    }
+
+    /**
+     * Valider les lignes par blocs sur l'executor d'import et écrire les valides dans l'ordre du
+     * fichier ; au plus deux blocs par thread en attente, le lecteur attend le plus ancien
+     */
+    private void valider(LecteurCsv csv, Function<LecteurCsv.Enregistrement, Object[]> validation,
+                         ChargementMasse.Ecrivain ecrivain, RapportImport rapport) throws Exception {
+        int enVolMax = 2 * importExecutor.getMaxPoolSize();
+        Deque<Future<List<LigneValidee>>> enVol = new ArrayDeque<>();
+        try {
+            List<LecteurCsv.Enregistrement> bloc = new ArrayList<>(TAILLE_BLOC);
+            LecteurCsv.Enregistrement enregistrement;
+            while ((enregistrement = csv.suivant()) != null) {
+                rapport.lues++;
+                bloc.add(enregistrement);
+                if (bloc.size() == TAILLE_BLOC) {
+                    enVol.add(soumettre(bloc, validation));
+                    bloc = new ArrayList<>(TAILLE_BLOC);
+                    if (enVol.size() >= enVolMax) {
+                        ecrire(enVol.poll(), ecrivain, rapport);
+                    }
+                }
+            }
+            if (!bloc.isEmpty()) {
+                enVol.add(soumettre(bloc, validation));
+            }
+            while (!enVol.isEmpty()) {
+                ecrire(enVol.poll(), ecrivain, rapport);
+            }
+        } finally {
+            enVol.forEach(bloc -> bloc.cancel(true));
+        }
+    }
+
+    private Future<List<LigneValidee>> soumettre(List<LecteurCsv.Enregistrement> bloc,
+                                                 Function<LecteurCsv.Enregistrement, Object[]> validation) {
+        return importExecutor.submit(() -> {
+            List<LigneValidee> lignes = new ArrayList<>(bloc.size());
+            for (LecteurCsv.Enregistrement enregistrement : bloc) {
+                try {
+                    lignes.add(new LigneValidee(enregistrement.getLigne(), validation.apply(enregistrement), null));
+                } catch (LigneInvalide e) {
+                    lignes.add(new LigneValidee(enregistrement.getLigne(), null, e.getMessage()));
+                }
+            }
+            return lignes;
+        });
+    }
+
+    private static void ecrire(Future<List<LigneValidee>> bloc, ChargementMasse.Ecrivain ecrivain,
+                               RapportImport rapport) throws Exception {
+        List<LigneValidee> lignes;
+        try {
+            lignes = bloc.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validation interrompue : " + e.getCause().getMessage(), e.getCause());
+        }
+        for (LigneValidee ligne : lignes) {
+            if (ligne.valeurs != null) {
+                ecrivain.ligne(ligne.valeurs);
+                rapport.valides++;
+            } else {
+                rapport.rejeter(ligne.numero, ligne.motif);
+            }
+        }
+    }
+
+    private Object[] validerDonateur(LecteurCsv.Enregistrement e) {
+        String email = texte(e, "email", 150, true);
+        if (!EMAIL.matcher(email).matches()) {
+            throw new LigneInvalide("email invalide");
+        }
+        String adresse = texte(e, "adresse", 255, false);
+        LocalDate naissance = date(e, "date_naissance", false);
+        if (naissance != null && naissance.isAfter(LocalDate.now())) {
+            throw new LigneInvalide("date_naissance dans le futur");
+        }
+        LocalDateTime inscription = dateHeure(e, "date_inscription");
+        Optional<Gazetteer.Lieu> lieu = adresse != null ? gazetteer.localiser(adresse) : Optional.empty();
+        return new Object[]{e.getLigne(), email, texte(e, "nom", 100, true), texte(e, "prenom", 100, true),
+                texte(e, "telephone", 20, false), motDePasse(e), adresse,
+                lieu.map(Gazetteer.Lieu::getLatitude).orElse(null), lieu.map(Gazetteer.Lieu::getLongitude).orElse(null),
+                naissance, texte(e, "profession", 100, false), inscription != null ? inscription : LocalDateTime.now()};
+    }
+
+    /**
+     * Hachage fourni repris tel quel ; mot de passe en clair haché ici, sur le thread de validation
+     */
+    private String motDePasse(LecteurCsv.Enregistrement e) {
+        String hache = e.valeur("mot_de_passe_hache");
+        if (hache != null) {
+            if (!HACHAGE_BCRYPT.matcher(hache).matches()) {
+                throw new LigneInvalide("mot_de_passe_hache n'est pas un hachage BCrypt");
+            }
+            return hache;
+        }
+        String clair = e.valeurBrute("mot_de_passe");
+        if (clair == null) {
+            return MOT_DE_PASSE_A_DEFINIR;
+        }
+        if (clair.length() < 6) {
+            throw new LigneInvalide("mot_de_passe de moins de 6 caractères");
+        }
+        return passwordEncoder.encode(clair);
+    }
+
+    private Object[] validerDon(LecteurCsv.Enregistrement e, Set<Long> projets) {
+        String email = texte(e, "email_donateur", 150, true);
+        long idProjet;
+        try {
+            idProjet = Long.parseLong(texte(e, "id_projet", 20, true));
+        } catch (NumberFormatException ex) {
+            throw new LigneInvalide("id_projet invalide");
+        }
+        if (!projets.contains(idProjet)) {
+            throw new LigneInvalide("projet " + idProjet + " inconnu");
+        }
+        double montant;
+        try {
+            montant = Double.parseDouble(texte(e, "montant", 20, true).replace(',', '.'));
+        } catch (NumberFormatException ex) {
+            throw new LigneInvalide("montant invalide");
+        }
+        if (!(montant > 0) || Double.isInfinite(montant)) {
+            throw new LigneInvalide("le montant doit être positif");
+        }
+        LocalDate date = date(e, "date", true);
+        if (date.isAfter(LocalDate.now())) {
+            throw new LigneInvalide("date dans le futur");
+        }
+        StatutDon statut = StatutDon.VALIDE;
+        if (e.valeur("statut") != null) {
+            try {
+                statut = StatutDon.valueOf(e.valeur("statut").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new LigneInvalide("statut inconnu : " + e.valeur("statut"));
+            }
+        }
+        LocalDateTime creation = dateHeure(e, "date_creation");
+        return new Object[]{e.getLigne(), email, idProjet, montant, date, texte(e, "message", 500, false),
+                booleen(e, "anonyme"), statut, creation != null ? creation : date.atStartOfDay()};
+    }
+
+    private static String texte(LecteurCsv.Enregistrement e, String colonne, int longueurMax, boolean obligatoire) {
+        String valeur = e.valeur(colonne);
+        if (valeur == null && obligatoire) {
+            throw new LigneInvalide(colonne + " manquant");
+        }
+        if (valeur != null && valeur.length() > longueurMax) {
+            throw new LigneInvalide(colonne + " dépasse " + longueurMax + " caractères");
+        }
+        return valeur;
+    }
+
+    private static LocalDate date(LecteurCsv.Enregistrement e, String colonne, boolean obligatoire) {
+        String valeur = e.valeur(colonne);
+        if (valeur == null) {
+            if (obligatoire) {
+                throw new LigneInvalide(colonne + " manquant");
+            }
+            return null;
+        }
+        try {
+            return LocalDate.parse(valeur.length() > 10 ? valeur.substring(0, 10) : valeur);
+        } catch (DateTimeParseException ex) {
+            throw new LigneInvalide(colonne + " n'est pas une date AAAA-MM-JJ");
+        }
+    }
+
+    /**
+     * Date seule (minuit) ou date et heure, séparées par T ou une espace
+     */
+    private static LocalDateTime dateHeure(LecteurCsv.Enregistrement e, String colonne) {
+        String valeur = e.valeur(colonne);
+        if (valeur == null) {
+            return null;
+        }
+        try {
+            return valeur.length() == 10 ? LocalDate.parse(valeur).atStartOfDay()
+                    : LocalDateTime.parse(valeur.replace(' ', 'T'));
+        } catch (DateTimeParseException ex) {
+            throw new LigneInvalide(colonne + " n'est pas une date AAAA-MM-JJ[THH:MM[:SS]]");
+        }
+    }
+
+    private static boolean booleen(LecteurCsv.Enregistrement e, String colonne) {
+        String valeur = e.valeur(colonne);
+        if (valeur == null) {
+            return false;
+        }
+        return switch (valeur.toLowerCase(Locale.ROOT)) {
+            case "true", "vrai", "oui", "1" -> true;
+            case "false", "faux", "non", "0" -> false;
+            default -> throw new LigneInvalide(colonne + " n'est pas un booléen");
+        };
+    }
+
+    private void creerTransit(String definition) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + definition.substring(0, definition.indexOf(' ')));
+        // Table de transit non journalisée sur PostgreSQL : rien à rejouer si le serveur s'arrête
+        jdbcTemplate.execute((chargementMasse.estPostgres() ? "CREATE UNLOGGED TABLE " : "CREATE TABLE ") + definition);
+    }
+
+    /**
+     * Statistiques de la table de transit tout juste remplie, sans quoi PostgreSQL la croit vide
+     * et choisit ses jointures en conséquence
+     */
+    private void analyser(String table) {
+        if (chargementMasse.estPostgres()) {
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+    }
+
+    /**
+     * Ajouter au rapport les lignes écartées en base (doublons, références introuvables)
+     */
+    private void relireRejets(String table, RapportImport rapport) {
+        Long nombre = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE rejet IS NOT NULL", Long.class);
+        int detailles = Math.max(0, REJETS_DETAILLES - rapport.rejets.size());
+        jdbcTemplate.query("SELECT ligne, rejet FROM " + table + " WHERE rejet IS NOT NULL ORDER BY ligne LIMIT ?",
+                ligne -> {
+                    rapport.rejets.add(new Rejet(ligne.getLong(1), ligne.getString(2)));
+                }, detailles);
+        rapport.rejetees += nombre != null ? nombre : 0;
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private interface Etape {
+        void executer(RapportImport rapport) throws IOException;
+    }
+
+    /**
+     * Motif de rejet d'une ligne ; sans pile d'appels, une ligne rejetée sur mille ne coûte rien
+     */
+    private static class LigneInvalide extends RuntimeException {
+        LigneInvalide(String motif) {
+            super(motif, null, false, false);
+        }
+    }
+
+    private static class LigneValidee {
+        private final long numero;
+        private final Object[] valeurs;
+        private final String motif;
+
+        LigneValidee(long numero, Object[] valeurs, String motif) {
+            this.numero = numero;
+            this.valeurs = valeurs;
+            this.motif = motif;
+        }
+    }
+
+    /**
+     * Ligne écartée et son motif
+     */
+    public static class Rejet {
+        private final long ligne;
+        private final String motif;
+
+        Rejet(long ligne, String motif) {
+            this.ligne = ligne;
+            this.motif = motif;
+        }
+
+        public long getLigne() { return ligne; }
+        public String getMotif() { return motif; }
+    }
+
+    /**
+     * Résultat d'un import : lignes lues, retenues à la validation, versées, rejetées
+     */
+    public static class RapportImport {
+        private final String fichier;
+        private long lues;
+        private long valides;
+        private long importees;
+        private long rejetees;
+        private final List<Rejet> rejets = new ArrayList<>();
+        private Map<String, Long> dureesDeriveesMs;
+        private long dureeMs;
+
+        RapportImport(String fichier) {
+            this.fichier = fichier;
+        }
+
+        void rejeter(long ligne, String motif) {
+            rejetees++;
+            if (rejets.size() < REJETS_DETAILLES) {
+                rejets.add(new Rejet(ligne, motif));
+            }
+        }
+
+        public String getFichier() { return fichier; }
+        public long getLues() { return lues; }
+        public long getValides() { return valides; }
+        public long getImportees() { return importees; }
+        public long getRejetees() { return rejetees; }
+        public List<Rejet> getRejets() { return rejets; }
+        public Map<String, Long> getDureesDeriveesMs() { return dureesDeriveesMs; }
+        public long getDureeMs() { return dureeMs; }
+    }
+}
@@ -0,0 +1,157 @@
+package com.mediation.platform.chargement;
+
+import com.mediation.platform.exception.BusinessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lecture d'un CSV enregistrement par enregistrement, sans charger le fichier : première ligne
+ * d'en-tête (noms de colonnes, ordre libre), séparateur « ; » ou « , » déduit de l'en-tête,
+ * champs entre guillemets pouvant contenir séparateurs, guillemets doublés et retours à la ligne.
+ */
+public class LecteurCsv {
+
+    private final BufferedReader lecteur;
+    private final char separateur;
+    private final Map<String, Integer> colonnes = new HashMap<>();
+    private long ligne;
+
+    public LecteurCsv(Reader source) throws IOException {
+        this.lecteur = source instanceof BufferedReader tampon ? tampon : new BufferedReader(source);
+        String entete = lecteur.readLine();
+        if (entete == null) {
+            throw new BusinessException("Fichier CSV vide");
+        }
+        ligne = 1;
+        if (entete.startsWith("\uFEFF")) {
+            entete = entete.substring(1);
+        }
+        separateur = entete.indexOf(';') >= 0 ? ';' : ',';
+        String[] noms = decouper(entete);
+        for (int i = 0; i < noms.length; i++) {
+            colonnes.putIfAbsent(noms[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Vérifier la présence des colonnes obligatoires
+     */
+    public void exiger(String... noms) {
+        List<String> manquantes = new ArrayList<>();
+        for (String nom : noms) {
+            if (!colonnes.containsKey(nom)) {
+                manquantes.add(nom);
+            }
+        }
+        if (!manquantes.isEmpty()) {
+            throw new BusinessException("Colonnes absentes de l'en-tête CSV : " + String.join(", ", manquantes));
+        }
+    }
+
+    /**
+     * Enregistrement suivant (lignes vides ignorées), null en fin de fichier
+     */
+    public Enregistrement suivant() throws IOException {
+        String texte;
+        do {
+            texte = lecteur.readLine();
+            ligne++;
+            if (texte == null) {
+                return null;
+            }
+        } while (texte.isBlank());
+
+        long debut = ligne;
+        // Un champ entre guillemets peut s'étendre sur plusieurs lignes physiques
+        StringBuilder enregistrement = new StringBuilder(texte);
+        while (guillemetsOuverts(enregistrement)) {
+            String suite = lecteur.readLine();
+            if (suite == null) {
+                throw new BusinessException("Guillemet non fermé à partir de la ligne " + debut);
+            }
+            ligne++;
+            enregistrement.append('\n').append(suite);
+        }
+        return new Enregistrement(debut, decouper(enregistrement));
+    }
+
+    private static boolean guillemetsOuverts(CharSequence texte) {
+        boolean ouverts = false;
+        for (int i = 0; i < texte.length(); i++) {
+            if (texte.charAt(i) == '"') {
+                ouverts = !ouverts;
+            }
+        }
+        return ouverts;
+    }
+
+    private String[] decouper(CharSequence texte) {
+        List<String> champs = new ArrayList<>();
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"' && i + 1 < texte.length() && texte.charAt(i + 1) == '"') {
+                    champ.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreGuillemets = false;
+                } else {
+                    champ.append(c);
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == separateur) {
+                champs.add(champ.toString());
+                champ.setLength(0);
+            } else {
+                champ.append(c);
+            }
+        }
+        champs.add(champ.toString());
+        return champs.toArray(new String[0]);
+    }
+
+    /**
+     * Ligne du fichier (numéro de sa première ligne physique) et valeurs dans l'ordre de l'en-tête
+     */
+    public class Enregistrement {
+        private final long ligne;
+        private final String[] valeurs;
+
+        private Enregistrement(long ligne, String[] valeurs) {
+            this.ligne = ligne;
+            this.valeurs = valeurs;
+        }
+
+        public long getLigne() { return ligne; }
+
+        /**
+         * Valeur d'une colonne sans espaces autour, null si la colonne est absente ou la valeur vide
+         */
+        public String valeur(String colonne) {
+            Integer indice = colonnes.get(colonne);
+            if (indice == null || indice >= valeurs.length) {
+                return null;
+            }
+            String valeur = valeurs[indice].trim();
+            return valeur.isEmpty() ? null : valeur;
+        }
+
+        /**
+         * Valeur telle qu'écrite dans le fichier (mots de passe), null si absente ou vide
+         */
+        public String valeurBrute(String colonne) {
+            Integer indice = colonnes.get(colonne);
+            return indice == null || indice >= valeurs.length || valeurs[indice].isEmpty() ? null : valeurs[indice];
+        }
+    }
+}
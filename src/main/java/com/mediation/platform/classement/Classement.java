@@ -0,0 +1,268 @@
+package com.mediation.platform.classement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Classement en mémoire : identifiants triés par score décroissant (puis identifiant croissant)
+ * dans un arbre binaire équilibré aléatoirement (treap) dont chaque nœud connaît la taille de
+ * son sous-arbre. Mise à jour d'un score, rang d'un identifiant et accès à une page en
+ * O(log n) (plus la taille de la page). Un score nul ou négatif retire l'identifiant.
+ * Lectures concurrentes, écritures exclusives.
+ */
+public class Classement {
+
+    // En dessous, le score est considéré nul (arrondis des remboursements)
+    private static final double SCORE_MINIMUM = 0.005;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<Long, Double> scores = new HashMap<>();
+    private Noeud racine;
+
+    /**
+     * Ajouter delta au score de l'identifiant (négatif pour un retrait)
+     */
+    public void ajouter(long id, double delta) {
+        verrou.writeLock().lock();
+        try {
+            Double actuel = scores.get(id);
+            remplacer(id, actuel, (actuel != null ? actuel : 0.0) + delta);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void definir(long id, double score) {
+        verrou.writeLock().lock();
+        try {
+            remplacer(id, scores.get(id), score);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public Double getScore(long id) {
+        verrou.readLock().lock();
+        try {
+            return scores.get(id);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rang (à partir de 1) de l'identifiant, 0 s'il n'est pas classé
+     */
+    public int rang(long id) {
+        verrou.readLock().lock();
+        try {
+            Double score = scores.get(id);
+            if (score == null) {
+                return 0;
+            }
+            int avant = 0;
+            Noeud noeud = racine;
+            while (noeud != null) {
+                int comparaison = comparer(score, id, noeud.score, noeud.id);
+                if (comparaison == 0) {
+                    return avant + taille(noeud.gauche) + 1;
+                }
+                if (comparaison < 0) {
+                    noeud = noeud.gauche;
+                } else {
+                    avant += taille(noeud.gauche) + 1;
+                    noeud = noeud.droite;
+                }
+            }
+            return 0;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entrées de la page demandée (page à partir de 0), dans l'ordre du classement
+     */
+    public List<Entree> page(int page, int taille) {
+        verrou.readLock().lock();
+        try {
+            List<Entree> entrees = new ArrayList<>(Math.max(0, Math.min(taille, scores.size())));
+            long debut = (long) Math.max(0, page) * taille;
+            if (taille > 0 && debut < scores.size()) {
+                collecter(racine, (int) debut, taille, 0, entrees);
+            }
+            return entrees;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copie des scores (sauvegarde)
+     */
+    public Map<Long, Double> scores() {
+        verrou.readLock().lock();
+        try {
+            return new HashMap<>(scores);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public double total() {
+        verrou.readLock().lock();
+        try {
+            return scores.values().stream().mapToDouble(Double::doubleValue).sum();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private void remplacer(long id, Double ancien, double nouveau) {
+        if (ancien != null) {
+            racine = retirer(racine, ancien, id);
+            scores.remove(id);
+        }
+        if (nouveau >= SCORE_MINIMUM) {
+            Noeud noeud = new Noeud(id, nouveau);
+            Noeud[] parties = separer(racine, nouveau, id);
+            racine = fusionner(fusionner(parties[0], noeud), parties[1]);
+            scores.put(id, nouveau);
+        }
+    }
+
+    // Parcours infixe limité : les sous-arbres entièrement avant la page sont sautés par leur taille
+    private static void collecter(Noeud noeud, int debut, int taille, int rangAvant, List<Entree> entrees) {
+        if (noeud == null || entrees.size() >= taille) {
+            return;
+        }
+        int tailleGauche = taille(noeud.gauche);
+        if (debut < rangAvant + tailleGauche) {
+            collecter(noeud.gauche, debut, taille, rangAvant, entrees);
+        }
+        int rang = rangAvant + tailleGauche + 1;
+        if (entrees.size() < taille && rang > debut) {
+            entrees.add(new Entree(noeud.id, noeud.score, rang));
+        }
+        collecter(noeud.droite, debut, taille, rang, entrees);
+    }
+
+    // Sépare en (clés avant (score, id), clés à partir de (score, id))
+    private static Noeud[] separer(Noeud noeud, double score, long id) {
+        if (noeud == null) {
+            return new Noeud[]{null, null};
+        }
+        if (comparer(noeud.score, noeud.id, score, id) < 0) {
+            Noeud[] parties = separer(noeud.droite, score, id);
+            noeud.droite = parties[0];
+            noeud.recalculer();
+            return new Noeud[]{noeud, parties[1]};
+        }
+        Noeud[] parties = separer(noeud.gauche, score, id);
+        noeud.gauche = parties[1];
+        noeud.recalculer();
+        return new Noeud[]{parties[0], noeud};
+    }
+
+    private static Noeud fusionner(Noeud gauche, Noeud droite) {
+        if (gauche == null) {
+            return droite;
+        }
+        if (droite == null) {
+            return gauche;
+        }
+        if (gauche.priorite > droite.priorite) {
+            gauche.droite = fusionner(gauche.droite, droite);
+            gauche.recalculer();
+            return gauche;
+        }
+        droite.gauche = fusionner(gauche, droite.gauche);
+        droite.recalculer();
+        return droite;
+    }
+
+    private static Noeud retirer(Noeud noeud, double score, long id) {
+        if (noeud == null) {
+            return null;
+        }
+        int comparaison = comparer(score, id, noeud.score, noeud.id);
+        if (comparaison == 0) {
+            return fusionner(noeud.gauche, noeud.droite);
+        }
+        if (comparaison < 0) {
+            noeud.gauche = retirer(noeud.gauche, score, id);
+        } else {
+            noeud.droite = retirer(noeud.droite, score, id);
+        }
+        noeud.recalculer();
+        return noeud;
+    }
+
+    // Ordre du classement : score décroissant, puis identifiant croissant
+    private static int comparer(double scoreA, long idA, double scoreB, long idB) {
+        int comparaison = Double.compare(scoreB, scoreA);
+        return comparaison != 0 ? comparaison : Long.compare(idA, idB);
+    }
+
+    private static int taille(Noeud noeud) {
+        return noeud != null ? noeud.taille : 0;
+    }
+
+    private static final class Noeud {
+        private final long id;
+        private final double score;
+        private final int priorite = ThreadLocalRandom.current().nextInt();
+        private int taille = 1;
+        private Noeud gauche;
+        private Noeud droite;
+
+        private Noeud(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        private void recalculer() {
+            taille = 1 + Classement.taille(gauche) + Classement.taille(droite);
+        }
+    }
+
+    /**
+     * Position d'un identifiant dans le classement
+     */
+    public static final class Entree {
+        private final long id;
+        private final double score;
+        private final int rang;
+
+        public Entree(long id, double score, int rang) {
+            this.id = id;
+            this.score = score;
+            this.rang = rang;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public int getRang() {
+            return rang;
+        }
+    }
+}
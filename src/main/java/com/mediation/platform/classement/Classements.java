@@ -0,0 +1,278 @@
+package com.mediation.platform.classement;
+
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.recherche.ApresCommit;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classements des donateurs, associations et projets par montant des dons validés : depuis
+ * toujours, par mois (derniers mois seulement) et par domaine d'activité de l'association.
+ * Tenus à jour, après validation de la transaction, à chaque don validé ou remboursé ;
+ * les scores modifiés sont sauvegardés périodiquement (table classements) et rechargés au
+ * démarrage, ou recalculés depuis les dons si la sauvegarde ne correspond plus à la base.
+ * Un changement de domaine d'une association n'est pris en compte qu'à la reconstruction.
+ */
+@Component
+public class Classements {
+
+    public enum Type { DONATEURS, ASSOCIATIONS, PROJETS }
+
+    public static final String GLOBAL = "global";
+    public static final String MOIS = "mois";
+    public static final String DOMAINE = "domaine";
+
+    // Écart toléré entre la sauvegarde et la base avant de tout recalculer
+    private static final double TOLERANCE_MONTANT = 0.01;
+
+    private static final String CREATION_TABLE =
+            "CREATE TABLE IF NOT EXISTS classements (cle VARCHAR(255) NOT NULL, id_entite BIGINT NOT NULL, " +
+            "score DOUBLE PRECISION NOT NULL, PRIMARY KEY (cle, id_entite))";
+
+    private static final String DONS_VALIDES =
+            "SELECT d.id_donateur, d.id_projet, p.id_association, a.domaine_activite, " +
+            "EXTRACT(YEAR FROM d.date) AS annee, EXTRACT(MONTH FROM d.date) AS mois, sum(d.montant) AS montant " +
+            "FROM dons d JOIN projets p ON p.id_projet = d.id_projet " +
+            "JOIN associations a ON a.id_utilisateur = p.id_association " +
+            "WHERE d.statut = 'VALIDE' " +
+            "GROUP BY d.id_donateur, d.id_projet, p.id_association, a.domaine_activite, " +
+            "EXTRACT(YEAR FROM d.date), EXTRACT(MONTH FROM d.date)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.classements.mois-conserves:12}")
+    private int moisConserves;
+
+    private volatile Map<String, Classement> classements = new ConcurrentHashMap<>();
+
+    // Scores modifiés depuis la dernière sauvegarde : clé du classement → identifiants
+    private final Map<String, Set<Long>> modifies = new HashMap<>();
+
+    private long sauvegardes;
+    private long reconstructions;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void charger() {
+        long debut = System.currentTimeMillis();
+        jdbcTemplate.execute(CREATION_TABLE);
+
+        Map<String, Classement> charges = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT cle, id_entite, score FROM classements", ligne -> {
+            charges.computeIfAbsent(ligne.getString(1), cle -> new Classement())
+                    .definir(ligne.getLong(2), ligne.getDouble(3));
+        });
+
+        Classement global = charges.get(cle(Type.DONATEURS, GLOBAL, null));
+        double sauvegarde = global != null ? global.total() : 0.0;
+        Double enBase = jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(montant), 0) FROM dons WHERE statut = 'VALIDE'", Double.class);
+        if (enBase == null || Math.abs(sauvegarde - enBase) > TOLERANCE_MONTANT) {
+            reconstruire();
+            return;
+        }
+        classements = charges;
+        System.out.println("Classements chargés : " + charges.size() + " classements en "
+                + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Tout recalculer depuis les dons validés (une requête agrégée) et réécrire la sauvegarde
+     */
+    @Transactional
+    public synchronized void reconstruire() {
+        long debut = System.currentTimeMillis();
+        YearMonth premierMois = YearMonth.now().minusMonths(moisConserves - 1L);
+        Map<String, Classement> recalcules = new ConcurrentHashMap<>();
+        jdbcTemplate.query(DONS_VALIDES, ligne -> {
+            YearMonth mois = ligne.getObject(5) != null
+                    ? YearMonth.of(ligne.getInt(5), ligne.getInt(6)) : null;
+            appliquer(recalcules, ligne.getLong(1), ligne.getLong(2), ligne.getLong(3), ligne.getString(4),
+                    mois != null && !mois.isBefore(premierMois) ? mois : null, ligne.getDouble(7), null);
+        });
+        classements = recalcules;
+        modifies.clear();
+
+        jdbcTemplate.update("DELETE FROM classements");
+        List<Object[]> lignes = new ArrayList<>();
+        recalcules.forEach((cle, classement) -> classement.scores()
+                .forEach((id, score) -> lignes.add(new Object[]{cle, id, score})));
+        inserer(lignes);
+        reconstructions++;
+        System.out.println("Classements reconstruits : " + recalcules.size() + " classements, "
+                + lignes.size() + " scores en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Un don vient d'être validé
+     */
+    public void donValide(Don don) {
+        enregistrer(don, don.getMontant());
+    }
+
+    /**
+     * Un don validé est remboursé : retiré de tous les classements où il comptait
+     */
+    public void donRetire(Don don) {
+        enregistrer(don, -don.getMontant());
+    }
+
+    /**
+     * Écrire les scores modifiés depuis la dernière sauvegarde et oublier les mois trop anciens
+     */
+    @Scheduled(fixedDelayString = "${app.classements.sauvegarde-ms:60000}",
+            initialDelayString = "${app.classements.sauvegarde-ms:60000}")
+    @Transactional
+    public synchronized void sauvegarder() {
+        YearMonth premierMois = YearMonth.now().minusMonths(moisConserves - 1L);
+        for (String cle : new ArrayList<>(classements.keySet())) {
+            int position = cle.indexOf(":" + MOIS + ":");
+            if (position >= 0 && YearMonth.parse(cle.substring(position + MOIS.length() + 2)).isBefore(premierMois)) {
+                classements.remove(cle);
+                modifies.remove(cle);
+                jdbcTemplate.update("DELETE FROM classements WHERE cle = ?", cle);
+            }
+        }
+        if (modifies.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> suppressions = new ArrayList<>();
+        List<Object[]> insertions = new ArrayList<>();
+        modifies.forEach((cle, ids) -> {
+            Classement classement = classements.get(cle);
+            for (Long id : ids) {
+                suppressions.add(new Object[]{cle, id});
+                Double score = classement != null ? classement.getScore(id) : null;
+                if (score != null) {
+                    insertions.add(new Object[]{cle, id, score});
+                }
+            }
+        });
+        jdbcTemplate.batchUpdate("DELETE FROM classements WHERE cle = ? AND id_entite = ?", suppressions);
+        inserer(insertions);
+        modifies.clear();
+        sauvegardes++;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        try {
+            sauvegarder();
+        } catch (Exception e) {
+            System.err.println("Erreur sauvegarde des classements: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Classement demandé ; portée GLOBAL, MOIS (valeur AAAA-MM, mois courant par défaut) ou DOMAINE
+     */
+    public Classement get(Type type, String portee, String valeur) {
+        Classement classement = classements.get(cle(type, portee, valeur));
+        return classement != null ? classement : new Classement();
+    }
+
+    public List<Classement.Entree> top(Type type, int nombre) {
+        return get(type, GLOBAL, null).page(0, nombre);
+    }
+
+    public synchronized Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("classements", classements.size());
+        stats.put("scores", classements.values().stream().mapToInt(Classement::taille).sum());
+        stats.put("enAttenteDeSauvegarde", modifies.values().stream().mapToInt(Set::size).sum());
+        stats.put("sauvegardes", sauvegardes);
+        stats.put("reconstructions", reconstructions);
+        return stats;
+    }
+
+    /**
+     * Ordonner des entités chargées par identifiant dans l'ordre du classement
+     */
+    public static <T> List<T> ordonner(List<Classement.Entree> entrees, Map<Long, T> entitesParId) {
+        List<T> resultat = new ArrayList<>(entrees.size());
+        for (Classement.Entree entree : entrees) {
+            T entite = entitesParId.get(entree.getId());
+            if (entite != null) {
+                resultat.add(entite);
+            }
+        }
+        return resultat;
+    }
+
+    public static String cle(Type type, String portee, String valeur) {
+        String base = type.name().toLowerCase();
+        if (MOIS.equals(portee)) {
+            return base + ":" + MOIS + ":" + (valeur != null && !valeur.isBlank() ? YearMonth.parse(valeur.trim()) : YearMonth.now());
+        }
+        if (DOMAINE.equals(portee)) {
+            return base + ":" + DOMAINE + ":" + (valeur != null ? valeur.trim() : "");
+        }
+        return base;
+    }
+
+    private void inserer(List<Object[]> lignes) {
+        if (!lignes.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO classements (cle, id_entite, score) VALUES (?, ?, ?)", lignes);
+        }
+    }
+
+    private void enregistrer(Don don, double montant) {
+        Projet projet = don.getProjet();
+        long idDonateur = don.getDonateur().getIdUtilisateur();
+        long idProjet = projet.getIdProjet();
+        long idAssociation = projet.getAssociation().getIdUtilisateur();
+        String domaine = projet.getAssociation().getDomaineActivite();
+        LocalDate date = don.getDate() != null ? don.getDate() : LocalDate.now();
+        YearMonth mois = YearMonth.from(date);
+        boolean moisConserve = !mois.isBefore(YearMonth.now().minusMonths(moisConserves - 1L));
+        ApresCommit.executer(() -> appliquerModification(idDonateur, idProjet, idAssociation, domaine,
+                moisConserve ? mois : null, montant));
+    }
+
+    private synchronized void appliquerModification(long idDonateur, long idProjet, long idAssociation,
+                                                    String domaine, YearMonth mois, double montant) {
+        appliquer(classements, idDonateur, idProjet, idAssociation, domaine, mois, montant, modifies);
+    }
+
+    private static void appliquer(Map<String, Classement> classements, long idDonateur, long idProjet,
+                                  long idAssociation, String domaine, YearMonth mois, double montant,
+                                  Map<String, Set<Long>> modifies) {
+        Map<Type, Long> ids = Map.of(Type.DONATEURS, idDonateur, Type.ASSOCIATIONS, idAssociation, Type.PROJETS, idProjet);
+        ids.forEach((type, id) -> {
+            List<String> cles = new ArrayList<>(3);
+            cles.add(cle(type, GLOBAL, null));
+            if (mois != null) {
+                cles.add(cle(type, MOIS, mois.toString()));
+            }
+            if (domaine != null && !domaine.isBlank()) {
+                cles.add(cle(type, DOMAINE, domaine));
+            }
+            for (String cle : cles) {
+                classements.computeIfAbsent(cle, c -> new Classement()).ajouter(id, montant);
+                if (modifies != null) {
+                    modifies.computeIfAbsent(cle, c -> new HashSet<>()).add(id);
+                }
+            }
+        });
+    }
+}
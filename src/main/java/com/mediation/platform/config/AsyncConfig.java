@@ -0,0 +1,107 @@
+package com.mediation.platform.config;
+
+import io.opentelemetry.context.Context;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${app.notifications.livraison.normale.threads:2}")
+    private int threadsLivraisonNormale;
+
+    @Value("${app.notifications.livraison.normale.capacite:10000}")
+    private int capaciteLivraisonNormale;
+
+    @Value("${app.notifications.livraison.urgente.threads:2}")
+    private int threadsLivraisonUrgente;
+
+    @Value("${app.notifications.livraison.urgente.capacite:1000}")
+    private int capaciteLivraisonUrgente;
+
+    @Value("${app.tableau-de-bord.threads:4}")
+    private int threadsTableauDeBord;
+
+    @Value("${app.tableau-de-bord.capacite:50}")
+    private int capaciteTableauDeBord;
+
+    @Value("${app.statistiques.tableau-de-bord.threads:5}")
+    private int threadsStatistiques;
+
+    @Value("${app.statistiques.tableau-de-bord.capacite:20}")
+    private int capaciteStatistiques;
+
+    @Value("${app.import.threads:4}")
+    private int threadsImport;
+
+    /**
+     * File de livraison standard (emails de masse, récapitulatifs, confirmations) ;
+     * file pleine : l'émetteur envoie lui-même et ralentit l'envoi de masse plutôt que de perdre l'email
+     */
+    @Bean(name = "livraisonNormaleExecutor")
+    public ThreadPoolTaskExecutor livraisonNormaleExecutor() {
+        return creerExecutor("livraison-normale-", threadsLivraisonNormale, capaciteLivraisonNormale,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * File réservée aux notifications urgentes, jamais bloquée par les envois de masse ;
+     * file pleine : la notification part aussitôt depuis le thread appelant, ni perdue ni mise en attente
+     */
+    @Bean(name = "livraisonUrgenteExecutor")
+    public ThreadPoolTaskExecutor livraisonUrgenteExecutor() {
+        return creerExecutor("livraison-urgente-", threadsLivraisonUrgente, capaciteLivraisonUrgente,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Requêtes agrégées du tableau de bord admin, exécutées en parallèle (au plus une connexion par thread) ;
+     * file pleine : la requête HTTP exécute elle-même l'agrégat, tableau de bord plus lent mais complet
+     */
+    @Bean(name = "tableauDeBordExecutor")
+    public ThreadPoolTaskExecutor tableauDeBordExecutor() {
+        return creerExecutor("tableau-de-bord-", threadsTableauDeBord, capaciteTableauDeBord,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Sections du tableau de bord des statistiques (une par thread, chacune avec sa transaction) ;
+     * file pleine : section refusée et signalée indisponible, jamais exécutée sans délai par l'appelant
+     */
+    @Bean(name = "statistiquesExecutor")
+    public ThreadPoolTaskExecutor statistiquesExecutor() {
+        return creerExecutor("statistiques-", threadsStatistiques, capaciteStatistiques,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Validation des lignes d'import (hachage BCrypt compris) ; la file est bornée par l'import lui-même.
+     * File pleine malgré tout : le lecteur du fichier valide le bloc lui-même, ce qui freine la lecture
+     */
+    @Bean(name = "importExecutor")
+    public ThreadPoolTaskExecutor importExecutor() {
+        return creerExecutor("import-", threadsImport, 2 * threadsImport,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private ThreadPoolTaskExecutor creerExecutor(String prefixe, int threads, int capacite,
+                                                 RejectedExecutionHandler filePleine) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefixe);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacite);
+        executor.setRejectedExecutionHandler(filePleine);
+        // Le contexte de trace de l'appelant suit la tâche dans le pool
+        executor.setTaskDecorator(tache -> Context.current().wrap(tache));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mediation.platform.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de second niveau Hibernate : régions JCache (Caffeine) créées ici avec une taille
+ * et une durée de vie bornées, puis transmises à Hibernate (hibernate.javax.cache.cache_manager).
+ * Chaque région tient ses compteurs JCache (succès, échecs, ajouts), publiés dans Micrometer (cache.gets,
+ * cache.puts... étiquette cache) sans les statistiques globales d'Hibernate.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String REGION_UTILISATEURS = "utilisateurs";
+    public static final String REGION_PROJETS = "projets";
+
+    @Value("${app.cache.entites.taille-max:10000}")
+    private long tailleMaxEntites;
+
+    @Value("${app.cache.entites.duree-minutes:30}")
+    private long dureeEntitesMinutes;
+
+    @Value("${app.cache.requetes.taille-max:500}")
+    private long tailleMaxRequetes;
+
+    @Value("${app.cache.requetes.duree-minutes:5}")
+    private long dureeRequetesMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate() {
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        // URI propre au contexte : les MBeans de statistiques, que lit Micrometer, sont nommés d'après elle
+        URI uri = URI.create("hibernate-" + Integer.toHexString(System.identityHashCode(this)));
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        creerRegion(cacheManager, REGION_UTILISATEURS, tailleMaxEntites, dureeEntitesMinutes);
+        creerRegion(cacheManager, REGION_PROJETS, tailleMaxEntites, dureeEntitesMinutes);
+        creerRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                tailleMaxRequetes, dureeRequetesMinutes);
+        // Horodatages des tables : ni limite ni expiration, sinon le cache de requêtes servirait des résultats périmés
+        creerRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSecondNiveau(CacheManager cacheManagerHibernate) {
+        return proprietes -> proprietes.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+    }
+
+    @Bean
+    public MeterBinder metriquesCacheSecondNiveau(CacheManager cacheManagerHibernate) {
+        return registry -> cacheManagerHibernate.getCacheNames()
+                .forEach(nom -> JCacheMetrics.monitor(registry, cacheManagerHibernate.getCache(nom)));
+    }
+
+    private static void creerRegion(CacheManager cacheManager, String nom, long tailleMax, long dureeMinutes) {
+        if (cacheManager.getCache(nom) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (tailleMax > 0) {
+            configuration.setMaximumSize(OptionalLong.of(tailleMax));
+        }
+        if (dureeMinutes > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(dureeMinutes)));
+        }
+        cacheManager.createCache(nom, configuration);
+    }
+}
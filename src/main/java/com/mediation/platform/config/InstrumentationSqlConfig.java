@@ -0,0 +1,33 @@
+package com.mediation.platform.config;
+
+import com.mediation.platform.monitoring.InstrumentationSql;
+import com.mediation.platform.tracage.TracageSql;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Proxy de mesure autour de la DataSource (pool Hikari) : chaque requête et chaque ligne lue
+ * passent par {@link InstrumentationSql}, chaque requête par {@link TracageSql}
+ */
+@Configuration
+public class InstrumentationSqlConfig {
+
+    @Bean
+    public static BeanPostProcessor proxyDataSourceMesure(ObjectProvider<InstrumentationSql> instrumentation,
+                                                          ObjectProvider<TracageSql> tracage) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return instrumentation.getObject().instrumenter(beanName, dataSource, tracage.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.mediation.platform.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Chronométrage des méthodes des services annotés @Timed (métrique service.methodes,
+ * étiquettes class et method) ; les métriques sont exposées sur /actuator/prometheus
+ */
+@Configuration
+public class MetriquesConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
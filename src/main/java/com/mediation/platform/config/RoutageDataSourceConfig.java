@@ -0,0 +1,104 @@
+package com.mediation.platform.config;
+
+import com.mediation.platform.routage.RoutageDataSource;
+import com.mediation.platform.routage.SurveillanceReplique;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+
+/**
+ * Rapports sur une réplique (app.datasource.replica.url renseignée) : la DataSource de
+ * l'application aiguille les transactions en lecture seule des rapports (@LectureRapport) vers
+ * le pool de la réplique, le reste vers le pool de spring.datasource.*. Sans réplique
+ * configurée, la DataSource auto-configurée de Spring Boot reste en place.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+@Profile("!postgres-embarque")
+public class RoutageDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties proprietes, Environment environment,
+                                 @Value("${app.datasource.replica.url}") String urlReplique,
+                                 @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String utilisateur,
+                                 @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String motDePasse) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primaire = proprietes.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaire.setPoolName(RoutageDataSource.PRIMAIRE);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaire));
+
+        HikariDataSource replique = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(proprietes.determineDriverClassName())
+                .url(urlReplique)
+                .username(utilisateur)
+                .password(motDePasse)
+                .build();
+        replique.setPoolName(RoutageDataSource.REPLIQUE);
+        // Réplique injoignable : repli rapide sur le primaire plutôt que 30 s d'attente
+        replique.setConnectionTimeout(2000);
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replique));
+
+        // Connexion réelle demandée au premier ordre SQL, une fois la transaction (et son
+        // caractère lecture seule) ouverte
+        return new DataSourceDifferee(new RoutageDataSource(primaire, replique));
+    }
+
+    /**
+     * Connexion rendue au pool à la fin de chaque transaction : avec open-in-view, la session
+     * garderait sinon la connexion (donc le pool) de sa première transaction
+     */
+    @Bean
+    public HibernatePropertiesCustomizer liberationConnexionApresTransaction() {
+        return proprietes -> proprietes.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public SurveillanceReplique surveillanceReplique(DataSource dataSource, ObjectProvider<MeterRegistry> registres,
+                                                     @Value("${app.datasource.replica.requete-retard:}") String requeteRetard,
+                                                     @Value("${app.datasource.replica.retard-max-ms:5000}") long retardMaxMs)
+            throws SQLException {
+        SurveillanceReplique surveillance = new SurveillanceReplique(dataSource.unwrap(RoutageDataSource.class),
+                requeteRetard.isBlank() ? SurveillanceReplique.REQUETE_RETARD_POSTGRES : requeteRetard, retardMaxMs);
+        registres.ifAvailable(surveillance::enregistrerMetriques);
+        return surveillance;
+    }
+
+    /**
+     * Ferme les deux pools à l'arrêt du contexte (fermeture déléguée par le proxy de mesure)
+     */
+    private static class DataSourceDifferee extends LazyConnectionDataSourceProxy implements Closeable {
+
+        private final RoutageDataSource routage;
+
+        DataSourceDifferee(RoutageDataSource routage) {
+            super(routage);
+            this.routage = routage;
+        }
+
+        @Override
+        public void close() {
+            routage.close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.mediation.platform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Active les tâches planifiées (@Scheduled) des services
+}
@@ -72,11 +72,19 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui.html").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
 
+                        // Supervision : seule la sonde de santé est publique ; la collecte Prometheus
+                        // (volumes de dons, SQL par endpoint, pools, JVM) exige un jeton administrateur
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMINISTRATEUR")
+
                         // Endpoints publics pour consultation (sans auth)
                         .requestMatchers(HttpMethod.GET, "/projets").permitAll()
                         .requestMatchers(HttpMethod.GET, "/projets/{id}").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/projets/recherche-texte").permitAll()
                         .requestMatchers(HttpMethod.GET, "/associations").permitAll()
                         .requestMatchers(HttpMethod.GET, "/associations/{id}").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/suggestions/projets").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/suggestions/associations").permitAll()
                         .requestMatchers(HttpMethod.GET, "/statistiques/publiques").permitAll()
 
                         // ======== ENDPOINTS PROTÉGÉS (AUTH REQUISE) ========
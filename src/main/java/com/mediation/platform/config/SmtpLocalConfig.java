@@ -0,0 +1,51 @@
+package com.mediation.platform.config;
+
+import com.mediation.platform.benchmark.ServeurSmtpLocal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Properties;
+
+/**
+ * Profil smtp-local : remplace le relais SMTP réel par un serveur en mémoire,
+ * pour mesurer et tester en charge les envois d'email hors ligne.
+ */
+@Configuration
+@Profile("smtp-local")
+public class SmtpLocalConfig {
+
+    @Value("${app.smtp-local.port:2525}")
+    private int port;
+
+    @Value("${app.smtp-local.capacite-boite:1000}")
+    private int capaciteBoite;
+
+    @Value("${app.smtp-local.conserver-contenu:false}")
+    private boolean conserverContenu;
+
+    @Bean(initMethod = "demarrer", destroyMethod = "arreter")
+    public ServeurSmtpLocal serveurSmtpLocal() {
+        return new ServeurSmtpLocal(port, capaciteBoite, conserverContenu);
+    }
+
+    @Bean
+    public JavaMailSender javaMailSender(ServeurSmtpLocal serveurSmtpLocal) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(serveurSmtpLocal.getPort());
+
+        Properties props = mailSender.getJavaMailProperties();
+        props.put("mail.transport.protocol", "smtp");
+        props.put("mail.smtp.auth", "false");
+        props.put("mail.smtp.starttls.enable", "false");
+        props.put("mail.smtp.connectiontimeout", "5000");
+        props.put("mail.smtp.timeout", "5000");
+        props.put("mail.debug", "false");
+
+        return mailSender;
+    }
+}
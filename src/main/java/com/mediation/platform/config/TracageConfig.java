@@ -0,0 +1,25 @@
+package com.mediation.platform.config;
+
+import com.mediation.platform.tracage.ExportateurSpansMemoire;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Traces OpenTelemetry exportées hors ligne, par le processeur par lots de Spring Boot :
+ * en mémoire (/admin/traces) et dans les logs au-delà du seuil
+ */
+@Configuration
+public class TracageConfig {
+
+    @Value("${app.tracage.traces-conservees:200}")
+    private int tracesConservees;
+
+    @Value("${app.tracage.seuil-journal-ms:1000}")
+    private long seuilJournalMs;
+
+    @Bean
+    public ExportateurSpansMemoire exportateurSpansMemoire() {
+        return new ExportateurSpansMemoire(tracesConservees, seuilJournalMs);
+    }
+}
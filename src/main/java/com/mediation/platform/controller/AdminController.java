@@ -1,15 +1,27 @@
 package com.mediation.platform.controller;
 
+import com.mediation.platform.cache.ReponsesPubliques;
+import com.mediation.platform.chargement.DonneesDerivees;
+import com.mediation.platform.chargement.ImportHistorique;
+import com.mediation.platform.classement.Classements;
 import com.mediation.platform.dto.response.ApiResponse;
 import com.mediation.platform.entity.Utilisateur;
+import com.mediation.platform.exception.ResourceNotFoundException;
+import com.mediation.platform.monitoring.InstrumentationSql;
+import com.mediation.platform.routage.SurveillanceReplique;
 import com.mediation.platform.service.*;
+import com.mediation.platform.tracage.ExportateurSpansMemoire;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,47 +54,56 @@ public class AdminController {
     @Autowired
     private AuthenticationService authenticationService;
 
+    @Autowired
+    private LivraisonNotificationService livraisonNotificationService;
+
+    @Autowired
+    private ProximiteService proximiteService;
+
+    @Autowired
+    private CacheEntitesService cacheEntitesService;
+
+    @Autowired
+    private ReponsesPubliques reponsesPubliques;
+
+    @Autowired
+    private StatistiquesPubliquesService statistiquesPubliquesService;
+
+    @Autowired
+    private TableauDeBordAdminService tableauDeBordAdminService;
+
+    @Autowired
+    private AgregatsService agregatsService;
+
+    @Autowired
+    private ClassementService classementService;
+
+    @Autowired
+    private Classements classements;
+
+    @Autowired
+    private InstrumentationSql instrumentationSql;
+
+    @Autowired
+    private ExportateurSpansMemoire exportateurSpans;
+
+    @Autowired
+    private ImportHistorique importHistorique;
+
+    @Autowired
+    private DonneesDerivees donneesDerivees;
+
+    @Autowired
+    private ObjectProvider<SurveillanceReplique> surveillanceReplique;
+
     /**
      * Dashboard administrateur - Vue d'ensemble
      */
     @GetMapping("/dashboard")
-    @Operation(summary = "Dashboard admin", description = "Vue d'ensemble de la plateforme")
+    @Operation(summary = "Dashboard admin", description = "Vue d'ensemble de la plateforme (requêtes agrégées en parallèle, durée par section)")
     public ResponseEntity<?> getDashboard() {
         try {
-            Map<String, Object> dashboard = new HashMap<>();
-
-            // Statistiques générales
-            Map<String, Object> utilisateurs = new HashMap<>();
-            utilisateurs.put("total", utilisateurService.count());
-            utilisateurs.put("donateurs", donateurService.count());
-            utilisateurs.put("associations", associationService.count());
-            utilisateurs.put("associationsEnAttente", associationService.findPendingValidation().size());
-            dashboard.put("utilisateurs", utilisateurs);
-
-            Map<String, Object> projets = new HashMap<>();
-            projets.put("total", projetService.count());
-            projets.put("actifs", projetService.findActiveProjects().size());
-            projets.put("termines", projetService.findByStatut(com.mediation.platform.enums.StatutProjet.TERMINE).size());
-            projets.put("enRetard", projetService.findOverdueProjects().size());
-            dashboard.put("projets", projets);
-
-            Map<String, Object> dons = new HashMap<>();
-            dons.put("total", donService.count());
-            dons.put("valides", donService.findValidatedDons().size());
-            dons.put("enAttente", donService.findByStatut(com.mediation.platform.enums.StatutDon.EN_ATTENTE).size());
-            dons.put("montantTotal", donService.getTotalConfirmedDonations());
-            dashboard.put("dons", dons);
-
-            // Statistiques détaillées
-            dashboard.put("statsAssociations", associationService.getGeneralStats());
-            dashboard.put("statsDonateurs", donateurService.getGeneralStats());
-            dashboard.put("statsProjets", projetService.getGeneralStats());
-            dashboard.put("statsDons", donService.getGeneralStats());
-
-            // Tendances
-            dashboard.put("tendancesProjets", projetService.calculerTendances());
-            dashboard.put("tendancesDons", donService.calculerTendances());
-
+            Map<String, Object> dashboard = tableauDeBordAdminService.calculer();
             return ResponseEntity.ok(ApiResponse.success("Dashboard admin récupéré", dashboard));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -131,7 +152,7 @@ public class AdminController {
             data.put("projetsTermines", projetService.findByStatut(com.mediation.platform.enums.StatutProjet.TERMINE));
             data.put("projetsEnRetard", projetService.findOverdueProjects());
             data.put("projetsRecents", projetService.findRecentProjects(java.time.LocalDateTime.now().minusDays(30)));
-            data.put("topProjets", projetService.findTopProjects());
+            data.put("topProjets", projetService.findTopProjects(10));
             data.put("statistiques", projetService.getGeneralStats());
 
             return ResponseEntity.ok(ApiResponse.success("Projets récupérés", data));
@@ -184,6 +205,21 @@ public class AdminController {
         }
     }
 
+    /**
+     * Latences de livraison des notifications par priorité
+     */
+    @GetMapping("/notifications/livraison")
+    @Operation(summary = "Livraison notifications", description = "Latences, échecs et files d'attente par priorité")
+    public ResponseEntity<?> getStatistiquesLivraison() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Statistiques de livraison",
+                    livraisonNotificationService.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération", e.getMessage()));
+        }
+    }
+
     /**
      * Rapports et statistiques avancés
      */
@@ -204,9 +240,9 @@ public class AdminController {
 
             // Top performers
             Map<String, Object> topPerformers = new HashMap<>();
-            topPerformers.put("topAssociations", associationService.findTopAssociationsByDonations().stream().limit(10).toList());
-            topPerformers.put("topDonateurs", donateurService.findTopDonators().stream().limit(10).toList());
-            topPerformers.put("topProjets", projetService.findTopProjects().stream().limit(10).toList());
+            topPerformers.put("topAssociations", associationService.findTopAssociations(10));
+            topPerformers.put("topDonateurs", donateurService.findTopDonators(10));
+            topPerformers.put("topProjets", projetService.findTopProjects(10));
             rapports.put("topPerformers", topPerformers);
 
             // Analyses de tendances
@@ -252,6 +288,270 @@ public class AdminController {
         }
     }
 
+    /**
+     * Géocoder par lots associations et donateurs depuis le gazetteer
+     */
+    @PostMapping("/geo/geocodage")
+    @Operation(summary = "Géocodage par lots", description = "Géocode les adresses sans coordonnées (toutes si forcer=true)")
+    public ResponseEntity<?> geocoder(@RequestParam(defaultValue = "false") boolean forcer) {
+        try {
+            Map<String, Object> rapports = new HashMap<>();
+            rapports.put("associations", proximiteService.geocoderAssociations(forcer));
+            rapports.put("donateurs", proximiteService.geocoderDonateurs(forcer));
+            return ResponseEntity.ok(ApiResponse.success("Géocodage effectué", rapports));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors du géocodage", e.getMessage()));
+        }
+    }
+
+    /**
+     * État de l'index de proximité
+     */
+    @GetMapping("/geo/statistiques")
+    @Operation(summary = "Statistiques géographiques", description = "Taille de l'index de proximité et du gazetteer")
+    public ResponseEntity<?> getStatistiquesGeo() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Statistiques géographiques", proximiteService.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
+        }
+    }
+
+    /**
+     * Compteurs du cache de second niveau (succès, échecs, ajouts par région)
+     */
+    @GetMapping("/cache/statistiques")
+    @Operation(summary = "Statistiques du cache", description = "Succès et échecs du cache des utilisateurs, projets, requêtes et réponses publiques")
+    public ResponseEntity<?> getStatistiquesCache() {
+        try {
+            Map<String, Object> stats = cacheEntitesService.getStatistiques();
+            stats.put("reponsesHttp", reponsesPubliques.getStatistiques());
+            stats.put("statistiquesPubliques", statistiquesPubliquesService.getStatistiques());
+            return ResponseEntity.ok(ApiResponse.success("Statistiques du cache", stats));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
+        }
+    }
+
+    /**
+     * Vider le cache de second niveau après une modification faite directement en base
+     */
+    @PostMapping("/cache/vider")
+    @Operation(summary = "Vider le cache", description = "Évince toutes les entités et requêtes en cache")
+    public ResponseEntity<?> viderCache() {
+        try {
+            cacheEntitesService.vider();
+            return ResponseEntity.ok(ApiResponse.success("Cache vidé"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors du vidage du cache", e.getMessage()));
+        }
+    }
+
+    /**
+     * Vérifier les agrégats dénormalisés des donateurs et associations (et corriger les écarts)
+     */
+    @PostMapping("/agregats/verifier")
+    @Operation(summary = "Vérifier les agrégats", description = "Recalcule montants, compteurs et dates des donateurs et associations et corrige les écarts si demandé")
+    public ResponseEntity<?> verifierAgregats(@RequestParam(defaultValue = "true") boolean corriger) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Vérification des agrégats", agregatsService.verifier(corriger)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la vérification des agrégats", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reprendre les donateurs d'une autre plateforme (CSV UTF-8 en corps de requête, Content-Type text/csv)
+     */
+    @PostMapping(value = "/import/donateurs", consumes = "text/csv")
+    @Operation(summary = "Importer des donateurs", description = "Colonnes email;nom;prenom obligatoires, mot_de_passe_hache (BCrypt) ou mot_de_passe ; sans email de bienvenue. recalculer=false pour enchaîner plusieurs fichiers")
+    public ResponseEntity<?> importerDonateurs(InputStream corps, @RequestParam(defaultValue = "true") boolean recalculer) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Import des donateurs terminé",
+                    importHistorique.importerDonateurs(new InputStreamReader(corps, StandardCharsets.UTF_8), recalculer)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de l'import des donateurs", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reprendre l'historique des dons de donateurs présents (CSV UTF-8 en corps de requête, Content-Type text/csv)
+     */
+    @PostMapping(value = "/import/dons", consumes = "text/csv")
+    @Operation(summary = "Importer des dons", description = "Colonnes email_donateur;id_projet;montant;date obligatoires ; sans notification ni email. recalculer=false pour enchaîner plusieurs fichiers")
+    public ResponseEntity<?> importerDons(InputStream corps, @RequestParam(defaultValue = "true") boolean recalculer) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Import des dons terminé",
+                    importHistorique.importerDons(new InputStreamReader(corps, StandardCharsets.UTF_8), recalculer)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de l'import des dons", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recalculer agrégats, classements et index après des imports faits avec recalculer=false
+     */
+    @PostMapping("/import/recalculer")
+    @Operation(summary = "Recalculer après import", description = "Agrégats, classements, index en mémoire et caches ; durée de chaque étape")
+    public ResponseEntity<?> recalculerApresImport() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Données dérivées recalculées", donneesDerivees.recalculer()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors du recalcul", e.getMessage()));
+        }
+    }
+
+    /**
+     * Classement des donateurs (global, par mois ou par domaine d'activité des associations soutenues)
+     */
+    @GetMapping("/classements/donateurs")
+    @Operation(summary = "Classement des donateurs", description = "Donateurs par montant des dons validés, paginé")
+    public ResponseEntity<?> getClassementDonateurs(@RequestParam(defaultValue = Classements.GLOBAL) String portee,
+                                                    @RequestParam(required = false) String valeur,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "10") int taille) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Classement des donateurs",
+                    classementService.getPage(Classements.Type.DONATEURS, portee, valeur, page, taille)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération du classement", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/classements/donateurs/{id}/rang")
+    @Operation(summary = "Rang d'un donateur", description = "Rang et montant d'un donateur dans un classement")
+    public ResponseEntity<?> getRangDonateur(@PathVariable Long id,
+                                             @RequestParam(defaultValue = Classements.GLOBAL) String portee,
+                                             @RequestParam(required = false) String valeur) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Rang du donateur",
+                    classementService.getRang(Classements.Type.DONATEURS, id, portee, valeur)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération du rang", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recalculer tous les classements depuis les dons validés (ex. après changement de domaine)
+     */
+    @PostMapping("/classements/reconstruire")
+    @Operation(summary = "Reconstruire les classements", description = "Recalcule les classements depuis les dons et réécrit leur sauvegarde")
+    public ResponseEntity<?> reconstruireClassements() {
+        try {
+            classements.reconstruire();
+            return ResponseEntity.ok(ApiResponse.success("Classements reconstruits", classements.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la reconstruction des classements", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/classements/statistiques")
+    @Operation(summary = "Statistiques des classements", description = "Nombre de classements et de scores, sauvegardes et reconstructions")
+    public ResponseEntity<?> getStatistiquesClassements() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Statistiques des classements", classements.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/agregats/statistiques")
+    @Operation(summary = "Statistiques des agrégats", description = "Nombre de vérifications, écarts cumulés et dernier rapport")
+    public ResponseEntity<?> getStatistiquesAgregats() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Statistiques des agrégats", agregatsService.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
+        }
+    }
+
+    /**
+     * Requêtes SQL par endpoint : appels, requêtes par appel, lignes lues, durée SQL et alertes
+     */
+    @GetMapping("/sql/statistiques")
+    @Operation(summary = "Statistiques SQL par endpoint", description = "Requêtes, lignes lues et durée SQL par méthode de contrôleur, triées par nombre de requêtes")
+    public ResponseEntity<?> getStatistiquesSql() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Statistiques SQL", instrumentationSql.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/sql/reinitialiser")
+    @Operation(summary = "Réinitialiser les statistiques SQL", description = "Remet à zéro les compteurs par endpoint")
+    public ResponseEntity<?> reinitialiserStatistiquesSql() {
+        try {
+            instrumentationSql.reinitialiser();
+            return ResponseEntity.ok(ApiResponse.success("Statistiques SQL réinitialisées"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la réinitialisation", e.getMessage()));
+        }
+    }
+
+    /**
+     * Aiguillage primaire / réplique : retard, réplique utilisée ou écartée, connexions par pool
+     */
+    @GetMapping("/datasource/routage")
+    @Operation(summary = "Routage lecture / écriture", description = "État de la réplique et connexions obtenues sur chaque pool")
+    public ResponseEntity<?> getRoutageDataSource() {
+        try {
+            SurveillanceReplique surveillance = surveillanceReplique.getIfAvailable();
+            if (surveillance == null) {
+                return ResponseEntity.ok(ApiResponse.success("Aucune réplique configurée", Map.of("repliqueConfiguree", false)));
+            }
+            return ResponseEntity.ok(ApiResponse.success("Routage lecture / écriture", surveillance.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
+        }
+    }
+
+    /**
+     * Dernières traces (requêtes HTTP et leurs suites asynchrones), les plus récentes d'abord
+     */
+    @GetMapping("/traces")
+    @Operation(summary = "Dernières traces", description = "Traces conservées en mémoire : span racine, durée et nombre de spans")
+    public ResponseEntity<?> getTraces(@RequestParam(defaultValue = "50") int limite,
+                                       @RequestParam(defaultValue = "0") long dureeMinMs) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Traces récupérées", exportateurSpans.getTraces(limite, dureeMinMs)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des traces", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/traces/{traceId}")
+    @Operation(summary = "Détail d'une trace", description = "Arbre des spans : contrôleur, services, requêtes SQL, envois SMTP")
+    public ResponseEntity<?> getTrace(@PathVariable String traceId) {
+        try {
+            List<Map<String, Object>> spans = exportateurSpans.getTrace(traceId);
+            if (spans == null) {
+                throw new ResourceNotFoundException("Trace non trouvée: " + traceId);
+            }
+            return ResponseEntity.ok(ApiResponse.success("Trace récupérée", spans));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération de la trace", e.getMessage()));
+        }
+    }
+
     /**
      * Marquer toutes les notifications comme lues
      */
@@ -1,18 +1,24 @@
 package com.mediation.platform.controller;
 
+import com.mediation.platform.cache.ReponsesPubliques;
+import com.mediation.platform.cache.VersionsPubliques;
 import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.dto.response.AssociationResume;
 import com.mediation.platform.entity.Association;
 import com.mediation.platform.entity.Projet;
 import com.mediation.platform.entity.Utilisateur;
+import com.mediation.platform.recherche.Gazetteer;
 import com.mediation.platform.service.AssociationService;
 import com.mediation.platform.service.AuthenticationService;
 import com.mediation.platform.service.ProjetService;
+import com.mediation.platform.service.ProximiteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +30,9 @@ import java.util.Map;
 @Tag(name = "Associations", description = "API de gestion des associations")
 public class AssociationController {
 
+    // Les listes de résumés reprennent nombres de projets et montants collectés : versions des trois collections
+    private static final String[] VERSIONS_RESUMES = {VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS, VersionsPubliques.DONS};
+
     @Autowired
     private AssociationService associationService;
 
@@ -33,15 +42,21 @@ public class AssociationController {
     @Autowired
     private AuthenticationService authenticationService;
 
+    @Autowired
+    private ProximiteService proximiteService;
+
+    @Autowired
+    private ReponsesPubliques reponsesPubliques;
+
     /**
      * Lister toutes les associations validées (public)
      */
     @GetMapping
     @Operation(summary = "Liste des associations", description = "Récupère toutes les associations validées")
-    public ResponseEntity<?> getAllAssociations() {
+    public ResponseEntity<?> getAllAssociations(WebRequest requete) {
         try {
-            List<Association> associations = associationService.findValidatedAssociations();
-            return ResponseEntity.ok(ApiResponse.success("Associations récupérées avec succès", associations));
+            return reponsesPubliques.collection(requete, "associations-validees", "Associations récupérées avec succès",
+                    associationService::findResumesValidees, VERSIONS_RESUMES);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Erreur lors de la récupération des associations", e.getMessage()));
@@ -53,10 +68,10 @@ public class AssociationController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Détails association", description = "Récupère les détails d'une association")
-    public ResponseEntity<?> getAssociation(@PathVariable Long id) {
+    public ResponseEntity<?> getAssociation(@PathVariable Long id, WebRequest requete) {
         try {
-            Association association = associationService.findById(id);
-            return ResponseEntity.ok(ApiResponse.success("Association récupérée avec succès", association));
+            return reponsesPubliques.element(requete, "association", id, "Association récupérée avec succès",
+                    associationService.getValidateurResume(id), () -> associationService.getResume(id));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Association non trouvée", e.getMessage()));
@@ -102,7 +117,7 @@ public class AssociationController {
     public ResponseEntity<?> getProfil(@RequestHeader("Authorization") String token) {
         try {
             Utilisateur utilisateur = authenticationService.getCurrentUser(token);
-            Association association = associationService.findById(utilisateur.getIdUtilisateur());
+            AssociationResume association = associationService.getResume(utilisateur.getIdUtilisateur());
 
             return ResponseEntity.ok(ApiResponse.success("Profil récupéré avec succès", association));
         } catch (Exception e) {
@@ -157,7 +172,26 @@ public class AssociationController {
     @Operation(summary = "Rechercher associations", description = "Recherche des associations par nom")
     public ResponseEntity<?> rechercherAssociations(@RequestParam String nom) {
         try {
-            List<Association> associations = associationService.findByNomAssociation(nom);
+            List<AssociationResume> associations = associationService.findByNomAssociation(nom);
+            return ResponseEntity.ok(ApiResponse.success("Résultats de recherche", associations));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la recherche", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recherche multi-critères par préfixe (texte libre, nom, domaine, ville)
+     */
+    @GetMapping("/recherche-avancee")
+    @Operation(summary = "Recherche avancée", description = "Recherche par préfixe des associations validées, tous champs ou champ par champ")
+    public ResponseEntity<?> rechercheAvancee(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String nom,
+            @RequestParam(required = false) String domaine,
+            @RequestParam(required = false) String ville) {
+        try {
+            List<AssociationResume> associations = associationService.rechercher(q, nom, domaine, ville);
             return ResponseEntity.ok(ApiResponse.success("Résultats de recherche", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -165,6 +199,34 @@ public class AssociationController {
         }
     }
 
+    /**
+     * Associations à proximité d'une position ou d'une ville (public)
+     */
+    @GetMapping("/proximite")
+    @Operation(summary = "Associations proches", description = "Associations validées à moins de rayonKm de (lat, lon) ou d'une ville, les plus proches d'abord")
+    public ResponseEntity<?> getAssociationsProches(@RequestParam(required = false) Double lat,
+                                                    @RequestParam(required = false) Double lon,
+                                                    @RequestParam(required = false) String ville,
+                                                    @RequestParam(defaultValue = "20") double rayonKm,
+                                                    @RequestParam(defaultValue = "50") int limite) {
+        try {
+            if (rayonKm <= 0 || rayonKm > 500 || limite < 1 || limite > 200) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Paramètres invalides", "0 < rayonKm <= 500 et 1 <= limite <= 200"));
+            }
+            Gazetteer.Lieu centre = proximiteService.resoudreCentre(lat, lon, ville).orElse(null);
+            if (centre == null) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Position inconnue", "Indiquer lat et lon, ou une ville connue"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("Associations à proximité",
+                    proximiteService.associationsProches(centre.getLatitude(), centre.getLongitude(), rayonKm, limite)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la recherche de proximité", e.getMessage()));
+        }
+    }
+
     /**
      * Associations par domaine d'activité
      */
@@ -172,7 +234,7 @@ public class AssociationController {
     @Operation(summary = "Associations par domaine", description = "Récupère les associations d'un domaine spécifique")
     public ResponseEntity<?> getAssociationsByDomaine(@PathVariable String domaine) {
         try {
-            List<Association> associations = associationService.findByDomaineActivite(domaine);
+            List<AssociationResume> associations = associationService.findByDomaineActivite(domaine);
             return ResponseEntity.ok(ApiResponse.success("Associations du domaine", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -187,7 +249,7 @@ public class AssociationController {
     @Operation(summary = "Associations par ville", description = "Récupère les associations d'une ville")
     public ResponseEntity<?> getAssociationsByVille(@PathVariable String ville) {
         try {
-            List<Association> associations = associationService.findByVille(ville);
+            List<AssociationResume> associations = associationService.findByVille(ville);
             return ResponseEntity.ok(ApiResponse.success("Associations de la ville", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -196,13 +258,17 @@ public class AssociationController {
     }
 
     /**
-     * Top associations par montant collecté
+     * Top associations par montant des dons validés
      */
     @GetMapping("/top")
-    @Operation(summary = "Top associations", description = "Associations classées par montant collecté")
-    public ResponseEntity<?> getTopAssociations() {
+    @Operation(summary = "Top associations", description = "Associations classées par montant des dons validés")
+    public ResponseEntity<?> getTopAssociations(@RequestParam(defaultValue = "10") int limite) {
         try {
-            List<Association> associations = associationService.findTopAssociationsByDonations();
+            if (limite < 1 || limite > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Paramètres invalides", "1 <= limite <= 100"));
+            }
+            List<AssociationResume> associations = associationService.findTopAssociations(limite);
             return ResponseEntity.ok(ApiResponse.success("Top associations", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -217,7 +283,7 @@ public class AssociationController {
     @Operation(summary = "Associations actives", description = "Associations ayant des projets en cours")
     public ResponseEntity<?> getAssociationsWithActiveProjects() {
         try {
-            List<Association> associations = associationService.findWithActiveProjects();
+            List<AssociationResume> associations = associationService.findResumesAvecProjetsActifs();
             return ResponseEntity.ok(ApiResponse.success("Associations avec projets actifs", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -233,7 +299,7 @@ public class AssociationController {
     public ResponseEntity<?> getRecentAssociations(
             @RequestParam(defaultValue = "30") int jours) {
         try {
-            List<Association> associations = associationService.findRecentlyValidated(jours);
+            List<AssociationResume> associations = associationService.findResumesRecemmentValidees(jours);
             return ResponseEntity.ok(ApiResponse.success("Associations récentes", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -267,7 +333,7 @@ public class AssociationController {
     @Operation(summary = "Toutes les associations", description = "Liste complète des associations (admin)")
     public ResponseEntity<?> getAllAssociationsAdmin() {
         try {
-            List<Association> associations = associationService.findAll();
+            List<AssociationResume> associations = associationService.findResumes();
             return ResponseEntity.ok(ApiResponse.success("Toutes les associations récupérées", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -283,7 +349,7 @@ public class AssociationController {
     @Operation(summary = "Associations en attente", description = "Associations en attente de validation")
     public ResponseEntity<?> getAssociationsEnAttente() {
         try {
-            List<Association> associations = associationService.findPendingValidation();
+            List<AssociationResume> associations = associationService.findResumesEnAttente();
             return ResponseEntity.ok(ApiResponse.success("Associations en attente", associations));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -0,0 +1,73 @@
+package com.mediation.platform.controller;
+
+import com.mediation.platform.benchmark.GenerateurDonnees;
+import com.mediation.platform.benchmark.ScenarioCharge;
+import com.mediation.platform.dto.response.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/benchmark/charge")
+@Profile("charge")
+@PreAuthorize("hasRole('ADMINISTRATEUR')")
+@Tag(name = "Test de charge", description = "Données synthétiques et scénario HTTP de charge")
+public class BenchmarkChargeController {
+
+    @Autowired
+    private GenerateurDonnees generateurDonnees;
+
+    @Autowired
+    private ScenarioCharge scenarioCharge;
+
+    /**
+     * Générer un jeu de données (paramètres absents : valeurs app.charge.*)
+     */
+    @PostMapping("/donnees")
+    @Operation(summary = "Générer des données", description = "Donateurs, associations, projets et dons chargés en masse, popularité Zipf et dates saisonnières")
+    public ResponseEntity<?> generer(@RequestParam(required = false) Integer donateurs,
+                                     @RequestParam(required = false) Integer associations,
+                                     @RequestParam(required = false) Integer projets,
+                                     @RequestParam(required = false) Integer dons,
+                                     @RequestParam(required = false) Double exposantProjets,
+                                     @RequestParam(required = false) Double exposantDonateurs,
+                                     @RequestParam(required = false) Integer moisHistorique,
+                                     @RequestParam(required = false) Long graine) {
+        try {
+            GenerateurDonnees.Parametres defaut = generateurDonnees.parametresParDefaut();
+            GenerateurDonnees.Parametres parametres = new GenerateurDonnees.Parametres(
+                    donateurs != null ? donateurs : defaut.getDonateurs(),
+                    associations != null ? associations : defaut.getAssociations(),
+                    projets != null ? projets : defaut.getProjets(),
+                    dons != null ? dons : defaut.getDons(),
+                    exposantProjets != null ? exposantProjets : defaut.getExposantProjets(),
+                    exposantDonateurs != null ? exposantDonateurs : defaut.getExposantDonateurs(),
+                    moisHistorique != null ? moisHistorique : defaut.getMoisHistorique(),
+                    graine != null ? graine : defaut.getGraine());
+            return ResponseEntity.ok(ApiResponse.success("Données générées", generateurDonnees.generer(parametres)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la génération des données", e.getMessage()));
+        }
+    }
+
+    /**
+     * Exécuter le scénario de charge HTTP
+     */
+    @PostMapping("/scenario")
+    @Operation(summary = "Lancer le scénario de charge", description = "Connexion, navigation, don, validation et tableau de bord ; latences par étape")
+    public ResponseEntity<?> executer(@RequestParam(defaultValue = "8") int utilisateurs,
+                                      @RequestParam(defaultValue = "60") int dureeSecondes) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Test de charge terminé",
+                    scenarioCharge.executer(utilisateurs, dureeSecondes)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors du test de charge", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mediation.platform.controller;
+
+import com.mediation.platform.benchmark.BenchmarkEmailService;
+import com.mediation.platform.benchmark.ServeurSmtpLocal;
+import com.mediation.platform.dto.response.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/benchmark/emails")
+@Profile("smtp-local")
+@PreAuthorize("hasRole('ADMINISTRATEUR')")
+@Tag(name = "Banc d'essai email", description = "Mesure des envois d'email contre le serveur SMTP local")
+public class BenchmarkEmailController {
+
+    @Autowired
+    private BenchmarkEmailService benchmarkEmailService;
+
+    @Autowired
+    private ServeurSmtpLocal serveurSmtpLocal;
+
+    /**
+     * Exécuter un scénario de banc d'essai
+     */
+    @PostMapping("/{scenario}")
+    @Operation(summary = "Lancer un banc d'essai", description = "Débit, file d'attente et latence de bout en bout des emails")
+    public ResponseEntity<?> executer(@PathVariable BenchmarkEmailService.Scenario scenario,
+                                      @RequestParam(defaultValue = "100") int volume,
+                                      @RequestParam(defaultValue = "4") int concurrence) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Banc d'essai terminé",
+                    benchmarkEmailService.executer(scenario, volume, concurrence)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors du banc d'essai", e.getMessage()));
+        }
+    }
+
+    /**
+     * Boîte du serveur SMTP local
+     */
+    @GetMapping("/boite")
+    @Operation(summary = "Boîte SMTP locale", description = "Compteurs et derniers messages reçus")
+    public ResponseEntity<?> getBoite(@RequestParam(defaultValue = "20") int limite) {
+        try {
+            Map<String, Object> boite = new HashMap<>();
+            boite.put("port", serveurSmtpLocal.getPort());
+            boite.put("messagesRecus", serveurSmtpLocal.getNombreMessagesRecus());
+            boite.put("connexions", serveurSmtpLocal.getNombreConnexions());
+            boite.put("derniersMessages", serveurSmtpLocal.getDerniersMessages(limite));
+            return ResponseEntity.ok(ApiResponse.success("Boîte SMTP locale", boite));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/boite")
+    @Operation(summary = "Vider la boîte SMTP locale")
+    public ResponseEntity<?> viderBoite() {
+        serveurSmtpLocal.viderBoite();
+        return ResponseEntity.ok(ApiResponse.success("Boîte vidée", null));
+    }
+}
@@ -1,6 +1,7 @@
 package com.mediation.platform.controller;
 
 import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.dto.response.DonateurResume;
 import com.mediation.platform.entity.Don;
 import com.mediation.platform.entity.Donateur;
 import com.mediation.platform.entity.Utilisateur;
@@ -70,7 +71,7 @@ public class DonateurController {
     public ResponseEntity<?> getProfil(@RequestHeader("Authorization") String token) {
         try {
             Utilisateur utilisateur = authenticationService.getCurrentUser(token);
-            Donateur donateur = donateurService.findById(utilisateur.getIdUtilisateur());
+            DonateurResume donateur = donateurService.getResume(utilisateur.getIdUtilisateur());
 
             return ResponseEntity.ok(ApiResponse.success("Profil récupéré avec succès", donateur));
         } catch (Exception e) {
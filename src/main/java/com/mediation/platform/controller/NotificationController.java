@@ -0,0 +1,77 @@
+package com.mediation.platform.controller;
+
+import com.mediation.platform.dto.request.NotificationIdsRequest;
+import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.entity.Utilisateur;
+import com.mediation.platform.service.AuthenticationService;
+import com.mediation.platform.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/notifications")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Notifications", description = "API des notifications de l'utilisateur connecté")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    /**
+     * Marquer plusieurs notifications comme lues
+     */
+    @PostMapping("/marquer-lues")
+    @Operation(summary = "Marquer notifications lues",
+            description = "Marque comme lues les notifications indiquées appartenant à l'utilisateur connecté")
+    public ResponseEntity<?> marquerCommeLues(
+            @Valid @RequestBody NotificationIdsRequest request,
+            @RequestHeader("Authorization") String token) {
+        try {
+            Utilisateur utilisateur = authenticationService.getCurrentUser(token);
+            int modifiees = notificationService.marquerCommeLues(utilisateur, request.getIds());
+
+            Map<String, Object> resultat = new HashMap<>();
+            resultat.put("demandees", request.getIds().size());
+            resultat.put("modifiees", modifiees);
+
+            return ResponseEntity.ok(ApiResponse.success("Notifications marquées comme lues", resultat));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la mise à jour", e.getMessage()));
+        }
+    }
+
+    /**
+     * Supprimer plusieurs notifications
+     */
+    @PostMapping("/supprimer")
+    @Operation(summary = "Supprimer notifications",
+            description = "Supprime les notifications indiquées appartenant à l'utilisateur connecté")
+    public ResponseEntity<?> supprimerNotifications(
+            @Valid @RequestBody NotificationIdsRequest request,
+            @RequestHeader("Authorization") String token) {
+        try {
+            Utilisateur utilisateur = authenticationService.getCurrentUser(token);
+            int supprimees = notificationService.supprimerNotifications(utilisateur, request.getIds());
+
+            Map<String, Object> resultat = new HashMap<>();
+            resultat.put("demandees", request.getIds().size());
+            resultat.put("supprimees", supprimees);
+
+            return ResponseEntity.ok(ApiResponse.success("Notifications supprimées", resultat));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la suppression", e.getMessage()));
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.mediation.platform.controller;
 
+import com.mediation.platform.cache.ReponsesPubliques;
+import com.mediation.platform.cache.VersionsPubliques;
 import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.dto.response.ProjetResume;
 import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Donateur;
 import com.mediation.platform.entity.Projet;
 import com.mediation.platform.entity.Utilisateur;
 import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.recherche.FacettesProjets;
+import com.mediation.platform.recherche.Gazetteer;
 import com.mediation.platform.service.AuthenticationService;
 import com.mediation.platform.service.ProjetService;
+import com.mediation.platform.service.ProximiteService;
 
 import java.util.HashMap;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,10 +24,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/projets")
@@ -28,21 +38,30 @@ import java.util.Map;
 @Tag(name = "Projets", description = "API de gestion des projets")
 public class ProjetController {
 
+    // Les listes de résumés reprennent l'association et les nombres de dons et donateurs : versions des trois collections
+    private static final String[] VERSIONS_RESUMES = {VersionsPubliques.PROJETS, VersionsPubliques.ASSOCIATIONS, VersionsPubliques.DONS};
+
     @Autowired
     private ProjetService projetService;
 
     @Autowired
     private AuthenticationService authenticationService;
 
+    @Autowired
+    private ProximiteService proximiteService;
+
+    @Autowired
+    private ReponsesPubliques reponsesPubliques;
+
     /**
      * Lister tous les projets (public)
      */
     @GetMapping
     @Operation(summary = "Liste des projets", description = "Récupère tous les projets actifs")
-    public ResponseEntity<?> getAllProjets() {
+    public ResponseEntity<?> getAllProjets(WebRequest requete) {
         try {
-            List<Projet> projets = projetService.findActiveProjects();
-            return ResponseEntity.ok(ApiResponse.success("Projets récupérés avec succès", projets));
+            return reponsesPubliques.collection(requete, "projets-actifs", "Projets récupérés avec succès",
+                    () -> projetService.findResumesByStatut(StatutProjet.EN_COURS), VERSIONS_RESUMES);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Erreur lors de la récupération des projets", e.getMessage()));
@@ -54,10 +73,10 @@ public class ProjetController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Détails projet", description = "Récupère les détails d'un projet")
-    public ResponseEntity<?> getProjet(@PathVariable Long id) {
+    public ResponseEntity<?> getProjet(@PathVariable Long id, WebRequest requete) {
         try {
-            Projet projet = projetService.findById(id);
-            return ResponseEntity.ok(ApiResponse.success("Projet récupéré avec succès", projet));
+            return reponsesPubliques.element(requete, "projet", id, "Projet récupéré avec succès",
+                    projetService.getValidateurResume(id), () -> projetService.getResume(id));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Projet non trouvé", e.getMessage()));
@@ -166,7 +185,7 @@ public class ProjetController {
     @Operation(summary = "Rechercher projets", description = "Recherche des projets par mot-clé")
     public ResponseEntity<?> rechercherProjets(@RequestParam String keyword) {
         try {
-            List<Projet> projets = projetService.searchByKeyword(keyword);
+            List<ProjetResume> projets = projetService.searchByKeyword(keyword);
             return ResponseEntity.ok(ApiResponse.success("Résultats de recherche", projets));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -174,6 +193,95 @@ public class ProjetController {
         }
     }
 
+    /**
+     * Recherche plein texte classée et paginée (public)
+     */
+    @GetMapping("/recherche-texte")
+    @Operation(summary = "Recherche plein texte", description = "Projets classés par pertinence (titre, objectif, description)")
+    public ResponseEntity<?> rechercherProjetsTexte(@RequestParam String q,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "20") int taille) {
+        try {
+            if (page < 0 || taille < 1 || taille > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Pagination invalide", "page >= 0 et 1 <= taille <= 100"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("Résultats de recherche",
+                    projetService.rechercher(q, page, taille)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la recherche", e.getMessage()));
+        }
+    }
+
+    /**
+     * Navigation par facettes : statut, priorité, domaine (public)
+     */
+    @GetMapping("/facettes")
+    @Operation(summary = "Projets par facettes", description = "Filtre combiné (statut, priorite, domaine, valeurs répétables) avec comptages par facette")
+    public ResponseEntity<?> parcourirProjets(@RequestParam(required = false) Set<String> statut,
+                                              @RequestParam(required = false) Set<String> priorite,
+                                              @RequestParam(required = false) Set<String> domaine,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "20") int taille) {
+        try {
+            if (page < 0 || taille < 1 || taille > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Pagination invalide", "page >= 0 et 1 <= taille <= 100"));
+            }
+            Map<String, Set<String>> filtres = new HashMap<>();
+            if (statut != null) {
+                filtres.put(FacettesProjets.STATUT, statut.stream().map(String::toUpperCase).collect(Collectors.toSet()));
+            }
+            if (priorite != null) {
+                filtres.put(FacettesProjets.PRIORITE, priorite);
+            }
+            if (domaine != null) {
+                filtres.put(FacettesProjets.DOMAINE, domaine);
+            }
+            return ResponseEntity.ok(ApiResponse.success("Projets filtrés",
+                    projetService.parcourir(filtres, page, taille)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors du filtrage des projets", e.getMessage()));
+        }
+    }
+
+    /**
+     * Projets en cours près d'une position, d'une ville, ou du donateur connecté (public)
+     */
+    @GetMapping("/proximite")
+    @Operation(summary = "Projets proches", description = "Projets en cours des associations à moins de rayonKm ; sans position ni ville, celle du donateur connecté")
+    public ResponseEntity<?> getProjetsProches(@RequestParam(required = false) Double lat,
+                                               @RequestParam(required = false) Double lon,
+                                               @RequestParam(required = false) String ville,
+                                               @RequestParam(defaultValue = "20") double rayonKm,
+                                               @RequestParam(defaultValue = "50") int limite,
+                                               @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            if (rayonKm <= 0 || rayonKm > 500 || limite < 1 || limite > 200) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Paramètres invalides", "0 < rayonKm <= 500 et 1 <= limite <= 200"));
+            }
+            Gazetteer.Lieu centre = proximiteService.resoudreCentre(lat, lon, ville).orElse(null);
+            if (centre == null && token != null) {
+                Utilisateur utilisateur = authenticationService.getCurrentUser(token);
+                if (utilisateur instanceof Donateur donateur && donateur.getLatitude() != null) {
+                    centre = new Gazetteer.Lieu("donateur", donateur.getLatitude(), donateur.getLongitude());
+                }
+            }
+            if (centre == null) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Position inconnue", "Indiquer lat et lon, ou une ville connue"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("Projets à proximité",
+                    proximiteService.projetsProches(centre.getLatitude(), centre.getLongitude(), rayonKm, limite)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la recherche de proximité", e.getMessage()));
+        }
+    }
+
     /**
      * Projets par statut
      */
@@ -182,7 +290,7 @@ public class ProjetController {
     public ResponseEntity<?> getProjetsByStatut(@PathVariable String statut) {
         try {
             StatutProjet statutProjet = StatutProjet.valueOf(statut.toUpperCase());
-            List<Projet> projets = projetService.findByStatut(statutProjet);
+            List<ProjetResume> projets = projetService.findResumesByStatut(statutProjet);
             return ResponseEntity.ok(ApiResponse.success("Projets récupérés avec succès", projets));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
@@ -200,7 +308,7 @@ public class ProjetController {
     @Operation(summary = "Projets proches objectif", description = "Projets ayant atteint au moins 90% de leur objectif")
     public ResponseEntity<?> getProjetsProchesObjectif() {
         try {
-            List<Projet> projets = projetService.findNearGoal(0.9);
+            List<ProjetResume> projets = projetService.findResumesProchesObjectif(0.9);
             return ResponseEntity.ok(ApiResponse.success("Projets proches de l'objectif", projets));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -216,7 +324,7 @@ public class ProjetController {
     @Operation(summary = "Projets en retard", description = "Projets ayant dépassé leur date limite")
     public ResponseEntity<?> getProjetsEnRetard() {
         try {
-            List<Projet> projets = projetService.findOverdueProjects();
+            List<ProjetResume> projets = projetService.findResumesEnRetard();
             return ResponseEntity.ok(ApiResponse.success("Projets en retard", projets));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -232,7 +340,7 @@ public class ProjetController {
     public ResponseEntity<?> getProjetsRecents() {
         try {
             LocalDateTime dateDebut = LocalDateTime.now().minusDays(30);
-            List<Projet> projets = projetService.findRecentProjects(dateDebut);
+            List<ProjetResume> projets = projetService.findResumesRecents(dateDebut);
             return ResponseEntity.ok(ApiResponse.success("Projets récents", projets));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -241,13 +349,17 @@ public class ProjetController {
     }
 
     /**
-     * Top projets (par montant collecté)
+     * Top projets (par montant des dons validés)
      */
     @GetMapping("/top")
-    @Operation(summary = "Top projets", description = "Projets classés par montant collecté")
-    public ResponseEntity<?> getTopProjets() {
+    @Operation(summary = "Top projets", description = "Projets classés par montant des dons validés")
+    public ResponseEntity<?> getTopProjets(@RequestParam(defaultValue = "10") int limite) {
         try {
-            List<Projet> projets = projetService.findTopProjects();
+            if (limite < 1 || limite > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Paramètres invalides", "1 <= limite <= 100"));
+            }
+            List<ProjetResume> projets = projetService.findTopProjects(limite);
             return ResponseEntity.ok(ApiResponse.success("Top projets", projets));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
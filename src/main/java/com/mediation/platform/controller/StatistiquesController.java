@@ -1,6 +1,9 @@
 package com.mediation.platform.controller;
 
+import com.mediation.platform.cache.ReponsesPubliques;
+import com.mediation.platform.classement.Classements;
 import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.exception.BusinessException;
 import com.mediation.platform.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -8,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -33,35 +37,28 @@ public class StatistiquesController {
     @Autowired
     private UtilisateurService utilisateurService;
 
+    @Autowired
+    private ReponsesPubliques reponsesPubliques;
+
+    @Autowired
+    private StatistiquesPubliquesService statistiquesPubliquesService;
+
+    @Autowired
+    private StatistiquesService statistiquesService;
+
+    @Autowired
+    private ClassementService classementService;
+
     /**
      * Statistiques publiques de la plateforme
      */
     @GetMapping("/publiques")
-    @Operation(summary = "Statistiques publiques", description = "Statistiques générales visibles par tous")
-    public ResponseEntity<?> getStatistiquesPubliques() {
+    @Operation(summary = "Statistiques publiques", description = "Statistiques générales visibles par tous, servies depuis un instantané recalculé en arrière-plan")
+    public ResponseEntity<?> getStatistiquesPubliques(WebRequest requete) {
         try {
-            Map<String, Object> stats = new HashMap<>();
-
-            // Statistiques de base
-            stats.put("nombreAssociations", associationService.findValidatedAssociations().size());
-            stats.put("nombreProjetsActifs", projetService.findActiveProjects().size());
-            stats.put("montantTotalCollecte", donService.getTotalConfirmedDonations());
-            stats.put("nombreDonateurs", donateurService.findDonatorsWithConfirmedDonations().size());
-            stats.put("nombreDonsTotal", donService.findValidatedDons().size());
-
-            // Associations par domaine
-            Map<String, Long> associationsParDomaine = new HashMap<>();
-            associationService.findValidatedAssociations().forEach(assoc -> {
-                String domaine = assoc.getDomaineActivite() != null ? assoc.getDomaineActivite() : "Autre";
-                associationsParDomaine.merge(domaine, 1L, Long::sum);
-            });
-            stats.put("associationsParDomaine", associationsParDomaine);
-
-            // Projets terminés vs actifs
-            stats.put("projetsTermines", projetService.findByStatut(com.mediation.platform.enums.StatutProjet.TERMINE).size());
-            stats.put("tauxReussiteProjets", calculerTauxReussite());
-
-            return ResponseEntity.ok(ApiResponse.success("Statistiques publiques", stats));
+            StatistiquesPubliquesService.Instantane instantane = statistiquesPubliquesService.getInstantane();
+            return reponsesPubliques.instantane(requete, instantane.getEtag(), instantane.getDateCalcul(),
+                    instantane.getCorps());
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
@@ -197,6 +194,62 @@ public class StatistiquesController {
         }
     }
 
+    /**
+     * Tableau de bord détaillé (sections calculées en parallèle, résultat partiel si une section échoue)
+     */
+    @GetMapping("/tableau-de-bord")
+    @PreAuthorize("hasRole('ADMINISTRATEUR')")
+    @Operation(summary = "Tableau de bord détaillé", description = "Statistiques générales, financières, activité, alertes et tendances sur 30 jours")
+    public ResponseEntity<?> getTableauDeBord() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Tableau de bord", statistiquesService.getTableauDeBord()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la génération du tableau de bord", e.getMessage()));
+        }
+    }
+
+    /**
+     * Classement des associations ou des projets (le classement des donateurs est réservé à l'administration)
+     */
+    @GetMapping("/classements/{type}")
+    @Operation(summary = "Classement", description = "Associations ou projets par montant des dons validés : global, par mois (valeur AAAA-MM) ou par domaine")
+    public ResponseEntity<?> getClassement(@PathVariable String type,
+                                           @RequestParam(defaultValue = Classements.GLOBAL) String portee,
+                                           @RequestParam(required = false) String valeur,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "10") int taille) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Classement",
+                    classementService.getPage(typePublic(type), portee, valeur, page, taille)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération du classement", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/classements/{type}/{id}/rang")
+    @Operation(summary = "Rang", description = "Rang et montant d'une association ou d'un projet dans un classement")
+    public ResponseEntity<?> getRang(@PathVariable String type, @PathVariable Long id,
+                                     @RequestParam(defaultValue = Classements.GLOBAL) String portee,
+                                     @RequestParam(required = false) String valeur) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Rang",
+                    classementService.getRang(typePublic(type), id, portee, valeur)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération du rang", e.getMessage()));
+        }
+    }
+
+    private static Classements.Type typePublic(String type) {
+        Classements.Type resultat = ClassementService.type(type);
+        if (resultat == Classements.Type.DONATEURS) {
+            throw new BusinessException("Classement des donateurs réservé à l'administration");
+        }
+        return resultat;
+    }
+
     /**
      * Rapport d'activité mensuel
      */
@@ -251,17 +304,6 @@ public class StatistiquesController {
     /**
      * Méthodes utilitaires privées
      */
-    private double calculerTauxReussite() {
-        try {
-            long totalProjets = projetService.count();
-            long projetsTermines = projetService.findByStatut(com.mediation.platform.enums.StatutProjet.TERMINE).size();
-
-            if (totalProjets == 0) return 0.0;
-            return (double) projetsTermines / totalProjets * 100;
-        } catch (Exception e) {
-            return 0.0;
-        }
-    }
 
     private double calculerEvolutionProjets(java.time.LocalDate debutMoisActuel, java.time.LocalDate debutMoisPrecedent) {
         try {
@@ -0,0 +1,100 @@
+package com.mediation.platform.controller;
+
+import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.dto.response.Suggestion;
+import com.mediation.platform.recherche.IndexAutocompletion;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+
+@RestController
+@RequestMapping("/suggestions")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Suggestions", description = "Autocomplétion des projets et des associations")
+public class SuggestionController {
+
+    @Autowired
+    private IndexAutocompletion indexAutocompletion;
+
+    @Value("${app.autocompletion.cache-secondes:30}")
+    private long cacheSecondes;
+
+    /**
+     * Titres de projets commençant par le préfixe (public)
+     */
+    @GetMapping("/projets")
+    @Operation(summary = "Suggestions de projets", description = "Projets dont un mot du titre commence par q, par montant collecté")
+    public ResponseEntity<?> suggererProjets(@RequestParam String q,
+                                             @RequestParam(defaultValue = "10") int limite,
+                                             WebRequest requete) {
+        return repondre(q, limite, "p" + indexAutocompletion.getVersionProjets(),
+                indexAutocompletion::suggererProjets, requete);
+    }
+
+    /**
+     * Noms d'associations commençant par le préfixe (public)
+     */
+    @GetMapping("/associations")
+    @Operation(summary = "Suggestions d'associations", description = "Associations dont un mot du nom commence par q, par montant collecté")
+    public ResponseEntity<?> suggererAssociations(@RequestParam String q,
+                                                  @RequestParam(defaultValue = "10") int limite,
+                                                  WebRequest requete) {
+        return repondre(q, limite, "a" + indexAutocompletion.getVersionAssociations(),
+                indexAutocompletion::suggererAssociations, requete);
+    }
+
+    /**
+     * Taille des index et latence des suggestions (admin)
+     */
+    @GetMapping("/statistiques")
+    @PreAuthorize("hasRole('ADMINISTRATEUR')")
+    @Operation(summary = "Statistiques d'autocomplétion", description = "Taille des tries et temps de réponse")
+    public ResponseEntity<?> getStatistiques() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Statistiques récupérées avec succès",
+                    indexAutocompletion.getStatistiques()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de la récupération des statistiques", e.getMessage()));
+        }
+    }
+
+    /**
+     * Réponse cacheable : l'ETag est la version de l'index, 304 tant qu'il n'a pas changé
+     */
+    private ResponseEntity<?> repondre(String q, int limite, String version,
+                                       BiFunction<String, Integer, List<Suggestion>> suggerer,
+                                       WebRequest requete) {
+        try {
+            if (limite < 1 || limite > 20) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Limite invalide", "1 <= limite <= 20"));
+            }
+
+            String etag = "\"" + version + "\"";
+            CacheControl cache = CacheControl.maxAge(Duration.ofSeconds(cacheSecondes)).cachePublic();
+            if (requete.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cache).build();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cache)
+                    .body(ApiResponse.success("Suggestions", suggerer.apply(q, limite)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erreur lors de l'autocomplétion", e.getMessage()));
+        }
+    }
+}
@@ -50,6 +50,7 @@ public class AuthMapper {
         donateur.setAdresse(request.getAdresse());
         donateur.setDateNaissance(request.getDateNaissance());
         donateur.setProfession(request.getProfession());
+        donateur.setLangue(request.getLangue());
 
         return donateur;
     }
@@ -74,6 +75,7 @@ public class AuthMapper {
         association.setDescription(request.getDescription());
         association.setDomaineActivite(request.getDomaineActivite());
         association.setDocumentsLegaux(request.getDocumentsLegaux());
+        association.setLangue(request.getLangue());
 
         return association;
     }
@@ -0,0 +1,29 @@
+package com.mediation.platform.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class NotificationIdsRequest {
+
+    @NotEmpty(message = "La liste des notifications est obligatoire")
+    @Size(max = 10000, message = "La liste ne peut dépasser 10000 notifications")
+    private List<Long> ids;
+
+    // Constructeurs
+    public NotificationIdsRequest() {}
+
+    public NotificationIdsRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters et Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -41,6 +41,9 @@ public class RegisterAssociationRequest {
     @Size(max = 500, message = "Les documents légaux ne peuvent dépasser 500 caractères")
     private String documentsLegaux;
 
+    @Pattern(regexp = "[a-zA-Z]{2}", message = "La langue doit être un code ISO à deux lettres (fr, en)")
+    private String langue;
+
     // Constructeurs
     public RegisterAssociationRequest() {}
 
@@ -132,4 +135,12 @@ public class RegisterAssociationRequest {
     public void setDocumentsLegaux(String documentsLegaux) {
         this.documentsLegaux = documentsLegaux;
     }
-}
\ No newline at end of file
+
+    public String getLangue() {
+        return langue;
+    }
+
+    public void setLangue(String langue) {
+        this.langue = langue;
+    }
+}
@@ -34,6 +34,9 @@ public class RegisterDonateurRequest {
     @Size(max = 100, message = "La profession ne peut dépasser 100 caractères")
     private String profession;
 
+    @Pattern(regexp = "[a-zA-Z]{2}", message = "La langue doit être un code ISO à deux lettres (fr, en)")
+    private String langue;
+
     // Constructeurs
     public RegisterDonateurRequest() {}
 
@@ -101,5 +104,12 @@ public class RegisterDonateurRequest {
     public void setProfession(String profession) {
         this.profession = profession;
     }
-}
 
+    public String getLangue() {
+        return langue;
+    }
+
+    public void setLangue(String langue) {
+        this.langue = langue;
+    }
+}
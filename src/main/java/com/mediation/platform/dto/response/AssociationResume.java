@@ -0,0 +1,162 @@
+package com.mediation.platform.dto.response;
+
+import com.mediation.platform.enums.RoleUtilisateur;
+import com.mediation.platform.enums.StatutUtilisateur;
+
+import java.time.LocalDateTime;
+
+/**
+ * Association en lecture seule pour les listes et fiches publiques : colonnes et agrégats des
+ * projets lus par une seule requête (constructeur JPQL), sans charger la collection des projets.
+ */
+public class AssociationResume {
+
+    private final Long idUtilisateur;
+    private final String nom;
+    private final String prenom;
+    private final String email;
+    private final String telephone;
+    private final LocalDateTime dateCreation;
+    private final LocalDateTime dateModification;
+    private final StatutUtilisateur statut;
+    private final String nomAssociation;
+    private final String adresse;
+    private final Double latitude;
+    private final Double longitude;
+    private final String siteWeb;
+    private final String description;
+    private final String domaineActivite;
+    private final Boolean statutValidation;
+    private final LocalDateTime dateValidation;
+    private final int nombreProjets;
+    private final int nombreProjetsActifs;
+    private final int nombreProjetsTermines;
+    private final Double montantTotalCollecte;
+
+    public AssociationResume(Long idUtilisateur, String nom, String prenom, String email, String telephone,
+                             LocalDateTime dateCreation, LocalDateTime dateModification, StatutUtilisateur statut,
+                             String nomAssociation, String adresse, Double latitude, Double longitude,
+                             String siteWeb, String description, String domaineActivite,
+                             Boolean statutValidation, LocalDateTime dateValidation,
+                             Long nombreProjets, Long nombreProjetsActifs, Long nombreProjetsTermines,
+                             Double montantTotalCollecte) {
+        this.idUtilisateur = idUtilisateur;
+        this.nom = nom;
+        this.prenom = prenom;
+        this.email = email;
+        this.telephone = telephone;
+        this.dateCreation = dateCreation;
+        this.dateModification = dateModification;
+        this.statut = statut;
+        this.nomAssociation = nomAssociation;
+        this.adresse = adresse;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.siteWeb = siteWeb;
+        this.description = description;
+        this.domaineActivite = domaineActivite;
+        this.statutValidation = statutValidation;
+        this.dateValidation = dateValidation;
+        this.nombreProjets = nombreProjets != null ? nombreProjets.intValue() : 0;
+        this.nombreProjetsActifs = nombreProjetsActifs != null ? nombreProjetsActifs.intValue() : 0;
+        this.nombreProjetsTermines = nombreProjetsTermines != null ? nombreProjetsTermines.intValue() : 0;
+        this.montantTotalCollecte = montantTotalCollecte != null ? montantTotalCollecte : 0.0;
+    }
+
+    // Getters
+    public Long getIdUtilisateur() {
+        return idUtilisateur;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelephone() {
+        return telephone;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+
+    public StatutUtilisateur getStatut() {
+        return statut;
+    }
+
+    public RoleUtilisateur getRole() {
+        return RoleUtilisateur.ASSOCIATION;
+    }
+
+    public String getNomAssociation() {
+        return nomAssociation;
+    }
+
+    public String getAdresse() {
+        return adresse;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public String getSiteWeb() {
+        return siteWeb;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDomaineActivite() {
+        return domaineActivite;
+    }
+
+    public Boolean getStatutValidation() {
+        return statutValidation;
+    }
+
+    public LocalDateTime getDateValidation() {
+        return dateValidation;
+    }
+
+    public int getNombreProjets() {
+        return nombreProjets;
+    }
+
+    public int getNombreProjetsActifs() {
+        return nombreProjetsActifs;
+    }
+
+    public int getNombreProjetsTermines() {
+        return nombreProjetsTermines;
+    }
+
+    public Double getMontantTotalCollecte() {
+        return montantTotalCollecte;
+    }
+
+    public String getNomComplet() {
+        return prenom + " " + nom;
+    }
+
+    public String getNomAffichage() {
+        return nomAssociation != null ? nomAssociation : getNomComplet();
+    }
+}
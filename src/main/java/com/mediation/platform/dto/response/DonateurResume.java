@@ -0,0 +1,203 @@
+package com.mediation.platform.dto.response;
+
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.enums.RoleUtilisateur;
+import com.mediation.platform.enums.StatutUtilisateur;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Profil donateur en lecture seule : colonnes du donateur et agrégats de ses dons calculés en
+ * base, sans parcourir la collection des dons ni leurs projets et associations.
+ */
+public class DonateurResume {
+
+    private final Long idUtilisateur;
+    private final String nom;
+    private final String prenom;
+    private final String email;
+    private final String telephone;
+    private final LocalDateTime dateCreation;
+    private final LocalDateTime dateModification;
+    private final LocalDateTime derniereConnexion;
+    private final StatutUtilisateur statut;
+    private final String adresse;
+    private final Double latitude;
+    private final Double longitude;
+    private final LocalDate dateNaissance;
+    private final String profession;
+    private final Integer age;
+    private final String trancheAge;
+    private final int nombreDons;
+    private final int nombreDonsValides;
+    private final int nombreDonsEnAttente;
+    private final Double montantTotalDons;
+    private final Double montantTotalTousDons;
+    private final int nombreProjetsSoutenus;
+    private final int nombreAssociationsSoutenues;
+    private final LocalDate datePremierDon;
+    private final LocalDate dateDernierDon;
+    private final String domainePreference;
+
+    public DonateurResume(Donateur donateur, long nombreDons, long nombreDonsValides, long nombreDonsEnAttente,
+                          double montantTotalDons, double montantTotalTousDons,
+                          long nombreProjetsSoutenus, long nombreAssociationsSoutenues,
+                          LocalDate datePremierDon, LocalDate dateDernierDon, String domainePreference) {
+        this.idUtilisateur = donateur.getIdUtilisateur();
+        this.nom = donateur.getNom();
+        this.prenom = donateur.getPrenom();
+        this.email = donateur.getEmail();
+        this.telephone = donateur.getTelephone();
+        this.dateCreation = donateur.getDateCreation();
+        this.dateModification = donateur.getDateModification();
+        this.derniereConnexion = donateur.getDerniereConnexion();
+        this.statut = donateur.getStatut();
+        this.adresse = donateur.getAdresse();
+        this.latitude = donateur.getLatitude();
+        this.longitude = donateur.getLongitude();
+        this.dateNaissance = donateur.getDateNaissance();
+        this.profession = donateur.getProfession();
+        this.age = donateur.getAge();
+        this.trancheAge = donateur.getTrancheAge();
+        this.nombreDons = (int) nombreDons;
+        this.nombreDonsValides = (int) nombreDonsValides;
+        this.nombreDonsEnAttente = (int) nombreDonsEnAttente;
+        this.montantTotalDons = montantTotalDons;
+        this.montantTotalTousDons = montantTotalTousDons;
+        this.nombreProjetsSoutenus = (int) nombreProjetsSoutenus;
+        this.nombreAssociationsSoutenues = (int) nombreAssociationsSoutenues;
+        this.datePremierDon = datePremierDon;
+        this.dateDernierDon = dateDernierDon;
+        this.domainePreference = domainePreference;
+    }
+
+    // Getters
+    public Long getIdUtilisateur() {
+        return idUtilisateur;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelephone() {
+        return telephone;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+
+    public LocalDateTime getDerniereConnexion() {
+        return derniereConnexion;
+    }
+
+    public StatutUtilisateur getStatut() {
+        return statut;
+    }
+
+    public RoleUtilisateur getRole() {
+        return RoleUtilisateur.DONATEUR;
+    }
+
+    public String getAdresse() {
+        return adresse;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public LocalDate getDateNaissance() {
+        return dateNaissance;
+    }
+
+    public String getProfession() {
+        return profession;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public String getTrancheAge() {
+        return trancheAge;
+    }
+
+    public int getNombreDons() {
+        return nombreDons;
+    }
+
+    public int getNombreDonsValides() {
+        return nombreDonsValides;
+    }
+
+    public int getNombreDonsEnAttente() {
+        return nombreDonsEnAttente;
+    }
+
+    public Double getMontantTotalDons() {
+        return montantTotalDons;
+    }
+
+    public Double getMontantTotalTousDons() {
+        return montantTotalTousDons;
+    }
+
+    public Double getMontantMoyenParDon() {
+        return nombreDonsValides > 0 ? montantTotalDons / nombreDonsValides : 0.0;
+    }
+
+    public int getNombreProjetsSoutenus() {
+        return nombreProjetsSoutenus;
+    }
+
+    public int getNombreAssociationsSoutenues() {
+        return nombreAssociationsSoutenues;
+    }
+
+    public LocalDate getDatePremierDon() {
+        return datePremierDon;
+    }
+
+    public LocalDate getDateDernierDon() {
+        return dateDernierDon;
+    }
+
+    public String getDomainePreference() {
+        return domainePreference;
+    }
+
+    public String getNiveauDonateur() {
+        return Donateur.niveauDonateur(montantTotalDons, nombreDonsValides);
+    }
+
+    public String getCouleurNiveau() {
+        return Donateur.couleurNiveau(getNiveauDonateur());
+    }
+
+    public String getNomComplet() {
+        return prenom + " " + nom;
+    }
+
+    public String getNomAffichage() {
+        return getNomComplet();
+    }
+}
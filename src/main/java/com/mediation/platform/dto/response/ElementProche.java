@@ -0,0 +1,34 @@
+package com.mediation.platform.dto.response;
+
+/**
+ * Association ou projet trouvé par une recherche de proximité, avec sa distance en kilomètres
+ */
+public class ElementProche<T> {
+
+    private T element;
+    private double distanceKm;
+
+    public ElementProche() {}
+
+    public ElementProche(T element, double distanceKm) {
+        this.element = element;
+        this.distanceKm = distanceKm;
+    }
+
+    // Getters et Setters
+    public T getElement() {
+        return element;
+    }
+
+    public void setElement(T element) {
+        this.element = element;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
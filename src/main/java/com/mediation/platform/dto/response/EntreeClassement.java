@@ -0,0 +1,54 @@
+package com.mediation.platform.dto.response;
+
+/**
+ * Ligne d'un classement : rang, identifiant, nom affiché et montant des dons validés
+ */
+public class EntreeClassement {
+
+    private int rang;
+    private Long id;
+    private String nom;
+    private double score;
+
+    public EntreeClassement() {}
+
+    public EntreeClassement(int rang, Long id, String nom, double score) {
+        this.rang = rang;
+        this.id = id;
+        this.nom = nom;
+        this.score = score;
+    }
+
+    // Getters et Setters
+    public int getRang() {
+        return rang;
+    }
+
+    public void setRang(int rang) {
+        this.rang = rang;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
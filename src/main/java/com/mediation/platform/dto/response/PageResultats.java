@@ -0,0 +1,63 @@
+package com.mediation.platform.dto.response;
+
+import java.util.List;
+
+public class PageResultats<T> {
+
+    private List<T> contenu;
+    private long total;
+    private int page;
+    private int taille;
+    private int nombrePages;
+
+    public PageResultats() {}
+
+    public PageResultats(List<T> contenu, long total, int page, int taille) {
+        this.contenu = contenu;
+        this.total = total;
+        this.page = page;
+        this.taille = taille;
+        this.nombrePages = taille > 0 ? (int) ((total + taille - 1) / taille) : 0;
+    }
+
+    // Getters et Setters
+    public List<T> getContenu() {
+        return contenu;
+    }
+
+    public void setContenu(List<T> contenu) {
+        this.contenu = contenu;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public void setTaille(int taille) {
+        this.taille = taille;
+    }
+
+    public int getNombrePages() {
+        return nombrePages;
+    }
+
+    public void setNombrePages(int nombrePages) {
+        this.nombrePages = nombrePages;
+    }
+}
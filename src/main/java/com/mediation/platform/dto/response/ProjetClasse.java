@@ -0,0 +1,34 @@
+package com.mediation.platform.dto.response;
+
+/**
+ * Projet trouvé par la recherche plein texte, avec son score de pertinence
+ */
+public class ProjetClasse {
+
+    private ProjetResume projet;
+    private double score;
+
+    public ProjetClasse() {}
+
+    public ProjetClasse(ProjetResume projet, double score) {
+        this.projet = projet;
+        this.score = score;
+    }
+
+    // Getters et Setters
+    public ProjetResume getProjet() {
+        return projet;
+    }
+
+    public void setProjet(ProjetResume projet) {
+        this.projet = projet;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,193 @@
+package com.mediation.platform.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutProjet;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Projet en lecture seule pour les listes et fiches publiques : colonnes du projet, de son
+ * association et agrégats des dons lus par une seule requête (constructeur JPQL), sans charger
+ * l'association complète ni la collection des dons.
+ */
+public class ProjetResume {
+
+    private final Long idProjet;
+    private final String titre;
+    private final String description;
+    private final String objectif;
+    private final Double montantDemande;
+    private final Double montantCollecte;
+    private final LocalDate dateDebut;
+    private final LocalDate dateFin;
+    private final StatutProjet statut;
+    private final String priorite;
+    private final String images;
+    private final LocalDateTime dateCreation;
+    private final LocalDateTime dateModification;
+    private final Long idAssociation;
+    private final String nomAssociation;
+    private final String domaineActivite;
+    private final LocalDateTime dateModificationAssociation;
+    private final int nombreDons;
+    private final int nombreDonsValides;
+    private final int nombreDonateurs;
+
+    // Valeurs dérivées calculées par l'entité elle-même, à partir des seules colonnes
+    private final Double montantRestant;
+    private final Double progres;
+    private final String statutAffichage;
+    private final String couleurStatut;
+    private final Long joursRestants;
+    private final Double pourcentageTempsEcoule;
+
+    public ProjetResume(Long idProjet, String titre, String description, String objectif,
+                        Double montantDemande, Double montantCollecte, LocalDate dateDebut, LocalDate dateFin,
+                        StatutProjet statut, String priorite, String images,
+                        LocalDateTime dateCreation, LocalDateTime dateModification,
+                        Long idAssociation, String nomAssociation, String domaineActivite,
+                        LocalDateTime dateModificationAssociation,
+                        Long nombreDons, Long nombreDonsValides, Long nombreDonateurs) {
+        this.idProjet = idProjet;
+        this.titre = titre;
+        this.description = description;
+        this.objectif = objectif;
+        this.montantDemande = montantDemande;
+        this.montantCollecte = montantCollecte;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.statut = statut;
+        this.priorite = priorite;
+        this.images = images;
+        this.dateCreation = dateCreation;
+        this.dateModification = dateModification;
+        this.idAssociation = idAssociation;
+        this.nomAssociation = nomAssociation;
+        this.domaineActivite = domaineActivite;
+        this.dateModificationAssociation = dateModificationAssociation;
+        this.nombreDons = nombreDons != null ? nombreDons.intValue() : 0;
+        this.nombreDonsValides = nombreDonsValides != null ? nombreDonsValides.intValue() : 0;
+        this.nombreDonateurs = nombreDonateurs != null ? nombreDonateurs.intValue() : 0;
+
+        Projet projet = new Projet();
+        projet.setMontantDemande(montantDemande);
+        projet.setMontantCollecte(montantCollecte);
+        projet.setDateDebut(dateDebut);
+        projet.setDateFin(dateFin);
+        projet.setStatut(statut);
+        this.montantRestant = projet.getMontantRestant();
+        this.progres = projet.calculerProgres();
+        this.statutAffichage = projet.getStatutAffichage();
+        this.couleurStatut = projet.getCouleurStatut();
+        this.joursRestants = projet.getJoursRestants();
+        this.pourcentageTempsEcoule = projet.getPourcentageTempsEcoule();
+    }
+
+    // Getters
+    public Long getIdProjet() {
+        return idProjet;
+    }
+
+    public String getTitre() {
+        return titre;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getObjectif() {
+        return objectif;
+    }
+
+    public Double getMontantDemande() {
+        return montantDemande;
+    }
+
+    public Double getMontantCollecte() {
+        return montantCollecte;
+    }
+
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+
+    public LocalDate getDateFin() {
+        return dateFin;
+    }
+
+    public StatutProjet getStatut() {
+        return statut;
+    }
+
+    public String getPriorite() {
+        return priorite;
+    }
+
+    public String getImages() {
+        return images;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+
+    public Long getIdAssociation() {
+        return idAssociation;
+    }
+
+    public String getNomAssociation() {
+        return nomAssociation;
+    }
+
+    public String getDomaineActivite() {
+        return domaineActivite;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getDateModificationAssociation() {
+        return dateModificationAssociation;
+    }
+
+    public int getNombreDons() {
+        return nombreDons;
+    }
+
+    public int getNombreDonsValides() {
+        return nombreDonsValides;
+    }
+
+    public int getNombreDonateurs() {
+        return nombreDonateurs;
+    }
+
+    public Double getMontantRestant() {
+        return montantRestant;
+    }
+
+    public Double getProgres() {
+        return progres;
+    }
+
+    public String getStatutAffichage() {
+        return statutAffichage;
+    }
+
+    public String getCouleurStatut() {
+        return couleurStatut;
+    }
+
+    public Long getJoursRestants() {
+        return joursRestants;
+    }
+
+    public Double getPourcentageTempsEcoule() {
+        return pourcentageTempsEcoule;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mediation.platform.dto.response;
+
+import java.util.Map;
+
+/**
+ * Page de projets filtrés par facettes, avec le nombre de projets par valeur de chaque facette
+ */
+public class ProjetsFacettes {
+
+    private PageResultats<ProjetResume> projets;
+    private Map<String, Map<String, Integer>> facettes;
+
+    public ProjetsFacettes() {}
+
+    public ProjetsFacettes(PageResultats<ProjetResume> projets, Map<String, Map<String, Integer>> facettes) {
+        this.projets = projets;
+        this.facettes = facettes;
+    }
+
+    // Getters et Setters
+    public PageResultats<ProjetResume> getProjets() {
+        return projets;
+    }
+
+    public void setProjets(PageResultats<ProjetResume> projets) {
+        this.projets = projets;
+    }
+
+    public Map<String, Map<String, Integer>> getFacettes() {
+        return facettes;
+    }
+
+    public void setFacettes(Map<String, Map<String, Integer>> facettes) {
+        this.facettes = facettes;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mediation.platform.dto.response;
+
+/**
+ * Proposition d'autocomplétion : projet ou association, classée par montant collecté
+ */
+public class Suggestion {
+
+    private Long id;
+    private String libelle;
+    private Double montantCollecte;
+
+    public Suggestion() {}
+
+    public Suggestion(Long id, String libelle, Double montantCollecte) {
+        this.id = id;
+        this.libelle = libelle;
+        this.montantCollecte = montantCollecte;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    public void setLibelle(String libelle) {
+        this.libelle = libelle;
+    }
+
+    public Double getMontantCollecte() {
+        return montantCollecte;
+    }
+
+    public void setMontantCollecte(Double montantCollecte) {
+        this.montantCollecte = montantCollecte;
+    }
+}
@@ -6,7 +6,9 @@ import com.mediation.platform.enums.RoleUtilisateur;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +28,11 @@ public class Association extends Utilisateur {
     @Column(length = 500)
     private String adresse;
 
+    // Coordonnées géocodées depuis l'adresse (gazetteer local)
+    private Double latitude;
+
+    private Double longitude;
+
     @Size(max = 255, message = "L'URL du site web ne peut dépasser 255 caractères")
     @Column(length = 255)
     private String siteWeb;
@@ -46,6 +53,22 @@ public class Association extends Utilisateur {
 
     private LocalDateTime dateValidation;
 
+    // Agrégats tenus à jour en SQL par AgregatsService (jamais écrits par Hibernate) :
+    // somme des montants collectés des projets et dons validés reçus
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Double montantTotalCollecte = 0.0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer nombreDonsValides = 0;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDate datePremierDon;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDate dateDernierDon;
+
     // Relations - CORRECTION: Ajout de @JsonIgnore pour éviter les boucles infinies
     @OneToMany(mappedBy = "association", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -88,6 +111,22 @@ public class Association extends Utilisateur {
         this.adresse = adresse;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public String getSiteWeb() {
         return siteWeb;
     }
@@ -218,9 +257,19 @@ public class Association extends Utilisateur {
     }
 
     public Double getMontantTotalCollecte() {
-        return projets.stream()
-                .mapToDouble(Projet::getMontantCollecte)
-                .sum();
+        return montantTotalCollecte != null ? montantTotalCollecte : 0.0;
+    }
+
+    public int getNombreDonsValides() {
+        return nombreDonsValides != null ? nombreDonsValides : 0;
+    }
+
+    public LocalDate getDatePremierDon() {
+        return datePremierDon;
+    }
+
+    public LocalDate getDateDernierDon() {
+        return dateDernierDon;
     }
 
     // OVERRIDE: Utiliser le nom de l'association pour l'affichage
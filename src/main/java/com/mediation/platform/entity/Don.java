@@ -48,7 +48,9 @@ public class Don {
     // Relations - CORRECTION: Gestion des références circulaires
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_donateur", nullable = false)
-    @JsonIgnoreProperties({"dons", "motDePasse", "adresse", "dateNaissance", "profession"})
+    // Les listes dérivées (donsValides, dernierDon...) renverraient vers ce don : boucle infinie
+    @JsonIgnoreProperties({"dons", "motDePasse", "adresse", "dateNaissance", "profession",
+            "donsValides", "donsEnAttente", "donsRecents", "donLePlusImportant", "dernierDon"})
     private Donateur donateur;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -7,13 +7,14 @@ import com.mediation.platform.enums.StatutDon;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "donateurs")
+@Table(name = "donateurs", indexes = @Index(name = "idx_donateurs_position", columnList = "latitude, longitude"))
 @PrimaryKeyJoinColumn(name = "id_utilisateur")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Donateur extends Utilisateur {
@@ -22,6 +23,11 @@ public class Donateur extends Utilisateur {
     @Column(length = 255)
     private String adresse;
 
+    // Coordonnées géocodées depuis l'adresse (gazetteer local)
+    private Double latitude;
+
+    private Double longitude;
+
     @Past(message = "La date de naissance doit être dans le passé")
     private LocalDate dateNaissance;
 
@@ -29,6 +35,29 @@ public class Donateur extends Utilisateur {
     @Column(length = 100)
     private String profession;
 
+    // Agrégats des dons validés, tenus à jour en SQL par AgregatsService (jamais écrits par Hibernate)
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Double montantTotalDons = 0.0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer nombreDonsValides = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer nombreProjetsSoutenus = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer nombreAssociationsSoutenues = 0;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDate datePremierDon;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDate dateDernierDon;
+
     // Relations - CORRECTION: Ajout de @JsonIgnore pour éviter les boucles infinies
     @OneToMany(mappedBy = "donateur", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -61,6 +90,22 @@ public class Donateur extends Utilisateur {
         this.adresse = adresse;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public LocalDate getDateNaissance() {
         return dateNaissance;
     }
@@ -91,10 +136,7 @@ public class Donateur extends Utilisateur {
     }
 
     public int getNombreDonsValides() {
-        if (dons == null) return 0;
-        return (int) dons.stream()
-                .filter(don -> don.getStatut() == StatutDon.VALIDE)
-                .count();
+        return nombreDonsValides != null ? nombreDonsValides : 0;
     }
 
     public int getNombreDonsEnAttente() {
@@ -105,21 +147,11 @@ public class Donateur extends Utilisateur {
     }
 
     public int getNombreProjetsSoutenus() {
-        if (dons == null) return 0;
-        return (int) dons.stream()
-                .filter(don -> don.getStatut() == StatutDon.VALIDE)
-                .map(Don::getProjet)
-                .distinct()
-                .count();
+        return nombreProjetsSoutenus != null ? nombreProjetsSoutenus : 0;
     }
 
     public int getNombreAssociationsSoutenues() {
-        if (dons == null) return 0;
-        return (int) dons.stream()
-                .filter(don -> don.getStatut() == StatutDon.VALIDE)
-                .map(don -> don.getProjet().getAssociation())
-                .distinct()
-                .count();
+        return nombreAssociationsSoutenues != null ? nombreAssociationsSoutenues : 0;
     }
 
     // Méthodes métier
@@ -141,11 +173,7 @@ public class Donateur extends Utilisateur {
     }
 
     public Double getMontantTotalDons() {
-        if (dons == null) return 0.0;
-        return dons.stream()
-                .filter(don -> don.getStatut() == StatutDon.VALIDE)
-                .mapToDouble(Don::getMontant)
-                .sum();
+        return montantTotalDons != null ? montantTotalDons : 0.0;
     }
 
     public Double getMontantTotalTousDons() {
@@ -156,9 +184,8 @@ public class Donateur extends Utilisateur {
     }
 
     public Double getMontantMoyenParDon() {
-        List<Don> donsValides = getDonsValides();
-        if (donsValides.isEmpty()) return 0.0;
-        return getMontantTotalDons() / donsValides.size();
+        int nombre = getNombreDonsValides();
+        return nombre > 0 ? getMontantTotalDons() / nombre : 0.0;
     }
 
     public List<Don> getDonsValides() {
@@ -216,20 +243,13 @@ public class Donateur extends Utilisateur {
                 .orElse(null);
     }
 
+    // Dates du premier et du dernier don validé
     public LocalDate getDatePremierDon() {
-        if (dons == null || dons.isEmpty()) return null;
-        return dons.stream()
-                .map(Don::getDate)
-                .min(LocalDate::compareTo)
-                .orElse(null);
+        return datePremierDon;
     }
 
     public LocalDate getDateDernierDon() {
-        if (dons == null || dons.isEmpty()) return null;
-        return dons.stream()
-                .map(Don::getDate)
-                .max(LocalDate::compareTo)
-                .orElse(null);
+        return dateDernierDon;
     }
 
     // AJOUT: Méthodes pour l'engagement
@@ -249,9 +269,17 @@ public class Donateur extends Utilisateur {
     }
 
     public String getNiveauDonateur() {
-        double montantTotal = getMontantTotalDons();
-        int nombreDons = getNombreDonsValides();
+        return niveauDonateur(getMontantTotalDons(), getNombreDonsValides());
+    }
 
+    public String getCouleurNiveau() {
+        return couleurNiveau(getNiveauDonateur());
+    }
+
+    /**
+     * Niveau d'après le total et le nombre de dons validés (partagé avec DonateurResume)
+     */
+    public static String niveauDonateur(double montantTotal, int nombreDons) {
         if (montantTotal >= 5000 || nombreDons >= 20) {
             return "Platine";
         } else if (montantTotal >= 2000 || nombreDons >= 10) {
@@ -265,8 +293,7 @@ public class Donateur extends Utilisateur {
         }
     }
 
-    public String getCouleurNiveau() {
-        String niveau = getNiveauDonateur();
+    public static String couleurNiveau(String niveau) {
         switch (niveau) {
             case "Platine": return "purple";
             case "Or": return "yellow";
@@ -247,6 +247,13 @@ public class Notification {
         return new Notification(titre, message, TypeNotification.DON_RECU, association);
     }
 
+    public static Notification creerNotificationDigestDonsRecus(Utilisateur association, int nombreDons, Double montantTotal, int nombreProjets) {
+        String titre = String.format("%d dons reçus", nombreDons);
+        String message = String.format("Vous avez reçu %d dons, total %.2f DH, pour %d projet(s).",
+                nombreDons, montantTotal, nombreProjets);
+        return new Notification(titre, message, TypeNotification.DON_RECU, association);
+    }
+
     public static Notification creerNotificationDonValide(Utilisateur donateur, String nomProjet, Double montant) {
         String titre = "Don validé";
         String message = String.format("Votre don de %.2f DH pour le projet \"%s\" a été validé avec succès.",
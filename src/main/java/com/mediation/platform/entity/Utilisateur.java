@@ -7,6 +7,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,6 +18,9 @@ import java.util.Objects;
 @Entity
 @Table(name = "utilisateurs")
 @Inheritance(strategy = InheritanceType.JOINED)
+// Hibernate met en cache toute la hiérarchie dans la région de la racine (associations, donateurs, administrateurs)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "utilisateurs")
 public abstract class Utilisateur {
 
     @Id
@@ -66,6 +71,10 @@ public abstract class Utilisateur {
     @Column(nullable = false)
     private RoleUtilisateur role;
 
+    // Langue des emails (fr, en...) ; null : locale par défaut de la plateforme
+    @Column(length = 10)
+    private String langue;
+
     // Constructeur par défaut
     public Utilisateur() {}
 
@@ -168,6 +177,14 @@ public abstract class Utilisateur {
         this.role = role;
     }
 
+    public String getLangue() {
+        return langue;
+    }
+
+    public void setLangue(String langue) {
+        this.langue = langue;
+    }
+
     // Méthodes métier
     public boolean seConnecter(String email, String motDePasse) {
         return this.email.equals(email) && this.motDePasse.equals(motDePasse)
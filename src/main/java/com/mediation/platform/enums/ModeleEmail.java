@@ -0,0 +1,31 @@
+package com.mediation.platform.enums;
+
+public enum ModeleEmail {
+    BIENVENUE("bienvenue", TypeNotification.SYSTEME),
+    CONFIRMATION_INSCRIPTION("confirmation-inscription", TypeNotification.SYSTEME),
+    VALIDATION_COMPTE("validation-compte", TypeNotification.VALIDATION_ASSOCIATION),
+    REFUS_COMPTE("refus-compte", TypeNotification.REFUS_ASSOCIATION),
+    NOUVEAU_MOT_DE_PASSE("nouveau-mot-de-passe", TypeNotification.SECURITE),
+    DON_RECU("don-recu", TypeNotification.DON_RECU),
+    DIGEST_DONS_RECUS("digest-dons-recus", TypeNotification.DON_RECU),
+    CONFIRMATION_DON("confirmation-don", TypeNotification.DON_VALIDE),
+    RAPPEL_ECHEANCE("rappel-echeance", TypeNotification.RAPPEL_ECHEANCE),
+    PROJET_TERMINE("projet-termine", TypeNotification.PROJET_COMPLETE),
+    RAPPORT_MENSUEL("rapport-mensuel", TypeNotification.SYSTEME);
+
+    private final String fichier;
+    private final TypeNotification typeNotification;
+
+    ModeleEmail(String fichier, TypeNotification typeNotification) {
+        this.fichier = fichier;
+        this.typeNotification = typeNotification;
+    }
+
+    public String getFichier() {
+        return fichier;
+    }
+
+    public TypeNotification getTypeNotification() {
+        return typeNotification;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mediation.platform.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum PrioriteNotification {
+    NORMALE("Normale"),
+    URGENTE("Urgente");
+
+    // Types toujours livrés en priorité : refus, expiration, sécurité du compte
+    private static final Set<TypeNotification> TYPES_URGENTS = EnumSet.of(
+            TypeNotification.DON_REFUSE, TypeNotification.PROJET_EXPIRE,
+            TypeNotification.SECURITE, TypeNotification.REFUS_ASSOCIATION);
+
+    private final String libelle;
+
+    PrioriteNotification(String libelle) {
+        this.libelle = libelle;
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    /**
+     * Priorité d'une notification d'après son type et son indicateur urgent
+     */
+    public static PrioriteNotification de(TypeNotification type, boolean urgent) {
+        return urgent || TYPES_URGENTS.contains(type) ? URGENTE : NORMALE;
+    }
+}
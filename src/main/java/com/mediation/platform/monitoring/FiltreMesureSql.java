@@ -0,0 +1,53 @@
+package com.mediation.platform.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Mesure les requêtes SQL de chaque requête HTTP, filtres de sécurité compris,
+ * puis les attribue à la méthode de contrôleur qui l'a traitée (Contrôleur.méthode)
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FiltreMesureSql extends OncePerRequestFilter {
+
+    static final String NON_RESOLU = "non-resolu";
+
+    @Autowired
+    private InstrumentationSql instrumentationSql;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        MesureSql mesure = MesureSql.demarrer(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MesureSql.terminer();
+            instrumentationSql.terminer(endpoint(request), mesure);
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod methode) {
+            return methode.getBeanType().getSimpleName() + "." + methode.getMethod().getName();
+        }
+        return NON_RESOLU;
+    }
+}
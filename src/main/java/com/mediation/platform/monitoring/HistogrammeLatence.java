@@ -0,0 +1,95 @@
+package com.mediation.platform.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences à seuils fixes (en millisecondes), sans verrou.
+ * Les percentiles sont estimés par la borne supérieure du seuil atteint.
+ */
+public class HistogrammeLatence {
+
+    private static final long[] SEUILS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private final LongAdder[] compteurs = new LongAdder[SEUILS_MS.length + 1];
+    private final LongAdder nombre = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public HistogrammeLatence() {
+        for (int i = 0; i < compteurs.length; i++) {
+            compteurs[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Enregistrer une mesure en nanosecondes
+     */
+    public void enregistrer(long dureeNanos) {
+        long dureeMs = dureeNanos / 1_000_000;
+        int index = 0;
+        while (index < SEUILS_MS.length && dureeMs > SEUILS_MS[index]) {
+            index++;
+        }
+        compteurs[index].increment();
+        nombre.increment();
+        totalNanos.add(dureeNanos);
+        maxNanos.accumulateAndGet(dureeNanos, Math::max);
+    }
+
+    public long getNombre() {
+        return nombre.sum();
+    }
+
+    /**
+     * Percentile estimé en millisecondes (borne supérieure du seuil)
+     */
+    public double getPercentileMs(double percentile) {
+        long total = nombre.sum();
+        if (total == 0) {
+            return 0.0;
+        }
+
+        long rang = (long) Math.ceil(total * percentile);
+        long cumul = 0;
+        for (int i = 0; i < compteurs.length; i++) {
+            cumul += compteurs[i].sum();
+            if (cumul >= rang) {
+                return i < SEUILS_MS.length ? SEUILS_MS[i] : getMaxMs();
+            }
+        }
+        return getMaxMs();
+    }
+
+    public double getMoyenneMs() {
+        long total = nombre.sum();
+        return total == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / total;
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Instantané sérialisable (nombre, moyenne, percentiles et répartition par seuil)
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("nombre", getNombre());
+        resultat.put("moyenneMs", getMoyenneMs());
+        resultat.put("p50Ms", getPercentileMs(0.50));
+        resultat.put("p95Ms", getPercentileMs(0.95));
+        resultat.put("p99Ms", getPercentileMs(0.99));
+        resultat.put("maxMs", getMaxMs());
+
+        Map<String, Long> repartition = new LinkedHashMap<>();
+        for (int i = 0; i < compteurs.length; i++) {
+            String seuil = i < SEUILS_MS.length ? "<=" + SEUILS_MS[i] + "ms" : ">" + SEUILS_MS[SEUILS_MS.length - 1] + "ms";
+            repartition.put(seuil, compteurs[i].sum());
+        }
+        resultat.put("repartition", repartition);
+        return resultat;
+    }
+}
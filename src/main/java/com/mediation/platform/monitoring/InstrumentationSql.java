@@ -0,0 +1,276 @@
+package com.mediation.platform.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Requêtes SQL par endpoint : nombre de requêtes, lignes lues et durée SQL de chaque appel,
+ * agrégés par méthode de contrôleur. Alimenté par le proxy posé sur la DataSource
+ * (requêtes et ResultSet.next) et par {@link FiltreMesureSql} en fin de requête HTTP.
+ * Remplace spring.jpa.show-sql : une ligne par requête lente ou par appel au-delà des seuils,
+ * et toutes les requêtes seulement si app.sql.journaliser-requetes=true.
+ * Chaque appel est aussi publié dans Micrometer (sql.requetes.par.appel, sql.lignes.par.appel,
+ * sql.duree.par.appel, étiquette endpoint) ; hors requête HTTP, chaque requête SQL compte pour
+ * un appel. Les compteurs Micrometer sont rattachés une fois tous les singletons créés.
+ */
+@Component
+public class InstrumentationSql implements QueryExecutionListener, MethodExecutionListener,
+        SmartInitializingSingleton {
+
+    public static final String HORS_REQUETE = "hors-requete";
+
+    private static final String DEBUT = "debutNanos";
+    private static final int LONGUEUR_SQL_JOURNAL = 300;
+
+    @Value("${app.sql.seuil-requetes:50}")
+    private int seuilRequetes;
+
+    @Value("${app.sql.seuil-duree-sql-ms:500}")
+    private long seuilDureeSqlMs;
+
+    @Value("${app.sql.seuil-requete-lente-ms:200}")
+    private long seuilRequeteLenteMs;
+
+    @Value("${app.sql.journaliser-requetes:false}")
+    private boolean journaliserRequetes;
+
+    // Résolu une fois les singletons créés : le registre ne doit pas être créé avec la DataSource
+    @Autowired
+    private ObjectProvider<MeterRegistry> registres;
+
+    private volatile MeterRegistry registre;
+
+    private final Map<String, StatistiquesEndpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder requetesLentes = new LongAdder();
+
+    /**
+     * DataSource mesurée : requêtes exécutées et lignes lues (ResultSet mandatés),
+     * avec d'éventuels écouteurs supplémentaires (traces)
+     */
+    public DataSource instrumenter(String nom, DataSource dataSource, QueryExecutionListener... autres) {
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(nom, dataSource)
+                .listener(this)
+                .proxyResultSet()
+                .methodListener(this);
+        for (QueryExecutionListener ecouteur : autres) {
+            builder.listener(ecouteur);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execution, List<QueryInfo> requetes) {
+        execution.addCustomValue(DEBUT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execution, List<QueryInfo> requetes) {
+        Long debut = execution.getCustomValue(DEBUT, Long.class);
+        long dureeNanos = debut != null ? System.nanoTime() - debut : execution.getElapsedTime() * 1_000_000;
+        String sql = requetes.size() == 1 ? requetes.get(0).getQuery()
+                : requetes.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+
+        MesureSql mesure = MesureSql.courante();
+        if (mesure != null) {
+            mesure.requeteExecutee(sql, dureeNanos);
+        } else {
+            // Tâches planifiées et exécuteurs : durée par requête, sans appel HTTP
+            StatistiquesEndpoint horsRequete = statistiques(HORS_REQUETE);
+            horsRequete.requetes.increment();
+            if (horsRequete.dureeSqlParAppel != null) {
+                horsRequete.dureeSqlParAppel.record(dureeNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        long dureeMs = dureeNanos / 1_000_000;
+        if (dureeMs >= seuilRequeteLenteMs) {
+            requetesLentes.increment();
+            System.err.println("SQL_LENTE requete=\"" + requeteCourante(mesure) + "\" dureeMs=" + dureeMs
+                    + " lot=" + execution.isBatch() + " succes=" + execution.isSuccess()
+                    + " sql=\"" + abreger(sql) + "\"");
+        } else if (journaliserRequetes) {
+            System.out.println("SQL requete=\"" + requeteCourante(mesure) + "\" dureeMs=" + dureeMs
+                    + " sql=\"" + abreger(sql) + "\"");
+        }
+    }
+
+    /**
+     * Registre disponible : compteurs Micrometer des endpoints déjà vus (requêtes du démarrage)
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        registre = registres != null ? registres.getIfAvailable() : null;
+        endpoints.forEach(this::mesurer);
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext contexte) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext contexte) {
+        if (contexte.getTarget() instanceof ResultSet
+                && "next".equals(contexte.getMethod().getName())
+                && Boolean.TRUE.equals(contexte.getResult())) {
+            MesureSql mesure = MesureSql.courante();
+            if (mesure != null) {
+                mesure.ligneLue();
+            } else {
+                statistiques(HORS_REQUETE).lignes.increment();
+            }
+        }
+    }
+
+    /**
+     * Fin d'une requête HTTP : agréger sa mesure sous l'endpoint et signaler les dépassements
+     */
+    public void terminer(String endpoint, MesureSql mesure) {
+        StatistiquesEndpoint stats = statistiques(endpoint);
+        stats.appels.increment();
+        stats.requetes.add(mesure.getRequetes());
+        stats.lignes.add(mesure.getLignes());
+        stats.maxRequetes.accumulateAndGet(mesure.getRequetes(), Math::max);
+        if (stats.requetesParAppel != null) {
+            stats.requetesParAppel.record(mesure.getRequetes());
+            stats.lignesParAppel.record(mesure.getLignes());
+            stats.dureeSqlParAppel.record(mesure.getDureeSqlNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        long dureeSqlMs = mesure.getDureeSqlNanos() / 1_000_000;
+        if (mesure.getRequetes() > seuilRequetes || dureeSqlMs > seuilDureeSqlMs) {
+            stats.alertes.increment();
+            Map.Entry<String, Integer> plusRepetee = mesure.getPlusRepetee();
+            System.err.println("SQL_ALERTE endpoint=" + endpoint + " requete=\"" + mesure.getRequeteHttp() + "\""
+                    + " requetes=" + mesure.getRequetes() + " lignes=" + mesure.getLignes()
+                    + " dureeSqlMs=" + dureeSqlMs + " dureeTotaleMs=" + mesure.getDureeTotaleNanos() / 1_000_000
+                    + " seuilRequetes=" + seuilRequetes + " seuilDureeSqlMs=" + seuilDureeSqlMs
+                    + (plusRepetee != null ? " plusRepeteeFois=" + plusRepetee.getValue()
+                    + " plusRepetee=\"" + abreger(plusRepetee.getKey()) + "\"" : ""));
+        }
+    }
+
+    /**
+     * Statistiques par endpoint, triées par nombre total de requêtes décroissant
+     */
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("seuilRequetes", seuilRequetes);
+        stats.put("seuilDureeSqlMs", seuilDureeSqlMs);
+        stats.put("seuilRequeteLenteMs", seuilRequeteLenteMs);
+        stats.put("requetesLentes", requetesLentes.sum());
+
+        List<Map.Entry<String, StatistiquesEndpoint>> tries = new ArrayList<>(endpoints.entrySet());
+        tries.sort(Comparator.comparingLong((Map.Entry<String, StatistiquesEndpoint> e) -> e.getValue().requetes.sum())
+                .reversed());
+        Map<String, Object> parEndpoint = new LinkedHashMap<>();
+        tries.forEach(e -> parEndpoint.put(e.getKey(), e.getValue().toMap()));
+        stats.put("endpoints", parEndpoint);
+        return stats;
+    }
+
+    public void reinitialiser() {
+        endpoints.clear();
+        requetesLentes.reset();
+    }
+
+    private StatistiquesEndpoint statistiques(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, e -> {
+            StatistiquesEndpoint stats = new StatistiquesEndpoint();
+            mesurer(e, stats);
+            return stats;
+        });
+    }
+
+    // Avant la création du registre (requêtes du démarrage), l'endpoint n'a que ses compteurs
+    private void mesurer(String endpoint, StatistiquesEndpoint stats) {
+        MeterRegistry registre = this.registre;
+        if (registre != null && stats.requetesParAppel == null) {
+            stats.lignesParAppel = DistributionSummary.builder("sql.lignes.par.appel")
+                    .tag("endpoint", endpoint).publishPercentileHistogram().register(registre);
+            stats.dureeSqlParAppel = Latences.timer("sql.duree.par.appel")
+                    .tag("endpoint", endpoint).register(registre);
+            // Publié en dernier : terminer() teste ce champ avant d'utiliser les deux autres
+            stats.requetesParAppel = DistributionSummary.builder("sql.requetes.par.appel")
+                    .tag("endpoint", endpoint).publishPercentileHistogram().register(registre);
+        }
+    }
+
+    private static String requeteCourante(MesureSql mesure) {
+        return mesure != null ? mesure.getRequeteHttp() : HORS_REQUETE;
+    }
+
+    private static String abreger(String sql) {
+        String ligne = sql.replaceAll("\\s+", " ").replace("\"", "'").trim();
+        return ligne.length() > LONGUEUR_SQL_JOURNAL ? ligne.substring(0, LONGUEUR_SQL_JOURNAL) + "..." : ligne;
+    }
+
+    /**
+     * Compteurs cumulés d'un endpoint ; durée SQL par appel dans le Timer Micrometer
+     */
+    public static class StatistiquesEndpoint {
+        private final LongAdder appels = new LongAdder();
+        private final LongAdder requetes = new LongAdder();
+        private final LongAdder lignes = new LongAdder();
+        private final LongAdder alertes = new LongAdder();
+        private final AtomicLong maxRequetes = new AtomicLong();
+        private volatile DistributionSummary requetesParAppel;
+        private volatile DistributionSummary lignesParAppel;
+        private volatile Timer dureeSqlParAppel;
+
+        public long getAppels() {
+            return appels.sum();
+        }
+
+        public long getRequetes() {
+            return requetes.sum();
+        }
+
+        public long getLignes() {
+            return lignes.sum();
+        }
+
+        public Timer getDureeSql() {
+            return dureeSqlParAppel;
+        }
+
+        public Map<String, Object> toMap() {
+            long nombreAppels = appels.sum();
+            Map<String, Object> resultat = new LinkedHashMap<>();
+            resultat.put("appels", nombreAppels);
+            resultat.put("requetes", requetes.sum());
+            resultat.put("requetesParAppel", nombreAppels == 0 ? 0.0 : (double) requetes.sum() / nombreAppels);
+            resultat.put("maxRequetesParAppel", maxRequetes.get());
+            resultat.put("lignes", lignes.sum());
+            resultat.put("alertes", alertes.sum());
+            if (dureeSqlParAppel != null) {
+                resultat.put("dureeSql", Latences.toMap(dureeSqlParAppel));
+            }
+            return resultat;
+        }
+    }
+}
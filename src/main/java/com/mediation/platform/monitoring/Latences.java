@@ -0,0 +1,41 @@
+package com.mediation.platform.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers de latence Micrometer : histogramme publié pour Prometheus (percentiles agrégeables
+ * entre instances par histogram_quantile) et p50/p95/p99 calculés localement pour les
+ * endpoints d'administration.
+ */
+public final class Latences {
+
+    private Latences() {
+    }
+
+    public static Timer.Builder timer(String nom) {
+        return Timer.builder(nom)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99);
+    }
+
+    /**
+     * Instantané sérialisable en millisecondes (nombre, moyenne, percentiles, maximum récent)
+     */
+    public static Map<String, Object> toMap(Timer timer) {
+        HistogramSnapshot instantane = timer.takeSnapshot();
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("nombre", instantane.count());
+        resultat.put("moyenneMs", instantane.mean(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : instantane.percentileValues()) {
+            resultat.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        resultat.put("maxMs", instantane.max(TimeUnit.MILLISECONDS));
+        return resultat;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mediation.platform.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Requêtes SQL exécutées pendant une requête HTTP : nombre, lignes lues, durée cumulée
+ * et nombre d'exécutions de chaque texte SQL (pour repérer les N+1).
+ * Attachée au thread qui traite la requête, entre {@link #demarrer(String)} et {@link #terminer()}.
+ */
+public class MesureSql {
+
+    // Au-delà, les nouveaux textes SQL ne sont plus distingués (seulement comptés)
+    private static final int TEXTES_MAX = 200;
+
+    private static final ThreadLocal<MesureSql> COURANTE = new ThreadLocal<>();
+
+    private final String requeteHttp;
+    private final long debutNanos = System.nanoTime();
+    private int requetes;
+    private long lignes;
+    private long dureeSqlNanos;
+    private final Map<String, Integer> executionsParTexte = new HashMap<>();
+
+    public MesureSql(String requeteHttp) {
+        this.requeteHttp = requeteHttp;
+    }
+
+    /**
+     * Attacher une nouvelle mesure au thread courant (requeteHttp : méthode et URI)
+     */
+    public static MesureSql demarrer(String requeteHttp) {
+        MesureSql mesure = new MesureSql(requeteHttp);
+        COURANTE.set(mesure);
+        return mesure;
+    }
+
+    /**
+     * Mesure du thread courant, ou null hors requête HTTP (tâches planifiées, exécuteurs)
+     */
+    public static MesureSql courante() {
+        return COURANTE.get();
+    }
+
+    public static void terminer() {
+        COURANTE.remove();
+    }
+
+    public void requeteExecutee(String sql, long dureeNanos) {
+        requetes++;
+        dureeSqlNanos += dureeNanos;
+        if (executionsParTexte.size() < TEXTES_MAX || executionsParTexte.containsKey(sql)) {
+            executionsParTexte.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public void ligneLue() {
+        lignes++;
+    }
+
+    /**
+     * Texte SQL le plus exécuté et son nombre d'exécutions, ou null si aucune requête
+     */
+    public Map.Entry<String, Integer> getPlusRepetee() {
+        return executionsParTexte.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    public String getRequeteHttp() {
+        return requeteHttp;
+    }
+
+    public int getRequetes() {
+        return requetes;
+    }
+
+    public long getLignes() {
+        return lignes;
+    }
+
+    public long getDureeSqlNanos() {
+        return dureeSqlNanos;
+    }
+
+    public long getDureeTotaleNanos() {
+        return System.nanoTime() - debutNanos;
+    }
+}
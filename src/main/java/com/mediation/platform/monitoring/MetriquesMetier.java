@@ -0,0 +1,79 @@
+package com.mediation.platform.monitoring;
+
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.recherche.ApresCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compteurs métier pour Prometheus : dons créés, validés, refusés et remboursés, montants validés
+ * et issue des paiements. Comptés après validation de la transaction ; les débits par seconde
+ * s'obtiennent par rate() sur les compteurs, le taux de réussite instantané par
+ * rate(paiements{resultat="reussi"}) / rate(paiements).
+ */
+@Component
+public class MetriquesMetier {
+
+    private final Counter donsCrees;
+    private final Counter donsValides;
+    private final Counter donsRefuses;
+    private final Counter donsRembourses;
+    private final DistributionSummary montantsValides;
+    private final Counter paiementsReussis;
+    private final Counter paiementsEchoues;
+
+    public MetriquesMetier(MeterRegistry registry) {
+        donsCrees = Counter.builder("dons.crees").description("Dons enregistrés").register(registry);
+        donsValides = Counter.builder("dons.valides").description("Dons validés").register(registry);
+        donsRefuses = Counter.builder("dons.refuses").description("Dons refusés").register(registry);
+        donsRembourses = Counter.builder("dons.rembourses").description("Dons remboursés").register(registry);
+        montantsValides = DistributionSummary.builder("dons.montant")
+                .description("Montant des dons validés")
+                .baseUnit("euros")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        paiementsReussis = Counter.builder("paiements").tag("resultat", "reussi")
+                .description("Paiements traités").register(registry);
+        paiementsEchoues = Counter.builder("paiements").tag("resultat", "echoue")
+                .description("Paiements traités").register(registry);
+        Gauge.builder("paiements.taux.reussite", this, MetriquesMetier::getTauxReussitePaiements)
+                .description("Part des paiements réussis depuis le démarrage")
+                .register(registry);
+    }
+
+    public void donCree(Don don) {
+        ApresCommit.executer(donsCrees::increment);
+        if (don.getStatut() == StatutDon.VALIDE) {
+            donValide(don);
+        }
+    }
+
+    public void donValide(Don don) {
+        double montant = don.getMontant();
+        ApresCommit.executer(() -> {
+            donsValides.increment();
+            montantsValides.record(montant);
+        });
+    }
+
+    public void donRefuse() {
+        ApresCommit.executer(donsRefuses::increment);
+    }
+
+    public void donRembourse() {
+        ApresCommit.executer(donsRembourses::increment);
+    }
+
+    public void paiement(boolean reussi) {
+        ApresCommit.executer(reussi ? paiementsReussis::increment : paiementsEchoues::increment);
+    }
+
+    public double getTauxReussitePaiements() {
+        double total = paiementsReussis.count() + paiementsEchoues.count();
+        return total == 0 ? 0.0 : paiementsReussis.count() / total;
+    }
+}
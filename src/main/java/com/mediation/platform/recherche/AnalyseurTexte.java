@@ -0,0 +1,111 @@
+package com.mediation.platform.recherche;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Analyse de texte commune aux index en mémoire : minuscules, suppression des accents,
+ * découpage en mots, mots vides et racinisation française légère.
+ * Index et requêtes passent par les mêmes fonctions pour rester cohérents.
+ */
+public final class AnalyseurTexte {
+
+    private static final Pattern MARQUES_DIACRITIQUES = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> MOTS_VIDES = Set.of(
+            "a", "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "elle", "en", "et", "il",
+            "ils", "la", "le", "les", "leur", "leurs", "lui", "ma", "mais", "me", "mes", "mon", "ne",
+            "nos", "notre", "nous", "on", "ou", "par", "pas", "pour", "qu", "que", "qui", "sa", "se",
+            "ses", "son", "sur", "ta", "te", "tes", "ton", "tu", "un", "une", "vos", "votre", "vous",
+            "d", "l", "j", "m", "n", "s", "t", "c", "y", "est", "sont", "the", "of", "and"
+    );
+
+    // Suffixes retirés du plus long au plus court ; la racine garde au moins 3 caractères
+    private static final String[] SUFFIXES = {
+            "issements", "issement", "atrices", "atrice", "ateurs", "ateur", "ations", "ation",
+            "ements", "ement", "ances", "ance", "ences", "ence", "ismes", "isme", "istes", "iste",
+            "ables", "able", "euses", "euse", "eaux", "ites", "ite", "ives", "ive", "ifs", "if",
+            "eurs", "eur", "aux", "al", "es", "s", "x", "e"
+    };
+
+    private AnalyseurTexte() {
+    }
+
+    /**
+     * Minuscules sans accents (« École » → « ecole »)
+     */
+    public static String normaliser(String texte) {
+        if (texte == null || texte.isEmpty()) {
+            return "";
+        }
+        if (estAscii(texte)) {
+            return texte.toLowerCase(Locale.ROOT);
+        }
+        String decompose = Normalizer.normalize(texte, Normalizer.Form.NFD);
+        return MARQUES_DIACRITIQUES.matcher(decompose).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean estAscii(String texte) {
+        for (int i = 0; i < texte.length(); i++) {
+            if (texte.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mots normalisés, dans l'ordre du texte (sans filtrage ni racinisation)
+     */
+    public static List<String> mots(String texte) {
+        String normalise = normaliser(texte);
+        List<String> mots = new ArrayList<>();
+        int debut = -1;
+        for (int i = 0; i <= normalise.length(); i++) {
+            boolean lettre = i < normalise.length() && Character.isLetterOrDigit(normalise.charAt(i));
+            if (lettre && debut < 0) {
+                debut = i;
+            } else if (!lettre && debut >= 0) {
+                mots.add(normalise.substring(debut, i));
+                debut = -1;
+            }
+        }
+        return mots;
+    }
+
+    /**
+     * Termes d'indexation : mots normalisés, sans mots vides, racinisés
+     */
+    public static List<String> termes(String texte) {
+        List<String> termes = new ArrayList<>();
+        for (String mot : mots(texte)) {
+            if (!estMotVide(mot)) {
+                termes.add(raciniser(mot));
+            }
+        }
+        return termes;
+    }
+
+    public static boolean estMotVide(String mot) {
+        return MOTS_VIDES.contains(mot);
+    }
+
+    /**
+     * Racinisation légère (pluriels et suffixes dérivationnels courants)
+     */
+    public static String raciniser(String mot) {
+        if (mot.length() <= 3 || Character.isDigit(mot.charAt(0))) {
+            return mot;
+        }
+        for (String suffixe : SUFFIXES) {
+            if (mot.endsWith(suffixe) && mot.length() - suffixe.length() >= 3) {
+                return mot.substring(0, mot.length() - suffixe.length());
+            }
+        }
+        return mot;
+    }
+}
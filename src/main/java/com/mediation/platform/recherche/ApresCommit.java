@@ -0,0 +1,28 @@
+package com.mediation.platform.recherche;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Différer une mise à jour d'index en mémoire jusqu'à la validation de la transaction
+ * courante (exécution immédiate hors transaction) : un rollback ne laisse pas l'index
+ * en avance sur la base.
+ */
+public final class ApresCommit {
+
+    private ApresCommit() {
+    }
+
+    public static void executer(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.repository.ProjetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facettes des projets (statut, priorité, domaine d'activité de l'association) en bitsets.
+ * Ne contient que les projets visibles du public, même règle que la recherche
+ * (MoteurRechercheProjets.estPublic) : la navigation par facettes est publique.
+ * Reconstruit au démarrage puis tenu à jour, après validation de la transaction,
+ * par ProjetService et par AssociationService (domaine, validation, refus, suspension).
+ */
+@Component
+public class FacettesProjets {
+
+    public static final String STATUT = "statut";
+    public static final String PRIORITE = "priorite";
+    public static final String DOMAINE = "domaine";
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    private final IndexFacettes index = new IndexFacettes(STATUT, PRIORITE, DOMAINE);
+
+    // Projets de chaque association : un changement de domaine touche tous ses projets
+    private final Map<Long, Set<Long>> projetsParAssociation = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruire() {
+        long debut = System.currentTimeMillis();
+        index.vider();
+        projetsParAssociation.clear();
+        for (Object[] ligne : projetRepository.findResumesFacettes(MoteurRechercheProjets.STATUTS_PUBLICS)) {
+            Long idProjet = (Long) ligne[0];
+            Long idAssociation = (Long) ligne[3];
+            index.indexer(idProjet, valeurs(String.valueOf(ligne[1]), (String) ligne[2], (String) ligne[4]));
+            projetsParAssociation.computeIfAbsent(idAssociation, id -> new HashSet<>()).add(idProjet);
+        }
+        System.out.println("Facettes des projets reconstruites : " + index.getNombreDocuments()
+                + " projets en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Prendre en compte un projet créé ou modifié ; retiré s'il n'est plus visible du public
+     */
+    public void indexerProjet(Projet projet) {
+        if (projet.getIdProjet() == null || projet.getAssociation() == null) {
+            return;
+        }
+        long idProjet = projet.getIdProjet();
+        long idAssociation = projet.getAssociation().getIdUtilisateur();
+        if (!MoteurRechercheProjets.estPublic(projet)) {
+            ApresCommit.executer(() -> retirerProjet(idProjet, idAssociation));
+            return;
+        }
+        Map<String, String> valeurs = valeurs(
+                projet.getStatut() != null ? projet.getStatut().name() : null,
+                projet.getPriorite(),
+                projet.getAssociation().getDomaineActivite());
+        ApresCommit.executer(() -> appliquerProjet(idProjet, idAssociation, valeurs));
+    }
+
+    /**
+     * Association validée ou réactivée : ses projets publics entrent dans l'index
+     */
+    public void indexerAssociation(Association association) {
+        if (association.getIdUtilisateur() != null) {
+            projetRepository.findByAssociationIdUtilisateur(association.getIdUtilisateur()).forEach(this::indexerProjet);
+        }
+    }
+
+    /**
+     * Association refusée, suspendue ou supprimée : tous ses projets sortent de l'index
+     */
+    public void retirerAssociation(Long idAssociation) {
+        if (idAssociation != null) {
+            ApresCommit.executer(() -> appliquerRetraitAssociation(idAssociation));
+        }
+    }
+
+    /**
+     * Nouveau domaine d'activité d'une association, répercuté sur tous ses projets
+     */
+    public void modifierDomaine(Long idAssociation, String domaine) {
+        if (idAssociation != null) {
+            ApresCommit.executer(() -> appliquerDomaine(idAssociation, domaine));
+        }
+    }
+
+    public IndexFacettes.Resultat rechercher(Map<String, Set<String>> filtres, int page, int taille) {
+        return index.rechercher(filtres, page, taille);
+    }
+
+    private synchronized void appliquerProjet(long idProjet, long idAssociation, Map<String, String> valeurs) {
+        index.indexer(idProjet, valeurs);
+        projetsParAssociation.computeIfAbsent(idAssociation, id -> new HashSet<>()).add(idProjet);
+    }
+
+    private synchronized void retirerProjet(long idProjet, long idAssociation) {
+        index.retirer(idProjet);
+        Set<Long> projets = projetsParAssociation.get(idAssociation);
+        if (projets != null) {
+            projets.remove(idProjet);
+        }
+    }
+
+    private synchronized void appliquerRetraitAssociation(long idAssociation) {
+        Set<Long> projets = projetsParAssociation.remove(idAssociation);
+        if (projets != null) {
+            projets.forEach(index::retirer);
+        }
+    }
+
+    private synchronized void appliquerDomaine(long idAssociation, String domaine) {
+        Set<Long> projets = projetsParAssociation.get(idAssociation);
+        if (projets != null) {
+            index.modifierValeur(projets, DOMAINE, domaine);
+        }
+    }
+
+    private static Map<String, String> valeurs(String statut, String priorite, String domaine) {
+        Map<String, String> valeurs = new HashMap<>();
+        valeurs.put(STATUT, statut);
+        valeurs.put(PRIORITE, priorite);
+        valeurs.put(DOMAINE, domaine);
+        return valeurs;
+    }
+}
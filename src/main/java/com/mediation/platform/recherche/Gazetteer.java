@@ -0,0 +1,134 @@
+package com.mediation.platform.recherche;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Géocodage hors ligne à partir d'un gazetteer local (ville;latitude;longitude;autres noms) :
+ * une adresse libre est rattachée à la ville du fichier dont le nom y apparaît,
+ * en privilégiant la dernière mention (« 12 rue de Fès, Casablanca » → Casablanca).
+ */
+@Component
+public class Gazetteer {
+
+    // Nombre de mots maximal d'un nom de ville (« ksar el kebir », « fquih ben salah »)
+    private static final int MOTS_PAR_NOM_MAX = 4;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.geo.gazetteer:classpath:geo/gazetteer.csv}")
+    private String emplacement;
+
+    // Nom normalisé (mots séparés par une espace) → lieu
+    private final Map<String, Lieu> lieux = new HashMap<>();
+
+    @PostConstruct
+    public void initialiser() throws IOException {
+        try (Reader lecteur = new InputStreamReader(
+                resourceLoader.getResource(emplacement).getInputStream(), StandardCharsets.UTF_8)) {
+            charger(lecteur);
+        }
+        System.out.println("Gazetteer chargé : " + lieux.size() + " noms de lieux depuis " + emplacement);
+    }
+
+    /**
+     * Lire un gazetteer ; les lignes vides ou commençant par # sont ignorées
+     */
+    public void charger(Reader source) throws IOException {
+        BufferedReader lecteur = new BufferedReader(source);
+        String ligne;
+        while ((ligne = lecteur.readLine()) != null) {
+            if (ligne.isBlank() || ligne.startsWith("#")) {
+                continue;
+            }
+            String[] colonnes = ligne.split(";", -1);
+            if (colonnes.length < 3) {
+                continue;
+            }
+            Lieu lieu = new Lieu(colonnes[0].trim(),
+                    Double.parseDouble(colonnes[1].trim()), Double.parseDouble(colonnes[2].trim()));
+            lieux.put(cle(lieu.getNom()), lieu);
+            if (colonnes.length > 3 && !colonnes[3].isBlank()) {
+                for (String autreNom : colonnes[3].split("\\|")) {
+                    lieux.putIfAbsent(cle(autreNom), lieu);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lieu correspondant à une adresse libre ou à un nom de ville
+     */
+    public Optional<Lieu> localiser(String adresse) {
+        List<String> mots = AnalyseurTexte.mots(adresse);
+        // Du dernier mot au premier, le nom le plus long d'abord
+        for (int fin = mots.size(); fin > 0; fin--) {
+            for (int debut = Math.max(0, fin - MOTS_PAR_NOM_MAX); debut < fin; debut++) {
+                Lieu lieu = lieux.get(String.join(" ", mots.subList(debut, fin)));
+                if (lieu != null) {
+                    return Optional.of(lieu);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int getNombreNoms() {
+        return lieux.size();
+    }
+
+    /**
+     * Villes du gazetteer, une fois chacune (sans les autres noms), par ordre alphabétique
+     */
+    public List<Lieu> getLieux() {
+        return lieux.values().stream().distinct()
+                .sorted(Comparator.comparing(Lieu::getNom))
+                .toList();
+    }
+
+    private static String cle(String nom) {
+        return String.join(" ", AnalyseurTexte.mots(nom));
+    }
+
+    /**
+     * Ville du gazetteer et ses coordonnées (degrés décimaux)
+     */
+    public static class Lieu {
+        private final String nom;
+        private final double latitude;
+        private final double longitude;
+
+        public Lieu(String nom, double latitude, double longitude) {
+            this.nom = nom;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+    }
+}
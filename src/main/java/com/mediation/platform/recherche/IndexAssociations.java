@@ -0,0 +1,125 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.repository.AssociationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index en mémoire des associations validées : mots du nom, du domaine d'activité et
+ * de l'adresse (ville), sans accents, interrogeables par préfixe, tous champs confondus
+ * ou champ par champ. Reconstruit au démarrage puis mis à jour par AssociationService.
+ */
+@Component
+public class IndexAssociations {
+
+    // Tous les termes portent un préfixe de champ : un préfixe de mot ne peut pas déborder sur un autre champ
+    private static final String CHAMP_TOUS = "*:";
+    private static final String CHAMP_NOM = "nom:";
+    private static final String CHAMP_DOMAINE = "domaine:";
+    private static final String CHAMP_VILLE = "ville:";
+
+    private static final float POIDS_NOM = 3.0f;
+    private static final float POIDS_DOMAINE = 2.0f;
+    private static final float POIDS_VILLE = 1.0f;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    private final IndexInverse index = new IndexInverse();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruire() {
+        long debut = System.currentTimeMillis();
+        index.vider();
+        for (Association association : associationRepository.findByStatutValidationTrue()) {
+            index.indexer(association.getIdUtilisateur(), poidsParTerme(association));
+        }
+        System.out.println("Index des associations reconstruit : " + index.getNombreDocuments()
+                + " associations en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Prendre en compte une association créée ou modifiée (retirée si elle n'est pas validée)
+     */
+    public void indexer(Association association) {
+        if (association.getIdUtilisateur() == null) {
+            return;
+        }
+        long id = association.getIdUtilisateur();
+        if (!Boolean.TRUE.equals(association.getStatutValidation())) {
+            ApresCommit.executer(() -> index.retirer(id));
+            return;
+        }
+        Map<String, Float> poids = poidsParTerme(association);
+        ApresCommit.executer(() -> index.indexer(id, poids));
+    }
+
+    public void retirer(Long idAssociation) {
+        if (idAssociation != null) {
+            ApresCommit.executer(() -> index.retirer(idAssociation));
+        }
+    }
+
+    /**
+     * Associations dont chaque mot de la requête préfixe un mot des champs indiqués ;
+     * texte porte sur tous les champs, les critères vides sont ignorés
+     */
+    public ResultatsRecherche rechercher(String texte, String nom, String domaine, String ville, int limite) {
+        List<String> termes = new ArrayList<>();
+        ajouterCriteres(termes, CHAMP_TOUS, texte);
+        ajouterCriteres(termes, CHAMP_NOM, nom);
+        ajouterCriteres(termes, CHAMP_DOMAINE, domaine);
+        ajouterCriteres(termes, CHAMP_VILLE, ville);
+        if (termes.isEmpty()) {
+            return ResultatsRecherche.vide();
+        }
+        return index.rechercher(termes, true, 0, limite);
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("associations", index.getNombreDocuments());
+        stats.put("termes", index.getNombreTermes());
+        return stats;
+    }
+
+    private static void ajouterCriteres(List<String> termes, String champ, String critere) {
+        List<String> mots = AnalyseurTexte.mots(critere);
+        for (int i = 0; i < mots.size(); i++) {
+            String mot = mots.get(i);
+            // Le dernier mot peut être en cours de saisie (« de » → « developpement ») : on le garde
+            if (i == mots.size() - 1 || !AnalyseurTexte.estMotVide(mot)) {
+                termes.add(champ + mot);
+            }
+        }
+    }
+
+    /**
+     * Chaque mot est indexé deux fois : sous son champ (critères ciblés) et sous CHAMP_TOUS (texte libre)
+     */
+    static Map<String, Float> poidsParTerme(Association association) {
+        Map<String, Float> poids = new HashMap<>();
+        ajouter(poids, CHAMP_NOM, association.getNomAssociation(), POIDS_NOM);
+        ajouter(poids, CHAMP_DOMAINE, association.getDomaineActivite(), POIDS_DOMAINE);
+        ajouter(poids, CHAMP_VILLE, association.getAdresse(), POIDS_VILLE);
+        return poids;
+    }
+
+    private static void ajouter(Map<String, Float> poids, String champ, String texte, float valeur) {
+        for (String mot : AnalyseurTexte.mots(texte)) {
+            if (!AnalyseurTexte.estMotVide(mot)) {
+                poids.merge(champ + mot, valeur, Math::max);
+                poids.merge(CHAMP_TOUS + mot, valeur, Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.dto.response.Suggestion;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Autocomplétion des titres de projets et des noms d'associations : un trie par type,
+ * k meilleures propositions par préfixe classées par montant collecté (somme des projets
+ * pour une association). Reconstruit au démarrage puis tenu à jour, après validation de
+ * la transaction, par ProjetService, AssociationService et la validation des comptes.
+ */
+@Component
+public class IndexAutocompletion {
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    private final TrieSuggestions projets;
+    private final TrieSuggestions associations;
+
+    // Montants de tous les projets (visibles ou non) : score des associations
+    private final Map<Long, Double> montantParProjet = new HashMap<>();
+    private final Map<Long, Long> associationParProjet = new HashMap<>();
+    private final Map<Long, Double> montantParAssociation = new HashMap<>();
+
+    private final LongAdder requetes = new LongAdder();
+    private final LongAdder dureeTotaleNanos = new LongAdder();
+    private final AtomicLong dureeMaxNanos = new AtomicLong();
+
+    public IndexAutocompletion(@Value("${app.autocompletion.k:10}") int k) {
+        this.projets = new TrieSuggestions(k);
+        this.associations = new TrieSuggestions(k);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruire() {
+        long debut = System.currentTimeMillis();
+        montantParProjet.clear();
+        associationParProjet.clear();
+        montantParAssociation.clear();
+
+        List<TrieSuggestions.Entree> entreesProjets = new ArrayList<>();
+        for (Object[] ligne : projetRepository.findResumesAutocompletion()) {
+            Long idProjet = (Long) ligne[0];
+            double montant = ligne[2] != null ? (Double) ligne[2] : 0.0;
+            Long idAssociation = (Long) ligne[4];
+            montantParProjet.put(idProjet, montant);
+            associationParProjet.put(idProjet, idAssociation);
+            montantParAssociation.merge(idAssociation, montant, Double::sum);
+            if (estVisible((StatutProjet) ligne[3])) {
+                entreesProjets.add(new TrieSuggestions.Entree(idProjet, (String) ligne[1], montant));
+            }
+        }
+        projets.reconstruire(entreesProjets);
+
+        List<TrieSuggestions.Entree> entreesAssociations = new ArrayList<>();
+        for (Association association : associationRepository.findByStatutValidationTrue()) {
+            Long id = association.getIdUtilisateur();
+            entreesAssociations.add(new TrieSuggestions.Entree(id, association.getNomAssociation(),
+                    montantParAssociation.getOrDefault(id, 0.0)));
+        }
+        associations.reconstruire(entreesAssociations);
+
+        System.out.println("Index d'autocomplétion reconstruit : " + projets.getNombreEntrees() + " projets, "
+                + associations.getNombreEntrees() + " associations en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    /**
+     * Prendre en compte un projet créé ou modifié (titre, statut ou montant collecté)
+     */
+    public void indexerProjet(Projet projet) {
+        if (projet.getIdProjet() == null || projet.getAssociation() == null) {
+            return;
+        }
+        long idProjet = projet.getIdProjet();
+        long idAssociation = projet.getAssociation().getIdUtilisateur();
+        String titre = projet.getTitre();
+        double montant = projet.getMontantCollecte() != null ? projet.getMontantCollecte() : 0.0;
+        boolean visible = estVisible(projet.getStatut());
+        ApresCommit.executer(() -> appliquerProjet(idProjet, idAssociation, titre, montant, visible));
+    }
+
+    /**
+     * Prendre en compte une association créée ou modifiée (retirée si elle n'est pas validée)
+     */
+    public void indexerAssociation(Association association) {
+        if (association.getIdUtilisateur() == null) {
+            return;
+        }
+        long id = association.getIdUtilisateur();
+        String nom = association.getNomAssociation();
+        boolean validee = association.estValidee();
+        ApresCommit.executer(() -> appliquerAssociation(id, nom, validee));
+    }
+
+    public void retirerAssociation(Long idAssociation) {
+        if (idAssociation != null) {
+            ApresCommit.executer(() -> associations.retirer(idAssociation));
+        }
+    }
+
+    public List<Suggestion> suggererProjets(String prefixe, int limite) {
+        return suggerer(projets, prefixe, limite);
+    }
+
+    public List<Suggestion> suggererAssociations(String prefixe, int limite) {
+        return suggerer(associations, prefixe, limite);
+    }
+
+    /**
+     * Version des données servies, pour les validateurs HTTP (ETag)
+     */
+    public long getVersionProjets() {
+        return projets.getVersion();
+    }
+
+    public long getVersionAssociations() {
+        return associations.getVersion();
+    }
+
+    public Map<String, Object> getStatistiques() {
+        long nombre = requetes.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("projets", projets.getNombreEntrees());
+        stats.put("noeudsProjets", projets.getNombreNoeuds());
+        stats.put("associations", associations.getNombreEntrees());
+        stats.put("noeudsAssociations", associations.getNombreNoeuds());
+        stats.put("requetes", nombre);
+        stats.put("moyenneMicros", nombre > 0 ? dureeTotaleNanos.sum() / nombre / 1000.0 : 0.0);
+        stats.put("maxMicros", dureeMaxNanos.get() / 1000.0);
+        return stats;
+    }
+
+    private List<Suggestion> suggerer(TrieSuggestions trie, String prefixe, int limite) {
+        long debut = System.nanoTime();
+        List<TrieSuggestions.Entree> entrees = trie.suggerer(prefixe, limite);
+        List<Suggestion> suggestions = new ArrayList<>(entrees.size());
+        for (TrieSuggestions.Entree entree : entrees) {
+            suggestions.add(new Suggestion(entree.getId(), entree.getLibelle(), entree.getScore()));
+        }
+        long duree = System.nanoTime() - debut;
+        requetes.increment();
+        dureeTotaleNanos.add(duree);
+        dureeMaxNanos.accumulateAndGet(duree, Math::max);
+        return suggestions;
+    }
+
+    private synchronized void appliquerProjet(long idProjet, long idAssociation, String titre,
+                                              double montant, boolean visible) {
+        Double ancienMontant = montantParProjet.put(idProjet, montant);
+        Long ancienneAssociation = associationParProjet.put(idProjet, idAssociation);
+        double ancien = ancienMontant != null ? ancienMontant : 0.0;
+        if (ancienneAssociation == null || ancienneAssociation == idAssociation) {
+            ajusterAssociation(idAssociation, montant - ancien);
+        } else {
+            ajusterAssociation(ancienneAssociation, -ancien);
+            ajusterAssociation(idAssociation, montant);
+        }
+
+        if (visible) {
+            projets.indexer(idProjet, titre, montant);
+        } else {
+            projets.retirer(idProjet);
+        }
+    }
+
+    private synchronized void appliquerAssociation(long id, String nom, boolean validee) {
+        if (validee) {
+            associations.indexer(id, nom, montantParAssociation.getOrDefault(id, 0.0));
+        } else {
+            associations.retirer(id);
+        }
+    }
+
+    // Le score d'une association suit la somme des montants de ses projets
+    private void ajusterAssociation(long idAssociation, double delta) {
+        if (delta == 0) {
+            return;
+        }
+        double total = montantParAssociation.merge(idAssociation, delta, Double::sum);
+        TrieSuggestions.Entree entree = associations.getEntree(idAssociation);
+        if (entree != null) {
+            associations.indexer(idAssociation, entree.getLibelle(), total);
+        }
+    }
+
+    private static boolean estVisible(StatutProjet statut) {
+        return statut == StatutProjet.EN_COURS || statut == StatutProjet.TERMINE;
+    }
+}
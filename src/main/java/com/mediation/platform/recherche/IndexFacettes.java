@@ -0,0 +1,255 @@
+package com.mediation.platform.recherche;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de facettes en mémoire : un BitSet de documents par valeur de chaque facette.
+ * Filtrer revient à un OU des valeurs choisies dans une facette puis un ET entre facettes ;
+ * les comptages d'une facette ignorent son propre filtre (sélection multiple).
+ * Les documents gardent leur numéro interne d'une mise à jour à l'autre.
+ * Lectures concurrentes, écritures exclusives.
+ */
+public class IndexFacettes {
+
+    private final List<String> facettes;
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    // facette → valeur → documents
+    private final Map<String, Map<String, BitSet>> bitsets = new HashMap<>();
+    private final Map<Long, Integer> docParId = new HashMap<>();
+    // Valeurs courantes de chaque document, pour retirer ses bits lors d'une mise à jour
+    private final Map<Integer, Map<String, String>> valeursParDoc = new HashMap<>();
+    private final BitSet actifs = new BitSet();
+
+    private long[] idParDoc = new long[1024];
+    private int nombreDocs;
+
+    public IndexFacettes(String... facettes) {
+        this.facettes = List.of(facettes);
+        for (String facette : facettes) {
+            bitsets.put(facette, new HashMap<>());
+        }
+    }
+
+    /**
+     * Ajouter ou remplacer un document ; une valeur nulle ou vide le laisse hors de la facette
+     */
+    public void indexer(long id, Map<String, String> valeurs) {
+        verrou.writeLock().lock();
+        try {
+            Integer doc = docParId.get(id);
+            if (doc == null) {
+                doc = nombreDocs++;
+                if (doc == idParDoc.length) {
+                    idParDoc = Arrays.copyOf(idParDoc, idParDoc.length * 2);
+                }
+                idParDoc[doc] = id;
+                docParId.put(id, doc);
+            } else {
+                effacer(doc);
+            }
+
+            Map<String, String> retenues = new HashMap<>();
+            for (String facette : facettes) {
+                String valeur = valeurs.get(facette);
+                if (valeur != null && !valeur.isBlank()) {
+                    valeur = valeur.trim();
+                    bitsets.get(facette).computeIfAbsent(valeur, v -> new BitSet()).set(doc);
+                    retenues.put(facette, valeur);
+                }
+            }
+            valeursParDoc.put(doc, retenues);
+            actifs.set(doc);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changer la valeur d'une facette pour un ensemble de documents (ex. domaine d'une association)
+     */
+    public void modifierValeur(Set<Long> ids, String facette, String valeur) {
+        verrou.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                Integer doc = docParId.get(id);
+                if (doc == null || !actifs.get(doc)) {
+                    continue;
+                }
+                Map<String, String> valeurs = new HashMap<>(valeursParDoc.get(doc));
+                if (valeur == null || valeur.isBlank()) {
+                    valeurs.remove(facette);
+                } else {
+                    valeurs.put(facette, valeur.trim());
+                }
+                effacer(doc);
+                for (Map.Entry<String, String> entree : valeurs.entrySet()) {
+                    bitsets.get(entree.getKey()).computeIfAbsent(entree.getValue(), v -> new BitSet()).set(doc);
+                }
+                valeursParDoc.put(doc, valeurs);
+                actifs.set(doc);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(long id) {
+        verrou.writeLock().lock();
+        try {
+            Integer doc = docParId.get(id);
+            if (doc != null) {
+                effacer(doc);
+                valeursParDoc.remove(doc);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            for (Map<String, BitSet> parValeur : bitsets.values()) {
+                parValeur.clear();
+            }
+            docParId.clear();
+            valeursParDoc.clear();
+            actifs.clear();
+            idParDoc = new long[1024];
+            nombreDocs = 0;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Documents vérifiant tous les filtres (facette → valeurs acceptées), identifiants
+     * décroissants paginés, et comptage par valeur de chaque facette
+     */
+    public Resultat rechercher(Map<String, Set<String>> filtres, int page, int taille) {
+        verrou.readLock().lock();
+        try {
+            // Un bitset par facette filtrée : OU de ses valeurs
+            Map<String, BitSet> parFacette = new HashMap<>();
+            for (Map.Entry<String, Set<String>> filtre : filtres.entrySet()) {
+                Map<String, BitSet> parValeur = bitsets.get(filtre.getKey());
+                if (parValeur == null || filtre.getValue() == null || filtre.getValue().isEmpty()) {
+                    continue;
+                }
+                BitSet union = new BitSet();
+                for (String valeur : filtre.getValue()) {
+                    BitSet docs = valeur != null ? parValeur.get(valeur.trim()) : null;
+                    if (docs != null) {
+                        union.or(docs);
+                    }
+                }
+                parFacette.put(filtre.getKey(), union);
+            }
+
+            BitSet correspondances = intersection(parFacette, null);
+
+            Map<String, Map<String, Integer>> comptages = new LinkedHashMap<>();
+            for (String facette : facettes) {
+                BitSet base = parFacette.containsKey(facette) ? intersection(parFacette, facette) : correspondances;
+                Map<String, Integer> parValeur = new TreeMap<>();
+                for (Map.Entry<String, BitSet> entree : bitsets.get(facette).entrySet()) {
+                    BitSet docs = (BitSet) entree.getValue().clone();
+                    docs.and(base);
+                    int nombre = docs.cardinality();
+                    if (nombre > 0) {
+                        parValeur.put(entree.getKey(), nombre);
+                    }
+                }
+                comptages.put(facette, parValeur);
+            }
+
+            // Page demandée, des documents les plus récents (numéros les plus grands) aux plus anciens
+            List<Long> ids = new ArrayList<>(taille);
+            int aSauter = page * taille;
+            for (int doc = correspondances.previousSetBit(correspondances.length() - 1);
+                 doc >= 0 && ids.size() < taille; doc = correspondances.previousSetBit(doc - 1)) {
+                if (aSauter > 0) {
+                    aSauter--;
+                } else {
+                    ids.add(idParDoc[doc]);
+                }
+            }
+            return new Resultat(ids, correspondances.cardinality(), comptages);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getNombreDocuments() {
+        verrou.readLock().lock();
+        try {
+            return actifs.cardinality();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ET des facettes filtrées (sauf exclue) avec les documents actifs
+    private BitSet intersection(Map<String, BitSet> parFacette, String exclue) {
+        BitSet resultat = (BitSet) actifs.clone();
+        for (Map.Entry<String, BitSet> entree : parFacette.entrySet()) {
+            if (!entree.getKey().equals(exclue)) {
+                resultat.and(entree.getValue());
+            }
+        }
+        return resultat;
+    }
+
+    private void effacer(int doc) {
+        Map<String, String> valeurs = valeursParDoc.get(doc);
+        if (valeurs != null) {
+            for (Map.Entry<String, String> entree : valeurs.entrySet()) {
+                Map<String, BitSet> parValeur = bitsets.get(entree.getKey());
+                BitSet docs = parValeur.get(entree.getValue());
+                if (docs != null) {
+                    docs.clear(doc);
+                    if (docs.isEmpty()) {
+                        parValeur.remove(entree.getValue());
+                    }
+                }
+            }
+        }
+        actifs.clear(doc);
+    }
+
+    /**
+     * Page d'identifiants, nombre total de correspondances et comptages par facette
+     */
+    public static class Resultat {
+        private final List<Long> ids;
+        private final long total;
+        private final Map<String, Map<String, Integer>> comptages;
+
+        public Resultat(List<Long> ids, long total, Map<String, Map<String, Integer>> comptages) {
+            this.ids = ids;
+            this.total = total;
+            this.comptages = comptages;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public Map<String, Map<String, Integer>> getComptages() {
+            return comptages;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.mediation.platform.recherche;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index spatial en grille : le plan latitude/longitude est découpé en cellules carrées
+ * de taille fixe (en degrés). Une recherche par rayon ne visite que les cellules du
+ * rectangle englobant le cercle puis filtre les points par distance orthodromique.
+ * Lectures concurrentes, écritures exclusives.
+ */
+public class IndexGeographique {
+
+    private static final double RAYON_TERRE_KM = 6371.0;
+    private static final double KM_PAR_DEGRE = Math.PI * RAYON_TERRE_KM / 180.0;
+
+    private final double tailleCellule;
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<Long, List<Point>> cellules = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+
+    public IndexGeographique(double tailleCelluleDegres) {
+        this.tailleCellule = tailleCelluleDegres;
+    }
+
+    /**
+     * Ajouter ou déplacer un point
+     */
+    public void placer(long id, double latitude, double longitude) {
+        Point point = new Point(id, latitude, longitude);
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+            points.put(id, point);
+            cellules.computeIfAbsent(cellule(ligne(latitude), colonne(longitude)), c -> new ArrayList<>()).add(point);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            cellules.clear();
+            points.clear();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Points à moins de rayonKm, du plus proche au plus éloigné (limite ≤ 0 : sans limite)
+     */
+    public List<Voisin> autourDe(double latitude, double longitude, double rayonKm, int limite) {
+        double deltaLatitude = rayonKm / KM_PAR_DEGRE;
+        // Un degré de longitude rétrécit avec la latitude ; près des pôles, toute la longitude
+        double cosinus = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + deltaLatitude)));
+        double deltaLongitude = Math.min(180.0, rayonKm / (KM_PAR_DEGRE * cosinus));
+
+        List<Voisin> voisins = new ArrayList<>();
+        verrou.readLock().lock();
+        try {
+            long ligneMin = ligne(latitude - deltaLatitude);
+            long ligneMax = ligne(latitude + deltaLatitude);
+            long colonneMin = colonne(longitude - deltaLongitude);
+            long colonneMax = colonne(longitude + deltaLongitude);
+            if ((ligneMax - ligneMin + 1) * (colonneMax - colonneMin + 1) > cellules.size()) {
+                // Grand rayon : moins coûteux de parcourir les cellules occupées
+                for (List<Point> contenu : cellules.values()) {
+                    filtrer(contenu, latitude, longitude, rayonKm, voisins);
+                }
+            } else {
+                for (long l = ligneMin; l <= ligneMax; l++) {
+                    for (long c = colonneMin; c <= colonneMax; c++) {
+                        List<Point> contenu = cellules.get(cellule(l, c));
+                        if (contenu != null) {
+                            filtrer(contenu, latitude, longitude, rayonKm, voisins);
+                        }
+                    }
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        voisins.sort((a, b) -> Double.compare(a.getDistanceKm(), b.getDistanceKm()));
+        return limite > 0 && voisins.size() > limite ? new ArrayList<>(voisins.subList(0, limite)) : voisins;
+    }
+
+    public int getNombrePoints() {
+        verrou.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getNombreCellules() {
+        verrou.readLock().lock();
+        try {
+            return cellules.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distance orthodromique (formule de haversine) en kilomètres
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * RAYON_TERRE_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static void filtrer(List<Point> contenu, double latitude, double longitude,
+                                double rayonKm, List<Voisin> voisins) {
+        for (Point point : contenu) {
+            double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+            if (distance <= rayonKm) {
+                voisins.add(new Voisin(point.id, distance));
+            }
+        }
+    }
+
+    private void retirerSansVerrou(long id) {
+        Point ancien = points.remove(id);
+        if (ancien != null) {
+            long cle = cellule(ligne(ancien.latitude), colonne(ancien.longitude));
+            List<Point> contenu = cellules.get(cle);
+            contenu.remove(ancien);
+            if (contenu.isEmpty()) {
+                cellules.remove(cle);
+            }
+        }
+    }
+
+    private long ligne(double latitude) {
+        return (long) Math.floor(latitude / tailleCellule);
+    }
+
+    // Les colonnes ne bouclent pas à ±180° : le pays couvert est loin de l'antiméridien
+    private long colonne(double longitude) {
+        return (long) Math.floor(longitude / tailleCellule);
+    }
+
+    private static long cellule(long ligne, long colonne) {
+        return (ligne << 32) ^ (colonne & 0xFFFFFFFFL);
+    }
+
+    private static final class Point {
+        final long id;
+        final double latitude;
+        final double longitude;
+
+        Point(long id, double latitude, double longitude) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    /**
+     * Identifiant d'un point trouvé et sa distance au centre de la recherche
+     */
+    public static class Voisin {
+        private final long id;
+        private final double distanceKm;
+
+        public Voisin(long id, double distanceKm) {
+            this.id = id;
+            this.distanceKm = distanceKm;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.mediation.platform.recherche;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire : terme → (documents, poids), documents numérotés en interne.
+ * Les termes sont aussi gardés triés pour la recherche par préfixe.
+ * Une mise à jour retire l'ancienne version (marquée supprimée) et ajoute la nouvelle
+ * en fin de listes, qui restent ainsi triées ; l'index est compacté quand les
+ * documents supprimés dépassent un quart du total.
+ * Lectures concurrentes, écritures exclusives.
+ */
+public class IndexInverse {
+
+    private static final int SEUIL_COMPACTAGE = 1024;
+    private static final int EXPANSION_PREFIXE_MAX = 256;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<String, Postings> dictionnaire = new HashMap<>();
+    // Termes triés, uniquement pour la recherche par préfixe
+    private final TreeSet<String> termesTries = new TreeSet<>();
+    private final Map<Long, Integer> docParId = new HashMap<>();
+    private final BitSet supprimes = new BitSet();
+
+    private long[] idParDoc = new long[1024];
+    private int nombreDocs;
+    private int nombreSupprimes;
+
+    /**
+     * Ajouter ou remplacer un document
+     */
+    public void indexer(long id, Map<String, Float> poidsParTerme) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+            if (poidsParTerme.isEmpty()) {
+                return;
+            }
+
+            int doc = nombreDocs++;
+            if (doc == idParDoc.length) {
+                idParDoc = Arrays.copyOf(idParDoc, idParDoc.length * 2);
+            }
+            idParDoc[doc] = id;
+            docParId.put(id, doc);
+
+            for (Map.Entry<String, Float> entree : poidsParTerme.entrySet()) {
+                Postings postings = dictionnaire.get(entree.getKey());
+                if (postings == null) {
+                    postings = new Postings();
+                    dictionnaire.put(entree.getKey(), postings);
+                    termesTries.add(entree.getKey());
+                }
+                postings.ajouter(doc, entree.getValue());
+            }
+
+            if (nombreSupprimes > SEUIL_COMPACTAGE && nombreSupprimes > nombreDocs / 4) {
+                compacter();
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            dictionnaire.clear();
+            termesTries.clear();
+            docParId.clear();
+            supprimes.clear();
+            idParDoc = new long[1024];
+            nombreDocs = 0;
+            nombreSupprimes = 0;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Documents contenant tous les termes (ou un terme commençant par chacun d'eux si prefixe),
+     * classés par somme des poids pondérés par l'IDF
+     */
+    public ResultatsRecherche rechercher(List<String> termes, boolean prefixe, int page, int taille) {
+        if (termes.isEmpty() || taille <= 0 || page < 0) {
+            return ResultatsRecherche.vide();
+        }
+
+        verrou.readLock().lock();
+        try {
+            int documentsActifs = Math.max(1, docParId.size());
+
+            // Une liste (docs triés, scores) par terme de la requête, puis intersection
+            List<ListeScores> listes = new ArrayList<>(termes.size());
+            for (String terme : termes) {
+                ListeScores liste = prefixe ? listePrefixe(terme, documentsActifs) : listeExacte(terme, documentsActifs);
+                if (liste.taille == 0) {
+                    return ResultatsRecherche.vide();
+                }
+                listes.add(liste);
+            }
+            listes.sort((a, b) -> Integer.compare(a.taille, b.taille));
+
+            ListeScores correspondances = listes.get(0);
+            for (int i = 1; i < listes.size() && correspondances.taille > 0; i++) {
+                correspondances = correspondances.intersecter(listes.get(i));
+            }
+
+            return paginer(correspondances, page, taille);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getNombreDocuments() {
+        verrou.readLock().lock();
+        try {
+            return docParId.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getNombreTermes() {
+        verrou.readLock().lock();
+        try {
+            return dictionnaire.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private void retirerSansVerrou(long id) {
+        Integer doc = docParId.remove(id);
+        if (doc != null) {
+            supprimes.set(doc);
+            nombreSupprimes++;
+        }
+    }
+
+    private ListeScores listeExacte(String terme, int documentsActifs) {
+        Postings postings = dictionnaire.get(terme);
+        if (postings == null) {
+            return ListeScores.VIDE;
+        }
+        return postings.versScores(idf(postings, documentsActifs), supprimes);
+    }
+
+    private ListeScores listePrefixe(String prefixe, int documentsActifs) {
+        SortedSet<String> candidats = termesTries.subSet(prefixe, prefixe + Character.MAX_VALUE);
+        if (candidats.isEmpty()) {
+            return ListeScores.VIDE;
+        }
+        if (candidats.size() == 1) {
+            Postings postings = dictionnaire.get(candidats.first());
+            return postings.versScores(idf(postings, documentsActifs), supprimes);
+        }
+
+        // Union des termes de même préfixe : meilleur score par document
+        Map<Integer, Float> union = new HashMap<>();
+        int expansions = 0;
+        for (String terme : candidats) {
+            if (++expansions > EXPANSION_PREFIXE_MAX) {
+                break;
+            }
+            Postings postings = dictionnaire.get(terme);
+            ListeScores liste = postings.versScores(idf(postings, documentsActifs), supprimes);
+            for (int i = 0; i < liste.taille; i++) {
+                union.merge(liste.docs[i], liste.scores[i], Math::max);
+            }
+        }
+
+        int[] docs = new int[union.size()];
+        int n = 0;
+        for (Integer doc : union.keySet()) {
+            docs[n++] = doc;
+        }
+        Arrays.sort(docs);
+        float[] scores = new float[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            scores[i] = union.get(docs[i]);
+        }
+        return new ListeScores(docs, scores, docs.length);
+    }
+
+    private ResultatsRecherche paginer(ListeScores correspondances, int page, int taille) {
+        long limite = (long) (page + 1) * taille;
+        if (correspondances.taille == 0 || limite - taille >= correspondances.taille) {
+            return new ResultatsRecherche(List.of(), correspondances.taille);
+        }
+
+        // Tas min des (page + 1) * taille meilleurs scores
+        int capacite = (int) Math.min(limite, correspondances.taille);
+        PriorityQueue<int[]> meilleurs = new PriorityQueue<>(capacite,
+                (a, b) -> comparer(correspondances, a[0], b[0]));
+        for (int i = 0; i < correspondances.taille; i++) {
+            if (meilleurs.size() < capacite) {
+                meilleurs.add(new int[]{i});
+            } else if (comparer(correspondances, i, meilleurs.peek()[0]) > 0) {
+                meilleurs.poll();
+                meilleurs.add(new int[]{i});
+            }
+        }
+
+        List<ResultatsRecherche.Resultat> tries = new ArrayList<>(meilleurs.size());
+        int[] ordre = new int[meilleurs.size()];
+        for (int i = ordre.length - 1; i >= 0; i--) {
+            ordre[i] = meilleurs.poll()[0];
+        }
+        for (int i = page * taille; i < ordre.length; i++) {
+            int position = ordre[i];
+            tries.add(new ResultatsRecherche.Resultat(idParDoc[correspondances.docs[position]],
+                    correspondances.scores[position]));
+        }
+        return new ResultatsRecherche(tries, correspondances.taille);
+    }
+
+    // Score croissant puis document le plus récent en premier à score égal
+    private static int comparer(ListeScores liste, int a, int b) {
+        int parScore = Float.compare(liste.scores[a], liste.scores[b]);
+        return parScore != 0 ? parScore : Integer.compare(liste.docs[a], liste.docs[b]);
+    }
+
+    private static float idf(Postings postings, int documentsActifs) {
+        return (float) Math.log(1.0 + (double) documentsActifs / Math.max(1, postings.taille));
+    }
+
+    private void compacter() {
+        int[] nouveauNumero = new int[nombreDocs];
+        long[] nouveauxIds = new long[Math.max(1024, docParId.size() * 2)];
+        int suivant = 0;
+        for (int doc = 0; doc < nombreDocs; doc++) {
+            if (supprimes.get(doc)) {
+                nouveauNumero[doc] = -1;
+            } else {
+                nouveauNumero[doc] = suivant;
+                nouveauxIds[suivant] = idParDoc[doc];
+                docParId.put(idParDoc[doc], suivant);
+                suivant++;
+            }
+        }
+
+        dictionnaire.entrySet().removeIf(entree -> {
+            boolean vide = entree.getValue().renumeroter(nouveauNumero) == 0;
+            if (vide) {
+                termesTries.remove(entree.getKey());
+            }
+            return vide;
+        });
+        idParDoc = nouveauxIds;
+        nombreDocs = suivant;
+        supprimes.clear();
+        nombreSupprimes = 0;
+    }
+
+    /**
+     * Liste de documents d'un terme, triée par numéro de document
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] poids = new float[4];
+        private int taille;
+
+        void ajouter(int doc, float valeur) {
+            if (taille == docs.length) {
+                docs = Arrays.copyOf(docs, taille * 2);
+                poids = Arrays.copyOf(poids, taille * 2);
+            }
+            docs[taille] = doc;
+            poids[taille] = valeur;
+            taille++;
+        }
+
+        ListeScores versScores(float idf, BitSet supprimes) {
+            int[] resultatDocs = new int[taille];
+            float[] resultatScores = new float[taille];
+            int n = 0;
+            for (int i = 0; i < taille; i++) {
+                if (!supprimes.get(docs[i])) {
+                    resultatDocs[n] = docs[i];
+                    resultatScores[n] = poids[i] * idf;
+                    n++;
+                }
+            }
+            return new ListeScores(resultatDocs, resultatScores, n);
+        }
+
+        int renumeroter(int[] nouveauNumero) {
+            int n = 0;
+            for (int i = 0; i < taille; i++) {
+                int doc = nouveauNumero[docs[i]];
+                if (doc >= 0) {
+                    docs[n] = doc;
+                    poids[n] = poids[i];
+                    n++;
+                }
+            }
+            taille = n;
+            return n;
+        }
+    }
+
+    private static final class ListeScores {
+        static final ListeScores VIDE = new ListeScores(new int[0], new float[0], 0);
+
+        final int[] docs;
+        final float[] scores;
+        final int taille;
+
+        ListeScores(int[] docs, float[] scores, int taille) {
+            this.docs = docs;
+            this.scores = scores;
+            this.taille = taille;
+        }
+
+        ListeScores intersecter(ListeScores autre) {
+            int[] resultatDocs = new int[Math.min(taille, autre.taille)];
+            float[] resultatScores = new float[resultatDocs.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < taille && j < autre.taille) {
+                if (docs[i] < autre.docs[j]) {
+                    i++;
+                } else if (docs[i] > autre.docs[j]) {
+                    j++;
+                } else {
+                    resultatDocs[n] = docs[i];
+                    resultatScores[n] = scores[i] + autre.scores[j];
+                    n++;
+                    i++;
+                    j++;
+                }
+            }
+            return new ListeScores(resultatDocs, resultatScores, n);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.repository.ProjetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche plein texte en mémoire (profils de test, bases sans PostgreSQL) :
+ * index inversé des projets publics reconstruit au démarrage puis tenu à jour par
+ * ProjetService et AssociationService, les modifications n'étant appliquées qu'après
+ * validation de la transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.recherche.moteur", havingValue = "memoire")
+public class MoteurRechercheMemoire implements MoteurRechercheProjets {
+
+    // Même pondération que les poids A/B/C de la colonne tsvector PostgreSQL
+    private static final float POIDS_TITRE = 3.0f;
+    private static final float POIDS_OBJECTIF = 1.5f;
+    private static final float POIDS_DESCRIPTION = 1.0f;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    private final IndexInverse index = new IndexInverse();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruire() {
+        long debut = System.currentTimeMillis();
+        index.vider();
+        for (Projet projet : projetRepository.findPublics(STATUTS_PUBLICS)) {
+            index.indexer(projet.getIdProjet(), poidsParTerme(projet.getTitre(), projet.getObjectif(), projet.getDescription()));
+        }
+        System.out.println("Index de recherche des projets reconstruit : " + index.getNombreDocuments()
+                + " projets, " + index.getNombreTermes() + " termes en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    @Override
+    public ResultatsRecherche rechercher(String requete, int page, int taille) {
+        List<String> termes = AnalyseurTexte.termes(requete);
+        if (termes.isEmpty()) {
+            return ResultatsRecherche.vide();
+        }
+        return index.rechercher(termes, false, page, taille);
+    }
+
+    @Override
+    public void indexer(Projet projet) {
+        if (projet.getIdProjet() == null) {
+            return;
+        }
+        long id = projet.getIdProjet();
+        if (!MoteurRechercheProjets.estPublic(projet)) {
+            ApresCommit.executer(() -> index.retirer(id));
+            return;
+        }
+        // Termes calculés tout de suite : l'entité peut changer avant la validation
+        Map<String, Float> poids = poidsParTerme(projet.getTitre(), projet.getObjectif(), projet.getDescription());
+        ApresCommit.executer(() -> index.indexer(id, poids));
+    }
+
+    @Override
+    public void retirer(Long idProjet) {
+        if (idProjet != null) {
+            ApresCommit.executer(() -> index.retirer(idProjet));
+        }
+    }
+
+    @Override
+    public void indexerAssociation(Association association) {
+        if (association.getIdUtilisateur() != null) {
+            projetRepository.findByAssociationIdUtilisateur(association.getIdUtilisateur()).forEach(this::indexer);
+        }
+    }
+
+    @Override
+    public void retirerAssociation(Long idAssociation) {
+        if (idAssociation != null) {
+            projetRepository.findByAssociationIdUtilisateur(idAssociation).forEach(projet -> retirer(projet.getIdProjet()));
+        }
+    }
+
+    @Override
+    public String getNom() {
+        return "memoire";
+    }
+
+    public IndexInverse getIndex() {
+        return index;
+    }
+
+    /**
+     * Poids par terme : somme des poids de champ de chaque occurrence, amortie en 1 + ln(somme)
+     */
+    public static Map<String, Float> poidsParTerme(String titre, String objectif, String description) {
+        Map<String, Float> sommes = new HashMap<>();
+        ajouter(sommes, titre, POIDS_TITRE);
+        ajouter(sommes, objectif, POIDS_OBJECTIF);
+        ajouter(sommes, description, POIDS_DESCRIPTION);
+        sommes.replaceAll((terme, somme) -> (float) (1.0 + Math.log(somme)));
+        return sommes;
+    }
+
+    private static void ajouter(Map<String, Float> sommes, String texte, float poids) {
+        for (String terme : AnalyseurTexte.termes(texte)) {
+            sommes.merge(terme, poids, Float::sum);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.entity.Projet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recherche plein texte PostgreSQL : colonne tsvector générée (titre A, objectif B,
+ * description C) avec configuration française sans accents et index GIN, créées par
+ * db/recherche-postgres.sql. La colonne étant GENERATED ... STORED, PostgreSQL la maintient
+ * à chaque INSERT/UPDATE de Projet : indexer() et retirer() n'ont rien à faire, et la
+ * visibilité (statut, validation de l'association) est filtrée à la requête.
+ */
+@Component
+@ConditionalOnProperty(name = "app.recherche.moteur", havingValue = "postgres", matchIfMissing = true)
+public class MoteurRecherchePostgres implements MoteurRechercheProjets {
+
+    private static final String CONFIGURATION = "francais_sans_accents";
+
+    // Projets visibles du public : en cours ou terminés, d'une association validée et non suspendue
+    private static final String JOINTURE_ASSOCIATION =
+            "JOIN associations a ON a.id_utilisateur = p.id_association " +
+                    "JOIN utilisateurs u ON u.id_utilisateur = p.id_association ";
+    private static final String FILTRE_PUBLIC =
+            "AND p.statut IN ('EN_COURS', 'TERMINE') AND a.statut_validation AND u.statut <> 'SUSPENDU' ";
+
+    private static final String REQUETE_RECHERCHE =
+            "SELECT p.id_projet, ts_rank_cd(p.recherche, q) AS score " +
+                    "FROM projets p " + JOINTURE_ASSOCIATION +
+                    "CROSS JOIN websearch_to_tsquery('" + CONFIGURATION + "', ?) q " +
+                    "WHERE p.recherche @@ q " + FILTRE_PUBLIC +
+                    "ORDER BY score DESC, p.id_projet DESC " +
+                    "LIMIT ? OFFSET ?";
+
+    private static final String REQUETE_COMPTAGE =
+            "SELECT count(*) FROM projets p " + JOINTURE_ASSOCIATION +
+                    "WHERE p.recherche @@ websearch_to_tsquery('" + CONFIGURATION + "', ?) " + FILTRE_PUBLIC;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public ResultatsRecherche rechercher(String requete, int page, int taille) {
+        if (requete == null || requete.isBlank()) {
+            return ResultatsRecherche.vide();
+        }
+
+        List<ResultatsRecherche.Resultat> resultats = jdbcTemplate.query(
+                REQUETE_RECHERCHE,
+                (rs, i) -> new ResultatsRecherche.Resultat(rs.getLong(1), rs.getDouble(2)),
+                requete, taille, (long) page * taille);
+
+        // Évite le comptage quand la page courante suffit à le déduire
+        long total;
+        if (page == 0 && resultats.size() < taille) {
+            total = resultats.size();
+        } else {
+            Long compte = jdbcTemplate.queryForObject(REQUETE_COMPTAGE, Long.class, requete);
+            total = compte != null ? compte : 0;
+        }
+
+        return new ResultatsRecherche(resultats, total);
+    }
+
+    @Override
+    public void indexer(Projet projet) {
+        // Colonne générée : maintenue par PostgreSQL
+    }
+
+    @Override
+    public void retirer(Long idProjet) {
+        // Colonne générée : maintenue par PostgreSQL
+    }
+
+    @Override
+    public String getNom() {
+        return "postgres";
+    }
+}
@@ -0,0 +1,57 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.enums.StatutUtilisateur;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Recherche plein texte classée sur les projets (titre, objectif, description), limitée aux
+ * projets visibles du public : en cours ou terminés, d'une association validée et non suspendue
+ */
+public interface MoteurRechercheProjets {
+
+    Set<StatutProjet> STATUTS_PUBLICS = EnumSet.of(StatutProjet.EN_COURS, StatutProjet.TERMINE);
+
+    /**
+     * Règle de visibilité publique, commune à la recherche et aux facettes
+     */
+    static boolean estPublic(Projet projet) {
+        Association association = projet.getAssociation();
+        return STATUTS_PUBLICS.contains(projet.getStatut()) && association != null
+                && association.estValidee() && association.getStatut() != StatutUtilisateur.SUSPENDU;
+    }
+
+    /**
+     * Page de résultats triés par pertinence décroissante (page commence à 0)
+     */
+    ResultatsRecherche rechercher(String requete, int page, int taille);
+
+    /**
+     * Prendre en compte un projet créé ou modifié
+     */
+    void indexer(Projet projet);
+
+    /**
+     * Retirer un projet de l'index
+     */
+    void retirer(Long idProjet);
+
+    /**
+     * Prendre en compte la validation ou la réactivation d'une association (ses projets
+     * deviennent visibles)
+     */
+    default void indexerAssociation(Association association) {
+    }
+
+    /**
+     * Retirer les projets d'une association refusée, suspendue ou supprimée
+     */
+    default void retirerAssociation(Long idAssociation) {
+    }
+
+    String getNom();
+}
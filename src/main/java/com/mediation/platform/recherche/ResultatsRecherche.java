@@ -0,0 +1,47 @@
+package com.mediation.platform.recherche;
+
+import java.util.List;
+
+/**
+ * Page de résultats classés : identifiants et scores, plus le nombre total de correspondances
+ */
+public class ResultatsRecherche {
+
+    private final List<Resultat> resultats;
+    private final long total;
+
+    public ResultatsRecherche(List<Resultat> resultats, long total) {
+        this.resultats = resultats;
+        this.total = total;
+    }
+
+    public static ResultatsRecherche vide() {
+        return new ResultatsRecherche(List.of(), 0);
+    }
+
+    public List<Resultat> getResultats() {
+        return resultats;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public static class Resultat {
+        private final Long id;
+        private final double score;
+
+        public Resultat(Long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package com.mediation.platform.recherche;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie compact (arêtes étiquetées par des chaînes) pour la complétion : chaque libellé
+ * est indexé à partir de chacun de ses mots (« ecole primaire de thies »,
+ * « primaire de thies », ...) et chaque nœud garde en cache ses k meilleures entrées
+ * par score. Une suggestion est une descente de la longueur du préfixe suivie d'une
+ * copie de k éléments, sans parcours de sous-arbre ; une mise à jour ne recalcule que
+ * les nœuds situés sur le chemin des clés modifiées.
+ * Lectures concurrentes, écritures exclusives.
+ */
+public class TrieSuggestions {
+
+    // Au-delà, les mots de fin de libellé ne servent plus de point d'entrée
+    private static final int MOTS_INDEXES_MAX = 12;
+
+    private static final Comparator<Entree> PAR_SCORE = Comparator
+            .comparingDouble(Entree::getScore).reversed()
+            .thenComparing(Entree::getLibelle)
+            .thenComparingLong(Entree::getId);
+
+    private final int k;
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Noeud racine = new Noeud("");
+    private final Map<Long, Entree> entrees = new HashMap<>();
+    private int nombreNoeuds = 1;
+    private long version;
+
+    public TrieSuggestions(int k) {
+        this.k = Math.max(1, k);
+    }
+
+    /**
+     * Ajouter ou remplacer une entrée (nouveau libellé et/ou nouveau score)
+     */
+    public void indexer(long id, String libelle, double score) {
+        Entree entree = new Entree(id, libelle, score);
+        verrou.writeLock().lock();
+        try {
+            Entree precedente = entrees.get(id);
+            if (precedente != null && precedente.cles.equals(entree.cles)) {
+                // Même libellé : seul le score change, les clés restent en place
+                entrees.put(id, entree);
+                for (String cle : entree.cles) {
+                    List<Noeud> chemin = chemin(cle);
+                    chemin.get(chemin.size() - 1).remplacerTerminale(precedente, entree);
+                    recalculer(chemin);
+                }
+            } else {
+                retirerSansVerrou(id);
+                if (entree.cles.isEmpty()) {
+                    return;
+                }
+                entrees.put(id, entree);
+                for (String cle : entree.cles) {
+                    recalculer(inserer(cle, entree));
+                }
+            }
+            version++;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(long id) {
+        verrou.writeLock().lock();
+        try {
+            if (retirerSansVerrou(id)) {
+                version++;
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruction complète : insertion de toutes les clés puis un seul calcul
+     * des meilleurs par nœud, en remontant depuis les feuilles
+     */
+    public void reconstruire(List<Entree> nouvellesEntrees) {
+        verrou.writeLock().lock();
+        try {
+            racine.vider();
+            entrees.clear();
+            nombreNoeuds = 1;
+            for (Entree entree : nouvellesEntrees) {
+                Entree precedente = entrees.put(entree.id, entree);
+                if (precedente != null) {
+                    for (String cle : precedente.cles) {
+                        List<Noeud> chemin = chemin(cle);
+                        chemin.get(chemin.size() - 1).retirerTerminale(precedente);
+                    }
+                }
+                for (String cle : entree.cles) {
+                    inserer(cle, entree);
+                }
+            }
+            recalculerSousArbre(racine);
+            version++;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Au plus limite entrées (plafonnée à k) dont un mot du libellé commence par le préfixe,
+     * par score décroissant
+     */
+    public List<Entree> suggerer(String prefixe, int limite) {
+        String cle = normaliser(prefixe);
+        if (cle.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        verrou.readLock().lock();
+        try {
+            Noeud noeud = racine;
+            int position = 0;
+            while (position < cle.length()) {
+                noeud = noeud.enfant(cle.charAt(position));
+                if (noeud == null) {
+                    return List.of();
+                }
+                int restant = cle.length() - position;
+                if (restant <= noeud.arete.length()) {
+                    // Le préfixe s'arrête au milieu (ou au bout) de cette arête
+                    if (!noeud.arete.regionMatches(0, cle, position, restant)) {
+                        return List.of();
+                    }
+                    break;
+                }
+                if (!cle.startsWith(noeud.arete, position)) {
+                    return List.of();
+                }
+                position += noeud.arete.length();
+            }
+            int n = Math.min(limite, noeud.meilleurs.length);
+            return Arrays.asList(Arrays.copyOf(noeud.meilleurs, n));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public Entree getEntree(long id) {
+        verrou.readLock().lock();
+        try {
+            return entrees.get(id);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compteur incrémenté à chaque modification (validateurs HTTP)
+     */
+    public long getVersion() {
+        verrou.readLock().lock();
+        try {
+            return version;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getNombreEntrees() {
+        verrou.readLock().lock();
+        try {
+            return entrees.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int getNombreNoeuds() {
+        verrou.readLock().lock();
+        try {
+            return nombreNoeuds;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forme canonique des clés et des préfixes : mots normalisés séparés par une espace ;
+     * une espace finale est conservée (« ecole » suivi d'une espace attend le mot suivant)
+     */
+    static String normaliser(String texte) {
+        List<String> mots = AnalyseurTexte.mots(texte);
+        if (mots.isEmpty()) {
+            return "";
+        }
+        String cle = String.join(" ", mots);
+        char dernier = texte.charAt(texte.length() - 1);
+        return Character.isWhitespace(dernier) ? cle + " " : cle;
+    }
+
+    private boolean retirerSansVerrou(long id) {
+        Entree entree = entrees.remove(id);
+        if (entree == null) {
+            return false;
+        }
+        for (String cle : entree.cles) {
+            List<Noeud> chemin = chemin(cle);
+            chemin.get(chemin.size() - 1).retirerTerminale(entree);
+            List<Noeud> restants = compacter(chemin);
+            recalculer(restants);
+        }
+        return true;
+    }
+
+    /**
+     * Insérer une clé, en coupant une arête si la clé diverge en son milieu ;
+     * retourne le chemin de la racine au nœud terminal
+     */
+    private List<Noeud> inserer(String cle, Entree entree) {
+        List<Noeud> chemin = new ArrayList<>();
+        Noeud noeud = racine;
+        chemin.add(noeud);
+        int position = 0;
+        while (position < cle.length()) {
+            Noeud enfant = noeud.enfant(cle.charAt(position));
+            if (enfant == null) {
+                enfant = new Noeud(cle.substring(position));
+                noeud.ajouterEnfant(enfant);
+                nombreNoeuds++;
+                chemin.add(enfant);
+                position = cle.length();
+                noeud = enfant;
+                break;
+            }
+
+            int commun = longueurCommune(enfant.arete, cle, position);
+            if (commun < enfant.arete.length()) {
+                // Nœud intermédiaire portant la partie commune de l'arête
+                Noeud milieu = new Noeud(enfant.arete.substring(0, commun));
+                enfant.arete = enfant.arete.substring(commun);
+                milieu.ajouterEnfant(enfant);
+                milieu.meilleurs = enfant.meilleurs;
+                noeud.remplacerEnfant(milieu);
+                nombreNoeuds++;
+                enfant = milieu;
+            }
+            noeud = enfant;
+            chemin.add(noeud);
+            position += commun;
+        }
+        noeud.ajouterTerminale(entree);
+        return chemin;
+    }
+
+    /**
+     * Chemin de la racine au nœud où se termine une clé présente dans le trie
+     */
+    private List<Noeud> chemin(String cle) {
+        List<Noeud> chemin = new ArrayList<>();
+        Noeud noeud = racine;
+        chemin.add(noeud);
+        int position = 0;
+        while (position < cle.length()) {
+            noeud = noeud.enfant(cle.charAt(position));
+            chemin.add(noeud);
+            position += noeud.arete.length();
+        }
+        return chemin;
+    }
+
+    /**
+     * Après un retrait : détacher les nœuds vides et fusionner un nœud sans entrée
+     * avec son unique enfant ; retourne la partie du chemin encore attachée
+     */
+    private List<Noeud> compacter(List<Noeud> chemin) {
+        int fin = chemin.size();
+        for (int i = chemin.size() - 1; i > 0; i--) {
+            Noeud noeud = chemin.get(i);
+            Noeud parent = chemin.get(i - 1);
+            if (noeud.terminales.length > 0 || noeud.enfants.length > 1) {
+                break;
+            }
+            if (noeud.enfants.length == 0) {
+                parent.retirerEnfant(noeud.arete.charAt(0));
+                nombreNoeuds--;
+                fin = i;
+            } else {
+                Noeud unique = noeud.enfants[0];
+                unique.arete = noeud.arete + unique.arete;
+                parent.remplacerEnfant(unique);
+                nombreNoeuds--;
+                fin = i;
+                break;
+            }
+        }
+        return chemin.subList(0, fin);
+    }
+
+    /**
+     * Recalcul du bas vers le haut ; un ancêtre ne dépend que des meilleurs de ses enfants :
+     * on s'arrête dès qu'un nœud garde les mêmes meilleurs
+     */
+    private void recalculer(List<Noeud> chemin) {
+        for (int i = chemin.size() - 1; i >= 0; i--) {
+            if (!chemin.get(i).calculerMeilleurs(k)) {
+                return;
+            }
+        }
+    }
+
+    private void recalculerSousArbre(Noeud noeud) {
+        for (Noeud enfant : noeud.enfants) {
+            recalculerSousArbre(enfant);
+        }
+        noeud.calculerMeilleurs(k);
+    }
+
+    private static int longueurCommune(String arete, String cle, int position) {
+        int max = Math.min(arete.length(), cle.length() - position);
+        int i = 0;
+        while (i < max && arete.charAt(i) == cle.charAt(position + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Noeud {
+        private static final char[] AUCUNE_ETIQUETTE = new char[0];
+        private static final Noeud[] AUCUN_ENFANT = new Noeud[0];
+        private static final Entree[] AUCUNE_ENTREE = new Entree[0];
+
+        // Fragment de clé entre le parent et ce nœud
+        String arete;
+        // Enfants triés par premier caractère d'arête : recherche dichotomique, pas de Map par nœud
+        char[] premiers = AUCUNE_ETIQUETTE;
+        Noeud[] enfants = AUCUN_ENFANT;
+        Entree[] terminales = AUCUNE_ENTREE;
+        Entree[] meilleurs = AUCUNE_ENTREE;
+
+        Noeud(String arete) {
+            this.arete = arete;
+        }
+
+        Noeud enfant(char c) {
+            int position = Arrays.binarySearch(premiers, c);
+            return position >= 0 ? enfants[position] : null;
+        }
+
+        void ajouterEnfant(Noeud enfant) {
+            char c = enfant.arete.charAt(0);
+            int position = -(Arrays.binarySearch(premiers, c) + 1);
+            char[] nouveauxPremiers = new char[premiers.length + 1];
+            Noeud[] nouveauxEnfants = new Noeud[enfants.length + 1];
+            System.arraycopy(premiers, 0, nouveauxPremiers, 0, position);
+            System.arraycopy(enfants, 0, nouveauxEnfants, 0, position);
+            System.arraycopy(premiers, position, nouveauxPremiers, position + 1, premiers.length - position);
+            System.arraycopy(enfants, position, nouveauxEnfants, position + 1, enfants.length - position);
+            nouveauxPremiers[position] = c;
+            nouveauxEnfants[position] = enfant;
+            premiers = nouveauxPremiers;
+            enfants = nouveauxEnfants;
+        }
+
+        // Remplace l'enfant dont l'arête commence par le même caractère
+        void remplacerEnfant(Noeud enfant) {
+            enfants[Arrays.binarySearch(premiers, enfant.arete.charAt(0))] = enfant;
+        }
+
+        void retirerEnfant(char c) {
+            int position = Arrays.binarySearch(premiers, c);
+            if (position < 0) {
+                return;
+            }
+            char[] nouveauxPremiers = new char[premiers.length - 1];
+            Noeud[] nouveauxEnfants = new Noeud[enfants.length - 1];
+            System.arraycopy(premiers, 0, nouveauxPremiers, 0, position);
+            System.arraycopy(enfants, 0, nouveauxEnfants, 0, position);
+            System.arraycopy(premiers, position + 1, nouveauxPremiers, position, premiers.length - position - 1);
+            System.arraycopy(enfants, position + 1, nouveauxEnfants, position, enfants.length - position - 1);
+            premiers = nouveauxPremiers;
+            enfants = nouveauxEnfants;
+        }
+
+        void ajouterTerminale(Entree entree) {
+            terminales = Arrays.copyOf(terminales, terminales.length + 1);
+            terminales[terminales.length - 1] = entree;
+        }
+
+        void remplacerTerminale(Entree ancienne, Entree nouvelle) {
+            for (int i = 0; i < terminales.length; i++) {
+                if (terminales[i] == ancienne) {
+                    terminales[i] = nouvelle;
+                    return;
+                }
+            }
+        }
+
+        void retirerTerminale(Entree entree) {
+            for (int i = 0; i < terminales.length; i++) {
+                if (terminales[i] == entree) {
+                    Entree[] nouvelles = new Entree[terminales.length - 1];
+                    System.arraycopy(terminales, 0, nouvelles, 0, i);
+                    System.arraycopy(terminales, i + 1, nouvelles, i, terminales.length - i - 1);
+                    terminales = nouvelles;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * k meilleures entrées distinctes parmi les terminales du nœud et les meilleurs de ses enfants ;
+         * indique si elles ont changé
+         */
+        boolean calculerMeilleurs(int k) {
+            Entree[] anciens = meilleurs;
+            if (enfants.length == 0 && terminales.length <= 1) {
+                meilleurs = terminales.clone();
+                return !Arrays.equals(anciens, meilleurs);
+            }
+            List<Entree> candidats = new ArrayList<>(Arrays.asList(terminales));
+            for (Noeud enfant : enfants) {
+                candidats.addAll(Arrays.asList(enfant.meilleurs));
+            }
+            candidats.sort(PAR_SCORE);
+            List<Entree> retenus = new ArrayList<>(Math.min(k, candidats.size()));
+            for (Entree candidat : candidats) {
+                if (retenus.size() == k) {
+                    break;
+                }
+                // Une entrée peut remonter par plusieurs de ses clés
+                if (!retenus.contains(candidat)) {
+                    retenus.add(candidat);
+                }
+            }
+            meilleurs = retenus.toArray(AUCUNE_ENTREE);
+            // Entree ne redéfinit pas equals : comparaison par identité
+            return !Arrays.equals(anciens, meilleurs);
+        }
+
+        void vider() {
+            premiers = AUCUNE_ETIQUETTE;
+            enfants = AUCUN_ENFANT;
+            terminales = AUCUNE_ENTREE;
+            meilleurs = AUCUNE_ENTREE;
+        }
+    }
+
+    /**
+     * Entrée immuable : identifiant, libellé affiché et score de classement
+     */
+    public static final class Entree {
+        private final long id;
+        private final String libelle;
+        private final double score;
+        private final List<String> cles;
+
+        public Entree(long id, String libelle, double score) {
+            this.id = id;
+            this.libelle = libelle != null ? libelle : "";
+            this.score = score;
+            this.cles = clesDe(this.libelle);
+        }
+
+        private static List<String> clesDe(String libelle) {
+            List<String> mots = AnalyseurTexte.mots(libelle);
+            List<String> cles = new ArrayList<>(Math.min(mots.size(), MOTS_INDEXES_MAX));
+            for (int i = 0; i < mots.size() && i < MOTS_INDEXES_MAX; i++) {
+                String cle = String.join(" ", mots.subList(i, mots.size()));
+                if (!cles.contains(cle)) {
+                    cles.add(cle);
+                }
+            }
+            return cles;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getLibelle() {
+            return libelle;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
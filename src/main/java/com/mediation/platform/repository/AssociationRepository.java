@@ -1,20 +1,35 @@
 // 3. AssociationRepository.java
 package com.mediation.platform.repository;
 
+import com.mediation.platform.dto.response.AssociationResume;
 import com.mediation.platform.entity.Association;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AssociationRepository extends JpaRepository<Association, Long> {
 
-    // Recherche par nom d'association
-    List<Association> findByNomAssociationContainingIgnoreCase(String nom);
+    // Résumé d'association : colonnes et agrégats des projets en sous-requêtes, une seule requête SQL
+    String SELECT_RESUME = "SELECT new com.mediation.platform.dto.response.AssociationResume(" +
+            "a.idUtilisateur, a.nom, a.prenom, a.email, a.telephone, a.dateCreation, a.dateModification, a.statut, " +
+            "a.nomAssociation, a.adresse, a.latitude, a.longitude, a.siteWeb, a.description, a.domaineActivite, " +
+            "a.statutValidation, a.dateValidation, " +
+            "(SELECT COUNT(p) FROM Projet p WHERE p.association = a), " +
+            "(SELECT COUNT(p) FROM Projet p WHERE p.association = a AND p.statut = 'EN_COURS'), " +
+            "(SELECT COUNT(p) FROM Projet p WHERE p.association = a AND p.statut = 'TERMINE'), " +
+            "a.montantTotalCollecte) " +
+            "FROM Association a ";
 
     // Associations validées
     List<Association> findByStatutValidationTrue();
@@ -22,12 +37,6 @@ public interface AssociationRepository extends JpaRepository<Association, Long>
     // Associations en attente de validation
     List<Association> findByStatutValidationFalse();
 
-    // Recherche par domaine d'activité
-    List<Association> findByDomaineActiviteContainingIgnoreCase(String domaine);
-
-    // Recherche par ville/région
-    List<Association> findByAdresseContainingIgnoreCase(String ville);
-
     // Associations récemment validées
     @Query("SELECT a FROM Association a WHERE a.statutValidation = true " +
             "AND a.dateValidation >= :dateDebut ORDER BY a.dateValidation DESC")
@@ -37,16 +46,6 @@ public interface AssociationRepository extends JpaRepository<Association, Long>
     @Query("SELECT DISTINCT a FROM Association a JOIN a.projets p WHERE p.statut = 'EN_COURS'")
     List<Association> findWithActiveProjects();
 
-    // Top associations par montant collecté
-    @Query("SELECT a FROM Association a JOIN a.projets p JOIN p.dons d " +
-            "WHERE d.statut = 'VALIDE' GROUP BY a ORDER BY SUM(d.montant) DESC")
-    List<Association> findTopAssociationsByDonations();
-
-    // Alias pour findTopAssociations
-    @Query("SELECT a FROM Association a JOIN a.projets p JOIN p.dons d " +
-            "WHERE d.statut = 'VALIDE' GROUP BY a ORDER BY SUM(d.montant) DESC")
-    List<Association> findTopAssociations();
-
     // Associations en attente (alias)
     @Query("SELECT a FROM Association a WHERE a.statutValidation = false " +
             "ORDER BY a.dateCreation DESC")
@@ -56,4 +55,69 @@ public interface AssociationRepository extends JpaRepository<Association, Long>
     @Query("SELECT a FROM Association a WHERE a.statutValidation = true " +
             "ORDER BY a.dateValidation DESC")
     List<Association> findValidatedAssociations();
-}
\ No newline at end of file
+
+    // Nombre d'associations validées par domaine d'activité (null : domaine non renseigné)
+    @Query("SELECT a.domaineActivite, COUNT(a) FROM Association a WHERE a.statutValidation = true " +
+            "GROUP BY a.domaineActivite")
+    List<Object[]> countValideesParDomaine();
+
+    // Résumés des associations validées (liste publique, en cache de requêtes)
+    @Query(SELECT_RESUME + "WHERE a.statutValidation = true")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<AssociationResume> findResumesValidees();
+
+    // Résumés de toutes les associations (administration)
+    @Query(SELECT_RESUME + "ORDER BY a.dateCreation DESC")
+    List<AssociationResume> findResumes();
+
+    @Query(SELECT_RESUME + "WHERE a.idUtilisateur = :id")
+    Optional<AssociationResume> findResumeById(@Param("id") Long id);
+
+    // Validateur HTTP du résumé : date de modification, montant collecté (recalculé en SQL sans
+    // toucher à la date), nombre de projets et dernière modification de l'un d'eux (statut)
+    @Query("SELECT a.dateModification, a.montantTotalCollecte, " +
+            "(SELECT COUNT(p) FROM Projet p WHERE p.association = a), " +
+            "(SELECT MAX(p.dateModification) FROM Projet p WHERE p.association = a) " +
+            "FROM Association a WHERE a.idUtilisateur = :id")
+    List<Object[]> findValidateurResume(@Param("id") Long id);
+
+    // Résumés d'un ensemble d'associations (résultats de recherche), ordre non garanti
+    @Query(SELECT_RESUME + "WHERE a.idUtilisateur IN :ids")
+    List<AssociationResume> findResumesByIds(@Param("ids") Collection<Long> ids);
+
+    // Résumés par nom d'association
+    @Query(SELECT_RESUME + "WHERE LOWER(a.nomAssociation) LIKE LOWER(CONCAT('%', :nom, '%'))")
+    List<AssociationResume> findResumesByNom(@Param("nom") String nom);
+
+    // Résumés par domaine d'activité
+    @Query(SELECT_RESUME + "WHERE LOWER(a.domaineActivite) LIKE LOWER(CONCAT('%', :domaine, '%'))")
+    List<AssociationResume> findResumesByDomaine(@Param("domaine") String domaine);
+
+    // Résumés par ville/région (adresse)
+    @Query(SELECT_RESUME + "WHERE LOWER(a.adresse) LIKE LOWER(CONCAT('%', :ville, '%'))")
+    List<AssociationResume> findResumesByAdresse(@Param("ville") String ville);
+
+    // Résumés des associations validées non géocodées dont l'adresse contient le texte
+    @Query(SELECT_RESUME + "WHERE a.statutValidation = true AND a.latitude IS NULL " +
+            "AND LOWER(a.adresse) LIKE LOWER(CONCAT('%', :ville, '%'))")
+    List<AssociationResume> findResumesNonGeocodeesByAdresse(@Param("ville") String ville);
+
+    // Résumés des associations récemment validées
+    @Query(SELECT_RESUME + "WHERE a.statutValidation = true AND a.dateValidation >= :dateDebut " +
+            "ORDER BY a.dateValidation DESC")
+    List<AssociationResume> findResumesRecemmentValidees(@Param("dateDebut") LocalDateTime dateDebut);
+
+    // Résumés des associations avec des projets actifs
+    @Query(SELECT_RESUME + "WHERE EXISTS (SELECT 1 FROM Projet p WHERE p.association = a AND p.statut = 'EN_COURS')")
+    List<AssociationResume> findResumesAvecProjetsActifs();
+
+    // Résumés des associations en attente de validation, les plus récentes d'abord
+    @Query(SELECT_RESUME + "WHERE a.statutValidation = false ORDER BY a.dateCreation DESC")
+    List<AssociationResume> findResumesEnAttente();
+
+    // Associations validées et géocodées (index de proximité)
+    List<Association> findByStatutValidationTrueAndLatitudeIsNotNull();
+
+    // Parcours par lots dans l'ordre des identifiants (géocodage)
+    List<Association> findByIdUtilisateurGreaterThanOrderByIdUtilisateur(Long idUtilisateur, Pageable pageable);
+}
@@ -4,6 +4,7 @@ import com.mediation.platform.entity.Don;
 import com.mediation.platform.entity.Donateur;
 import com.mediation.platform.entity.Projet;
 import com.mediation.platform.enums.StatutDon;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -53,6 +54,11 @@ public interface DonRepository extends JpaRepository<Don, Long> {
     @Query("SELECT COUNT(DISTINCT d.donateur) FROM Don d WHERE d.statut = 'VALIDE'")
     long getUniqueDonorsCount();
 
+    // Dons validés : nombre, donateurs distincts, montant total
+    @Query("SELECT COUNT(d), COUNT(DISTINCT d.donateur), COALESCE(SUM(d.montant), 0.0) " +
+            "FROM Don d WHERE d.statut = 'VALIDE'")
+    List<Object[]> agregerValides();
+
     // Dons récents (derniers 30 jours)
     @Query("SELECT d FROM Don d WHERE d.date >= :dateDebut ORDER BY d.date DESC")
     List<Don> findRecentDonations(@Param("dateDebut") LocalDate dateDebut);
@@ -65,4 +71,23 @@ public interface DonRepository extends JpaRepository<Don, Long> {
     // Dons validés
     @Query("SELECT d FROM Don d WHERE d.statut = 'VALIDE' ORDER BY d.date DESC")
     List<Don> findValidatedDons();
+
+    // Agrégats d'un donateur : nombre de dons (tous, validés, en attente), montants (validés, tous),
+    // projets et associations soutenus, dates du premier et du dernier don
+    @Query("SELECT COUNT(d), " +
+            "SUM(CASE WHEN d.statut = 'VALIDE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN d.statut = 'EN_ATTENTE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN d.statut = 'VALIDE' THEN d.montant ELSE 0.0 END), " +
+            "SUM(d.montant), " +
+            "COUNT(DISTINCT CASE WHEN d.statut = 'VALIDE' THEN p.idProjet END), " +
+            "COUNT(DISTINCT CASE WHEN d.statut = 'VALIDE' THEN p.association.idUtilisateur END), " +
+            "MIN(d.date), MAX(d.date) " +
+            "FROM Don d JOIN d.projet p WHERE d.donateur.idUtilisateur = :idDonateur")
+    List<Object[]> agregerParDonateur(@Param("idDonateur") Long idDonateur);
+
+    // Domaines des dons validés d'un donateur, du plus soutenu au moins soutenu
+    @Query("SELECT a.domaineActivite FROM Don d JOIN d.projet p JOIN p.association a " +
+            "WHERE d.donateur.idUtilisateur = :idDonateur AND d.statut = 'VALIDE' AND a.domaineActivite IS NOT NULL " +
+            "GROUP BY a.domaineActivite ORDER BY COUNT(d) DESC")
+    List<String> findDomainesParDonateur(@Param("idDonateur") Long idDonateur, Pageable pageable);
 }
\ No newline at end of file
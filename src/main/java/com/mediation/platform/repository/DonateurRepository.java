@@ -2,6 +2,7 @@
 package com.mediation.platform.repository;
 
 import com.mediation.platform.entity.Donateur;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,11 +24,16 @@ public interface DonateurRepository extends JpaRepository<Donateur, Long> {
     @Query("SELECT DISTINCT d FROM Donateur d JOIN d.dons don WHERE don.statut = 'VALIDE'")
     List<Donateur> findDonatorsWithConfirmedDonations();
 
-    // Top donateurs par montant total
-    @Query("SELECT d FROM Donateur d JOIN d.dons don WHERE don.statut = 'VALIDE' " +
-            "GROUP BY d ORDER BY SUM(don.montant) DESC")
-    List<Donateur> findTopDonators();
-
     // Recherche par ville/région
     List<Donateur> findByAdresseContainingIgnoreCase(String ville);
-}
\ No newline at end of file
+
+    // Donateurs non géocodés dont l'adresse contient le texte
+    List<Donateur> findByLatitudeIsNullAndAdresseContainingIgnoreCase(String ville);
+
+    // Donateurs géocodés dans un rectangle de coordonnées
+    List<Donateur> findByLatitudeBetweenAndLongitudeBetween(Double latitudeMin, Double latitudeMax,
+                                                             Double longitudeMin, Double longitudeMax);
+
+    // Parcours par lots dans l'ordre des identifiants (géocodage)
+    List<Donateur> findByIdUtilisateurGreaterThanOrderByIdUtilisateur(Long idUtilisateur, Pageable pageable);
+}
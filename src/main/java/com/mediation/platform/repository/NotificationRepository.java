@@ -12,6 +12,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -43,4 +44,17 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Transactional
     @Query("UPDATE Notification n SET n.lu = true WHERE n.utilisateur = :utilisateur")
     void markAllAsReadForUser(@Param("utilisateur") Utilisateur utilisateur);
+
+    // Marquer comme lues une liste de notifications appartenant à l'utilisateur
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.lu = true WHERE n.idNotification IN :ids " +
+            "AND n.utilisateur = :utilisateur AND n.lu = false")
+    int markAsReadByIdsForUser(@Param("ids") Collection<Long> ids, @Param("utilisateur") Utilisateur utilisateur);
+
+    // Supprimer une liste de notifications appartenant à l'utilisateur
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.idNotification IN :ids AND n.utilisateur = :utilisateur")
+    int deleteByIdsForUser(@Param("ids") Collection<Long> ids, @Param("utilisateur") Utilisateur utilisateur);
 }
\ No newline at end of file
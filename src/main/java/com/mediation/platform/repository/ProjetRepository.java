@@ -1,20 +1,36 @@
 package com.mediation.platform.repository;
 
+import com.mediation.platform.dto.response.ProjetResume;
 import com.mediation.platform.entity.Association;
 import com.mediation.platform.entity.Projet;
 import com.mediation.platform.enums.StatutProjet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjetRepository extends JpaRepository<Projet, Long> {
 
+    // Résumé de projet : colonnes du projet et de l'association, agrégats des dons en sous-requêtes
+    String SELECT_RESUME = "SELECT new com.mediation.platform.dto.response.ProjetResume(" +
+            "p.idProjet, p.titre, p.description, p.objectif, p.montantDemande, p.montantCollecte, " +
+            "p.dateDebut, p.dateFin, p.statut, p.priorite, p.images, p.dateCreation, p.dateModification, " +
+            "a.idUtilisateur, a.nomAssociation, a.domaineActivite, a.dateModification, " +
+            "(SELECT COUNT(d) FROM Don d WHERE d.projet = p), " +
+            "(SELECT COUNT(d) FROM Don d WHERE d.projet = p AND d.statut = 'VALIDE'), " +
+            "(SELECT COUNT(DISTINCT d.donateur.idUtilisateur) FROM Don d WHERE d.projet = p)) " +
+            "FROM Projet p JOIN p.association a ";
+
     // Recherche par titre
     List<Projet> findByTitreContainingIgnoreCase(String titre);
 
@@ -27,6 +43,31 @@ public interface ProjetRepository extends JpaRepository<Projet, Long> {
     // Projets actifs
     List<Projet> findByStatutOrderByDateCreationDesc(StatutProjet statut);
 
+    // Résumés des projets d'un statut, les plus récents d'abord (liste publique, en cache de requêtes)
+    @Query(SELECT_RESUME + "WHERE p.statut = :statut ORDER BY p.dateCreation DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ProjetResume> findResumesByStatut(@Param("statut") StatutProjet statut);
+
+    // Résumés d'un ensemble de projets (résultats de recherche), ordre non garanti
+    @Query(SELECT_RESUME + "WHERE p.idProjet IN :ids")
+    List<ProjetResume> findResumesByIds(@Param("ids") Collection<Long> ids);
+
+    // Résumés des projets d'un ensemble d'associations dans un statut donné
+    @Query(SELECT_RESUME + "WHERE a.idUtilisateur IN :idsAssociations AND p.statut = :statut")
+    List<ProjetResume> findResumesByAssociationsEtStatut(@Param("idsAssociations") Collection<Long> idsAssociations,
+                                                         @Param("statut") StatutProjet statut);
+
+    @Query(SELECT_RESUME + "WHERE p.idProjet = :id")
+    Optional<ProjetResume> findResumeById(@Param("id") Long id);
+
+    // Validateur HTTP du résumé : dates de modification du projet et de son association, montant
+    // collecté (recalculé en SQL sans toucher à la date), nombres de dons et de dons validés
+    @Query("SELECT p.dateModification, a.dateModification, p.montantCollecte, " +
+            "(SELECT COUNT(d) FROM Don d WHERE d.projet = p), " +
+            "(SELECT COUNT(d) FROM Don d WHERE d.projet = p AND d.statut = 'VALIDE') " +
+            "FROM Projet p JOIN p.association a WHERE p.idProjet = :id")
+    List<Object[]> findValidateurResume(@Param("id") Long id);
+
     // Projets par priorité
     List<Projet> findByPrioriteOrderByDateCreationDesc(String priorite);
 
@@ -45,12 +86,43 @@ public interface ProjetRepository extends JpaRepository<Projet, Long> {
             "ORDER BY p.dateCreation DESC")
     List<Projet> findRecentProjects(@Param("dateDebut") LocalDateTime dateDebut);
 
-    // Top projets par montant collecté
-    @Query("SELECT p FROM Projet p ORDER BY p.montantCollecte DESC")
-    List<Projet> findTopProjectsByAmount();
+    // Résumés des projets proches de l'objectif
+    @Query(SELECT_RESUME + "WHERE p.statut = 'EN_COURS' AND (p.montantCollecte / p.montantDemande) >= :pourcentage")
+    List<ProjetResume> findResumesProchesObjectif(@Param("pourcentage") double pourcentage);
+
+    // Résumés des projets en retard
+    @Query(SELECT_RESUME + "WHERE p.dateFin < :dateActuelle AND p.statut = 'EN_COURS'")
+    List<ProjetResume> findResumesEnRetard(@Param("dateActuelle") LocalDate dateActuelle);
+
+    // Résumés des projets récents
+    @Query(SELECT_RESUME + "WHERE p.dateCreation >= :dateDebut ORDER BY p.dateCreation DESC")
+    List<ProjetResume> findResumesRecents(@Param("dateDebut") LocalDateTime dateDebut);
+
+    // Colonnes utiles à l'autocomplétion : id, titre, montant collecté, statut, id association
+    @Query("SELECT p.idProjet, p.titre, p.montantCollecte, p.statut, p.association.idUtilisateur FROM Projet p")
+    List<Object[]> findResumesAutocompletion();
+
+    // Nombre de projets : tous, en cours, terminés
+    @Query("SELECT COUNT(p), " +
+            "SUM(CASE WHEN p.statut = 'EN_COURS' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.statut = 'TERMINE' THEN 1 ELSE 0 END) FROM Projet p")
+    List<Object[]> countParStatut();
+
+    // Colonnes utiles aux facettes : id, statut, priorité, id et domaine de l'association, pour les
+    // projets publics (statuts donnés, association validée et non suspendue)
+    @Query("SELECT p.idProjet, p.statut, p.priorite, a.idUtilisateur, a.domaineActivite " +
+            "FROM Projet p JOIN p.association a WHERE p.statut IN :statuts AND a.statutValidation = true " +
+            "AND a.statut <> 'SUSPENDU' ORDER BY p.idProjet")
+    List<Object[]> findResumesFacettes(@Param("statuts") Collection<StatutProjet> statuts);
+
+    // Projets visibles du public : statut parmi ceux donnés, association validée et non suspendue
+    @Query("SELECT p FROM Projet p JOIN p.association a WHERE p.statut IN :statuts AND a.statutValidation = true " +
+            "AND a.statut <> 'SUSPENDU'")
+    List<Projet> findPublics(@Param("statuts") Collection<StatutProjet> statuts);
+
+    // Projets d'une association
+    List<Projet> findByAssociationIdUtilisateur(Long idAssociation);
 
-    // Recherche par mots-clés dans titre ou description
-    @Query("SELECT p FROM Projet p WHERE p.titre LIKE %:keyword% " +
-            "OR p.description LIKE %:keyword% OR p.objectif LIKE %:keyword%")
-    List<Projet> searchByKeyword(@Param("keyword") String keyword);
-}
\ No newline at end of file
+    // Projets d'un ensemble d'associations dans un statut donné
+    List<Projet> findByAssociationIdUtilisateurInAndStatut(Collection<Long> idsAssociations, StatutProjet statut);
+}
@@ -0,0 +1,48 @@
+package com.mediation.platform.routage;
+
+import java.util.function.Supplier;
+
+/**
+ * Marque le thread courant comme exécutant un rapport (@LectureRapport, ou explicitement pour les
+ * sections lancées sur un autre thread) : seules ses transactions en lecture seule sont
+ * aiguillées vers la réplique.
+ */
+public final class ContexteRapport {
+
+    private static final ThreadLocal<Boolean> RAPPORT = ThreadLocal.withInitial(() -> false);
+
+    private ContexteRapport() {
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T executer() throws Throwable;
+    }
+
+    public static boolean actif() {
+        return RAPPORT.get();
+    }
+
+    public static <T> T dans(Action<T> action) throws Throwable {
+        boolean precedent = RAPPORT.get();
+        RAPPORT.set(true);
+        try {
+            return action.executer();
+        } finally {
+            RAPPORT.set(precedent);
+        }
+    }
+
+    /**
+     * Variante pour les actions sans exception vérifiée
+     */
+    public static <T> T executer(Supplier<T> action) {
+        try {
+            return dans(action::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
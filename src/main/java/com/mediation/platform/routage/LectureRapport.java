@@ -0,0 +1,18 @@
+package com.mediation.platform.routage;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Méthode (ou classe) de rapport : ses transactions en lecture seule peuvent être servies par la
+ * réplique, avec quelques secondes de retard possibles. Toute autre lecture, y compris celles des
+ * dépôts hors transaction de service et des reconstructions d'index, reste sur le primaire.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LectureRapport {
+}
@@ -0,0 +1,23 @@
+package com.mediation.platform.routage;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contexte de rapport posé autour des méthodes @LectureRapport, avant l'ouverture de leur transaction
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LectureRapportAspect {
+
+    @Around("@within(com.mediation.platform.routage.LectureRapport) "
+            + "|| @annotation(com.mediation.platform.routage.LectureRapport)")
+    public Object marquer(ProceedingJoinPoint point) throws Throwable {
+        return ContexteRapport.dans(point::proceed);
+    }
+}
@@ -0,0 +1,147 @@
+package com.mediation.platform.routage;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aiguillage des connexions entre le pool primaire et le pool de la réplique : les transactions
+ * en lecture seule des rapports (@LectureRapport, ContexteRapport) lisent sur la réplique tant
+ * qu'elle est utilisable (à jour, joignable), tout le reste écrit et lit sur le primaire. Les
+ * autres lectures seules (dépôts Spring Data, reconstructions d'index après un import) relisent
+ * souvent ce qui vient d'être écrit : elles ne supportent pas le retard de la réplique.
+ * Si la réplique refuse une connexion, la lecture repasse sur le primaire et la réplique est
+ * écartée jusqu'à la prochaine vérification.
+ * <p>
+ * Le caractère lecture seule n'est connu qu'après l'ouverture de la transaction : la DataSource
+ * doit être enveloppée d'un LazyConnectionDataSourceProxy.
+ */
+public class RoutageDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMAIRE = "primaire";
+    public static final String REPLIQUE = "replique";
+
+    private final HikariDataSource primaire;
+    private final HikariDataSource replique;
+
+    private volatile boolean repliqueUtilisable = true;
+    private volatile String motifIndisponibilite;
+
+    private final LongAdder accesCourants = new LongAdder();
+    private final LongAdder lecturesReplique = new LongAdder();
+    private final LongAdder lecturesPrimaire = new LongAdder();
+    private final LongAdder echecsReplique = new LongAdder();
+
+    public RoutageDataSource(HikariDataSource primaire, HikariDataSource replique) {
+        this.primaire = primaire;
+        this.replique = replique;
+        setTargetDataSources(Map.of(PRIMAIRE, primaire, REPLIQUE, replique));
+        setDefaultTargetDataSource(primaire);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return repliqueUtilisable && lectureRapport() ? REPLIQUE : PRIMAIRE;
+    }
+
+    private static boolean lectureRapport() {
+        return ContexteRapport.actif()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!lectureRapport()) {
+            accesCourants.increment();
+            return primaire.getConnection();
+        }
+        if (repliqueUtilisable) {
+            try {
+                Connection connexion = replique.getConnection();
+                lecturesReplique.increment();
+                return connexion;
+            } catch (SQLException e) {
+                echecsReplique.increment();
+                ecarterReplique("connexion refusée : " + e.getMessage());
+            }
+        }
+        lecturesPrimaire.increment();
+        return primaire.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Identifiants propres à chaque pool : pas d'aiguillage avec d'autres identifiants
+        return primaire.getConnection(username, password);
+    }
+
+    /**
+     * Réplique de nouveau utilisée pour les lectures (vérification réussie)
+     */
+    public void retablirReplique() {
+        if (!repliqueUtilisable) {
+            System.out.println("Routage SQL : lectures de nouveau sur la réplique");
+        }
+        motifIndisponibilite = null;
+        repliqueUtilisable = true;
+    }
+
+    /**
+     * Lectures renvoyées sur le primaire jusqu'au prochain rétablissement
+     */
+    public void ecarterReplique(String motif) {
+        if (repliqueUtilisable) {
+            System.out.println("Routage SQL : réplique écartée, lectures sur le primaire motif=" + motif);
+        }
+        motifIndisponibilite = motif;
+        repliqueUtilisable = false;
+    }
+
+    public boolean isRepliqueUtilisable() { return repliqueUtilisable; }
+    public HikariDataSource getPrimaire() { return primaire; }
+    public HikariDataSource getReplique() { return replique; }
+    public long getAccesCourants() { return accesCourants.sum(); }
+    public long getLecturesReplique() { return lecturesReplique.sum(); }
+    public long getLecturesPrimaire() { return lecturesPrimaire.sum(); }
+    public long getEchecsReplique() { return echecsReplique.sum(); }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("repliqueUtilisable", repliqueUtilisable);
+        stats.put("motifIndisponibilite", motifIndisponibilite);
+        stats.put("accesCourants", getAccesCourants());
+        stats.put("lecturesReplique", getLecturesReplique());
+        stats.put("lecturesPrimaire", getLecturesPrimaire());
+        stats.put("echecsReplique", getEchecsReplique());
+        stats.put(PRIMAIRE, etatPool(primaire));
+        stats.put(REPLIQUE, etatPool(replique));
+        return stats;
+    }
+
+    private static Map<String, Object> etatPool(HikariDataSource pool) {
+        Map<String, Object> etat = new LinkedHashMap<>();
+        etat.put("url", pool.getJdbcUrl());
+        etat.put("taille", pool.getMaximumPoolSize());
+        if (pool.getHikariPoolMXBean() != null) {
+            etat.put("actives", pool.getHikariPoolMXBean().getActiveConnections());
+            etat.put("inactives", pool.getHikariPoolMXBean().getIdleConnections());
+            etat.put("enAttente", pool.getHikariPoolMXBean().getThreadsAwaitingConnection());
+        }
+        return etat;
+    }
+
+    @Override
+    public void close() {
+        replique.close();
+        primaire.close();
+    }
+}
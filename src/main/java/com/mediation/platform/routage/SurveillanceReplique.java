@@ -0,0 +1,111 @@
+package com.mediation.platform.routage;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Vérification périodique du retard de la réplique : au-delà du retard maximal, ou si la
+ * réplique ne répond pas, les rapports repassent sur le primaire jusqu'à la vérification
+ * suivante réussie. Métriques : retard, réplique utilisée ou non, connexions par pool et par
+ * accès, et les métriques hikaricp de chacun des deux pools.
+ */
+public class SurveillanceReplique {
+
+    /**
+     * Retard de rejeu d'un standby PostgreSQL en ms : 0 hors réplication ou si tout le WAL reçu
+     * est rejoué (pas d'écriture récente sur le primaire)
+     */
+    public static final String REQUETE_RETARD_POSTGRES =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                    + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final RoutageDataSource routage;
+    private final JdbcTemplate jdbcReplique;
+    private final String requeteRetard;
+    private final long retardMaxMs;
+
+    private volatile double retardMs = Double.NaN;
+    private volatile LocalDateTime derniereVerification;
+
+    public SurveillanceReplique(RoutageDataSource routage, String requeteRetard, long retardMaxMs) {
+        this.routage = routage;
+        // Directement sur le pool de la réplique, hors aiguillage
+        this.jdbcReplique = new JdbcTemplate(routage.getReplique());
+        this.jdbcReplique.setQueryTimeout(2);
+        this.requeteRetard = requeteRetard;
+        this.retardMaxMs = retardMaxMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.verification-ms:5000}",
+            initialDelayString = "${app.datasource.replica.verification-ms:5000}")
+    public void verifier() {
+        derniereVerification = LocalDateTime.now();
+        try {
+            Number retard = jdbcReplique.queryForObject(requeteRetard, Number.class);
+            retardMs = retard == null ? 0 : retard.doubleValue();
+        } catch (DataAccessException e) {
+            retardMs = Double.NaN;
+            routage.ecarterReplique("vérification impossible : " + e.getMostSpecificCause().getMessage());
+            return;
+        }
+        if (retardMs > retardMaxMs) {
+            routage.ecarterReplique("retard de " + (long) retardMs + " ms");
+        } else {
+            routage.retablirReplique();
+        }
+    }
+
+    public void enregistrerMetriques(MeterRegistry registry) {
+        Gauge.builder("datasource.replique.retard", this, SurveillanceReplique::getRetardMs)
+                .description("Retard de rejeu de la réplique à la dernière vérification")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("datasource.replique.utilisee", routage, r -> r.isRepliqueUtilisable() ? 1 : 0)
+                .description("1 si les rapports lisent la réplique, 0 s'ils sont renvoyés sur le primaire")
+                .register(registry);
+        compteurConnexions(registry, RoutageDataSource.PRIMAIRE, "courant", RoutageDataSource::getAccesCourants);
+        compteurConnexions(registry, RoutageDataSource.PRIMAIRE, "rapport", RoutageDataSource::getLecturesPrimaire);
+        compteurConnexions(registry, RoutageDataSource.REPLIQUE, "rapport", RoutageDataSource::getLecturesReplique);
+        FunctionCounter.builder("datasource.replique.echecs", routage, RoutageDataSource::getEchecsReplique)
+                .description("Connexions refusées par la réplique, rapports repris sur le primaire")
+                .register(registry);
+        // Pools hors contexte Spring : métriques hikaricp (étiquette pool) liées ici
+        lierPool(routage.getPrimaire(), registry);
+        lierPool(routage.getReplique(), registry);
+    }
+
+    private void compteurConnexions(MeterRegistry registry, String pool, String acces,
+                                    ToDoubleFunction<RoutageDataSource> valeur) {
+        FunctionCounter.builder("datasource.routage.connexions", routage, valeur)
+                .description("Connexions obtenues par pool ; rapport sur le primaire quand la réplique est écartée")
+                .tag("pool", pool)
+                .tag("acces", acces)
+                .register(registry);
+    }
+
+    private static void lierPool(HikariDataSource pool, MeterRegistry registry) {
+        if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+
+    public double getRetardMs() { return retardMs; }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = routage.getStatistiques();
+        stats.put("retardMs", Double.isNaN(retardMs) ? null : (long) retardMs);
+        stats.put("retardMaxMs", retardMaxMs);
+        stats.put("derniereVerification", derniereVerification);
+        return stats;
+    }
+}
@@ -0,0 +1,406 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.recherche.ApresCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrégats dénormalisés des donateurs (montant, nombre de dons validés, projets et associations
+ * soutenus, premier et dernier don) et des associations (montant collecté, dons validés, dates).
+ * Tenus à jour en SQL, ligne par ligne, à chaque transition d'un don (incréments atomiques) ou
+ * modification du montant collecté d'un projet, dans la transaction de l'appelant ; un vérificateur périodique recalcule tout
+ * depuis les dons et projets et corrige les écarts. Après un chargement en masse, recalculerTout réécrit l'ensemble
+ * (montants collectés des projets compris) en quelques requêtes agrégées.
+ */
+@Service
+@Transactional
+public class AgregatsService {
+
+    // Écart toléré sur les montants (arrondis des sommes en double précision)
+    private static final double TOLERANCE_MONTANT = 0.005;
+
+    private static final String DONATEUR_DON_VALIDE =
+            "UPDATE donateurs SET montant_total_dons = montant_total_dons + ?, " +
+            "nombre_dons_valides = nombre_dons_valides + 1, " +
+            "nombre_projets_soutenus = nombre_projets_soutenus + CASE WHEN EXISTS (SELECT 1 FROM dons d " +
+            "WHERE d.id_donateur = ? AND d.id_projet = ? AND d.statut = 'VALIDE' AND d.id_don <> ?) THEN 0 ELSE 1 END, " +
+            "nombre_associations_soutenues = nombre_associations_soutenues + CASE WHEN EXISTS (SELECT 1 FROM dons d " +
+            "JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE d.id_donateur = ? AND p.id_association = ? AND d.statut = 'VALIDE' AND d.id_don <> ?) THEN 0 ELSE 1 END, " +
+            "date_premier_don = LEAST(COALESCE(date_premier_don, ?), ?), " +
+            "date_dernier_don = GREATEST(COALESCE(date_dernier_don, ?), ?) " +
+            "WHERE id_utilisateur = ?";
+
+    // Le don n'est plus validé : les dates extrêmes sont relues parmi les dons validés restants
+    private static final String DONATEUR_DON_RETIRE =
+            "UPDATE donateurs SET montant_total_dons = montant_total_dons - ?, " +
+            "nombre_dons_valides = nombre_dons_valides - 1, " +
+            "nombre_projets_soutenus = nombre_projets_soutenus - CASE WHEN EXISTS (SELECT 1 FROM dons d " +
+            "WHERE d.id_donateur = ? AND d.id_projet = ? AND d.statut = 'VALIDE' AND d.id_don <> ?) THEN 0 ELSE 1 END, " +
+            "nombre_associations_soutenues = nombre_associations_soutenues - CASE WHEN EXISTS (SELECT 1 FROM dons d " +
+            "JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE d.id_donateur = ? AND p.id_association = ? AND d.statut = 'VALIDE' AND d.id_don <> ?) THEN 0 ELSE 1 END, " +
+            "date_premier_don = (SELECT min(d.date) FROM dons d WHERE d.id_donateur = ? AND d.statut = 'VALIDE'), " +
+            "date_dernier_don = (SELECT max(d.date) FROM dons d WHERE d.id_donateur = ? AND d.statut = 'VALIDE') " +
+            "WHERE id_utilisateur = ?";
+
+    private static final String ASSOCIATION_DON_VALIDE =
+            "UPDATE associations SET nombre_dons_valides = nombre_dons_valides + 1, " +
+            "date_premier_don = LEAST(COALESCE(date_premier_don, ?), ?), " +
+            "date_dernier_don = GREATEST(COALESCE(date_dernier_don, ?), ?) " +
+            "WHERE id_utilisateur = ?";
+
+    private static final String ASSOCIATION_DON_RETIRE =
+            "UPDATE associations SET nombre_dons_valides = nombre_dons_valides - 1, " +
+            "date_premier_don = (SELECT min(d.date) FROM dons d JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE p.id_association = ? AND d.statut = 'VALIDE'), " +
+            "date_dernier_don = (SELECT max(d.date) FROM dons d JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE p.id_association = ? AND d.statut = 'VALIDE') " +
+            "WHERE id_utilisateur = ?";
+
+    // Relu depuis les projets de la seule association : le montant collecté d'un projet est
+    // modifié en mémoire par Don.confirmer / rembourser avant d'être enregistré
+    private static final String ASSOCIATION_MONTANT =
+            "UPDATE associations SET montant_total_collecte = (SELECT coalesce(sum(p.montant_collecte), 0) " +
+            "FROM projets p WHERE p.id_association = ?) WHERE id_utilisateur = ?";
+
+    private static final String ECARTS_DONATEURS =
+            "SELECT dn.id_utilisateur FROM donateurs dn " +
+            "LEFT JOIN (SELECT d.id_donateur, sum(d.montant) AS montant, count(*) AS nombre, " +
+            "count(DISTINCT d.id_projet) AS projets, count(DISTINCT p.id_association) AS associations, " +
+            "min(d.date) AS premier, max(d.date) AS dernier " +
+            "FROM dons d JOIN projets p ON p.id_projet = d.id_projet WHERE d.statut = 'VALIDE' " +
+            "GROUP BY d.id_donateur) s ON s.id_donateur = dn.id_utilisateur " +
+            "WHERE abs(dn.montant_total_dons - coalesce(s.montant, 0)) > ? " +
+            "OR dn.nombre_dons_valides <> coalesce(s.nombre, 0) " +
+            "OR dn.nombre_projets_soutenus <> coalesce(s.projets, 0) " +
+            "OR dn.nombre_associations_soutenues <> coalesce(s.associations, 0) " +
+            "OR dn.date_premier_don IS DISTINCT FROM s.premier " +
+            "OR dn.date_dernier_don IS DISTINCT FROM s.dernier";
+
+    private static final String ECARTS_ASSOCIATIONS =
+            "SELECT a.id_utilisateur FROM associations a " +
+            "LEFT JOIN (SELECT p.id_association, sum(p.montant_collecte) AS montant FROM projets p " +
+            "GROUP BY p.id_association) m ON m.id_association = a.id_utilisateur " +
+            "LEFT JOIN (SELECT p.id_association, count(*) AS nombre, min(d.date) AS premier, max(d.date) AS dernier " +
+            "FROM dons d JOIN projets p ON p.id_projet = d.id_projet WHERE d.statut = 'VALIDE' " +
+            "GROUP BY p.id_association) s ON s.id_association = a.id_utilisateur " +
+            "WHERE abs(a.montant_total_collecte - coalesce(m.montant, 0)) > ? " +
+            "OR a.nombre_dons_valides <> coalesce(s.nombre, 0) " +
+            "OR a.date_premier_don IS DISTINCT FROM s.premier " +
+            "OR a.date_dernier_don IS DISTINCT FROM s.dernier";
+
+    // Corrections recalculées en base au moment de l'écriture (pas de valeurs lues plus tôt)
+    private static final String RECALCUL_DONATEUR =
+            "UPDATE donateurs SET " +
+            "montant_total_dons = (SELECT coalesce(sum(d.montant), 0) FROM dons d " +
+            "WHERE d.id_donateur = donateurs.id_utilisateur AND d.statut = 'VALIDE'), " +
+            "nombre_dons_valides = (SELECT count(*) FROM dons d " +
+            "WHERE d.id_donateur = donateurs.id_utilisateur AND d.statut = 'VALIDE'), " +
+            "nombre_projets_soutenus = (SELECT count(DISTINCT d.id_projet) FROM dons d " +
+            "WHERE d.id_donateur = donateurs.id_utilisateur AND d.statut = 'VALIDE'), " +
+            "nombre_associations_soutenues = (SELECT count(DISTINCT p.id_association) FROM dons d " +
+            "JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE d.id_donateur = donateurs.id_utilisateur AND d.statut = 'VALIDE'), " +
+            "date_premier_don = (SELECT min(d.date) FROM dons d " +
+            "WHERE d.id_donateur = donateurs.id_utilisateur AND d.statut = 'VALIDE'), " +
+            "date_dernier_don = (SELECT max(d.date) FROM dons d " +
+            "WHERE d.id_donateur = donateurs.id_utilisateur AND d.statut = 'VALIDE') " +
+            "WHERE id_utilisateur = ?";
+
+    private static final String RECALCUL_ASSOCIATION =
+            "UPDATE associations SET " +
+            "montant_total_collecte = (SELECT coalesce(sum(p.montant_collecte), 0) FROM projets p " +
+            "WHERE p.id_association = associations.id_utilisateur), " +
+            "nombre_dons_valides = (SELECT count(*) FROM dons d JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE p.id_association = associations.id_utilisateur AND d.statut = 'VALIDE'), " +
+            "date_premier_don = (SELECT min(d.date) FROM dons d JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE p.id_association = associations.id_utilisateur AND d.statut = 'VALIDE'), " +
+            "date_dernier_don = (SELECT max(d.date) FROM dons d JOIN projets p ON p.id_projet = d.id_projet " +
+            "WHERE p.id_association = associations.id_utilisateur AND d.statut = 'VALIDE') " +
+            "WHERE id_utilisateur = ?";
+
+    // Recalcul complet : agrégats lus en flux (GROUP BY), écrits par lots sur la clé primaire
+    private static final String SOMMES_PROJETS =
+            "SELECT d.id_projet, sum(d.montant) FROM dons d WHERE d.statut = 'VALIDE' GROUP BY d.id_projet";
+
+    private static final String ECRITURE_PROJET = "UPDATE projets SET montant_collecte = ? WHERE id_projet = ?";
+
+    private static final String PROJETS_SANS_DON =
+            "UPDATE projets SET montant_collecte = 0 WHERE montant_collecte <> 0 AND NOT EXISTS " +
+            "(SELECT 1 FROM dons d WHERE d.id_projet = projets.id_projet AND d.statut = 'VALIDE')";
+
+    private static final String AGREGATS_DONATEURS =
+            "SELECT d.id_donateur, sum(d.montant), count(*), count(DISTINCT d.id_projet), " +
+            "count(DISTINCT p.id_association), min(d.date), max(d.date) " +
+            "FROM dons d JOIN projets p ON p.id_projet = d.id_projet WHERE d.statut = 'VALIDE' " +
+            "GROUP BY d.id_donateur";
+
+    private static final String ECRITURE_DONATEUR =
+            "UPDATE donateurs SET montant_total_dons = ?, nombre_dons_valides = ?, nombre_projets_soutenus = ?, " +
+            "nombre_associations_soutenues = ?, date_premier_don = ?, date_dernier_don = ? WHERE id_utilisateur = ?";
+
+    private static final String DONATEURS_SANS_DON =
+            "UPDATE donateurs SET montant_total_dons = 0, nombre_dons_valides = 0, nombre_projets_soutenus = 0, " +
+            "nombre_associations_soutenues = 0, date_premier_don = NULL, date_dernier_don = NULL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM dons d WHERE d.id_donateur = donateurs.id_utilisateur AND d.statut = 'VALIDE')";
+
+    private static final String AGREGATS_ASSOCIATIONS =
+            "SELECT a.id_utilisateur, coalesce(m.montant, 0), coalesce(s.nombre, 0), s.premier, s.dernier " +
+            "FROM associations a " +
+            "LEFT JOIN (SELECT p.id_association, sum(p.montant_collecte) AS montant FROM projets p " +
+            "GROUP BY p.id_association) m ON m.id_association = a.id_utilisateur " +
+            "LEFT JOIN (SELECT p.id_association, count(*) AS nombre, min(d.date) AS premier, max(d.date) AS dernier " +
+            "FROM dons d JOIN projets p ON p.id_projet = d.id_projet WHERE d.statut = 'VALIDE' " +
+            "GROUP BY p.id_association) s ON s.id_association = a.id_utilisateur";
+
+    private static final String ECRITURE_ASSOCIATION =
+            "UPDATE associations SET montant_total_collecte = ?, nombre_dons_valides = ?, " +
+            "date_premier_don = ?, date_dernier_don = ? WHERE id_utilisateur = ?";
+
+    private static final int TAILLE_LOT = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheEntitesService cacheEntitesService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.agregats.verification.corriger:true}")
+    private boolean corrigerPeriodiquement;
+
+    @Value("${app.agregats.verification.au-demarrage:true}")
+    private boolean verifierAuDemarrage;
+
+    private volatile RapportVerification derniereVerification;
+    private long verifications;
+    private long ecartsCumules;
+
+    /**
+     * Un don vient de passer au statut validé
+     */
+    public void donValide(Don don) {
+        // Le nouveau statut doit être visible des sous-requêtes SQL
+        entityManager.flush();
+        Long idDonateur = don.getDonateur().getIdUtilisateur();
+        Long idProjet = don.getProjet().getIdProjet();
+        Long idAssociation = don.getProjet().getAssociation().getIdUtilisateur();
+
+        jdbcTemplate.update(DONATEUR_DON_VALIDE, don.getMontant(),
+                idDonateur, idProjet, don.getIdDon(),
+                idDonateur, idAssociation, don.getIdDon(),
+                don.getDate(), don.getDate(), don.getDate(), don.getDate(),
+                idDonateur);
+        jdbcTemplate.update(ASSOCIATION_DON_VALIDE,
+                don.getDate(), don.getDate(), don.getDate(), don.getDate(), idAssociation);
+        evincer(idDonateur, idAssociation);
+    }
+
+    /**
+     * Un don validé ne l'est plus (remboursement)
+     */
+    public void donRetire(Don don) {
+        entityManager.flush();
+        Long idDonateur = don.getDonateur().getIdUtilisateur();
+        Long idProjet = don.getProjet().getIdProjet();
+        Long idAssociation = don.getProjet().getAssociation().getIdUtilisateur();
+
+        jdbcTemplate.update(DONATEUR_DON_RETIRE, don.getMontant(),
+                idDonateur, idProjet, don.getIdDon(),
+                idDonateur, idAssociation, don.getIdDon(),
+                idDonateur, idDonateur,
+                idDonateur);
+        jdbcTemplate.update(ASSOCIATION_DON_RETIRE, idAssociation, idAssociation, idAssociation);
+        evincer(idDonateur, idAssociation);
+    }
+
+    /**
+     * Le montant collecté d'un projet de l'association a changé (ou un projet a été créé)
+     */
+    public void montantProjetModifie(Long idAssociation) {
+        if (idAssociation == null) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.update(ASSOCIATION_MONTANT, idAssociation, idAssociation);
+        cacheEntitesService.evincerAssociation(idAssociation);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifierAuDemarrage() {
+        // Initialise aussi les colonnes des lignes antérieures à leur création
+        if (verifierAuDemarrage) {
+            verifier(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.agregats.verification.intervalle-ms:3600000}",
+            initialDelayString = "${app.agregats.verification.intervalle-ms:3600000}")
+    public void verifierPeriodiquement() {
+        verifier(corrigerPeriodiquement);
+    }
+
+    /**
+     * Comparer les agrégats stockés à leur recalcul complet et, si demandé, corriger les écarts
+     */
+    public RapportVerification verifier(boolean corriger) {
+        long debut = System.currentTimeMillis();
+        entityManager.flush();
+
+        long donateurs = compter("SELECT count(*) FROM donateurs");
+        long associations = compter("SELECT count(*) FROM associations");
+        List<Long> ecartsDonateurs = jdbcTemplate.queryForList(ECARTS_DONATEURS, Long.class, TOLERANCE_MONTANT);
+        List<Long> ecartsAssociations = jdbcTemplate.queryForList(ECARTS_ASSOCIATIONS, Long.class, TOLERANCE_MONTANT);
+
+        if (corriger) {
+            corriger(RECALCUL_DONATEUR, ecartsDonateurs);
+            corriger(RECALCUL_ASSOCIATION, ecartsAssociations);
+            ecartsDonateurs.forEach(cacheEntitesService::evincerDonateur);
+            ecartsAssociations.forEach(cacheEntitesService::evincerAssociation);
+        }
+
+        RapportVerification rapport = new RapportVerification(LocalDateTime.now(), donateurs, associations,
+                ecartsDonateurs.size(), ecartsAssociations.size(), corriger,
+                System.currentTimeMillis() - debut);
+        synchronized (this) {
+            verifications++;
+            ecartsCumules += rapport.getEcartsDonateurs() + rapport.getEcartsAssociations();
+            derniereVerification = rapport;
+        }
+        if (rapport.getEcartsDonateurs() + rapport.getEcartsAssociations() > 0) {
+            System.out.println("Agrégats : " + rapport.getEcartsDonateurs() + " donateur(s) et "
+                    + rapport.getEcartsAssociations() + " association(s) en écart"
+                    + (corriger ? ", corrigés" : ""));
+        }
+        return rapport;
+    }
+
+    /**
+     * Tout réécrire depuis les dons validés, sans comparaison préalable (données chargées
+     * en masse) : montants collectés des projets, puis donateurs et associations.
+     * Lignes réécrites par table ; le cache des entités est vidé après validation
+     */
+    public Map<String, Long> recalculerTout() {
+        long debut = System.currentTimeMillis();
+        entityManager.flush();
+
+        Map<String, Long> lignes = new LinkedHashMap<>();
+        lignes.put("projets", ecrireParLots(SOMMES_PROJETS, ECRITURE_PROJET, 2)
+                + jdbcTemplate.update(PROJETS_SANS_DON));
+        lignes.put("donateurs", ecrireParLots(AGREGATS_DONATEURS, ECRITURE_DONATEUR, 7)
+                + jdbcTemplate.update(DONATEURS_SANS_DON));
+        lignes.put("associations", ecrireParLots(AGREGATS_ASSOCIATIONS, ECRITURE_ASSOCIATION, 5));
+        ApresCommit.executer(cacheEntitesService::vider);
+
+        System.out.println("Agrégats recalculés : " + lignes.get("projets") + " projets, "
+                + lignes.get("donateurs") + " donateurs, " + lignes.get("associations") + " associations en "
+                + (System.currentTimeMillis() - debut) + " ms");
+        return lignes;
+    }
+
+    public synchronized Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("verifications", verifications);
+        stats.put("ecartsCumules", ecartsCumules);
+        stats.put("derniereVerification", derniereVerification);
+        return stats;
+    }
+
+    private void corriger(String requete, List<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.batchUpdate(requete, ids.stream().map(id -> new Object[]{id}).toList());
+        }
+    }
+
+    /**
+     * Lire une requête agrégée en flux (identifiant en première colonne) et réécrire chaque
+     * ligne par lots : UPDATE ... SET colonnes 2..n = ? WHERE clé = identifiant
+     */
+    private long ecrireParLots(String lecture, String ecriture, int colonnes) {
+        List<Object[]> lot = new ArrayList<>(TAILLE_LOT);
+        long[] lignes = {0};
+        jdbcTemplate.query(connexion -> {
+            PreparedStatement requete = connexion.prepareStatement(lecture);
+            requete.setFetchSize(TAILLE_LOT);
+            return requete;
+        }, ligne -> {
+            Object[] valeurs = new Object[colonnes];
+            for (int i = 2; i <= colonnes; i++) {
+                valeurs[i - 2] = ligne.getObject(i);
+            }
+            valeurs[colonnes - 1] = ligne.getObject(1);
+            lot.add(valeurs);
+            if (lot.size() == TAILLE_LOT) {
+                jdbcTemplate.batchUpdate(ecriture, lot);
+                lignes[0] += lot.size();
+                lot.clear();
+            }
+        });
+        if (!lot.isEmpty()) {
+            jdbcTemplate.batchUpdate(ecriture, lot);
+            lignes[0] += lot.size();
+        }
+        return lignes[0];
+    }
+
+    private long compter(String requete) {
+        Long nombre = jdbcTemplate.queryForObject(requete, Long.class);
+        return nombre != null ? nombre : 0;
+    }
+
+    private void evincer(Long idDonateur, Long idAssociation) {
+        cacheEntitesService.evincerDonateur(idDonateur);
+        cacheEntitesService.evincerAssociation(idAssociation);
+    }
+
+    /**
+     * Résultat d'un passage du vérificateur
+     */
+    public static class RapportVerification {
+        private final LocalDateTime date;
+        private final long donateursVerifies;
+        private final long associationsVerifiees;
+        private final int ecartsDonateurs;
+        private final int ecartsAssociations;
+        private final boolean corriges;
+        private final long dureeMs;
+
+        public RapportVerification(LocalDateTime date, long donateursVerifies, long associationsVerifiees,
+                                   int ecartsDonateurs, int ecartsAssociations, boolean corriges, long dureeMs) {
+            this.date = date;
+            this.donateursVerifies = donateursVerifies;
+            this.associationsVerifiees = associationsVerifiees;
+            this.ecartsDonateurs = ecartsDonateurs;
+            this.ecartsAssociations = ecartsAssociations;
+            this.corriges = corriges;
+            this.dureeMs = dureeMs;
+        }
+
+        public LocalDateTime getDate() { return date; }
+        public long getDonateursVerifies() { return donateursVerifies; }
+        public long getAssociationsVerifiees() { return associationsVerifiees; }
+        public int getEcartsDonateurs() { return ecartsDonateurs; }
+        public int getEcartsAssociations() { return ecartsAssociations; }
+        public boolean isCorriges() { return corriges; }
+        public long getDureeMs() { return dureeMs; }
+    }
+}
@@ -1,14 +1,30 @@
 package com.mediation.platform.service;
 
+import com.mediation.platform.cache.VersionsPubliques;
+import com.mediation.platform.classement.Classement;
+import com.mediation.platform.classement.Classements;
+import com.mediation.platform.dto.response.AssociationResume;
 import com.mediation.platform.entity.Association;
 import com.mediation.platform.exception.ResourceNotFoundException;
+import com.mediation.platform.recherche.FacettesProjets;
+import com.mediation.platform.recherche.IndexAssociations;
+import com.mediation.platform.recherche.IndexAutocompletion;
+import com.mediation.platform.recherche.MoteurRechercheProjets;
+import com.mediation.platform.recherche.ResultatsRecherche;
 import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.routage.LectureRapport;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -23,6 +39,36 @@ public class AssociationService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private IndexAssociations indexAssociations;
+
+    @Autowired
+    private IndexAutocompletion indexAutocompletion;
+
+    @Autowired
+    private FacettesProjets facettesProjets;
+
+    @Autowired
+    private MoteurRechercheProjets moteurRechercheProjets;
+
+    @Autowired
+    private ProximiteService proximiteService;
+
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
+    @Autowired
+    private CacheEntitesService cacheEntitesService;
+
+    @Autowired
+    private Classements classements;
+
+    @Value("${app.geo.rayon-ville-km:15}")
+    private double rayonVilleKm;
+
+    @Value("${app.recherche.associations.limite:100}")
+    private int limiteRecherche;
+
     // ========== MÉTHODES EXISTANTES ==========
     public Association findById(Long id) {
         return associationRepository.findById(id)
@@ -37,12 +83,50 @@ public class AssociationService {
         return associationRepository.findByStatutValidationTrue();
     }
 
+    /**
+     * Associations validées pour la liste publique (une requête, quel que soit leur nombre)
+     */
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findResumesValidees() {
+        return associationRepository.findResumesValidees();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findResumes() {
+        return associationRepository.findResumes();
+    }
+
+    @Transactional(readOnly = true)
+    public AssociationResume getResume(Long id) {
+        return associationRepository.findResumeById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Association non trouvée avec l'ID: " + id));
+    }
+
+    /**
+     * Valeurs dont dépend le résumé d'une association, lues sans le charger (ETag de la fiche publique)
+     */
+    @Transactional(readOnly = true)
+    public Object[] getValidateurResume(Long id) {
+        return associationRepository.findValidateurResume(id).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Association non trouvée avec l'ID: " + id));
+    }
+
     public List<Association> findPendingValidation() {
         return associationRepository.findByStatutValidationFalse();
     }
 
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findResumesEnAttente() {
+        return associationRepository.findResumesEnAttente();
+    }
+
     public Association save(Association association) {
-        return associationRepository.save(association);
+        Association savedAssociation = associationRepository.save(association);
+        indexAssociations.indexer(savedAssociation);
+        indexAutocompletion.indexerAssociation(savedAssociation);
+        proximiteService.indexerAssociation(savedAssociation);
+        versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
+        return savedAssociation;
     }
 
     public Association update(Long id, Association associationData) {
@@ -62,6 +146,7 @@ public class AssociationService {
         }
         if (associationData.getAdresse() != null) {
             association.setAdresse(associationData.getAdresse());
+            proximiteService.geocoder(association);
         }
         if (associationData.getSiteWeb() != null) {
             association.setSiteWeb(associationData.getSiteWeb());
@@ -71,14 +156,28 @@ public class AssociationService {
         }
         if (associationData.getDomaineActivite() != null) {
             association.setDomaineActivite(associationData.getDomaineActivite());
+            facettesProjets.modifierDomaine(id, associationData.getDomaineActivite());
         }
 
-        return associationRepository.save(association);
+        Association savedAssociation = associationRepository.save(association);
+        indexAssociations.indexer(savedAssociation);
+        indexAutocompletion.indexerAssociation(savedAssociation);
+        proximiteService.indexerAssociation(savedAssociation);
+        versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
+        return savedAssociation;
     }
 
     public void deleteById(Long id) {
         Association association = findById(id);
+        // Avant la suppression : ses projets sont encore lisibles
+        moteurRechercheProjets.retirerAssociation(id);
+        facettesProjets.retirerAssociation(id);
         associationRepository.delete(association);
+        indexAssociations.retirer(id);
+        indexAutocompletion.retirerAssociation(id);
+        proximiteService.retirerAssociation(id);
+        versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
+        cacheEntitesService.evincerAssociation(id);
     }
 
     public Association validerAssociation(Long id) {
@@ -89,6 +188,12 @@ public class AssociationService {
         association.setStatut(com.mediation.platform.enums.StatutUtilisateur.ACTIF);
 
         Association savedAssociation = associationRepository.save(association);
+        versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
+        indexAssociations.indexer(savedAssociation);
+        indexAutocompletion.indexerAssociation(savedAssociation);
+        proximiteService.indexerAssociation(savedAssociation);
+        moteurRechercheProjets.indexerAssociation(savedAssociation);
+        facettesProjets.indexerAssociation(savedAssociation);
 
         try {
             emailService.envoyerEmailValidation(savedAssociation);
@@ -107,6 +212,12 @@ public class AssociationService {
         association.setStatut(com.mediation.platform.enums.StatutUtilisateur.REFUSE);
 
         Association savedAssociation = associationRepository.save(association);
+        indexAssociations.retirer(id);
+        indexAutocompletion.retirerAssociation(id);
+        proximiteService.retirerAssociation(id);
+        moteurRechercheProjets.retirerAssociation(id);
+        facettesProjets.retirerAssociation(id);
+        versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
 
         try {
             emailService.envoyerEmailRefus(savedAssociation, motif);
@@ -118,16 +229,59 @@ public class AssociationService {
         return savedAssociation;
     }
 
-    public List<Association> findByNomAssociation(String nom) {
-        return associationRepository.findByNomAssociationContainingIgnoreCase(nom);
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findByNomAssociation(String nom) {
+        return associationRepository.findResumesByNom(nom);
     }
 
-    public List<Association> findByDomaineActivite(String domaine) {
-        return associationRepository.findByDomaineActiviteContainingIgnoreCase(domaine);
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findByDomaineActivite(String domaine) {
+        return associationRepository.findResumesByDomaine(domaine);
     }
 
-    public List<Association> findByVille(String ville) {
-        return associationRepository.findByAdresseContainingIgnoreCase(ville);
+    /**
+     * Ville connue du gazetteer : associations validées proches, plus celles sans coordonnées dont
+     * l'adresse contient la ville ; sinon toutes les associations dont l'adresse contient la ville
+     */
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findByVille(String ville) {
+        return proximiteService.localiserVille(ville)
+                .map(lieu -> {
+                    List<AssociationResume> associations = new ArrayList<>(dansLOrdre(proximiteService.idsAssociationsProches(
+                            lieu.getLatitude(), lieu.getLongitude(), rayonVilleKm, limiteRecherche)));
+                    associations.addAll(associationRepository.findResumesNonGeocodeesByAdresse(ville));
+                    return associations;
+                })
+                .orElseGet(() -> associationRepository.findResumesByAdresse(ville));
+    }
+
+    /**
+     * Recherche par préfixe dans l'index des associations validées (texte libre et/ou par champ)
+     */
+    @Transactional(readOnly = true)
+    public List<AssociationResume> rechercher(String texte, String nom, String domaine, String ville) {
+        ResultatsRecherche resultats = indexAssociations.rechercher(texte, nom, domaine, ville, limiteRecherche);
+        List<Long> ids = resultats.getResultats().stream().map(ResultatsRecherche.Resultat::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Résumés en une requête, dans l'ordre de pertinence de l'index
+        return dansLOrdre(ids);
+    }
+
+    // Résumés des associations dans l'ordre des identifiants donnés
+    private List<AssociationResume> dansLOrdre(List<Long> ids) {
+        Map<Long, AssociationResume> parId = resumesParId(ids);
+        return ids.stream().map(parId::get).filter(Objects::nonNull).toList();
+    }
+
+    private Map<Long, AssociationResume> resumesParId(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return associationRepository.findResumesByIds(ids).stream()
+                .collect(Collectors.toMap(AssociationResume::getIdUtilisateur, Function.identity()));
     }
 
     public List<Association> findRecentlyValidated(int nombreJours) {
@@ -139,8 +293,17 @@ public class AssociationService {
         return associationRepository.findWithActiveProjects();
     }
 
-    public List<Association> findTopAssociationsByDonations() {
-        return associationRepository.findTopAssociationsByDonations();
+    /**
+     * Résumés des associations récemment validées et de celles ayant des projets actifs (listes publiques)
+     */
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findResumesRecemmentValidees(int nombreJours) {
+        return associationRepository.findResumesRecemmentValidees(LocalDateTime.now().minusDays(nombreJours));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findResumesAvecProjetsActifs() {
+        return associationRepository.findResumesAvecProjetsActifs();
     }
 
     // ========== NOUVELLES MÉTHODES AJOUTÉES ==========
@@ -160,12 +323,16 @@ public class AssociationService {
     }
 
     /**
-     * Top associations (alias pour compatibilité)
+     * Meilleures associations (montant des dons validés reçus), lues dans le classement en mémoire
      */
-    public List<Association> findTopAssociations() {
-        return findTopAssociationsByDonations();
+    @Transactional(readOnly = true)
+    public List<AssociationResume> findTopAssociations(int nombre) {
+        List<Classement.Entree> top = classements.top(Classements.Type.ASSOCIATIONS, nombre);
+        return Classements.ordonner(top, resumesParId(top.stream().map(Classement.Entree::getId).toList()));
     }
 
+    @LectureRapport
+    @Transactional(readOnly = true)
     public AssociationStats getGeneralStats() {
         List<Association> allAssociations = findAll();
         List<Association> validatedAssociations = findValidatedAssociations();
@@ -203,6 +370,10 @@ public class AssociationService {
         association.setStatut(com.mediation.platform.enums.StatutUtilisateur.SUSPENDU);
 
         Association savedAssociation = associationRepository.save(association);
+        // Projets d'une association suspendue : hors recherche et facettes publiques
+        moteurRechercheProjets.retirerAssociation(id);
+        facettesProjets.retirerAssociation(id);
+        versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
 
         try {
             notificationService.creerNotification(
@@ -224,6 +395,9 @@ public class AssociationService {
         association.setStatut(com.mediation.platform.enums.StatutUtilisateur.ACTIF);
 
         Association savedAssociation = associationRepository.save(association);
+        moteurRechercheProjets.indexerAssociation(savedAssociation);
+        facettesProjets.indexerAssociation(savedAssociation);
+        versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
 
         try {
             notificationService.creerNotification(
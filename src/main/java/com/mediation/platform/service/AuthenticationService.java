@@ -1,5 +1,6 @@
 package com.mediation.platform.service;
 
+import com.mediation.platform.cache.VersionsPubliques;
 import com.mediation.platform.dto.mapper.AuthMapper;
 import com.mediation.platform.dto.request.LoginRequest;
 import com.mediation.platform.dto.request.RegisterAssociationRequest;
@@ -12,6 +13,10 @@ import com.mediation.platform.enums.StatutUtilisateur;
 import com.mediation.platform.exception.AuthenticationException;
 import com.mediation.platform.exception.BusinessException;
 import com.mediation.platform.exception.ResourceNotFoundException;
+import com.mediation.platform.recherche.FacettesProjets;
+import com.mediation.platform.recherche.IndexAssociations;
+import com.mediation.platform.recherche.IndexAutocompletion;
+import com.mediation.platform.recherche.MoteurRechercheProjets;
 import com.mediation.platform.repository.UtilisateurRepository;
 import com.mediation.platform.security.JwtUtil;
 import com.mediation.platform.security.UserDetailsImpl;
@@ -53,6 +58,24 @@ public class AuthenticationService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private IndexAssociations indexAssociations;
+
+    @Autowired
+    private IndexAutocompletion indexAutocompletion;
+
+    @Autowired
+    private MoteurRechercheProjets moteurRechercheProjets;
+
+    @Autowired
+    private FacettesProjets facettesProjets;
+
+    @Autowired
+    private ProximiteService proximiteService;
+
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
     /**
      * Authentification d'un utilisateur
      */
@@ -121,6 +144,7 @@ public class AuthenticationService {
         Donateur donateur = authMapper.toDonateurEntity(request);
         donateur.setMotDePasse(passwordEncoder.encode(request.getMotDePasse()));
         donateur.setStatut(StatutUtilisateur.ACTIF); // Les donateurs sont activés directement
+        proximiteService.geocoder(donateur);
 
         // Sauvegarder
         Donateur savedDonateur = utilisateurRepository.save(donateur);
@@ -150,6 +174,7 @@ public class AuthenticationService {
         association.setMotDePasse(passwordEncoder.encode(request.getMotDePasse()));
         association.setStatut(StatutUtilisateur.EN_ATTENTE); // En attente de validation
         association.setStatutValidation(false);
+        proximiteService.geocoder(association);
 
         // Sauvegarder
         Association savedAssociation = utilisateurRepository.save(association);
@@ -263,7 +288,8 @@ public class AuthenticationService {
         utilisateur.setMotDePasse(passwordEncoder.encode(nouveauMotDePasse));
         utilisateurRepository.save(utilisateur);
 
-        // Envoyer par email
+        // Envoi synchrone dans la transaction : si l'email ne part pas, l'exception annule
+        // l'enregistrement et l'ancien mot de passe reste valable
         try {
             emailService.envoyerNouveauMotDePasse(utilisateur, nouveauMotDePasse);
         } catch (Exception e) {
@@ -288,6 +314,15 @@ public class AuthenticationService {
 
         utilisateurRepository.save(utilisateur);
 
+        if (utilisateur instanceof Association) {
+            indexAssociations.indexer((Association) utilisateur);
+            indexAutocompletion.indexerAssociation((Association) utilisateur);
+            proximiteService.indexerAssociation((Association) utilisateur);
+            moteurRechercheProjets.indexerAssociation((Association) utilisateur);
+            facettesProjets.indexerAssociation((Association) utilisateur);
+            versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
+        }
+
         // Envoyer notification
         try {
             emailService.envoyerEmailValidation(utilisateur);
@@ -307,6 +342,15 @@ public class AuthenticationService {
         utilisateur.setStatut(StatutUtilisateur.REFUSE);
         utilisateurRepository.save(utilisateur);
 
+        if (utilisateur instanceof Association) {
+            indexAssociations.retirer(userId);
+            indexAutocompletion.retirerAssociation(userId);
+            proximiteService.retirerAssociation(userId);
+            moteurRechercheProjets.retirerAssociation(userId);
+            facettesProjets.retirerAssociation(userId);
+            versionsPubliques.incrementer(VersionsPubliques.ASSOCIATIONS, VersionsPubliques.PROJETS);
+        }
+
         // Envoyer notification
         try {
             emailService.envoyerEmailRefus(utilisateur, motif);
@@ -0,0 +1,117 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.config.CacheConfig;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.recherche.ApresCommit;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Éviction explicite et compteurs du cache de second niveau (utilisateurs, projets, requêtes)
+ */
+@Service
+public class CacheEntitesService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> registres;
+
+    /**
+     * Retirer un projet du cache une fois la transaction validée
+     */
+    public void evincerProjet(Long idProjet) {
+        if (idProjet != null) {
+            ApresCommit.executer(() -> cache().evictEntityData(Projet.class, idProjet));
+        }
+    }
+
+    public void evincerAssociation(Long idAssociation) {
+        if (idAssociation != null) {
+            ApresCommit.executer(() -> cache().evictEntityData(Association.class, idAssociation));
+        }
+    }
+
+    public void evincerDonateur(Long idDonateur) {
+        if (idDonateur != null) {
+            ApresCommit.executer(() -> cache().evictEntityData(Donateur.class, idDonateur));
+        }
+    }
+
+    /**
+     * Tout vider (modifications faites en base hors de l'application)
+     */
+    public void vider() {
+        cache().evictAllRegions();
+    }
+
+    /**
+     * Compteurs par région, tenus par JCache et lus dans Micrometer ; les compteurs Hibernate
+     * (entités chargées, requêtes SQL) seulement si ses statistiques sont actives
+     */
+    public Map<String, Object> getStatistiques() {
+        MeterRegistry registre = registres.getIfAvailable();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("utilisateurs", region(registre, CacheConfig.REGION_UTILISATEURS));
+        stats.put("projets", region(registre, CacheConfig.REGION_PROJETS));
+        stats.put("requetes", region(registre, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME));
+
+        Statistics statistiques = sessionFactory().getStatistics();
+        stats.put("statistiquesActives", statistiques.isStatisticsEnabled());
+        if (!statistiques.isStatisticsEnabled()) {
+            stats.put("activation", "app.cache.statistiques=true");
+            return stats;
+        }
+        stats.put("chargementsEntites", statistiques.getEntityLoadCount());
+        stats.put("requetesSql", statistiques.getPrepareStatementCount());
+        return stats;
+    }
+
+    private static Map<String, Object> region(MeterRegistry registre, String nom) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (registre == null) {
+            return stats;
+        }
+        long succes = compteur(registre, "cache.gets", nom, "hit");
+        long echecs = compteur(registre, "cache.gets", nom, "miss");
+        stats.put("succes", succes);
+        stats.put("echecs", echecs);
+        stats.put("ajouts", compteur(registre, "cache.puts", nom, null));
+        stats.put("tauxSucces", taux(succes, echecs));
+        return stats;
+    }
+
+    private static long compteur(MeterRegistry registre, String metrique, String region, String resultat) {
+        FunctionCounter compteur = (resultat == null
+                ? registre.find(metrique).tag("cache", region)
+                : registre.find(metrique).tag("cache", region).tag("result", resultat)).functionCounter();
+        return compteur != null ? (long) compteur.count() : 0;
+    }
+
+    private static double taux(long succes, long echecs) {
+        long total = succes + echecs;
+        return total == 0 ? 0.0 : Math.round(succes * 1000.0 / total) / 10.0;
+    }
+
+    private Cache cache() {
+        return sessionFactory().getCache();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.classement.Classement;
+import com.mediation.platform.classement.Classements;
+import com.mediation.platform.dto.response.EntreeClassement;
+import com.mediation.platform.dto.response.PageResultats;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.exception.BusinessException;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Pages et rangs des classements en mémoire, avec le nom affiché de chaque entrée
+ * (une requête par page pour les noms, aucune pour le rang)
+ */
+@Service
+@Transactional(readOnly = true)
+public class ClassementService {
+
+    private static final int TAILLE_MAX = 100;
+
+    @Autowired
+    private Classements classements;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    /**
+     * Page d'un classement ; portée global, mois (valeur AAAA-MM) ou domaine (valeur = domaine d'activité)
+     */
+    public PageResultats<EntreeClassement> getPage(Classements.Type type, String portee, String valeur,
+                                                   int page, int taille) {
+        if (taille < 1 || taille > TAILLE_MAX) {
+            throw new BusinessException("La taille de page doit être comprise entre 1 et " + TAILLE_MAX);
+        }
+        Classement classement = classements.get(type, verifierPortee(portee), valeur);
+        List<Classement.Entree> entrees = classement.page(page, taille);
+        Map<Long, String> noms = noms(type, entrees.stream().map(Classement.Entree::getId).toList());
+        List<EntreeClassement> contenu = entrees.stream()
+                .map(e -> new EntreeClassement(e.getRang(), e.getId(), noms.get(e.getId()), e.getScore()))
+                .toList();
+        return new PageResultats<>(contenu, classement.taille(), page, taille);
+    }
+
+    /**
+     * Rang et score d'une entité (rang 0 si elle n'est pas classée)
+     */
+    public EntreeClassement getRang(Classements.Type type, Long id, String portee, String valeur) {
+        Classement classement = classements.get(type, verifierPortee(portee), valeur);
+        Double score = classement.getScore(id);
+        return new EntreeClassement(classement.rang(id), id, null, score != null ? score : 0.0);
+    }
+
+    public static Classements.Type type(String type) {
+        try {
+            return Classements.Type.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Classement inconnu: " + type);
+        }
+    }
+
+    private static String verifierPortee(String portee) {
+        if (portee == null || portee.isBlank()) {
+            return Classements.GLOBAL;
+        }
+        if (!List.of(Classements.GLOBAL, Classements.MOIS, Classements.DOMAINE).contains(portee)) {
+            throw new BusinessException("Portée inconnue: " + portee + " (global, mois ou domaine)");
+        }
+        return portee;
+    }
+
+    private Map<Long, String> noms(Classements.Type type, List<Long> ids) {
+        return switch (type) {
+            case DONATEURS -> donateurRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Donateur::getIdUtilisateur, Donateur::getNomComplet));
+            case ASSOCIATIONS -> associationRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Association::getIdUtilisateur, Association::getNomAffichage));
+            case PROJETS -> projetRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Projet::getIdProjet, Projet::getTitre));
+        };
+    }
+}
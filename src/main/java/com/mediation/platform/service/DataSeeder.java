@@ -28,6 +28,9 @@ public class DataSeeder {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AgregatsService agregatsService;
+
     /**
      * Créer des données de test pour développement
      */
@@ -219,6 +222,9 @@ public class DataSeeder {
         associationEnAttente.setStatutValidation(false);
         utilisateurRepository.save(associationEnAttente);
 
+        // Projets et dons insérés directement : agrégats des donateurs et associations à recalculer
+        agregatsService.verifier(true);
+
         System.out.println("✅ Données de test créées avec succès !");
         System.out.println("👤 Comptes créés :");
         System.out.println("  📋 Admin: admin@mediation.com / admin123");
@@ -1,13 +1,18 @@
 
 package com.mediation.platform.service;
 
+import com.mediation.platform.cache.VersionsPubliques;
+import com.mediation.platform.classement.Classements;
 import com.mediation.platform.entity.Don;
 import com.mediation.platform.entity.Donateur;
 import com.mediation.platform.entity.Projet;
 import com.mediation.platform.enums.StatutDon;
 import com.mediation.platform.exception.BusinessException;
 import com.mediation.platform.exception.ResourceNotFoundException;
+import com.mediation.platform.monitoring.MetriquesMetier;
 import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.routage.LectureRapport;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,20 +22,36 @@ import java.util.List;
 
 @Service
 @Transactional
+@Timed("service.methodes")
 public class DonService {
 
     @Autowired
     private DonRepository donRepository;
 
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
     @Autowired
     private ProjetService projetService;
 
+    @Autowired
+    private AgregatsService agregatsService;
+
+    @Autowired
+    private Classements classements;
+
     @Autowired
     private NotificationService notificationService;
 
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private NotificationDigestService notificationDigestService;
+
+    @Autowired
+    private MetriquesMetier metriquesMetier;
+
     /**
      * Trouver un don par ID
      */
@@ -69,19 +90,19 @@ public class DonService {
         }
 
         Don savedDon = donRepository.save(don);
+        versionsPubliques.incrementer(VersionsPubliques.DONS);
+        metriquesMetier.donCree(savedDon);
+        if (savedDon.getStatut() == StatutDon.VALIDE) {
+            agregatsService.donValide(savedDon);
+            classements.donValide(savedDon);
+        }
 
         // Notifier l'association
         try {
             String nomDonateur = savedDon.getAnonyme() ? "Donateur anonyme" : savedDon.getDonateur().getNomComplet();
 
-            notificationService.notifierDonRecu(
-                    savedDon.getProjet().getAssociation(),
-                    nomDonateur,
-                    savedDon.getMontant(),
-                    savedDon.getProjet().getTitre()
-            );
-
-            emailService.envoyerEmailDonRecu(
+            // Regroupé par association sur la fenêtre de digest (notification + email), après validation
+            notificationDigestService.enregistrerDonRecu(
                     savedDon.getProjet().getAssociation(),
                     nomDonateur,
                     savedDon.getMontant(),
@@ -106,10 +127,14 @@ public class DonService {
 
         don.confirmer();
         Don savedDon = donRepository.save(don);
+        versionsPubliques.incrementer(VersionsPubliques.DONS);
+        agregatsService.donValide(savedDon);
+        classements.donValide(savedDon);
+        metriquesMetier.donValide(savedDon);
 
-        // Mettre à jour le montant collecté du projet
+        // Don.confirmer() a déjà ajouté le montant au projet : enregistrer sans le compter deux fois
         Projet projet = don.getProjet();
-        projetService.updateMontantCollecte(projet.getIdProjet(), projet.getMontantCollecte() + don.getMontant());
+        projetService.updateMontantCollecte(projet.getIdProjet(), projet.getMontantCollecte());
 
         // Notifier le donateur
         try {
@@ -144,6 +169,8 @@ public class DonService {
 
         don.setStatut(StatutDon.REFUSE);
         Don savedDon = donRepository.save(don);
+        versionsPubliques.incrementer(VersionsPubliques.DONS);
+        metriquesMetier.donRefuse();
 
         // Notifier le donateur
         try {
@@ -171,6 +198,7 @@ public class DonService {
         }
 
         donRepository.delete(don);
+        versionsPubliques.incrementer(VersionsPubliques.DONS);
     }
 
     /**
@@ -246,6 +274,7 @@ public class DonService {
     /**
      * Montant total des dons confirmés
      */
+    @Transactional(readOnly = true)
     public Double getTotalConfirmedDonations() {
         Double total = donRepository.getTotalConfirmedDonations();
         return total != null ? total : 0.0;
@@ -278,11 +307,14 @@ public class DonService {
 
         don.rembourser();
         Don savedDon = donRepository.save(don);
+        versionsPubliques.incrementer(VersionsPubliques.DONS);
+        agregatsService.donRetire(savedDon);
+        classements.donRetire(savedDon);
+        metriquesMetier.donRembourse();
 
-        // Mettre à jour le montant collecté du projet
+        // Don.rembourser() a déjà retiré le montant du projet
         Projet projet = don.getProjet();
-        double nouveauMontant = Math.max(0, projet.getMontantCollecte() - don.getMontant());
-        projetService.updateMontantCollecte(projet.getIdProjet(), nouveauMontant);
+        projetService.updateMontantCollecte(projet.getIdProjet(), projet.getMontantCollecte());
 
         // Notifier le donateur
         try {
@@ -304,6 +336,8 @@ public class DonService {
     /**
      * Statistiques générales des dons
      */
+    @LectureRapport
+    @Transactional(readOnly = true)
     public DonStats getGeneralStats() {
         List<Don> allDons = findAll();
 
@@ -334,6 +368,8 @@ public class DonService {
     /**
      * Calculer les tendances des dons
      */
+    @LectureRapport
+    @Transactional(readOnly = true)
     public TendancesDons calculerTendances() {
         LocalDate maintenant = LocalDate.now();
         LocalDate debutMoisActuel = maintenant.withDayOfMonth(1);
@@ -1,13 +1,24 @@
 package com.mediation.platform.service;
 
+import com.mediation.platform.classement.Classement;
+import com.mediation.platform.classement.Classements;
+import com.mediation.platform.dto.response.DonateurResume;
 import com.mediation.platform.entity.Donateur;
 import com.mediation.platform.exception.ResourceNotFoundException;
+import com.mediation.platform.repository.DonRepository;
 import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.routage.LectureRapport;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -16,14 +27,47 @@ public class DonateurService {
     @Autowired
     private DonateurRepository donateurRepository;
 
+    @Autowired
+    private DonRepository donRepository;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ProximiteService proximiteService;
+
+    @Autowired
+    private Classements classements;
+
+    @Value("${app.geo.rayon-ville-km:15}")
+    private double rayonVilleKm;
+
     public Donateur findById(Long id) {
         return donateurRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Donateur non trouvé avec l'ID: " + id));
     }
 
+    /**
+     * Profil avec les agrégats de ses dons calculés en base (trois requêtes, quel que soit le nombre de dons)
+     */
+    @Transactional(readOnly = true)
+    public DonateurResume getResume(Long id) {
+        Donateur donateur = findById(id);
+        Object[] agregats = donRepository.agregerParDonateur(id).get(0);
+        String domainePreference = donRepository.findDomainesParDonateur(id, PageRequest.of(0, 1))
+                .stream().findFirst().orElse(null);
+        return new DonateurResume(donateur,
+                nombre(agregats[0]).longValue(), nombre(agregats[1]).longValue(), nombre(agregats[2]).longValue(),
+                nombre(agregats[3]).doubleValue(), nombre(agregats[4]).doubleValue(),
+                nombre(agregats[5]).longValue(), nombre(agregats[6]).longValue(),
+                (LocalDate) agregats[7], (LocalDate) agregats[8], domainePreference);
+    }
+
+    // SUM sur aucune ligne renvoie null
+    private static Number nombre(Object valeur) {
+        return valeur != null ? (Number) valeur : 0;
+    }
+
     public List<Donateur> findAll() {
         return donateurRepository.findAll();
     }
@@ -46,6 +90,7 @@ public class DonateurService {
         }
         if (donateurData.getAdresse() != null) {
             donateur.setAdresse(donateurData.getAdresse());
+            proximiteService.geocoder(donateur);
         }
         if (donateurData.getProfession() != null) {
             donateur.setProfession(donateurData.getProfession());
@@ -74,14 +119,32 @@ public class DonateurService {
         return donateurRepository.findDonatorsWithConfirmedDonations();
     }
 
-    public List<Donateur> findTopDonators() {
-        return donateurRepository.findTopDonators();
+    /**
+     * Meilleurs donateurs (montant des dons validés), lus dans le classement en mémoire
+     */
+    public List<Donateur> findTopDonators(int nombre) {
+        List<Classement.Entree> top = classements.top(Classements.Type.DONATEURS, nombre);
+        return Classements.ordonner(top, donateurRepository.findAllById(top.stream().map(Classement.Entree::getId).toList())
+                .stream().collect(Collectors.toMap(Donateur::getIdUtilisateur, Function.identity())));
     }
 
+    /**
+     * Donateurs autour d'une ville connue du gazetteer (plus ceux sans coordonnées dont l'adresse
+     * contient la ville), sinon par texte de l'adresse
+     */
     public List<Donateur> findByVille(String ville) {
-        return donateurRepository.findByAdresseContainingIgnoreCase(ville);
+        return proximiteService.localiserVille(ville)
+                .map(lieu -> {
+                    List<Donateur> donateurs = new ArrayList<>(
+                            proximiteService.donateursProches(lieu.getLatitude(), lieu.getLongitude(), rayonVilleKm));
+                    donateurs.addAll(donateurRepository.findByLatitudeIsNullAndAdresseContainingIgnoreCase(ville));
+                    return donateurs;
+                })
+                .orElseGet(() -> donateurRepository.findByAdresseContainingIgnoreCase(ville));
     }
 
+    @LectureRapport
+    @Transactional(readOnly = true)
     public DonateurStats getGeneralStats() {
         List<Donateur> allDonateurs = findAll();
 
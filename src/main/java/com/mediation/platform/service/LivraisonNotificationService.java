@@ -0,0 +1,144 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.enums.PrioriteNotification;
+import com.mediation.platform.monitoring.Latences;
+import com.mediation.platform.recherche.ApresCommit;
+import com.mediation.platform.tracage.Spans;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Planificateur de livraison par priorité : les envois urgents passent par une file
+ * et un pool de threads réservés, indépendants de la file standard.
+ */
+@Service
+public class LivraisonNotificationService {
+
+    @Autowired
+    @Qualifier("livraisonNormaleExecutor")
+    private ThreadPoolTaskExecutor livraisonNormaleExecutor;
+
+    @Autowired
+    @Qualifier("livraisonUrgenteExecutor")
+    private ThreadPoolTaskExecutor livraisonUrgenteExecutor;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.livraison.asynchrone:true}")
+    private boolean asynchrone;
+
+    private final Map<PrioriteNotification, Timer> latences = new EnumMap<>(PrioriteNotification.class);
+    private final Map<PrioriteNotification, LongAdder> echecs = new EnumMap<>(PrioriteNotification.class);
+
+    public LivraisonNotificationService() {
+        for (PrioriteNotification priorite : PrioriteNotification.values()) {
+            echecs.put(priorite, new LongAdder());
+        }
+    }
+
+    /**
+     * Latence de livraison par priorité (étiquette priorite), publiée en histogramme
+     */
+    @PostConstruct
+    void enregistrerMetriques() {
+        for (PrioriteNotification priorite : PrioriteNotification.values()) {
+            latences.put(priorite, Latences.timer("notifications.livraison.latence")
+                    .description("Délai de la soumission à la fin de l'envoi")
+                    .tag("priorite", priorite.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Soumettre un envoi, après validation de la transaction en cours (rien ne part pour une
+     * opération annulée) ; la latence est mesurée de la soumission à la fin de l'envoi
+     */
+    public void soumettre(PrioriteNotification priorite, Runnable envoi) {
+        long soumission = System.nanoTime();
+        Runnable tache = () -> {
+            try {
+                livrer(priorite, envoi, soumission);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur livraison notification " + priorite + ": " + e.getMessage());
+            }
+        };
+
+        ApresCommit.executer(asynchrone ? () -> executorPour(priorite).execute(tache) : tache);
+    }
+
+    /**
+     * Envoi immédiat dans le thread appelant, l'erreur est propagée : l'appelant peut annuler
+     * sa transaction si le message n'est pas parti (mot de passe réinitialisé)
+     */
+    public void envoyerMaintenant(PrioriteNotification priorite, Runnable envoi) {
+        livrer(priorite, envoi, System.nanoTime());
+    }
+
+    private void livrer(PrioriteNotification priorite, Runnable envoi, long soumission) {
+        Spans.executer(tracer, "livraison " + priorite.name().toLowerCase(), () -> {
+            Span.current().setAttribute("file.attente.ms", (System.nanoTime() - soumission) / 1_000_000);
+            try {
+                envoi.run();
+            } catch (RuntimeException e) {
+                echecs.get(priorite).increment();
+                Span.current().recordException(e);
+                Span.current().setStatus(StatusCode.ERROR);
+                throw e;
+            } finally {
+                latences.get(priorite).record(System.nanoTime() - soumission, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Latences, échecs et profondeur de file par priorité
+     */
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (PrioriteNotification priorite : PrioriteNotification.values()) {
+            ThreadPoolTaskExecutor executor = executorPour(priorite);
+
+            Map<String, Object> statsPriorite = new LinkedHashMap<>();
+            statsPriorite.put("latence", Latences.toMap(latences.get(priorite)));
+            statsPriorite.put("echecs", echecs.get(priorite).sum());
+            statsPriorite.put("enAttente", executor.getThreadPoolExecutor().getQueue().size());
+            statsPriorite.put("enCours", executor.getActiveCount());
+            stats.put(priorite.name(), statsPriorite);
+        }
+        return stats;
+    }
+
+    /**
+     * Nombre total d'envois en file d'attente, toutes priorités confondues
+     */
+    public int getNombreEnAttente() {
+        int total = 0;
+        for (PrioriteNotification priorite : PrioriteNotification.values()) {
+            total += executorPour(priorite).getThreadPoolExecutor().getQueue().size();
+        }
+        return total;
+    }
+
+    private ThreadPoolTaskExecutor executorPour(PrioriteNotification priorite) {
+        return priorite == PrioriteNotification.URGENTE ? livraisonUrgenteExecutor : livraisonNormaleExecutor;
+    }
+}
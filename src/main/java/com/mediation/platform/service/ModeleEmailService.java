@@ -0,0 +1,119 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.enums.ModeleEmail;
+import com.mediation.platform.template.EmailRendu;
+import com.mediation.platform.template.ModeleCompile;
+import com.mediation.platform.template.ModelesEmailCompiles;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Charge et compile au démarrage les modèles d'email (texte et HTML) de chaque locale.
+ * Fichiers : templates/email/{langue}/{modele}.txt (sujet, ligne "---", corps)
+ * et templates/email/{langue}/{modele}.html, insérés dans {langue}/layout.html.
+ */
+@Service
+public class ModeleEmailService {
+
+    private static final String RACINE = "templates/email/";
+    private static final String SEPARATEUR_SUJET = "\n---\n";
+    private static final String MARQUEUR_CONTENU = "{{contenu}}";
+
+    @Value("${app.mail.locales:fr,en}")
+    private String locales;
+
+    @Value("${app.mail.locale-defaut:fr}")
+    private String localeDefaut;
+
+    private final Map<ModeleEmail, Map<String, ModelesEmailCompiles>> modeles = new EnumMap<>(ModeleEmail.class);
+
+    @PostConstruct
+    public void compilerModeles() {
+        for (String langue : locales.split(",")) {
+            String code = langue.trim();
+            if (code.isEmpty()) {
+                continue;
+            }
+
+            Locale locale = Locale.forLanguageTag(code);
+            String layout = lire(RACINE + code + "/layout.html");
+
+            for (ModeleEmail modele : ModeleEmail.values()) {
+                String texte = lire(RACINE + code + "/" + modele.getFichier() + ".txt");
+                if (texte == null) {
+                    continue;
+                }
+
+                int separateur = texte.indexOf(SEPARATEUR_SUJET);
+                if (separateur < 0) {
+                    throw new IllegalStateException("Modèle " + code + "/" + modele.getFichier()
+                            + ".txt : ligne de séparation '---' manquante après le sujet");
+                }
+
+                String html = lire(RACINE + code + "/" + modele.getFichier() + ".html");
+                if (html != null && layout != null) {
+                    html = layout.replace(MARQUEUR_CONTENU, html);
+                }
+
+                ModelesEmailCompiles compiles = new ModelesEmailCompiles(
+                        ModeleCompile.compiler(texte.substring(0, separateur).trim(), locale, false),
+                        ModeleCompile.compiler(texte.substring(separateur + SEPARATEUR_SUJET.length()), locale, false),
+                        html != null ? ModeleCompile.compiler(html, locale, true) : null
+                );
+                modeles.computeIfAbsent(modele, m -> new HashMap<>()).put(code, compiles);
+            }
+        }
+
+        // La locale par défaut doit couvrir tous les modèles : échec au démarrage sinon
+        for (ModeleEmail modele : ModeleEmail.values()) {
+            Map<String, ModelesEmailCompiles> parLocale = modeles.get(modele);
+            if (parLocale == null || !parLocale.containsKey(localeDefaut)) {
+                throw new IllegalStateException("Modèle d'email manquant pour la locale par défaut : "
+                        + localeDefaut + "/" + modele.getFichier());
+            }
+        }
+    }
+
+    /**
+     * Modèles compilés pour une locale (repli sur la locale par défaut)
+     */
+    public ModelesEmailCompiles getModeles(ModeleEmail modele, Locale locale) {
+        Map<String, ModelesEmailCompiles> parLocale = modeles.get(modele);
+        ModelesEmailCompiles compiles = locale != null ? parLocale.get(locale.getLanguage()) : null;
+        return compiles != null ? compiles : parLocale.get(localeDefaut);
+    }
+
+    /**
+     * Rendre un email complet (sujet, texte, HTML)
+     */
+    public EmailRendu rendre(ModeleEmail modele, Locale locale, Map<String, ?> variables) {
+        return getModeles(modele, locale).rendre(variables);
+    }
+
+    public Locale getLocaleDefaut() {
+        return Locale.forLanguageTag(localeDefaut);
+    }
+
+    private String lire(String chemin) {
+        ClassPathResource ressource = new ClassPathResource(chemin);
+        if (!ressource.exists()) {
+            return null;
+        }
+        try (InputStream flux = ressource.getInputStream()) {
+            String contenu = new String(flux.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+            return contenu.endsWith("\n") ? contenu.substring(0, contenu.length() - 1) : contenu;
+        } catch (IOException e) {
+            throw new IllegalStateException("Lecture du modèle d'email impossible : " + chemin, e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.entity.Notification;
+import com.mediation.platform.entity.Utilisateur;
+import com.mediation.platform.enums.TypeNotification;
+import com.mediation.platform.recherche.ApresCommit;
+import com.mediation.platform.repository.NotificationRepository;
+import com.mediation.platform.repository.UtilisateurRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Regroupe les événements de notification par (utilisateur, type) sur une fenêtre
+ * configurable, afin de produire une seule notification / un seul email récapitulatif
+ * au lieu d'un enregistrement et d'un email par événement.
+ */
+@Service
+public class NotificationDigestService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${app.notifications.digest.actif:true}")
+    private boolean digestActif;
+
+    private final Map<CleDigest, DigestEnCours> digestsEnCours = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistrer un don reçu, ajouté au digest après validation de la transaction
+     * (notification immédiate si le regroupement est désactivé)
+     */
+    public void enregistrerDonRecu(Utilisateur association, String nomDonateur, Double montant, String nomProjet) {
+        if (!digestActif) {
+            notificationService.notifierDonRecu(association, nomDonateur, montant, nomProjet);
+            emailService.envoyerEmailDonRecu(association, nomDonateur, montant, nomProjet);
+            return;
+        }
+
+        CleDigest cle = new CleDigest(association.getIdUtilisateur(), TypeNotification.DON_RECU);
+        ApresCommit.executer(() -> digestsEnCours.compute(cle, (k, digest) -> {
+            DigestEnCours courant = digest != null ? digest : new DigestEnCours();
+            courant.ajouter(nomDonateur, montant, nomProjet);
+            return courant;
+        }));
+    }
+
+    /**
+     * Publier les notifications regroupées à la fin de chaque fenêtre
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.digest.fenetre-ms:300000}",
+            initialDelayString = "${app.notifications.digest.fenetre-ms:300000}")
+    public void publierDigests() {
+        for (CleDigest cle : new ArrayList<>(digestsEnCours.keySet())) {
+            // remove() est atomique vis-à-vis de compute() : aucun événement ne peut être ajouté après
+            DigestEnCours digest = digestsEnCours.remove(cle);
+            if (digest == null) {
+                continue;
+            }
+
+            try {
+                publier(cle, digest);
+            } catch (Exception e) {
+                System.err.println("Erreur publication digest " + cle.type() + " pour l'utilisateur "
+                        + cle.idUtilisateur() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Vider les digests en attente avant l'arrêt de l'application
+     */
+    @PreDestroy
+    public void publierAvantArret() {
+        publierDigests();
+    }
+
+    /**
+     * Nombre d'événements en attente de publication
+     */
+    public int getNombreEvenementsEnAttente() {
+        return digestsEnCours.values().stream()
+                .mapToInt(DigestEnCours::getNombreEvenements)
+                .sum();
+    }
+
+    private void publier(CleDigest cle, DigestEnCours digest) {
+        Utilisateur utilisateur = utilisateurRepository.findById(cle.idUtilisateur()).orElse(null);
+        if (utilisateur == null) {
+            return;
+        }
+
+        // Un seul événement dans la fenêtre : on conserve la notification détaillée habituelle
+        if (digest.getNombreEvenements() == 1) {
+            notificationService.notifierDonRecu(utilisateur, digest.getDernierDonateur(),
+                    digest.getMontantTotal(), digest.getDernierProjet());
+            emailService.envoyerEmailDonRecu(utilisateur, digest.getDernierDonateur(),
+                    digest.getMontantTotal(), digest.getDernierProjet());
+            return;
+        }
+
+        Notification notification = Notification.creerNotificationDigestDonsRecus(
+                utilisateur,
+                digest.getNombreEvenements(),
+                digest.getMontantTotal(),
+                digest.getMontantsParProjet().size()
+        );
+        notificationRepository.save(notification);
+
+        emailService.envoyerEmailDigestDonsRecus(
+                utilisateur,
+                digest.getNombreEvenements(),
+                digest.getMontantTotal(),
+                digest.getMontantsParProjet()
+        );
+    }
+
+    private record CleDigest(Long idUtilisateur, TypeNotification type) {
+    }
+
+    /**
+     * Accumulateur d'une fenêtre ; modifié uniquement depuis compute() de la map
+     */
+    private static class DigestEnCours {
+        private int nombreEvenements;
+        private double montantTotal;
+        private final Map<String, Double> montantsParProjet = new LinkedHashMap<>();
+        private String dernierDonateur;
+        private String dernierProjet;
+
+        void ajouter(String nomDonateur, Double montant, String nomProjet) {
+            double valeur = montant != null ? montant : 0.0;
+            nombreEvenements++;
+            montantTotal += valeur;
+            montantsParProjet.merge(nomProjet, valeur, Double::sum);
+            dernierDonateur = nomDonateur;
+            dernierProjet = nomProjet;
+        }
+
+        int getNombreEvenements() { return nombreEvenements; }
+        double getMontantTotal() { return montantTotal; }
+        Map<String, Double> getMontantsParProjet() { return montantsParProjet; }
+        String getDernierDonateur() { return dernierDonateur; }
+        String getDernierProjet() { return dernierProjet; }
+    }
+}
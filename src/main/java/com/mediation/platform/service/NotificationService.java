@@ -6,14 +6,19 @@ import com.mediation.platform.enums.RoleUtilisateur;
 import com.mediation.platform.enums.TypeNotification;
 import com.mediation.platform.repository.NotificationRepository;
 import com.mediation.platform.repository.UtilisateurRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @Service
 @Transactional
+@Timed("service.methodes")
 public class NotificationService {
 
     @Autowired
@@ -22,6 +27,10 @@ public class NotificationService {
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    // Nombre maximal d'identifiants par clause IN (limite des paramètres liés côté base)
+    @Value("${app.notifications.taille-lot-in:1000}")
+    private int tailleLotIn;
+
     /**
      * Créer une notification
      */
@@ -152,4 +161,41 @@ public class NotificationService {
     public void supprimerNotification(Long notificationId) {
         notificationRepository.deleteById(notificationId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Marquer une liste de notifications comme lues (limitée à l'utilisateur)
+     */
+    public int marquerCommeLues(Utilisateur utilisateur, List<Long> notificationIds) {
+        int total = 0;
+        for (List<Long> lot : decouperEnLots(notificationIds)) {
+            total += notificationRepository.markAsReadByIdsForUser(lot, utilisateur);
+        }
+        return total;
+    }
+
+    /**
+     * Supprimer une liste de notifications (limitée à l'utilisateur)
+     */
+    public int supprimerNotifications(Utilisateur utilisateur, List<Long> notificationIds) {
+        int total = 0;
+        for (List<Long> lot : decouperEnLots(notificationIds)) {
+            total += notificationRepository.deleteByIdsForUser(lot, utilisateur);
+        }
+        return total;
+    }
+
+    /**
+     * Dédoublonner les identifiants et les découper en lots pour les clauses IN
+     */
+    private List<List<Long>> decouperEnLots(List<Long> notificationIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(notificationIds));
+        ids.removeIf(id -> id == null);
+
+        int taille = Math.max(1, tailleLotIn);
+        List<List<Long>> lots = new ArrayList<>();
+        for (int debut = 0; debut < ids.size(); debut += taille) {
+            lots.add(ids.subList(debut, Math.min(debut + taille, ids.size())));
+        }
+        return lots;
+    }
+}
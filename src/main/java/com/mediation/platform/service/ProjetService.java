@@ -1,21 +1,43 @@
 package com.mediation.platform.service;
 
+import com.mediation.platform.cache.VersionsPubliques;
+import com.mediation.platform.classement.Classement;
+import com.mediation.platform.classement.Classements;
+import com.mediation.platform.dto.response.PageResultats;
+import com.mediation.platform.dto.response.ProjetClasse;
+import com.mediation.platform.dto.response.ProjetResume;
+import com.mediation.platform.dto.response.ProjetsFacettes;
 import com.mediation.platform.entity.Association;
 import com.mediation.platform.entity.Projet;
 import com.mediation.platform.enums.StatutProjet;
 import com.mediation.platform.exception.BusinessException;
 import com.mediation.platform.exception.ResourceNotFoundException;
+import com.mediation.platform.recherche.FacettesProjets;
+import com.mediation.platform.recherche.IndexAutocompletion;
+import com.mediation.platform.recherche.IndexFacettes;
+import com.mediation.platform.recherche.MoteurRechercheProjets;
+import com.mediation.platform.recherche.ResultatsRecherche;
 import com.mediation.platform.repository.ProjetRepository;
+import com.mediation.platform.routage.LectureRapport;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("service.methodes")
 public class ProjetService {
 
     @Autowired
@@ -27,6 +49,30 @@ public class ProjetService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private MoteurRechercheProjets moteurRechercheProjets;
+
+    @Autowired
+    private CacheEntitesService cacheEntitesService;
+
+    @Autowired
+    private AgregatsService agregatsService;
+
+    @Autowired
+    private Classements classements;
+
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
+    @Autowired
+    private IndexAutocompletion indexAutocompletion;
+
+    @Autowired
+    private FacettesProjets facettesProjets;
+
+    @Value("${app.recherche.limite-mot-cle:50}")
+    private int limiteRechercheMotCle;
+
     /**
      * Trouver un projet par ID
      */
@@ -49,6 +95,29 @@ public class ProjetService {
         return projetRepository.findByStatutOrderByDateCreationDesc(StatutProjet.EN_COURS);
     }
 
+    /**
+     * Projets d'un statut pour les listes publiques (une requête, quel que soit leur nombre)
+     */
+    @Transactional(readOnly = true)
+    public List<ProjetResume> findResumesByStatut(StatutProjet statut) {
+        return projetRepository.findResumesByStatut(statut);
+    }
+
+    @Transactional(readOnly = true)
+    public ProjetResume getResume(Long id) {
+        return projetRepository.findResumeById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Projet non trouvé avec l'ID: " + id));
+    }
+
+    /**
+     * Valeurs dont dépend le résumé d'un projet, lues sans le charger (ETag de la fiche publique)
+     */
+    @Transactional(readOnly = true)
+    public Object[] getValidateurResume(Long id) {
+        return projetRepository.findValidateurResume(id).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Projet non trouvé avec l'ID: " + id));
+    }
+
     /**
      * Sauvegarder un projet
      */
@@ -74,7 +143,13 @@ public class ProjetService {
             projet.setDateDebut(LocalDate.now());
         }
 
+        boolean nouveau = projet.getIdProjet() == null;
         Projet savedProjet = projetRepository.save(projet);
+        if (nouveau && savedProjet.getAssociation() != null && savedProjet.getMontantCollecte() > 0) {
+            agregatsService.montantProjetModifie(savedProjet.getAssociation().getIdUtilisateur());
+        }
+        moteurRechercheProjets.indexer(savedProjet);
+        indexerProjet(savedProjet);
 
         // Notifier les administrateurs du nouveau projet
         try {
@@ -117,7 +192,10 @@ public class ProjetService {
             projet.setImages(projetData.getImages());
         }
 
-        return projetRepository.save(projet);
+        Projet savedProjet = projetRepository.save(projet);
+        moteurRechercheProjets.indexer(savedProjet);
+        indexerProjet(savedProjet);
+        return savedProjet;
     }
 
     /**
@@ -127,6 +205,26 @@ public class ProjetService {
         Projet projet = findById(id);
         projet.setStatut(StatutProjet.ANNULE);
         projetRepository.save(projet);
+        indexerProjet(projet);
+        cacheEntitesService.evincerProjet(id);
+    }
+
+    /**
+     * Navigation par facettes : filtres combinés (OU dans une facette, ET entre facettes),
+     * projets les plus récents d'abord et comptage par valeur
+     */
+    @Transactional(readOnly = true)
+    public ProjetsFacettes parcourir(Map<String, Set<String>> filtres, int page, int taille) {
+        IndexFacettes.Resultat resultat = facettesProjets.rechercher(filtres, page, taille);
+
+        Map<Long, ProjetResume> projetsParId = resumesParId(resultat.getIds());
+        List<ProjetResume> contenu = resultat.getIds().stream()
+                .map(projetsParId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new ProjetsFacettes(new PageResultats<>(contenu, resultat.getTotal(), page, taille),
+                resultat.getComptages());
     }
 
     /**
@@ -144,10 +242,43 @@ public class ProjetService {
     }
 
     /**
-     * Rechercher projets par mot-clé
+     * Rechercher projets par mot-clé (meilleurs résultats de la recherche plein texte)
      */
-    public List<Projet> searchByKeyword(String keyword) {
-        return projetRepository.searchByKeyword(keyword);
+    public List<ProjetResume> searchByKeyword(String keyword) {
+        return rechercher(keyword, 0, limiteRechercheMotCle).getContenu().stream()
+                .map(ProjetClasse::getProjet)
+                .toList();
+    }
+
+    /**
+     * Recherche plein texte classée et paginée (titre, objectif, description)
+     */
+    @Transactional(readOnly = true)
+    public PageResultats<ProjetClasse> rechercher(String requete, int page, int taille) {
+        ResultatsRecherche resultats = moteurRechercheProjets.rechercher(requete, page, taille);
+
+        List<Long> ids = resultats.getResultats().stream().map(ResultatsRecherche.Resultat::getId).toList();
+        Map<Long, ProjetResume> projetsParId = resumesParId(ids);
+
+        // Conserver l'ordre de pertinence du moteur
+        List<ProjetClasse> contenu = new ArrayList<>(ids.size());
+        for (ResultatsRecherche.Resultat resultat : resultats.getResultats()) {
+            ProjetResume projet = projetsParId.get(resultat.getId());
+            if (projet != null) {
+                contenu.add(new ProjetClasse(projet, resultat.getScore()));
+            }
+        }
+
+        return new PageResultats<>(contenu, resultats.getTotal(), page, taille);
+    }
+
+    // Résumés des projets trouvés en une requête (sans chargement paresseux par projet)
+    private Map<Long, ProjetResume> resumesParId(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return projetRepository.findResumesByIds(ids).stream()
+                .collect(Collectors.toMap(ProjetResume::getIdProjet, Function.identity()));
     }
 
     /**
@@ -172,10 +303,30 @@ public class ProjetService {
     }
 
     /**
-     * Top projets par montant collecté
+     * Résumés des projets proches de l'objectif (liste publique)
      */
-    public List<Projet> findTopProjects() {
-        return projetRepository.findTopProjectsByAmount();
+    @Transactional(readOnly = true)
+    public List<ProjetResume> findResumesProchesObjectif(double pourcentage) {
+        return projetRepository.findResumesProchesObjectif(pourcentage);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProjetResume> findResumesEnRetard() {
+        return projetRepository.findResumesEnRetard(LocalDate.now());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProjetResume> findResumesRecents(LocalDateTime dateDebut) {
+        return projetRepository.findResumesRecents(dateDebut);
+    }
+
+    /**
+     * Meilleurs projets (montant des dons validés), lus dans le classement en mémoire
+     */
+    @Transactional(readOnly = true)
+    public List<ProjetResume> findTopProjects(int nombre) {
+        List<Classement.Entree> top = classements.top(Classements.Type.PROJETS, nombre);
+        return Classements.ordonner(top, resumesParId(top.stream().map(Classement.Entree::getId).toList()));
     }
 
     /**
@@ -186,6 +337,7 @@ public class ProjetService {
 
         projet.setStatut(StatutProjet.TERMINE);
         Projet savedProjet = projetRepository.save(projet);
+        indexerProjet(savedProjet);
 
         // Envoyer notifications
         try {
@@ -217,6 +369,7 @@ public class ProjetService {
         projet.setStatut(StatutProjet.SUSPENDU);
 
         Projet savedProjet = projetRepository.save(projet);
+        indexerProjet(savedProjet);
 
         // Notifier l'association
         try {
@@ -247,6 +400,7 @@ public class ProjetService {
 
         projet.setStatut(StatutProjet.EN_COURS);
         Projet savedProjet = projetRepository.save(projet);
+        indexerProjet(savedProjet);
 
         // Notifier l'association
         try {
@@ -275,6 +429,7 @@ public class ProjetService {
             if (projet.getStatut() == StatutProjet.EN_COURS) {
                 projet.setStatut(StatutProjet.ANNULE);
                 projetRepository.save(projet);
+                indexerProjet(projet);
 
                 // Notifier l'association
                 try {
@@ -333,6 +488,8 @@ public class ProjetService {
     /**
      * Statistiques générales des projets
      */
+    @LectureRapport
+    @Transactional(readOnly = true)
     public ProjetStats getGeneralStats() {
         List<Projet> allProjets = findAll();
 
@@ -384,7 +541,19 @@ public class ProjetService {
             }
         }
 
-        return projetRepository.save(projet);
+        Projet savedProjet = projetRepository.save(projet);
+        if (savedProjet.getAssociation() != null) {
+            agregatsService.montantProjetModifie(savedProjet.getAssociation().getIdUtilisateur());
+        }
+        indexerProjet(savedProjet);
+        return savedProjet;
+    }
+
+    // Index en mémoire dérivés des projets (autocomplétion, facettes)
+    private void indexerProjet(Projet projet) {
+        indexAutocompletion.indexerProjet(projet);
+        facettesProjets.indexerProjet(projet);
+        versionsPubliques.incrementer(VersionsPubliques.PROJETS);
     }
 
     /**
@@ -411,6 +580,8 @@ public class ProjetService {
     /**
      * Calculer les tendances des projets
      */
+    @LectureRapport
+    @Transactional(readOnly = true)
     public TendancesProjets calculerTendances() {
         LocalDateTime maintenant = LocalDateTime.now();
         LocalDateTime debutMoisActuel = maintenant.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
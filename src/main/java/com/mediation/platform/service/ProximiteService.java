@@ -0,0 +1,313 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.dto.response.AssociationResume;
+import com.mediation.platform.dto.response.ElementProche;
+import com.mediation.platform.dto.response.ProjetResume;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.recherche.ApresCommit;
+import com.mediation.platform.recherche.Gazetteer;
+import com.mediation.platform.recherche.IndexGeographique;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Géocodage des adresses (gazetteer local) et recherche de proximité : les associations
+ * validées et géocodées sont tenues dans un index en grille ; les projets proches sont
+ * ceux des associations proches, les donateurs sont filtrés en base par rectangle.
+ */
+@Service
+@Transactional
+public class ProximiteService {
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.geo.geocoder-au-demarrage:true}")
+    private boolean geocoderAuDemarrage;
+
+    @Value("${app.geo.taille-lot:500}")
+    private int tailleLot;
+
+    private final IndexGeographique indexAssociations;
+
+    public ProximiteService(@Value("${app.geo.taille-cellule:0.1}") double tailleCellule) {
+        this.indexAssociations = new IndexGeographique(tailleCellule);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        if (geocoderAuDemarrage) {
+            RapportGeocodage associations = geocoderAssociations(false);
+            RapportGeocodage donateurs = geocoderDonateurs(false);
+            System.out.println("Géocodage au démarrage : " + associations.getGeocodes() + " associations, "
+                    + donateurs.getGeocodes() + " donateurs");
+        }
+        reconstruire();
+    }
+
+    /**
+     * Recharger l'index des associations validées et géocodées
+     */
+    @Transactional(readOnly = true)
+    public void reconstruire() {
+        indexAssociations.vider();
+        for (Association association : associationRepository.findByStatutValidationTrueAndLatitudeIsNotNull()) {
+            indexAssociations.placer(association.getIdUtilisateur(), association.getLatitude(), association.getLongitude());
+        }
+    }
+
+    /**
+     * Géocoder par lots les associations sans coordonnées (toutes si forcer)
+     */
+    public RapportGeocodage geocoderAssociations(boolean forcer) {
+        long debut = System.currentTimeMillis();
+        RapportGeocodage rapport = new RapportGeocodage();
+        Long dernierId = 0L;
+        List<Association> lot;
+        do {
+            lot = associationRepository.findByIdUtilisateurGreaterThanOrderByIdUtilisateur(dernierId, PageRequest.of(0, tailleLot));
+            for (Association association : lot) {
+                dernierId = association.getIdUtilisateur();
+                if (forcer || association.getLatitude() == null) {
+                    rapport.compter(geocoder(association));
+                }
+            }
+            // Lot suivant sans garder les entités déjà traitées en mémoire
+            entityManager.flush();
+            entityManager.clear();
+        } while (lot.size() == tailleLot);
+
+        // Coordonnées posées ou effacées : l'index suit la base une fois le lot validé
+        if (rapport.getTraites() > 0) {
+            ApresCommit.executer(this::reconstruire);
+        }
+        rapport.setDureeMs(System.currentTimeMillis() - debut);
+        return rapport;
+    }
+
+    /**
+     * Géocoder par lots les donateurs sans coordonnées (tous si forcer)
+     */
+    public RapportGeocodage geocoderDonateurs(boolean forcer) {
+        long debut = System.currentTimeMillis();
+        RapportGeocodage rapport = new RapportGeocodage();
+        Long dernierId = 0L;
+        List<Donateur> lot;
+        do {
+            lot = donateurRepository.findByIdUtilisateurGreaterThanOrderByIdUtilisateur(dernierId, PageRequest.of(0, tailleLot));
+            for (Donateur donateur : lot) {
+                dernierId = donateur.getIdUtilisateur();
+                if (forcer || donateur.getLatitude() == null) {
+                    rapport.compter(geocoder(donateur));
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } while (lot.size() == tailleLot);
+
+        rapport.setDureeMs(System.currentTimeMillis() - debut);
+        return rapport;
+    }
+
+    /**
+     * Coordonnées de l'association d'après son adresse (effacées si l'adresse n'est pas reconnue)
+     */
+    public boolean geocoder(Association association) {
+        Optional<Gazetteer.Lieu> lieu = gazetteer.localiser(association.getAdresse());
+        association.setLatitude(lieu.map(Gazetteer.Lieu::getLatitude).orElse(null));
+        association.setLongitude(lieu.map(Gazetteer.Lieu::getLongitude).orElse(null));
+        return lieu.isPresent();
+    }
+
+    public boolean geocoder(Donateur donateur) {
+        Optional<Gazetteer.Lieu> lieu = gazetteer.localiser(donateur.getAdresse());
+        donateur.setLatitude(lieu.map(Gazetteer.Lieu::getLatitude).orElse(null));
+        donateur.setLongitude(lieu.map(Gazetteer.Lieu::getLongitude).orElse(null));
+        return lieu.isPresent();
+    }
+
+    public Optional<Gazetteer.Lieu> localiserVille(String ville) {
+        return gazetteer.localiser(ville);
+    }
+
+    /**
+     * Centre d'une recherche : coordonnées explicites, sinon ville du gazetteer
+     */
+    public Optional<Gazetteer.Lieu> resoudreCentre(Double latitude, Double longitude, String ville) {
+        if (latitude != null && longitude != null) {
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                throw new IllegalArgumentException("Coordonnées invalides");
+            }
+            return Optional.of(new Gazetteer.Lieu("position", latitude, longitude));
+        }
+        return ville != null && !ville.isBlank() ? gazetteer.localiser(ville) : Optional.empty();
+    }
+
+    /**
+     * Prendre en compte une association créée ou modifiée (hors index si non validée ou non géocodée)
+     */
+    public void indexerAssociation(Association association) {
+        if (association.getIdUtilisateur() == null) {
+            return;
+        }
+        long id = association.getIdUtilisateur();
+        if (association.estValidee() && association.getLatitude() == null) {
+            geocoder(association);
+        }
+        Double latitude = association.getLatitude();
+        Double longitude = association.getLongitude();
+        if (association.estValidee() && latitude != null && longitude != null) {
+            ApresCommit.executer(() -> indexAssociations.placer(id, latitude, longitude));
+        } else {
+            ApresCommit.executer(() -> indexAssociations.retirer(id));
+        }
+    }
+
+    public void retirerAssociation(Long idAssociation) {
+        if (idAssociation != null) {
+            ApresCommit.executer(() -> indexAssociations.retirer(idAssociation));
+        }
+    }
+
+    /**
+     * Associations validées à moins de rayonKm, de la plus proche à la plus éloignée
+     */
+    @Transactional(readOnly = true)
+    public List<ElementProche<AssociationResume>> associationsProches(double latitude, double longitude,
+                                                                      double rayonKm, int limite) {
+        List<IndexGeographique.Voisin> voisins = indexAssociations.autourDe(latitude, longitude, rayonKm, limite);
+        if (voisins.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = voisins.stream().map(IndexGeographique.Voisin::getId).toList();
+        Map<Long, AssociationResume> parId = associationRepository.findResumesByIds(ids).stream()
+                .collect(Collectors.toMap(AssociationResume::getIdUtilisateur, Function.identity()));
+
+        List<ElementProche<AssociationResume>> resultats = new ArrayList<>(voisins.size());
+        for (IndexGeographique.Voisin voisin : voisins) {
+            AssociationResume association = parId.get(voisin.getId());
+            if (association != null) {
+                resultats.add(new ElementProche<>(association, arrondir(voisin.getDistanceKm())));
+            }
+        }
+        return resultats;
+    }
+
+    /**
+     * Identifiants des associations validées à moins de rayonKm, de la plus proche à la plus éloignée
+     */
+    public List<Long> idsAssociationsProches(double latitude, double longitude, double rayonKm, int limite) {
+        return indexAssociations.autourDe(latitude, longitude, rayonKm, limite).stream()
+                .map(IndexGeographique.Voisin::getId)
+                .toList();
+    }
+
+    /**
+     * Projets en cours des associations situées à moins de rayonKm, les plus proches d'abord
+     */
+    @Transactional(readOnly = true)
+    public List<ElementProche<ProjetResume>> projetsProches(double latitude, double longitude, double rayonKm, int limite) {
+        Map<Long, Double> distanceParAssociation = new HashMap<>();
+        for (IndexGeographique.Voisin voisin : indexAssociations.autourDe(latitude, longitude, rayonKm, 0)) {
+            distanceParAssociation.put(voisin.getId(), voisin.getDistanceKm());
+        }
+        if (distanceParAssociation.isEmpty()) {
+            return List.of();
+        }
+
+        return projetRepository.findResumesByAssociationsEtStatut(distanceParAssociation.keySet(), StatutProjet.EN_COURS)
+                .stream()
+                .map(projet -> new ElementProche<>(projet,
+                        arrondir(distanceParAssociation.get(projet.getIdAssociation()))))
+                .sorted(Comparator.comparingDouble((ElementProche<ProjetResume> e) -> e.getDistanceKm())
+                        .thenComparing(e -> -e.getElement().getMontantCollecte()))
+                .limit(limite)
+                .toList();
+    }
+
+    /**
+     * Donateurs géocodés à moins de rayonKm : rectangle englobant en base, puis distance exacte
+     */
+    @Transactional(readOnly = true)
+    public List<Donateur> donateursProches(double latitude, double longitude, double rayonKm) {
+        double deltaLatitude = rayonKm / 111.2;
+        double deltaLongitude = rayonKm / (111.2 * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        return donateurRepository.findByLatitudeBetweenAndLongitudeBetween(
+                        latitude - deltaLatitude, latitude + deltaLatitude,
+                        longitude - deltaLongitude, longitude + deltaLongitude)
+                .stream()
+                .filter(d -> IndexGeographique.distanceKm(latitude, longitude, d.getLatitude(), d.getLongitude()) <= rayonKm)
+                .toList();
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("associationsIndexees", indexAssociations.getNombrePoints());
+        stats.put("cellulesOccupees", indexAssociations.getNombreCellules());
+        stats.put("nomsGazetteer", gazetteer.getNombreNoms());
+        return stats;
+    }
+
+    private static double arrondir(double distanceKm) {
+        return Math.round(distanceKm * 100.0) / 100.0;
+    }
+
+    /**
+     * Résultat d'un géocodage par lots
+     */
+    public static class RapportGeocodage {
+        private int traites;
+        private int geocodes;
+        private int introuvables;
+        private long dureeMs;
+
+        void compter(boolean trouve) {
+            traites++;
+            if (trouve) {
+                geocodes++;
+            } else {
+                introuvables++;
+            }
+        }
+
+        public int getTraites() { return traites; }
+        public int getGeocodes() { return geocodes; }
+        public int getIntrouvables() { return introuvables; }
+        public long getDureeMs() { return dureeMs; }
+        public void setDureeMs(long dureeMs) { this.dureeMs = dureeMs; }
+    }
+}
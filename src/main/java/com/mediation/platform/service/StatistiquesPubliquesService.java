@@ -0,0 +1,234 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.cache.ReponsesPubliques;
+import com.mediation.platform.cache.VersionsPubliques;
+import com.mediation.platform.dto.response.ApiResponse;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Instantané des statistiques publiques : recalculé en arrière-plan à intervalle fixe et peu
+ * après les écritures (au plus une fois par délai minimal), conservé sous forme de JSON déjà
+ * sérialisé. Les requêtes anonymes ne lisent que cet instantané et n'atteignent jamais la base.
+ * L'ETag est une empreinte des statistiques : un recalcul aux mêmes chiffres garde l'instantané
+ * (ETag et Last-Modified), les GET conditionnels des clients restent en 304.
+ */
+@Service
+public class StatistiquesPubliquesService {
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
+    @Autowired
+    private ReponsesPubliques reponsesPubliques;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.statistiques.publiques.delai-min-ms:5000}")
+    private long delaiMinMs;
+
+    private final AtomicBoolean rafraichissementPlanifie = new AtomicBoolean();
+    private volatile Instantane instantane;
+    private long numero;
+    private long inchanges;
+    private long echecs;
+
+    @PostConstruct
+    public void initialiser() {
+        versionsPubliques.ecouter(collection -> {
+            if (VersionsPubliques.PROJETS.equals(collection) || VersionsPubliques.ASSOCIATIONS.equals(collection)
+                    || VersionsPubliques.DONS.equals(collection)) {
+                signalerModification();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calculerAuDemarrage() {
+        rafraichir();
+    }
+
+    /**
+     * Recalcul périodique, même sans écriture (taux et montants dépendent aussi du temps)
+     */
+    @Scheduled(fixedDelayString = "${app.statistiques.publiques.intervalle-ms:60000}",
+            initialDelayString = "${app.statistiques.publiques.intervalle-ms:60000}")
+    public void rafraichirPeriodiquement() {
+        rafraichir();
+    }
+
+    /**
+     * Une écriture a eu lieu : un seul recalcul planifié à la fois, après le délai minimal
+     */
+    public void signalerModification() {
+        if (rafraichissementPlanifie.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                rafraichissementPlanifie.set(false);
+                rafraichir();
+            }, Instant.now().plusMillis(delaiMinMs));
+        }
+    }
+
+    /**
+     * Recalculer et remplacer l'instantané ; en cas d'erreur, le précédent reste servi
+     */
+    public synchronized void rafraichir() {
+        long debut = System.currentTimeMillis();
+        try {
+            // Une seule transaction en lecture seule pour tout le calcul, sur le primaire : le
+            // recalcul suit les écritures et ne doit pas relire une réplique en retard
+            TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+            lecture.setReadOnly(true);
+            Map<String, Object> donnees = lecture.execute(statut -> calculer());
+            numero++;
+            // Empreinte des seules données : le corps contient aussi l'horodatage de la réponse
+            String etag = "\"statistiques-" + empreinte(reponsesPubliques.serialiser(donnees)) + "\"";
+            if (instantane != null && instantane.getEtag().equals(etag)) {
+                inchanges++;
+                return;
+            }
+            byte[] corps = reponsesPubliques.serialiser(ApiResponse.success("Statistiques publiques", donnees));
+            instantane = new Instantane(etag, System.currentTimeMillis(), System.currentTimeMillis() - debut, corps);
+        } catch (Exception e) {
+            echecs++;
+            System.err.println("Erreur calcul des statistiques publiques: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Instantané courant (calculé ici une seule fois si une requête précède le démarrage complet)
+     */
+    public Instantane getInstantane() {
+        Instantane courant = instantane;
+        if (courant == null) {
+            synchronized (this) {
+                if (instantane == null) {
+                    rafraichir();
+                }
+                courant = instantane;
+            }
+        }
+        if (courant == null) {
+            throw new IllegalStateException("Statistiques publiques indisponibles");
+        }
+        return courant;
+    }
+
+    public synchronized Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calculs", numero);
+        stats.put("calculsInchanges", inchanges);
+        stats.put("echecs", echecs);
+        stats.put("rafraichissementPlanifie", rafraichissementPlanifie.get());
+        if (instantane != null) {
+            stats.put("ageMs", System.currentTimeMillis() - instantane.getDateCalcul());
+            stats.put("dureeDernierCalculMs", instantane.getDureeCalculMs());
+            stats.put("tailleOctets", instantane.getCorps().length);
+        }
+        return stats;
+    }
+
+    /**
+     * Trois requêtes d'agrégat, sans charger d'entité ; clés dans un ordre stable pour l'empreinte
+     */
+    private Map<String, Object> calculer() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        Object[] projets = projetRepository.countParStatut().get(0);
+        Object[] dons = donRepository.agregerValides().get(0);
+        Map<String, Long> associationsParDomaine = new TreeMap<>();
+        long nombreAssociations = 0;
+        for (Object[] ligne : associationRepository.countValideesParDomaine()) {
+            String domaine = ligne[0] != null ? (String) ligne[0] : "Autre";
+            associationsParDomaine.merge(domaine, nombre(ligne[1]), Long::sum);
+            nombreAssociations += nombre(ligne[1]);
+        }
+
+        // Statistiques de base
+        stats.put("nombreAssociations", nombreAssociations);
+        stats.put("nombreProjetsActifs", nombre(projets[1]));
+        stats.put("montantTotalCollecte", ((Number) dons[2]).doubleValue());
+        stats.put("nombreDonateurs", nombre(dons[1]));
+        stats.put("nombreDonsTotal", nombre(dons[0]));
+        stats.put("associationsParDomaine", associationsParDomaine);
+
+        // Projets terminés vs actifs
+        long totalProjets = nombre(projets[0]);
+        long projetsTermines = nombre(projets[2]);
+        stats.put("projetsTermines", projetsTermines);
+        stats.put("tauxReussiteProjets", totalProjets == 0 ? 0.0 : (double) projetsTermines / totalProjets * 100);
+
+        return stats;
+    }
+
+    /**
+     * SUM sur une table vide : null
+     */
+    private static long nombre(Object valeur) {
+        return valeur == null ? 0 : ((Number) valeur).longValue();
+    }
+
+    private static String empreinte(byte[] donnees) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(donnees);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Réponse JSON complète, prête à être servie
+     */
+    public static class Instantane {
+        private final String etag;
+        private final long dateCalcul;
+        private final long dureeCalculMs;
+        private final byte[] corps;
+
+        public Instantane(String etag, long dateCalcul, long dureeCalculMs, byte[] corps) {
+            this.etag = etag;
+            this.dateCalcul = dateCalcul;
+            this.dureeCalculMs = dureeCalculMs;
+            this.corps = corps;
+        }
+
+        public String getEtag() { return etag; }
+        public long getDateCalcul() { return dateCalcul; }
+        public long getDureeCalculMs() { return dureeCalculMs; }
+        public byte[] getCorps() { return corps; }
+    }
+}
@@ -1,6 +1,7 @@
 // ========== StatistiquesService.java COMPLET CORRIGÉ ==========
 package com.mediation.platform.service;
 
+import com.mediation.platform.dto.response.AssociationResume;
 import com.mediation.platform.entity.Association;
 import com.mediation.platform.entity.Donateur;
 import com.mediation.platform.entity.Projet;
@@ -10,16 +11,38 @@ import com.mediation.platform.enums.RoleUtilisateur;
 import com.mediation.platform.enums.StatutDon;
 import com.mediation.platform.enums.StatutProjet;
 import com.mediation.platform.enums.StatutTransaction;
+import com.mediation.platform.routage.ContexteRapport;
+import com.mediation.platform.routage.LectureRapport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
+@Timed("service.methodes")
+@Transactional(readOnly = true)
+@LectureRapport // Rapports : lus sur la réplique quand elle est configurée
 public class StatistiquesService {
 
     @Autowired
@@ -40,6 +63,22 @@ public class StatistiquesService {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("statistiquesExecutor")
+    private ThreadPoolTaskExecutor statistiquesExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.statistiques.tableau-de-bord.parallele:true}")
+    private boolean tableauDeBordParallele;
+
+    @Value("${app.statistiques.tableau-de-bord.timeout-ms:5000}")
+    private long timeoutSectionMs;
+
     /**
      * Statistiques générales de la plateforme
      */
@@ -137,10 +176,12 @@ public class StatistiquesService {
 
         LocalDate dateDebutPrecedente = dateDebut.minusDays(dateFin.toEpochDay() - dateDebut.toEpochDay());
         LocalDate dateFinPrecedente = dateDebut.minusDays(1);
-        Map<String, Object> periodePrecedente = getStatistiquesPeriode(dateDebutPrecedente, dateFinPrecedente);
-
-        Double montantPrecedent = (Double) periodePrecedente.get("montantDonsPeriode");
-        if (montantPrecedent != null && montantPrecedent > 0) {
+        // Seul le montant de la période précédente est utile (un appel récursif ne s'arrêterait jamais)
+        double montantPrecedent = donService.findByPeriod(dateDebutPrecedente, dateFinPrecedente).stream()
+                .filter(don -> don.getStatut() == StatutDon.VALIDE)
+                .mapToDouble(Don::getMontant)
+                .sum();
+        if (montantPrecedent > 0) {
             Double evolution = ((montantPeriode - montantPrecedent) / montantPrecedent) * 100;
             stats.put("evolutionMontant", evolution);
         } else {
@@ -363,8 +404,8 @@ public class StatistiquesService {
         return associationService.findRecentlyValidated(dateDebut);
     }
 
-    public List<Association> findTopAssociations() {
-        return associationService.findTopAssociationsByDonations();
+    public List<AssociationResume> findTopAssociations(int nombre) {
+        return associationService.findTopAssociations(nombre);
     }
 
     /**
@@ -390,13 +431,8 @@ public class StatistiquesService {
         List<Projet> projetsProches = projetService.findNearGoal(0.9);
         rapport.put("projetsProchesObjectif", projetsProches.size());
 
-        List<Association> topAssociations = associationService.findTopAssociations();
-        rapport.put("topAssociations", topAssociations.size() > 5 ?
-                topAssociations.subList(0, 5) : topAssociations);
-
-        List<Donateur> topDonateurs = donateurService.findTopDonators();
-        rapport.put("topDonateurs", topDonateurs.size() > 5 ?
-                topDonateurs.subList(0, 5) : topDonateurs);
+        rapport.put("topAssociations", associationService.findTopAssociations(5));
+        rapport.put("topDonateurs", donateurService.findTopDonators(5));
 
         List<Don> donsRecents = donService.findRecentDonations(debutSemaine);
         rapport.put("donsRecents", donsRecents.size());
@@ -413,29 +449,143 @@ public class StatistiquesService {
     }
 
     /**
-     * Tableau de bord complet pour les administrateurs
+     * Alertes et points d'attention
      */
-    public Map<String, Object> getTableauDeBord() {
-        Map<String, Object> dashboard = new HashMap<>();
-
-        dashboard.put("statistiquesGenerales", getStatistiquesGenerales());
-        dashboard.put("statistiquesFinancieres", getStatistiquesFinancieres());
-        dashboard.put("rapportActivite", getRapportActivite());
-
+    public Map<String, Object> getAlertes() {
         Map<String, Object> alertes = new HashMap<>();
         alertes.put("projetsEnRetard", projetService.findOverdueProjects().size());
         alertes.put("associationsEnAttente", associationService.findPendingAssociations().size());
         alertes.put("transactionsEchouees", transactionService.findByStatut(StatutTransaction.ECHEC).size());
         alertes.put("donsEnAttente", donService.findByStatut(StatutDon.EN_ATTENTE).size());
-        dashboard.put("alertes", alertes);
+        return alertes;
+    }
 
+    /**
+     * Tableau de bord complet pour les administrateurs
+     */
+    public Map<String, Object> getTableauDeBord() {
         LocalDate maintenant = LocalDate.now();
-        Map<String, Object> tendances = getStatistiquesPeriode(maintenant.minusDays(30), maintenant);
-        dashboard.put("tendances30Jours", tendances);
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        sections.put("statistiquesGenerales", this::getStatistiquesGenerales);
+        sections.put("statistiquesFinancieres", this::getStatistiquesFinancieres);
+        sections.put("rapportActivite", this::getRapportActivite);
+        sections.put("alertes", this::getAlertes);
+        sections.put("tendances30Jours", () -> getStatistiquesPeriode(maintenant.minusDays(30), maintenant));
+        return composer(sections);
+    }
 
+    /**
+     * Composer le tableau de bord à partir de ses sections (nom, calcul) : en parallèle ou l'une
+     * après l'autre selon la configuration, avec la durée de chaque section et la durée totale
+     */
+    Map<String, Object> composer(Map<String, Supplier<Object>> sections) {
+        TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Délai de transaction répercuté sur les requêtes : une requête en cours au-delà de
+        // l'échéance est annulée par le pilote JDBC, que l'interruption n'atteint pas
+        lecture.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutSectionMs + 999)));
+
+        long debut = System.nanoTime();
+        Map<String, Long> durees = new ConcurrentHashMap<>();
+        Map<String, Object> dashboard = tableauDeBordParallele
+                ? composerEnParallele(sections, lecture, durees)
+                : composerSequentiellement(sections, lecture, durees);
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> indisponibles = (Map<String, String>) dashboard.get("sectionsIndisponibles");
+        if (!indisponibles.isEmpty()) {
+            System.err.println("Tableau de bord partiel, sections indisponibles: " + indisponibles);
+        }
+        Map<String, Long> dureesOrdonnees = new LinkedHashMap<>();
+        sections.keySet().stream().filter(durees::containsKey).forEach(nom -> dureesOrdonnees.put(nom, durees.get(nom)));
+        dashboard.put("durees", dureesOrdonnees);
+        dashboard.put("dureeTotaleMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut));
         return dashboard;
     }
 
+    /**
+     * Sections l'une après l'autre, chacune dans sa transaction : même forme de résultat qu'en
+     * parallèle, une section en erreur est listée dans sectionsIndisponibles
+     */
+    private Map<String, Object> composerSequentiellement(Map<String, Supplier<Object>> sections,
+                                                         TransactionTemplate lecture, Map<String, Long> durees) {
+        Map<String, Object> dashboard = new HashMap<>();
+        Map<String, String> indisponibles = new LinkedHashMap<>();
+        sections.forEach((nom, section) -> {
+            try {
+                dashboard.put(nom, executerSection(nom, section, lecture, durees));
+            } catch (RuntimeException e) {
+                indisponibles.put(nom, motif(e));
+            }
+        });
+        dashboard.put("sectionsIndisponibles", indisponibles);
+        return dashboard;
+    }
+
+    /**
+     * Sections lancées ensemble, chacune dans sa propre transaction en lecture seule : la durée est
+     * celle de la plus lente. Une section en erreur, hors délai ou refusée par le pool (file pleine)
+     * est absente du résultat et listée dans sectionsIndisponibles, les autres sont rendues
+     * normalement. Une section hors délai est annulée : retirée de la file si elle n'a pas
+     * commencé, son thread interrompu sinon ; une requête déjà en cours s'arrête au délai de
+     * transaction.
+     */
+    private Map<String, Object> composerEnParallele(Map<String, Supplier<Object>> sections,
+                                                    TransactionTemplate lecture, Map<String, Long> durees) {
+        long echeance = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutSectionMs);
+        Map<String, Object> dashboard = new HashMap<>();
+        Map<String, String> indisponibles = new LinkedHashMap<>();
+        Map<String, Future<Object>> enCours = new LinkedHashMap<>();
+        sections.forEach((nom, section) -> {
+            try {
+                // Future du pool (et non CompletableFuture) : cancel(true) interrompt le thread
+                enCours.put(nom, statistiquesExecutor.submit(() -> executerSection(nom, section, lecture, durees)));
+            } catch (TaskRejectedException e) {
+                indisponibles.put(nom, "File du pool de statistiques pleine");
+            }
+        });
+
+        for (Map.Entry<String, Future<Object>> entree : enCours.entrySet()) {
+            String nom = entree.getKey();
+            try {
+                dashboard.put(nom, entree.getValue().get(Math.max(0, echeance - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                entree.getValue().cancel(true);
+                indisponibles.put(nom, "Délai dépassé (" + timeoutSectionMs + " ms)");
+            } catch (ExecutionException e) {
+                indisponibles.put(nom, motif(e.getCause() != null ? e.getCause() : e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                indisponibles.put(nom, "Interrompu");
+            }
+        }
+
+        // Sections dans l'ordre de déclaration, indisponibles compris
+        Map<String, String> ordonnees = new LinkedHashMap<>();
+        sections.keySet().stream().filter(indisponibles::containsKey).forEach(nom -> ordonnees.put(nom, indisponibles.get(nom)));
+        dashboard.put("sectionsIndisponibles", ordonnees);
+        return dashboard;
+    }
+
+    /**
+     * Une section dans sa transaction, convertie en arbre JSON avant la fermeture de la session :
+     * associations paresseuses chargées, résultat détaché de toute entité
+     */
+    private Object executerSection(String nom, Supplier<Object> section, TransactionTemplate lecture,
+                                   Map<String, Long> durees) {
+        long debutSection = System.nanoTime();
+        try {
+            return ContexteRapport.executer(() -> lecture.execute(statut -> objectMapper.valueToTree(section.get())));
+        } finally {
+            durees.put(nom, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debutSection));
+        }
+    }
+
+    private static String motif(Throwable erreur) {
+        return erreur.getMessage() != null ? erreur.getMessage() : erreur.getClass().getSimpleName();
+    }
+
     /**
      * Statistiques pour un rapport PDF/Excel
      */
@@ -449,9 +599,9 @@ public class StatistiquesService {
         rapport.put("statistiquesGenerales", getStatistiquesGenerales());
         rapport.put("statistiquesPeriode", getStatistiquesPeriode(dateDebut, dateFin));
 
-        rapport.put("topAssociations", associationService.findTopAssociations().stream().limit(10).toList());
-        rapport.put("topDonateurs", donateurService.findTopDonators().stream().limit(10).toList());
-        rapport.put("topProjets", projetService.findTopProjects().stream().limit(10).toList());
+        rapport.put("topAssociations", associationService.findTopAssociations(10));
+        rapport.put("topDonateurs", donateurService.findTopDonators(10));
+        rapport.put("topProjets", projetService.findTopProjects(10));
 
         List<Transaction> transactionsPeriode = transactionService.findByPeriod(
                 dateDebut.atStartOfDay(),
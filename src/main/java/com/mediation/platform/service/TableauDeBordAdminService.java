@@ -0,0 +1,274 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.routage.ContexteRapport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Tableau de bord administrateur en quatre requêtes agrégées (une par table principale,
+ * comptages par FILTER), lancées en parallèle sur un pool borné. Remplace la vingtaine
+ * de requêtes et les findAll() des getGeneralStats() ; les chiffres sont identiques.
+ * Chaque requête s'exécute dans une transaction en lecture seule de rapport (réplique si configurée).
+ */
+@Service
+public class TableauDeBordAdminService {
+
+    // Mêmes seuils que Donateur.estDonateurRegulier / estGrossDonateur / estDonateurActif
+    private static final int DONS_DONATEUR_REGULIER = 3;
+    private static final double MONTANT_GROS_DONATEUR = 1000.0;
+    private static final int MOIS_DONATEUR_ACTIF = 3;
+
+    private static final String REQUETE_UTILISATEURS =
+            "SELECT (SELECT count(*) FROM utilisateurs) AS total, " +
+            "(SELECT count(*) FROM donateurs) AS donateurs, " +
+            "count(*) AS associations, " +
+            "count(*) FILTER (WHERE a.statut_validation) AS validees, " +
+            "count(*) FILTER (WHERE NOT a.statut_validation) AS en_attente, " +
+            "count(*) FILTER (WHERE EXISTS (SELECT 1 FROM projets p " +
+            "WHERE p.id_association = a.id_utilisateur AND p.statut = 'EN_COURS')) AS avec_projets_actifs " +
+            "FROM associations a";
+
+    private static final String REQUETE_PROJETS =
+            "SELECT count(*) AS total, " +
+            "count(*) FILTER (WHERE p.statut = 'EN_COURS') AS actifs, " +
+            "count(*) FILTER (WHERE p.statut = 'TERMINE') AS termines, " +
+            "count(*) FILTER (WHERE p.statut = 'TERMINE' OR p.montant_collecte >= p.montant_demande) AS objectifs_atteints, " +
+            "count(*) FILTER (WHERE p.statut = 'EN_COURS' AND p.date_fin < CURRENT_DATE) AS en_retard, " +
+            "count(*) FILTER (WHERE p.date_fin < CURRENT_DATE AND p.statut <> 'TERMINE' " +
+            "AND p.montant_collecte < p.montant_demande) AS en_retard_objectif, " +
+            "coalesce(sum(p.montant_demande), 0) AS montant_demande, " +
+            "coalesce(sum(p.montant_collecte), 0) AS montant_collecte, " +
+            "count(*) FILTER (WHERE a.statut_validation) AS projets_associations_validees, " +
+            "coalesce(sum(p.montant_collecte) FILTER (WHERE a.statut_validation), 0) AS collecte_associations_validees, " +
+            "count(*) FILTER (WHERE p.date_creation >= ?) AS crees_ce_mois, " +
+            "count(*) FILTER (WHERE p.date_creation >= ? AND p.date_creation < ?) AS crees_mois_precedent " +
+            "FROM projets p JOIN associations a ON a.id_utilisateur = p.id_association";
+
+    private static final String REQUETE_DONS =
+            "SELECT count(*) AS total, " +
+            "count(*) FILTER (WHERE d.statut = 'VALIDE') AS valides, " +
+            "count(*) FILTER (WHERE d.statut = 'EN_ATTENTE') AS en_attente, " +
+            "count(*) FILTER (WHERE d.statut = 'REFUSE') AS refuses, " +
+            "count(*) FILTER (WHERE d.anonyme) AS anonymes, " +
+            "coalesce(sum(d.montant) FILTER (WHERE d.statut = 'VALIDE'), 0) AS montant_total, " +
+            "coalesce(max(d.montant) FILTER (WHERE d.statut = 'VALIDE'), 0) AS don_maximum, " +
+            "count(DISTINCT d.id_donateur) FILTER (WHERE d.statut = 'VALIDE') AS donateurs_uniques, " +
+            "count(*) FILTER (WHERE d.date BETWEEN ? AND ?) AS dons_ce_mois, " +
+            "count(*) FILTER (WHERE d.date BETWEEN ? AND ?) AS dons_mois_precedent, " +
+            "coalesce(sum(d.montant) FILTER (WHERE d.statut = 'VALIDE' AND d.date BETWEEN ? AND ?), 0) AS montant_ce_mois, " +
+            "coalesce(sum(d.montant) FILTER (WHERE d.statut = 'VALIDE' AND d.date BETWEEN ? AND ?), 0) AS montant_mois_precedent " +
+            "FROM dons d";
+
+    private static final String REQUETE_DONATEURS =
+            "SELECT count(*) AS total, " +
+            "count(*) FILTER (WHERE s.dernier_don_valide > ?) AS actifs, " +
+            "count(*) FILTER (WHERE s.dons_valides >= ?) AS reguliers, " +
+            "count(*) FILTER (WHERE s.montant_valide >= ?) AS gros, " +
+            "coalesce(sum(s.montant_valide), 0) AS montant_total " +
+            "FROM (SELECT dn.id_utilisateur, " +
+            "count(d.id_don) FILTER (WHERE d.statut = 'VALIDE') AS dons_valides, " +
+            "coalesce(sum(d.montant) FILTER (WHERE d.statut = 'VALIDE'), 0) AS montant_valide, " +
+            "max(d.date) FILTER (WHERE d.statut = 'VALIDE') AS dernier_don_valide " +
+            "FROM donateurs dn LEFT JOIN dons d ON d.id_donateur = dn.id_utilisateur " +
+            "GROUP BY dn.id_utilisateur) s";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("tableauDeBordExecutor")
+    private ThreadPoolTaskExecutor tableauDeBordExecutor;
+
+    /**
+     * Toutes les sections du tableau de bord, avec la durée de chacune (ms)
+     */
+    public Map<String, Object> calculer() {
+        long debut = System.nanoTime();
+        LocalDate aujourdhui = LocalDate.now();
+        LocalDate debutMois = aujourdhui.withDayOfMonth(1);
+        LocalDate debutMoisPrecedent = debutMois.minusMonths(1);
+        LocalDate finMoisPrecedent = debutMois.minusDays(1);
+        LocalDateTime debutMoisHeure = debutMois.atStartOfDay();
+        LocalDateTime debutMoisPrecedentHeure = debutMoisPrecedent.atStartOfDay();
+
+        CompletableFuture<Section> utilisateurs = lancer(() -> jdbcTemplate.queryForMap(REQUETE_UTILISATEURS));
+        CompletableFuture<Section> projets = lancer(() -> jdbcTemplate.queryForMap(REQUETE_PROJETS,
+                debutMoisHeure, debutMoisPrecedentHeure, debutMoisHeure));
+        CompletableFuture<Section> dons = lancer(() -> jdbcTemplate.queryForMap(REQUETE_DONS,
+                debutMois, aujourdhui, debutMoisPrecedent, finMoisPrecedent,
+                debutMois, aujourdhui, debutMoisPrecedent, finMoisPrecedent));
+        CompletableFuture<Section> donateurs = lancer(() -> jdbcTemplate.queryForMap(REQUETE_DONATEURS,
+                aujourdhui.minusMonths(MOIS_DONATEUR_ACTIF), DONS_DONATEUR_REGULIER, MONTANT_GROS_DONATEUR));
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        Map<String, Object> durees = new LinkedHashMap<>();
+        try {
+            Section u = utilisateurs.join();
+            Section p = projets.join();
+            Section d = dons.join();
+            Section dn = donateurs.join();
+
+            remplirUtilisateursEtAssociations(dashboard, u.ligne, p.ligne);
+            remplirProjets(dashboard, p.ligne);
+            remplirDons(dashboard, d.ligne);
+            remplirDonateurs(dashboard, dn.ligne);
+
+            durees.put("utilisateurs", u.dureeMs);
+            durees.put("projets", p.dureeMs);
+            durees.put("dons", d.dureeMs);
+            durees.put("donateurs", dn.dureeMs);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        durees.put("total", (System.nanoTime() - debut) / 1_000_000);
+        dashboard.put("durees", durees);
+        return dashboard;
+    }
+
+    private CompletableFuture<Section> lancer(Supplier<Map<String, Object>> requete) {
+        TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        return CompletableFuture.supplyAsync(() -> {
+            long debut = System.nanoTime();
+            Map<String, Object> ligne = ContexteRapport.executer(() -> lecture.execute(statut -> requete.get()));
+            return new Section(ligne, (System.nanoTime() - debut) / 1_000_000);
+        }, tableauDeBordExecutor);
+    }
+
+    private void remplirUtilisateursEtAssociations(Map<String, Object> dashboard,
+                                                   Map<String, Object> u, Map<String, Object> p) {
+        Map<String, Object> utilisateurs = new HashMap<>();
+        utilisateurs.put("total", entier(u, "total"));
+        utilisateurs.put("donateurs", entier(u, "donateurs"));
+        utilisateurs.put("associations", entier(u, "associations"));
+        utilisateurs.put("associationsEnAttente", entier(u, "en_attente"));
+        dashboard.put("utilisateurs", utilisateurs);
+
+        AssociationService.AssociationStats stats = new AssociationService.AssociationStats();
+        stats.setTotalAssociations((int) entier(u, "associations"));
+        stats.setAssociationsValidees((int) entier(u, "validees"));
+        stats.setAssociationsEnAttente((int) entier(u, "en_attente"));
+        stats.setAssociationsAvecProjetsActifs((int) entier(u, "avec_projets_actifs"));
+        stats.setMontantTotalCollecte(reel(p, "collecte_associations_validees"));
+        stats.setTotalProjets((int) entier(p, "projets_associations_validees"));
+        dashboard.put("statsAssociations", stats);
+    }
+
+    private void remplirProjets(Map<String, Object> dashboard, Map<String, Object> p) {
+        Map<String, Object> projets = new HashMap<>();
+        projets.put("total", entier(p, "total"));
+        projets.put("actifs", entier(p, "actifs"));
+        projets.put("termines", entier(p, "termines"));
+        projets.put("enRetard", entier(p, "en_retard"));
+        dashboard.put("projets", projets);
+
+        ProjetService.ProjetStats stats = new ProjetService.ProjetStats();
+        stats.setTotalProjets((int) entier(p, "total"));
+        stats.setProjetsActifs((int) entier(p, "actifs"));
+        stats.setProjetsTermines((int) entier(p, "objectifs_atteints"));
+        stats.setProjetsEnRetard((int) entier(p, "en_retard_objectif"));
+        stats.setMontantTotalDemande(reel(p, "montant_demande"));
+        stats.setMontantTotalCollecte(reel(p, "montant_collecte"));
+        if (stats.getMontantTotalDemande() > 0) {
+            stats.setTauxReussiteGlobal((stats.getMontantTotalCollecte() / stats.getMontantTotalDemande()) * 100);
+        }
+        dashboard.put("statsProjets", stats);
+
+        ProjetService.TendancesProjets tendances = new ProjetService.TendancesProjets();
+        tendances.setProjetsCreeCeMois((int) entier(p, "crees_ce_mois"));
+        tendances.setProjetsCreeMoisPrecedent((int) entier(p, "crees_mois_precedent"));
+        if (tendances.getProjetsCreeMoisPrecedent() > 0) {
+            tendances.setEvolutionPourcentage(((double) (tendances.getProjetsCreeCeMois() - tendances.getProjetsCreeMoisPrecedent())
+                    / tendances.getProjetsCreeMoisPrecedent()) * 100);
+        }
+        dashboard.put("tendancesProjets", tendances);
+    }
+
+    private void remplirDons(Map<String, Object> dashboard, Map<String, Object> d) {
+        Map<String, Object> dons = new HashMap<>();
+        dons.put("total", entier(d, "total"));
+        dons.put("valides", entier(d, "valides"));
+        dons.put("enAttente", entier(d, "en_attente"));
+        dons.put("montantTotal", reel(d, "montant_total"));
+        dashboard.put("dons", dons);
+
+        DonService.DonStats stats = new DonService.DonStats();
+        stats.setTotalDons((int) entier(d, "total"));
+        stats.setDonsValides((int) entier(d, "valides"));
+        stats.setDonsEnAttente((int) entier(d, "en_attente"));
+        stats.setDonsRefuses((int) entier(d, "refuses"));
+        stats.setDonsAnonymes((int) entier(d, "anonymes"));
+        stats.setMontantTotal(reel(d, "montant_total"));
+        stats.setDonateursUniques(entier(d, "donateurs_uniques"));
+        stats.setDonMaximum(reel(d, "don_maximum"));
+        if (stats.getDonsValides() > 0) {
+            stats.setMontantMoyen(stats.getMontantTotal() / stats.getDonsValides());
+        }
+        dashboard.put("statsDons", stats);
+
+        DonService.TendancesDons tendances = new DonService.TendancesDons();
+        tendances.setDonsCeMois((int) entier(d, "dons_ce_mois"));
+        tendances.setDonsMoisPrecedent((int) entier(d, "dons_mois_precedent"));
+        tendances.setMontantCeMois(reel(d, "montant_ce_mois"));
+        tendances.setMontantMoisPrecedent(reel(d, "montant_mois_precedent"));
+        if (tendances.getDonsMoisPrecedent() > 0) {
+            tendances.setEvolutionNombrePourcentage(((double) (tendances.getDonsCeMois() - tendances.getDonsMoisPrecedent())
+                    / tendances.getDonsMoisPrecedent()) * 100);
+        }
+        if (tendances.getMontantMoisPrecedent() > 0) {
+            tendances.setEvolutionMontantPourcentage(((tendances.getMontantCeMois() - tendances.getMontantMoisPrecedent())
+                    / tendances.getMontantMoisPrecedent()) * 100);
+        }
+        dashboard.put("tendancesDons", tendances);
+    }
+
+    private void remplirDonateurs(Map<String, Object> dashboard, Map<String, Object> dn) {
+        DonateurService.DonateurStats stats = new DonateurService.DonateurStats();
+        stats.setTotalDonateurs((int) entier(dn, "total"));
+        stats.setDonateursActifs((int) entier(dn, "actifs"));
+        stats.setDonateursReguliers((int) entier(dn, "reguliers"));
+        stats.setGrosDonateurs((int) entier(dn, "gros"));
+        stats.setMontantTotalDons(reel(dn, "montant_total"));
+        if (stats.getTotalDonateurs() > 0) {
+            stats.setMontantMoyenParDonateur(stats.getMontantTotalDons() / stats.getTotalDonateurs());
+        }
+        dashboard.put("statsDonateurs", stats);
+    }
+
+    private static long entier(Map<String, Object> ligne, String colonne) {
+        Object valeur = ligne.get(colonne);
+        return valeur != null ? ((Number) valeur).longValue() : 0;
+    }
+
+    private static double reel(Map<String, Object> ligne, String colonne) {
+        Object valeur = ligne.get(colonne);
+        return valeur != null ? ((Number) valeur).doubleValue() : 0.0;
+    }
+
+    private static final class Section {
+        final Map<String, Object> ligne;
+        final long dureeMs;
+
+        Section(Map<String, Object> ligne, long dureeMs) {
+            this.ligne = ligne;
+            this.dureeMs = dureeMs;
+        }
+    }
+}
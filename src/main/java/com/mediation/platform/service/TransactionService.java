@@ -5,6 +5,8 @@ import com.mediation.platform.entity.Don;
 import com.mediation.platform.repository.TransactionRepository;
 import com.mediation.platform.enums.StatutTransaction;
 import com.mediation.platform.exception.ResourceNotFoundException;
+import com.mediation.platform.monitoring.MetriquesMetier;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +18,7 @@ import java.util.UUID;
 
 @Service
 @Transactional
+@Timed("service.methodes")
 public class TransactionService {
 
     @Autowired
@@ -24,6 +27,9 @@ public class TransactionService {
     @Autowired
     private DonService donService;
 
+    @Autowired
+    private MetriquesMetier metriquesMetier;
+
     public List<Transaction> findAll() {
         return transactionRepository.findAll();
     }
@@ -94,6 +100,7 @@ public class TransactionService {
 
             // Valider le don associé
             donService.validerDon(transaction.getDon().getIdDon());
+            metriquesMetier.paiement(true);
 
             return transactionRepository.save(transaction);
         }
@@ -109,6 +116,7 @@ public class TransactionService {
 
             // Rejeter le don associé
             donService.rejeterDon(transaction.getDon().getIdDon());
+            metriquesMetier.paiement(false);
 
             return transactionRepository.save(transaction);
         }
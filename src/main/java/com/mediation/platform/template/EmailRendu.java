@@ -0,0 +1,30 @@
+package com.mediation.platform.template;
+
+public class EmailRendu {
+
+    private final String sujet;
+    private final String texte;
+    private final String html;
+
+    public EmailRendu(String sujet, String texte, String html) {
+        this.sujet = sujet;
+        this.texte = texte;
+        this.html = html;
+    }
+
+    public String getSujet() {
+        return sujet;
+    }
+
+    public String getTexte() {
+        return texte;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public boolean aUneVersionHtml() {
+        return html != null;
+    }
+}
@@ -0,0 +1,194 @@
+package com.mediation.platform.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modèle de texte compilé une seule fois en une suite de segments (texte fixe ou variable).
+ * Syntaxe : {{variable}} ou {{variable:%.2f}} pour un format java.util.Formatter.
+ * Les instances sont immuables et peuvent être partagées entre threads.
+ */
+public final class ModeleCompile {
+
+    private static final String OUVERTURE = "{{";
+    private static final String FERMETURE = "}}";
+
+    private final Segment[] segments;
+    private final Locale locale;
+    private final boolean echapperHtml;
+    private final int tailleFixe;
+
+    private ModeleCompile(List<Segment> segments, Locale locale, boolean echapperHtml) {
+        this.segments = fusionnerLitteraux(segments).toArray(new Segment[0]);
+        this.locale = locale;
+        this.echapperHtml = echapperHtml;
+
+        int taille = 0;
+        for (Segment segment : this.segments) {
+            if (segment.texte != null) {
+                taille += segment.texte.length();
+            }
+        }
+        this.tailleFixe = taille;
+    }
+
+    /**
+     * Compiler un modèle source
+     */
+    public static ModeleCompile compiler(String source, Locale locale, boolean echapperHtml) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+
+        while (position < source.length()) {
+            int debut = source.indexOf(OUVERTURE, position);
+            if (debut < 0) {
+                segments.add(Segment.litteral(source.substring(position)));
+                break;
+            }
+
+            int fin = source.indexOf(FERMETURE, debut + OUVERTURE.length());
+            if (fin < 0) {
+                throw new IllegalArgumentException("Modèle invalide : '{{' non fermé à la position " + debut);
+            }
+
+            if (debut > position) {
+                segments.add(Segment.litteral(source.substring(position, debut)));
+            }
+
+            String expression = source.substring(debut + OUVERTURE.length(), fin).trim();
+            if (expression.isEmpty()) {
+                throw new IllegalArgumentException("Modèle invalide : variable vide à la position " + debut);
+            }
+
+            int separateur = expression.indexOf(':');
+            if (separateur < 0) {
+                segments.add(Segment.variable(expression, null));
+            } else {
+                segments.add(Segment.variable(expression.substring(0, separateur).trim(),
+                        expression.substring(separateur + 1).trim()));
+            }
+            position = fin + FERMETURE.length();
+        }
+
+        return new ModeleCompile(segments, locale, echapperHtml);
+    }
+
+    /**
+     * Rendre le modèle avec les variables fournies (variable absente = chaîne vide)
+     */
+    public String rendre(Map<String, ?> variables) {
+        StringBuilder sortie = new StringBuilder(tailleFixe + 16 * segments.length);
+        rendre(variables, sortie);
+        return sortie.toString();
+    }
+
+    public void rendre(Map<String, ?> variables, StringBuilder sortie) {
+        for (Segment segment : segments) {
+            if (segment.texte != null) {
+                sortie.append(segment.texte);
+            } else {
+                sortie.append(formater(segment, variables.get(segment.variable)));
+            }
+        }
+    }
+
+    /**
+     * Noms des variables du modèle
+     */
+    public Set<String> getVariables() {
+        Set<String> variables = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment.texte == null) {
+                variables.add(segment.variable);
+            }
+        }
+        return Collections.unmodifiableSet(variables);
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    private String formater(Segment segment, Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        String texte = segment.format != null
+                ? String.format(locale, segment.format, valeur)
+                : String.valueOf(valeur);
+        return echapperHtml ? echapperHtml(texte) : texte;
+    }
+
+    private static String echapperHtml(String texte) {
+        StringBuilder sortie = null;
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            String remplacement = switch (c) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (remplacement != null) {
+                if (sortie == null) {
+                    sortie = new StringBuilder(texte.length() + 16);
+                    sortie.append(texte, 0, i);
+                }
+                sortie.append(remplacement);
+            } else if (sortie != null) {
+                sortie.append(c);
+            }
+        }
+        return sortie != null ? sortie.toString() : texte;
+    }
+
+    private static List<Segment> fusionnerLitteraux(List<Segment> segments) {
+        List<Segment> resultat = new ArrayList<>(segments.size());
+        StringBuilder courant = null;
+        for (Segment segment : segments) {
+            if (segment.texte != null) {
+                if (courant == null) {
+                    courant = new StringBuilder();
+                }
+                courant.append(segment.texte);
+            } else {
+                if (courant != null) {
+                    resultat.add(Segment.litteral(courant.toString()));
+                    courant = null;
+                }
+                resultat.add(segment);
+            }
+        }
+        if (courant != null && courant.length() > 0) {
+            resultat.add(Segment.litteral(courant.toString()));
+        }
+        return resultat;
+    }
+
+    private static final class Segment {
+        private final String texte;
+        private final String variable;
+        private final String format;
+
+        private Segment(String texte, String variable, String format) {
+            this.texte = texte;
+            this.variable = variable;
+            this.format = format;
+        }
+
+        static Segment litteral(String texte) {
+            return new Segment(texte, null, null);
+        }
+
+        static Segment variable(String nom, String format) {
+            return new Segment(null, nom, format);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mediation.platform.template;
+
+import java.util.Map;
+
+/**
+ * Sujet, corps texte et corps HTML compilés d'un modèle d'email pour une locale
+ */
+public class ModelesEmailCompiles {
+
+    private final ModeleCompile sujet;
+    private final ModeleCompile texte;
+    private final ModeleCompile html;
+
+    public ModelesEmailCompiles(ModeleCompile sujet, ModeleCompile texte, ModeleCompile html) {
+        this.sujet = sujet;
+        this.texte = texte;
+        this.html = html;
+    }
+
+    public EmailRendu rendre(Map<String, ?> variables) {
+        return new EmailRendu(
+                sujet.rendre(variables),
+                texte.rendre(variables),
+                html != null ? html.rendre(variables) : null
+        );
+    }
+
+    public ModeleCompile getSujet() {
+        return sujet;
+    }
+
+    public ModeleCompile getTexte() {
+        return texte;
+    }
+
+    public ModeleCompile getHtml() {
+        return html;
+    }
+}
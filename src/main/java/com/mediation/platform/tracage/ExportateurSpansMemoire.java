@@ -0,0 +1,205 @@
+package com.mediation.platform.tracage;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exportateur de spans hors ligne : les dernières traces restent en mémoire (consultables
+ * par l'administration) et chaque trace dont le span racine dépasse le seuil est écrite
+ * dans les logs sous forme d'arbre (décalage depuis le début, durée, nom, thread).
+ * Les spans terminés après la racine (envois asynchrones) rejoignent leur trace en mémoire.
+ */
+public class ExportateurSpansMemoire implements SpanExporter {
+
+    // Au-delà, les spans d'une trace sont seulement comptés (boucles de requêtes N+1)
+    static final int SPANS_MAX_PAR_TRACE = 1000;
+
+    private final int tracesConservees;
+    private final long seuilJournalNanos;
+
+    private final LinkedHashMap<String, Trace> traces = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Trace> plusAncienne) {
+            return size() > tracesConservees;
+        }
+    };
+
+    public ExportateurSpansMemoire(int tracesConservees, long seuilJournalMs) {
+        this.tracesConservees = tracesConservees;
+        this.seuilJournalNanos = seuilJournalMs * 1_000_000;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<Trace> aJournaliser = new ArrayList<>();
+        synchronized (this) {
+            for (SpanData span : spans) {
+                Trace trace = traces.computeIfAbsent(span.getTraceId(), id -> new Trace());
+                if (trace.spans.size() < SPANS_MAX_PAR_TRACE) {
+                    trace.spans.add(span);
+                } else {
+                    trace.ignores++;
+                }
+                if (estRacine(span)) {
+                    trace.racine = span;
+                    if (duree(span) >= seuilJournalNanos) {
+                        aJournaliser.add(trace);
+                    }
+                }
+            }
+        }
+        for (Trace trace : aJournaliser) {
+            System.out.println(journal(trace));
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Dernières traces terminées, de la plus récente à la plus ancienne
+     */
+    public synchronized List<Map<String, Object>> getTraces(int limite, long dureeMinMs) {
+        List<Map<String, Object>> resultat = new ArrayList<>();
+        List<Map.Entry<String, Trace>> entrees = new ArrayList<>(traces.entrySet());
+        for (int i = entrees.size() - 1; i >= 0 && resultat.size() < limite; i--) {
+            Trace trace = entrees.get(i).getValue();
+            if (trace.racine == null || duree(trace.racine) < dureeMinMs * 1_000_000) {
+                continue;
+            }
+            Map<String, Object> resume = new LinkedHashMap<>();
+            resume.put("traceId", entrees.get(i).getKey());
+            resume.put("racine", trace.racine.getName());
+            resume.put("dureeMs", duree(trace.racine) / 1_000_000.0);
+            resume.put("spans", trace.spans.size() + trace.ignores);
+            resume.put("erreur", trace.spans.stream().anyMatch(s -> s.getStatus().getStatusCode() == StatusCode.ERROR));
+            resultat.add(resume);
+        }
+        return resultat;
+    }
+
+    /**
+     * Spans d'une trace dans l'ordre de l'arbre (profondeur, décalage et durée en ms), null si inconnue
+     */
+    public synchronized List<Map<String, Object>> getTrace(String traceId) {
+        Trace trace = traces.get(traceId);
+        if (trace == null) {
+            return null;
+        }
+        List<Map<String, Object>> resultat = new ArrayList<>();
+        long debut = trace.spans.stream().mapToLong(SpanData::getStartEpochNanos).min().orElse(0);
+        parcourir(trace, (span, profondeur) -> {
+            Map<String, Object> ligne = new LinkedHashMap<>();
+            ligne.put("profondeur", profondeur);
+            ligne.put("nom", span.getName());
+            ligne.put("debutMs", (span.getStartEpochNanos() - debut) / 1_000_000.0);
+            ligne.put("dureeMs", duree(span) / 1_000_000.0);
+            ligne.put("statut", span.getStatus().getStatusCode().name());
+            Map<String, Object> attributs = new LinkedHashMap<>();
+            span.getAttributes().forEach((cle, valeur) -> attributs.put(cle.getKey(), valeur));
+            ligne.put("attributs", attributs);
+            resultat.add(ligne);
+        });
+        return resultat;
+    }
+
+    public synchronized int getNombreTraces() {
+        return traces.size();
+    }
+
+    private String journal(Trace trace) {
+        StringBuilder texte = new StringBuilder();
+        synchronized (this) {
+            long debut = trace.spans.stream().mapToLong(SpanData::getStartEpochNanos).min().orElse(0);
+            texte.append("TRACE traceId=").append(trace.racine.getTraceId())
+                    .append(" racine=\"").append(trace.racine.getName())
+                    .append("\" dureeMs=").append(duree(trace.racine) / 1_000_000)
+                    .append(" spans=").append(trace.spans.size() + trace.ignores);
+            parcourir(trace, (span, profondeur) -> texte.append('\n')
+                    .append("  ".repeat(profondeur + 1))
+                    .append('+').append((span.getStartEpochNanos() - debut) / 1_000_000).append("ms ")
+                    .append(duree(span) / 1_000_000).append("ms ")
+                    .append(span.getName())
+                    .append(thread(span))
+                    .append(span.getStatus().getStatusCode() == StatusCode.ERROR ? " ERREUR" : ""));
+        }
+        return texte.toString();
+    }
+
+    private interface Visiteur {
+        void visiter(SpanData span, int profondeur);
+    }
+
+    /**
+     * Parcours en profondeur, enfants par date de début ; les spans dont le parent n'a pas été
+     * exporté (parent encore ouvert ou perdu) sont rattachés à la racine de l'affichage
+     */
+    private static void parcourir(Trace trace, Visiteur visiteur) {
+        Map<String, List<SpanData>> enfants = new HashMap<>();
+        Map<String, SpanData> parId = new HashMap<>();
+        trace.spans.forEach(s -> parId.put(s.getSpanId(), s));
+        List<SpanData> racines = new ArrayList<>();
+        for (SpanData span : trace.spans) {
+            if (parId.containsKey(span.getParentSpanId())) {
+                enfants.computeIfAbsent(span.getParentSpanId(), p -> new ArrayList<>()).add(span);
+            } else {
+                racines.add(span);
+            }
+        }
+        racines.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+        for (SpanData racine : racines) {
+            visiter(racine, 0, enfants, visiteur);
+        }
+    }
+
+    private static void visiter(SpanData span, int profondeur, Map<String, List<SpanData>> enfants, Visiteur visiteur) {
+        visiteur.visiter(span, profondeur);
+        List<SpanData> suivants = enfants.get(span.getSpanId());
+        if (suivants == null) {
+            return;
+        }
+        suivants.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+        for (SpanData enfant : suivants) {
+            visiter(enfant, profondeur + 1, enfants, visiteur);
+        }
+    }
+
+    private static String thread(SpanData span) {
+        String thread = span.getAttributes().get(AttributeKey.stringKey(Spans.THREAD));
+        return thread != null ? " [" + thread + "]" : "";
+    }
+
+    private static boolean estRacine(SpanData span) {
+        return !SpanId.isValid(span.getParentSpanId()) || span.getParentSpanContext().isRemote();
+    }
+
+    private static long duree(SpanData span) {
+        return span.getEndEpochNanos() - span.getStartEpochNanos();
+    }
+
+    private static class Trace {
+        private final List<SpanData> spans = new ArrayList<>();
+        private SpanData racine;
+        private int ignores;
+    }
+}
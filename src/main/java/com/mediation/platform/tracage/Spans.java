@@ -0,0 +1,62 @@
+package com.mediation.platform.tracage;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Exécuter une action dans un span enfant du span courant (API OpenTelemetry) :
+ * le span devient courant pendant l'action, l'exception éventuelle y est enregistrée.
+ * Sans span courant (démarrage, tâches planifiées), l'action s'exécute sans trace.
+ */
+public final class Spans {
+
+    public static final String THREAD = "thread.name";
+
+    private Spans() {
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T executer() throws Throwable;
+    }
+
+    public static boolean actif() {
+        return Span.current().getSpanContext().isValid();
+    }
+
+    public static <T> T dans(Tracer tracer, String nom, Action<T> action) throws Throwable {
+        if (tracer == null || !actif()) {
+            return action.executer();
+        }
+        Span span = tracer.spanBuilder(nom)
+                .setAttribute(THREAD, Thread.currentThread().getName())
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return action.executer();
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Variante pour les actions sans exception vérifiée
+     */
+    public static void executer(Tracer tracer, String nom, Runnable action) {
+        try {
+            dans(tracer, nom, () -> {
+                action.run();
+                return null;
+            });
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
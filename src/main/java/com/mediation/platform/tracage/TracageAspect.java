@@ -0,0 +1,27 @@
+package com.mediation.platform.tracage;
+
+import io.opentelemetry.api.trace.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Un span par appel de méthode de contrôleur et de service (Classe.méthode), sous le span
+ * de la requête HTTP ou de la tâche asynchrone qui l'a déclenché
+ */
+@Aspect
+@Component
+public class TracageAspect {
+
+    @Autowired
+    private Tracer tracer;
+
+    @Around("within(com.mediation.platform..*) && (@within(org.springframework.web.bind.annotation.RestController)"
+            + " || @within(org.springframework.stereotype.Service))")
+    public Object tracer(ProceedingJoinPoint point) throws Throwable {
+        String nom = point.getSignature().getDeclaringType().getSimpleName() + "." + point.getSignature().getName();
+        return Spans.dans(tracer, nom, point::proceed);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mediation.platform.tracage;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Un span client par requête SQL exécutée (premier mot de la requête en nom, texte abrégé
+ * en attribut db.statement), enfant du span courant ; aucune trace hors requête tracée
+ */
+@Component
+public class TracageSql implements QueryExecutionListener {
+
+    private static final String SPAN = "span";
+    private static final int LONGUEUR_SQL = 500;
+
+    // Résolu à la demande : le traceur ne doit pas être créé avec la DataSource
+    @Autowired
+    private ObjectProvider<Tracer> tracers;
+
+    private volatile Tracer tracer;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execution, List<QueryInfo> requetes) {
+        if (!Spans.actif()) {
+            return;
+        }
+        String sql = requetes.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        Span span = tracer().spanBuilder("SQL " + operation(sql))
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("db.system", "postgresql")
+                .setAttribute("db.statement", sql.length() > LONGUEUR_SQL ? sql.substring(0, LONGUEUR_SQL) + "..." : sql)
+                .setAttribute(Spans.THREAD, Thread.currentThread().getName())
+                .startSpan();
+        execution.addCustomValue(SPAN, span);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execution, List<QueryInfo> requetes) {
+        Span span = execution.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        if (execution.isBatch()) {
+            span.setAttribute("db.batch.size", execution.getBatchSize());
+        }
+        if (!execution.isSuccess() && execution.getThrowable() != null) {
+            span.recordException(execution.getThrowable());
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    private Tracer tracer() {
+        Tracer courant = tracer;
+        if (courant == null) {
+            courant = tracers.getObject();
+            tracer = courant;
+        }
+        return courant;
+    }
+
+    private static String operation(String sql) {
+        String texte = sql.stripLeading();
+        int fin = 0;
+        while (fin < texte.length() && Character.isLetter(texte.charAt(fin))) {
+            fin++;
+        }
+        return fin == 0 ? "?" : texte.substring(0, fin).toUpperCase();
+    }
+}
@@ -0,0 +1,22 @@
+-- Recherche plein texte des projets (moteur postgres) : configuration francaise sans accents,
+-- colonne tsvector generee (titre A, objectif B, description C) et index GIN.
+-- Execute par spring.sql.init apres la creation des tables par Hibernate ; separateur ^;
+-- (le bloc DO contient des points-virgules).
+
+CREATE EXTENSION IF NOT EXISTS unaccent^;
+
+DO $$ BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'francais_sans_accents') THEN
+        CREATE TEXT SEARCH CONFIGURATION francais_sans_accents (COPY = pg_catalog.french);
+        ALTER TEXT SEARCH CONFIGURATION francais_sans_accents
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, french_stem;
+    END IF;
+END $$^;
+
+ALTER TABLE projets ADD COLUMN IF NOT EXISTS recherche tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('francais_sans_accents', coalesce(titre, '')), 'A') ||
+    setweight(to_tsvector('francais_sans_accents', coalesce(objectif, '')), 'B') ||
+    setweight(to_tsvector('francais_sans_accents', coalesce(description, '')), 'C')
+) STORED^;
+
+CREATE INDEX IF NOT EXISTS idx_projets_recherche ON projets USING GIN (recherche)^;
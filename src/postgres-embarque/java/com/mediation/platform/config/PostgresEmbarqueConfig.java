@@ -0,0 +1,45 @@
+package com.mediation.platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Serveur PostgreSQL embarqué (profil Maven et profil Spring postgres-embarque) : démarré
+ * avec l'application dans un répertoire local, arrêté avec elle. Remplace la base de
+ * spring.datasource.url pour les tests de charge sans installation de PostgreSQL.
+ */
+@Configuration
+@Profile("postgres-embarque")
+public class PostgresEmbarqueConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedPostgres postgresEmbarque(@Value("${app.postgres-embarque.port:5433}") int port,
+                                             @Value("${app.postgres-embarque.repertoire:target/postgres-embarque}") String repertoire)
+            throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setPort(port)
+                .setDataDirectory(Path.of(repertoire))
+                .setCleanDataDirectory(true)
+                .start();
+        System.out.println("PostgreSQL embarqué démarré sur le port " + postgres.getPort());
+        return postgres;
+    }
+
+    @Bean
+    public DataSource dataSource(EmbeddedPostgres postgresEmbarque,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int taillePool) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgresEmbarque.getJdbcUrl("postgres", "postgres"));
+        dataSource.setUsername("postgres");
+        dataSource.setMaximumPoolSize(taillePool);
+        return dataSource;
+    }
+}
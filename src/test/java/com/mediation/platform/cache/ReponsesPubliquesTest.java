@@ -0,0 +1,89 @@
+package com.mediation.platform.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ReponsesPubliquesTest {
+
+    private final VersionsPubliques versions = new VersionsPubliques();
+    private final ReponsesPubliques reponses = new ReponsesPubliques();
+    private final AtomicInteger calculs = new AtomicInteger();
+
+    @BeforeEach
+    void initialiser() {
+        ReflectionTestUtils.setField(reponses, "versionsPubliques", versions);
+        ReflectionTestUtils.setField(reponses, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(reponses, "maxAgeSecondes", 10L);
+        ReflectionTestUtils.setField(reponses, "entrees", 10L);
+        reponses.initialiser();
+    }
+
+    private ResponseEntity<?> projets(String siPasModifie) {
+        MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/projets");
+        if (siPasModifie != null) {
+            requete.addHeader("If-None-Match", siPasModifie);
+        }
+        return reponses.collection(new ServletWebRequest(requete, new MockHttpServletResponse()), "projets", "ok",
+                () -> List.of("projet " + calculs.incrementAndGet()), VersionsPubliques.PROJETS);
+    }
+
+    @Test
+    void corpsSerialiseUneFoisParVersionEt304SiEtagAJour() {
+        ResponseEntity<?> premiere = projets(null);
+        String etag = premiere.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, premiere.getStatusCode());
+        assertEquals("max-age=10, public", premiere.getHeaders().getCacheControl());
+
+        assertEquals(HttpStatus.OK, projets(null).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, projets(etag).getStatusCode());
+        assertEquals(1, calculs.get());
+
+        // Hors transaction, l'incrément est immédiat
+        versions.incrementer(VersionsPubliques.PROJETS);
+        ResponseEntity<?> apresEcriture = projets(etag);
+        assertEquals(HttpStatus.OK, apresEcriture.getStatusCode());
+        assertNotEquals(etag, apresEcriture.getHeaders().getETag());
+        assertEquals(2, calculs.get());
+    }
+
+    @Test
+    void elementChargeSeulementSiLeValidateurAChange() {
+        LocalDateTime modification = LocalDateTime.now().minusDays(1);
+        ResponseEntity<?> premiere = projet(null, modification, 3L);
+        String etag = premiere.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, premiere.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, projet(etag, modification, 3L).getStatusCode());
+        assertEquals(HttpStatus.OK, projet(null, modification, 3L).getStatusCode());
+        assertEquals(1, calculs.get());
+
+        // Nouveau don du projet : nombre de dons modifié en base sans toucher à sa date de modification
+        ResponseEntity<?> apresDon = projet(etag, modification, 4L);
+        assertEquals(HttpStatus.OK, apresDon.getStatusCode());
+        assertNotEquals(etag, apresDon.getHeaders().getETag());
+        assertEquals(2, calculs.get());
+    }
+
+    private ResponseEntity<?> projet(String siPasModifie, LocalDateTime modification, long nombreDons) {
+        MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/projets/1");
+        if (siPasModifie != null) {
+            requete.addHeader("If-None-Match", siPasModifie);
+        }
+        return reponses.element(new ServletWebRequest(requete, new MockHttpServletResponse()), "projet", 1L, "ok",
+                new Object[] {modification, nombreDons}, () -> "projet " + calculs.incrementAndGet());
+    }
+}
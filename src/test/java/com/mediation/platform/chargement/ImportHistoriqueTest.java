@@ -0,0 +1,179 @@
+package com.mediation.platform.chargement;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.entity.Utilisateur;
+import com.mediation.platform.enums.RoleUtilisateur;
+import com.mediation.platform.recherche.Gazetteer;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import com.mediation.platform.repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Import CSV par tables de transit : lignes invalides, doublons et références introuvables écartés
+ * avec leur numéro de ligne, le reste versé tel que validé. Hors transaction de test : le chargement
+ * valide sur ses propres connexions.
+ */
+@DataJpaTest
+@Import({ImportHistorique.class, ChargementMasse.class, Gazetteer.class, ImportHistoriqueTest.Dependances.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpa-h2")
+@TestPropertySource(properties = {
+        "app.chargement.taille-lot=2"
+})
+class ImportHistoriqueTest {
+
+    private static final String HACHAGE = new BCryptPasswordEncoder(4).encode("ancien-secret");
+
+    @TestConfiguration
+    static class Dependances {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+
+        @Bean(name = "importExecutor")
+        ThreadPoolTaskExecutor importExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(2);
+            executor.setMaxPoolSize(2);
+            executor.setQueueCapacity(4);
+            return executor;
+        }
+    }
+
+    @Autowired
+    private ImportHistorique importHistorique;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private DonneesDerivees donneesDerivees;
+
+    private Projet projet;
+
+    @BeforeEach
+    void creerDonnees() {
+        Association association = new Association("Nom", "Prenom", "association@test.fr", "motdepasse",
+                "Association", "Casablanca", "Description", "Santé");
+        association.setStatutValidation(true);
+        associationRepository.save(association);
+        projet = projetRepository.save(new Projet("Projet", "Description", 10000.0, association));
+        donateurRepository.save(new Donateur("Inscrit", "Deja", "inscrit@test.fr", "motdepasse"));
+    }
+
+    @AfterEach
+    void nettoyer() {
+        for (String table : List.of("dons", "projets", "donateurs", "associations", "utilisateurs")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void donateursValidesVersesLesAutresRejetes() {
+        ImportHistorique.RapportImport rapport = importHistorique.importerDonateurs(new StringReader(
+                "email;nom;prenom;mot_de_passe;mot_de_passe_hache;adresse;date_naissance\n"
+                        + "alice@ancien.org;Martin;Alice;;" + HACHAGE + ";\"12 rue de Fès; Casablanca\";1980-02-03\n"
+                        + "bruno@ancien.org;Petit;Bruno;secret-en-clair;;;\n"
+                        + "\n"
+                        + "claire@ancien.org;Durand;Claire;;;;\n"
+                        + "pas-un-email;Faux;Email;;;;\n"
+                        + "alice@ancien.org;Martin;Alice bis;;;;\n"
+                        + "inscrit@test.fr;Inscrit;Deja;;;;\n"
+                        + "david@ancien.org;Roux;David;court;;;\n"), true);
+
+        assertEquals(7, rapport.getLues());
+        assertEquals(5, rapport.getValides());
+        assertEquals(3, rapport.getImportees());
+        assertEquals(4, rapport.getRejetees());
+        assertEquals(Map.of(6L, "email invalide", 7L, "email en double dans le fichier",
+                        8L, "email déjà inscrit sur la plateforme", 9L, "mot_de_passe de moins de 6 caractères"),
+                rapport.getRejets().stream().collect(Collectors.toMap(
+                        ImportHistorique.Rejet::getLigne, ImportHistorique.Rejet::getMotif)));
+        verify(donneesDerivees, times(1)).recalculer();
+
+        Utilisateur alice = utilisateurRepository.findByEmail("alice@ancien.org").orElseThrow();
+        assertEquals(RoleUtilisateur.DONATEUR, alice.getRole());
+        assertEquals(HACHAGE, alice.getMotDePasse());
+        Donateur donateur = donateurRepository.findById(alice.getIdUtilisateur()).orElseThrow();
+        assertEquals("Alice", donateur.getPrenom());
+        assertEquals("12 rue de Fès; Casablanca", donateur.getAdresse());
+        assertNotNull(donateur.getLatitude());
+        assertTrue(passwordEncoder.matches("secret-en-clair",
+                utilisateurRepository.findByEmail("bruno@ancien.org").orElseThrow().getMotDePasse()));
+        assertEquals(ImportHistorique.MOT_DE_PASSE_A_DEFINIR,
+                utilisateurRepository.findByEmail("claire@ancien.org").orElseThrow().getMotDePasse());
+    }
+
+    @Test
+    void donsRattachesParEmailSansRecalcul() {
+        long id = projet.getIdProjet();
+        ImportHistorique.RapportImport rapport = importHistorique.importerDons(new StringReader(
+                "email_donateur,id_projet,montant,date,statut,anonyme,message\n"
+                        + "inscrit@test.fr," + id + ",\"12,50\",2021-05-01,,oui,\"Merci, \"\"bravo\"\"\nà tous\"\n"
+                        + "inscrit@test.fr," + id + ",30,2021-06-01T10:15,REMBOURSE,,\n"
+                        + "inconnu@test.fr," + id + ",10,2021-06-01,,,\n"
+                        + "inscrit@test.fr," + (id + 1000) + ",10,2021-06-01,,,\n"
+                        + "inscrit@test.fr," + id + ",-5,2021-06-01,,,\n"
+                        + "inscrit@test.fr," + id + ",10,2999-01-01,,,\n"), false);
+
+        assertEquals(6, rapport.getLues());
+        assertEquals(2, rapport.getImportees());
+        assertEquals(4, rapport.getRejetees());
+        verify(donneesDerivees, times(0)).recalculer();
+
+        List<Map<String, Object>> dons = jdbcTemplate.queryForList(
+                "SELECT montant, message, anonyme, statut FROM dons ORDER BY id_don");
+        assertEquals(12.5, dons.get(0).get("montant"));
+        assertEquals("Merci, \"bravo\"\nà tous", dons.get(0).get("message"));
+        assertEquals(true, dons.get(0).get("anonyme"));
+        assertEquals("VALIDE", dons.get(0).get("statut"));
+        assertEquals("REMBOURSE", dons.get(1).get("statut"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.mediation.platform.classement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClassementTest {
+
+    private static List<Long> ids(List<Classement.Entree> entrees) {
+        return entrees.stream().map(Classement.Entree::getId).toList();
+    }
+
+    @Test
+    void ordreRangsEtPages() {
+        Classement classement = new Classement();
+        classement.ajouter(1, 100);
+        classement.ajouter(2, 300);
+        classement.ajouter(3, 200);
+        classement.ajouter(4, 200);
+
+        // Égalité de score : identifiant croissant
+        assertEquals(List.of(2L, 3L, 4L, 1L), ids(classement.page(0, 10)));
+        assertEquals(List.of(4L, 1L), ids(classement.page(1, 2)));
+        assertEquals(3, classement.page(1, 2).get(0).getRang());
+        assertEquals(1, classement.rang(2));
+        assertEquals(4, classement.rang(1));
+        assertEquals(0, classement.rang(99));
+        assertEquals(List.of(), classement.page(2, 2));
+    }
+
+    @Test
+    void retraitEtScoreNul() {
+        Classement classement = new Classement();
+        classement.ajouter(1, 100);
+        classement.ajouter(2, 50);
+        classement.ajouter(1, -80);
+
+        assertEquals(List.of(2L, 1L), ids(classement.page(0, 10)));
+        classement.ajouter(2, -50);
+        assertNull(classement.getScore(2));
+        assertEquals(1, classement.taille());
+        assertEquals(1, classement.rang(1));
+    }
+
+    @Test
+    void conformeAUnTriCompletApresMisesAJourAleatoires() {
+        Classement classement = new Classement();
+        Map<Long, Double> attendus = new HashMap<>();
+        Random aleatoire = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            long id = aleatoire.nextInt(500);
+            double delta = aleatoire.nextInt(10) < 8 ? aleatoire.nextInt(1000) : -aleatoire.nextInt(500);
+            classement.ajouter(id, delta);
+            double score = attendus.getOrDefault(id, 0.0) + delta;
+            if (score >= 0.005) {
+                attendus.put(id, score);
+            } else {
+                attendus.remove(id);
+            }
+        }
+
+        List<Long> tri = new ArrayList<>(attendus.keySet());
+        tri.sort(Comparator.comparing((Long id) -> -attendus.get(id)).thenComparing(id -> id));
+        assertEquals(tri.size(), classement.taille());
+        assertEquals(tri, ids(classement.page(0, tri.size())));
+        assertEquals(tri.subList(40, 60), ids(classement.page(2, 20)));
+        for (int i = 0; i < tri.size(); i += 37) {
+            assertEquals(i + 1, classement.rang(tri.get(i)));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.mediation.platform.controller;
+
+import com.mediation.platform.cache.VersionsPubliques;
+import com.mediation.platform.classement.Classements;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listes et fiches publiques servies par HTTP, sérialisation comprise : une requête SQL par appel,
+ * quel que soit le nombre d'associations, de projets et de dons (pas de chargement paresseux).
+ * Une fiche lit d'abord son validateur ; le résumé n'est chargé que si le client n'est pas à jour.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles({"h2", "test"})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listes-publiques;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "app.geo.geocoder-au-demarrage=false",
+        "app.statistiques.publiques.intervalle-ms=3600000",
+        "app.classements.sauvegarde-ms=3600000"
+})
+class ListesPubliquesRequetesTest {
+
+    private static final int ASSOCIATIONS = 3;
+    private static final int PROJETS_PAR_ASSOCIATION = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private Classements classements;
+
+    @Autowired
+    private VersionsPubliques versionsPubliques;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long idAssociation;
+
+    private Long idProjet;
+
+    @BeforeEach
+    void creerDonnees() {
+        Donateur donateur = donateurRepository.save(new Donateur("Nom", "Prenom", "listes@test.fr", "motdepasse"));
+        for (int i = 0; i < ASSOCIATIONS; i++) {
+            Association association = new Association("Nom" + i, "Prenom" + i, "listes" + i + "@test.fr",
+                    "motdepasse", "Association " + i, "Lyon", "Description", "Santé");
+            association.setStatutValidation(i > 0);
+            association = associationRepository.save(association);
+            idAssociation = association.getIdUtilisateur();
+            for (int j = 0; j < PROJETS_PAR_ASSOCIATION; j++) {
+                Projet projet = new Projet("Projet " + i + "-" + j, "Description", 1000.0, association);
+                projet.setStatut(StatutProjet.EN_COURS);
+                projet.setMontantCollecte(950.0);
+                projet.setDateFin(LocalDate.now().minusDays(1));
+                projet = projetRepository.save(projet);
+                idProjet = projet.getIdProjet();
+                Don don = new Don(100.0, donateur, projet);
+                don.setStatut(StatutDon.VALIDE);
+                donRepository.save(don);
+            }
+        }
+        classements.reconstruire();
+        versionsPubliques.incrementer(VersionsPubliques.PROJETS, VersionsPubliques.ASSOCIATIONS, VersionsPubliques.DONS);
+    }
+
+    @AfterEach
+    void nettoyer() {
+        donRepository.deleteAll();
+        projetRepository.deleteAll();
+        associationRepository.deleteAll();
+        donateurRepository.deleteAll();
+        classements.reconstruire();
+    }
+
+    @Test
+    void listesEtFichesPubliques() throws Exception {
+        assertEquals(1, requetes("/projets", ASSOCIATIONS * PROJETS_PAR_ASSOCIATION));
+        assertEquals(1, requetes("/associations", ASSOCIATIONS - 1));
+        for (String fiche : new String[] {"/projets/" + idProjet, "/associations/" + idAssociation}) {
+            assertEquals(2, requetes(fiche, -1));
+            // Corps en cache sous son ETag, puis 304 : validateur seul
+            assertEquals(1, requetes(fiche, -1));
+            String etag = mockMvc.perform(get(fiche)).andReturn().getResponse().getHeader("ETag");
+            long avant = statistiques().getPrepareStatementCount();
+            mockMvc.perform(get(fiche).header("If-None-Match", etag)).andExpect(status().isNotModified());
+            assertEquals(1, statistiques().getPrepareStatementCount() - avant);
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMINISTRATEUR")
+    void listesResumees() throws Exception {
+        int projets = ASSOCIATIONS * PROJETS_PAR_ASSOCIATION;
+        assertEquals(1, requetes("/projets/top?limite=5", 5));
+        assertEquals(1, requetes("/projets/proche-objectif", projets));
+        assertEquals(1, requetes("/projets/en-retard", projets));
+        assertEquals(1, requetes("/projets/recents", projets));
+        assertEquals(1, requetes("/associations/top?limite=5", ASSOCIATIONS));
+        assertEquals(1, requetes("/associations/recherche?nom=association", ASSOCIATIONS));
+        assertEquals(1, requetes("/associations/domaine/sant", ASSOCIATIONS));
+        assertEquals(1, requetes("/associations/ville/inconnue", 0));
+        assertEquals(1, requetes("/associations/projets-actifs", ASSOCIATIONS));
+        assertEquals(1, requetes("/associations/admin/en-attente", 1));
+    }
+
+    @Test
+    @WithMockUser
+    void limiteDesClassementsBornee() throws Exception {
+        for (String url : new String[] {"/projets/top", "/associations/top"}) {
+            mockMvc.perform(get(url + "?limite=0")).andExpect(status().isBadRequest());
+            mockMvc.perform(get(url + "?limite=101")).andExpect(status().isBadRequest());
+            mockMvc.perform(get(url + "?limite=100")).andExpect(status().isOk());
+        }
+    }
+
+    // Requêtes SQL préparées pendant l'appel ; taille attendue de la liste (-1 : fiche)
+    private long requetes(String url, int taille) throws Exception {
+        long avant = statistiques().getPrepareStatementCount();
+        if (taille < 0) {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+        } else {
+            mockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath("$.data.length()").value(taille));
+        }
+        return statistiques().getPrepareStatementCount() - avant;
+    }
+
+    private Statistics statistiques() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,81 @@
+package com.mediation.platform.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GET /dons sérialise les entités : un don dont le donateur a ses dons chargés ne doit pas
+ * boucler (listes dérivées du donateur renvoyant vers le don)
+ */
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("jpa-h2")
+class DonSerialisationTest {
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void donAvecLesDonsDuDonateurCharges() throws Exception {
+        Association association = new Association("Nom", "Prenom", "serialisation@test.fr", "motdepasse",
+                "Association", "Paris", "Description", "Santé");
+        association.setStatutValidation(true);
+        associationRepository.save(association);
+        Projet projet = projetRepository.save(new Projet("Projet", "Description", 10000.0, association));
+        Donateur donateur = donateurRepository.save(new Donateur("Nom", "Prenom", "donateur-serialisation@test.fr", "motdepasse"));
+        Don don = new Don(50.0, donateur, projet);
+        don.setStatut(StatutDon.VALIDE);
+        Long idDon = donRepository.save(don).getIdDon();
+        donRepository.save(new Don(20.0, donateur, projet));
+        entityManager.flush();
+        entityManager.clear();
+
+        Don charge = donRepository.findById(idDon).orElseThrow();
+        Hibernate.initialize(charge.getDonateur().getDons());
+        Hibernate.initialize(charge.getProjet().getDons());
+        assertTrue(charge.getDonateur().getDons().contains(charge));
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(charge));
+
+        assertEquals(50.0, json.get("montant").asDouble());
+        JsonNode donateurJson = json.get("donateur");
+        assertEquals("donateur-serialisation@test.fr", donateurJson.get("email").asText());
+        for (String propriete : new String[] {"dons", "donsValides", "donsEnAttente", "donsRecents",
+                "donLePlusImportant", "dernierDon", "motDePasse"}) {
+            assertFalse(donateurJson.has(propriete), propriete);
+        }
+        assertFalse(json.get("projet").has("dons"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.mediation.platform.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InstrumentationSqlTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compteRequetesEtLignesParEndpoint() {
+        InstrumentationSql instrumentation = new InstrumentationSql();
+        ReflectionTestUtils.setField(instrumentation, "seuilRequetes", 3);
+        ReflectionTestUtils.setField(instrumentation, "seuilDureeSqlMs", 10_000L);
+        ReflectionTestUtils.setField(instrumentation, "seuilRequeteLenteMs", 10_000L);
+        SimpleMeterRegistry registre = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(instrumentation, "registres",
+                new StaticListableBeanFactory(Map.of("registre", registre)).getBeanProvider(MeterRegistry.class));
+
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumentation;DB_CLOSE_DELAY=-1");
+        DataSource dataSource = instrumentation.instrumenter("test", h2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Hors requête HTTP
+        jdbcTemplate.execute("CREATE TABLE dons (id BIGINT PRIMARY KEY, montant DOUBLE)");
+        jdbcTemplate.batchUpdate("INSERT INTO dons VALUES (?, ?)",
+                List.of(new Object[]{1L, 10.0}, new Object[]{2L, 20.0}, new Object[]{3L, 30.0}));
+        // Registre disponible après le démarrage : les requêtes suivantes sont aussi dans Micrometer
+        instrumentation.afterSingletonsInstantiated();
+        jdbcTemplate.queryForObject("SELECT count(*) FROM dons", Long.class);
+
+        MesureSql mesure = MesureSql.demarrer("GET /api/dons");
+        jdbcTemplate.queryForList("SELECT id FROM dons", Long.class);
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.queryForObject("SELECT montant FROM dons WHERE id = ?", Double.class, id);
+        }
+        MesureSql.terminer();
+        assertNull(MesureSql.courante());
+        instrumentation.terminer("DonController.getAllDons", mesure);
+
+        assertEquals(4, mesure.getRequetes());
+        assertEquals(6, mesure.getLignes());
+        assertEquals(3, mesure.getPlusRepetee().getValue());
+
+        Map<String, Object> endpoints = (Map<String, Object>) instrumentation.getStatistiques().get("endpoints");
+        Map<String, Object> dons = (Map<String, Object>) endpoints.get("DonController.getAllDons");
+        assertEquals(1L, dons.get("appels"));
+        assertEquals(4L, dons.get("requetes"));
+        assertEquals(6L, dons.get("lignes"));
+        assertEquals(1L, dons.get("alertes"));
+        Map<String, Object> horsRequete = (Map<String, Object>) endpoints.get(InstrumentationSql.HORS_REQUETE);
+        assertEquals(3L, horsRequete.get("requetes"));
+
+        assertEquals(1L, ((Map<String, Object>) dons.get("dureeSql")).get("nombre"));
+        assertEquals(1, registre.get("sql.duree.par.appel").tag("endpoint", "DonController.getAllDons").timer().count());
+        assertEquals(4.0, registre.get("sql.requetes.par.appel").tag("endpoint", "DonController.getAllDons")
+                .summary().totalAmount());
+        assertEquals(1, registre.get("sql.duree.par.appel").tag("endpoint", InstrumentationSql.HORS_REQUETE).timer().count());
+    }
+}
@@ -0,0 +1,31 @@
+package com.mediation.platform.monitoring;
+
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.enums.StatutDon;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetriquesMetierTest {
+
+    @Test
+    void compteDonsEtPaiementsHorsTransaction() {
+        SimpleMeterRegistry registre = new SimpleMeterRegistry();
+        MetriquesMetier metriques = new MetriquesMetier(registre);
+
+        Don don = new Don();
+        don.setMontant(50.0);
+        don.setStatut(StatutDon.VALIDE);
+        metriques.donCree(don);
+        metriques.paiement(true);
+        metriques.paiement(true);
+        metriques.paiement(false);
+
+        assertEquals(1.0, registre.get("dons.crees").counter().count());
+        assertEquals(1.0, registre.get("dons.valides").counter().count());
+        assertEquals(50.0, registre.get("dons.montant").summary().totalAmount());
+        assertEquals(2.0, registre.get("paiements").tag("resultat", "reussi").counter().count());
+        assertEquals(2.0 / 3, registre.get("paiements.taux.reussite").gauge().value(), 1e-9);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mediation.platform.recherche;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Banc d'essai du trie d'autocomplétion (200 000 titres par défaut) : construction,
+ * mémoire, latence des suggestions par longueur de préfixe et coût d'une mise à jour de score.
+ * Lancement manuel (non exécuté par surefire) :
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.mediation.platform.recherche.AutocompletionBenchmark [-Dbenchmark.titres=200000]
+ */
+public class AutocompletionBenchmark {
+
+    private static final String[] MOTS = {
+            "école", "puits", "eau", "santé", "enfants", "village", "bibliothèque", "cantine",
+            "femmes", "formation", "agriculture", "solidarité", "handicap", "orphelins", "médical",
+            "rénovation", "construction", "classe", "hiver", "couvertures", "ramadan", "coopérative",
+            "énergie", "solaire", "irrigation", "jeunesse", "sport", "culture", "numérique", "ordinateurs"
+    };
+
+    private static final String[] PREFIXES = {"e", "ec", "eco", "sol", "ener", "energie s", "cantine de"};
+
+    private static final int ITERATIONS = 10_000;
+
+    public static void main(String[] args) {
+        int nombreTitres = Integer.getInteger("benchmark.titres", 200_000);
+        Random aleatoire = new Random(42);
+
+        List<TrieSuggestions.Entree> entrees = new ArrayList<>(nombreTitres);
+        for (int i = 1; i <= nombreTitres; i++) {
+            entrees.add(new TrieSuggestions.Entree(i, titre(aleatoire, i), aleatoire.nextInt(500_000)));
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long memoireAvant = runtime.totalMemory() - runtime.freeMemory();
+        TrieSuggestions trie = new TrieSuggestions(10);
+        long debut = System.nanoTime();
+        trie.reconstruire(entrees);
+        long dureeConstruction = System.nanoTime() - debut;
+        System.gc();
+        long memoireApres = runtime.totalMemory() - runtime.freeMemory();
+
+        System.out.printf("Trie : %d titres, %d noeuds, construit en %.1f s, ~%d Mo (titres compris)%n",
+                trie.getNombreEntrees(), trie.getNombreNoeuds(), dureeConstruction / 1e9,
+                (memoireApres - memoireAvant) / (1024 * 1024));
+
+        for (String prefixe : PREFIXES) {
+            long[] durees = new long[ITERATIONS];
+            int resultats = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long t = System.nanoTime();
+                resultats = trie.suggerer(prefixe, 10).size();
+                durees[i] = System.nanoTime() - t;
+            }
+            afficher("suggerer \"" + prefixe + "\" (" + resultats + ")", durees);
+        }
+
+        // Mise à jour incrémentale : nouveau montant collecté pour un titre existant
+        long[] durees = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            TrieSuggestions.Entree entree = entrees.get(aleatoire.nextInt(nombreTitres));
+            long t = System.nanoTime();
+            trie.indexer(entree.getId(), entree.getLibelle(), aleatoire.nextInt(500_000));
+            durees[i] = System.nanoTime() - t;
+        }
+        afficher("mise a jour du score", durees);
+    }
+
+    private static String titre(Random aleatoire, int numero) {
+        StringBuilder titre = new StringBuilder();
+        int nombreMots = 2 + aleatoire.nextInt(4);
+        for (int i = 0; i < nombreMots; i++) {
+            titre.append(MOTS[aleatoire.nextInt(MOTS.length)]).append(i == 0 ? " de " : " ");
+        }
+        return titre.append(numero).toString();
+    }
+
+    private static void afficher(String libelle, long[] durees) {
+        Arrays.sort(durees);
+        System.out.printf("%-28s p50 %6.1f µs  p99 %7.1f µs  max %8.1f µs%n", libelle,
+                durees[durees.length / 2] / 1e3, durees[(int) (durees.length * 0.99)] / 1e3,
+                durees[durees.length - 1] / 1e3);
+    }
+}
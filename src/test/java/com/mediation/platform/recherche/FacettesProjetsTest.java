@@ -0,0 +1,108 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.enums.StatutUtilisateur;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * La navigation par facettes est publique : seuls les projets en cours ou terminés d'une
+ * association validée et non suspendue y figurent, au démarrage comme après chaque changement.
+ */
+@DataJpaTest
+@Import(FacettesProjets.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpa-h2")
+class FacettesProjetsTest {
+
+    @Autowired
+    private FacettesProjets facettesProjets;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int sequence;
+
+    @AfterEach
+    void nettoyer() {
+        projetRepository.deleteAll();
+        associationRepository.deleteAll();
+    }
+
+    @Test
+    void seulsLesProjetsPublicsSontIndexes() {
+        Association validee = association(true);
+        Projet enCours = projet(validee, StatutProjet.EN_COURS);
+        projet(validee, StatutProjet.TERMINE);
+        projet(validee, StatutProjet.BROUILLON);
+        projet(validee, StatutProjet.ANNULE);
+        Association nonValidee = association(false);
+        projet(nonValidee, StatutProjet.EN_COURS);
+        Association suspendue = association(true);
+        suspendue.setStatut(StatutUtilisateur.SUSPENDU);
+        associationRepository.save(suspendue);
+        projet(suspendue, StatutProjet.EN_COURS);
+
+        facettesProjets.reconstruire();
+        assertEquals(2, total());
+        assertEquals(Map.of("EN_COURS", 1, "TERMINE", 1),
+                facettesProjets.rechercher(Map.of(), 0, 10).getComptages().get(FacettesProjets.STATUT));
+
+        // Validation puis suspension d'une association
+        // Appels des services, dans leur transaction : index mis à jour après la validation
+        nonValidee.setStatutValidation(true);
+        Association validation = associationRepository.save(nonValidee);
+        new TransactionTemplate(transactionManager).executeWithoutResult(statut ->
+                facettesProjets.indexerAssociation(validation));
+        assertEquals(3, total());
+        nonValidee.setStatut(StatutUtilisateur.SUSPENDU);
+        associationRepository.save(nonValidee);
+        facettesProjets.retirerAssociation(nonValidee.getIdUtilisateur());
+        assertEquals(2, total());
+
+        // Projet annulé
+        enCours.setStatut(StatutProjet.ANNULE);
+        facettesProjets.indexerProjet(projetRepository.save(enCours));
+        assertEquals(1, total());
+    }
+
+    private long total() {
+        return facettesProjets.rechercher(Map.of(), 0, 10).getTotal();
+    }
+
+    private Association association(boolean validee) {
+        int n = ++sequence;
+        Association association = new Association("Nom" + n, "Prenom" + n, "facettes" + n + "@test.fr",
+                "motdepasse", "Association " + n, "Paris", "Description", "Santé");
+        association.setStatutValidation(validee);
+        return associationRepository.save(association);
+    }
+
+    private Projet projet(Association association, StatutProjet statut) {
+        Projet projet = new Projet("Projet " + ++sequence, "Description", 10000.0, association);
+        projet.setStatut(statut);
+        return projetRepository.save(projet);
+    }
+}
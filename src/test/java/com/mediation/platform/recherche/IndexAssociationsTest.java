@@ -0,0 +1,51 @@
+package com.mediation.platform.recherche;
+
+import com.mediation.platform.entity.Association;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexAssociationsTest {
+
+    private static Association association(long id, String nom, String domaine, String adresse, boolean validee) {
+        Association association = new Association();
+        association.setIdUtilisateur(id);
+        association.setNomAssociation(nom);
+        association.setDomaineActivite(domaine);
+        association.setAdresse(adresse);
+        association.setStatutValidation(validee);
+        return association;
+    }
+
+    private static List<Long> ids(ResultatsRecherche resultats) {
+        return resultats.getResultats().stream().map(ResultatsRecherche.Resultat::getId).toList();
+    }
+
+    @Test
+    void rechercheParPrefixeEtParChamp() {
+        IndexAssociations index = new IndexAssociations();
+        index.indexer(association(1, "Les Amis de l'École", "Éducation", "12 rue Haute, Dakar", true));
+        index.indexer(association(2, "Santé pour Tous", "Santé", "3 avenue Bourguiba, Thiès", true));
+        index.indexer(association(3, "Dakar Solidarité", "Social", "Saint-Louis", true));
+
+        assertEquals(List.of(1L), ids(index.rechercher("ami eco", null, null, null, 10)));
+        assertEquals(List.of(2L), ids(index.rechercher(null, null, "sant", null, 10)));
+        // « dakar » figure dans le nom de 3 mais seulement dans la ville de 1
+        assertEquals(List.of(1L), ids(index.rechercher(null, null, null, "dak", 10)));
+        assertEquals(2, index.rechercher("dakar", null, null, null, 10).getResultats().size());
+    }
+
+    @Test
+    void seulesLesAssociationsValideesSontIndexees() {
+        IndexAssociations index = new IndexAssociations();
+        index.indexer(association(1, "Eau Vive", "Environnement", "Kaolack", true));
+        index.indexer(association(2, "Eau Claire", "Environnement", "Kaolack", false));
+        assertEquals(List.of(1L), ids(index.rechercher("eau", null, null, null, 10)));
+
+        index.indexer(association(1, "Eau Vive", "Environnement", "Kaolack", false));
+        assertTrue(index.rechercher("eau", null, null, null, 10).getResultats().isEmpty());
+    }
+}
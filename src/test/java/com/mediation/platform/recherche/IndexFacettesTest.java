@@ -0,0 +1,49 @@
+package com.mediation.platform.recherche;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexFacettesTest {
+
+    private static IndexFacettes index() {
+        IndexFacettes index = new IndexFacettes("statut", "priorite", "domaine");
+        index.indexer(1, Map.of("statut", "EN_COURS", "priorite", "HAUTE", "domaine", "Santé"));
+        index.indexer(2, Map.of("statut", "EN_COURS", "priorite", "MOYENNE", "domaine", "Éducation"));
+        index.indexer(3, Map.of("statut", "TERMINE", "priorite", "HAUTE", "domaine", "Éducation"));
+        index.indexer(4, Map.of("statut", "EN_COURS", "priorite", "HAUTE", "domaine", "Éducation"));
+        return index;
+    }
+
+    @Test
+    void filtresCombinesEtComptagesMultiSelection() {
+        IndexFacettes.Resultat resultat = index().rechercher(
+                Map.of("statut", Set.of("EN_COURS"), "domaine", Set.of("Éducation")), 0, 10);
+
+        assertEquals(List.of(4L, 2L), resultat.getIds());
+        assertEquals(2, resultat.getTotal());
+        // Les comptages d'une facette ignorent son propre filtre
+        assertEquals(Map.of("EN_COURS", 2, "TERMINE", 1), resultat.getComptages().get("statut"));
+        assertEquals(Map.of("Santé", 1, "Éducation", 2), resultat.getComptages().get("domaine"));
+        assertEquals(Map.of("HAUTE", 1, "MOYENNE", 1), resultat.getComptages().get("priorite"));
+    }
+
+    @Test
+    void miseAJourIncrementaleEtPagination() {
+        IndexFacettes index = index();
+        index.indexer(2, Map.of("statut", "ANNULE", "priorite", "MOYENNE", "domaine", "Éducation"));
+        index.modifierValeur(Set.of(1L), "domaine", "Éducation");
+
+        IndexFacettes.Resultat resultat = index.rechercher(Map.of("domaine", Set.of("Éducation")), 1, 2);
+        assertEquals(List.of(2L, 1L), resultat.getIds());
+        assertEquals(4, resultat.getTotal());
+        assertEquals(Map.of("ANNULE", 1, "EN_COURS", 2, "TERMINE", 1), resultat.getComptages().get("statut"));
+
+        index.retirer(3);
+        assertEquals(3, index.rechercher(Map.of(), 0, 10).getTotal());
+    }
+}
@@ -0,0 +1,48 @@
+package com.mediation.platform.recherche;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexGeographiqueTest {
+
+    @Test
+    void voisinsParRayonDuPlusProcheAuPlusEloigne() {
+        IndexGeographique index = new IndexGeographique(0.1);
+        index.placer(1, 34.0209, -6.8416);   // Rabat
+        index.placer(2, 34.0531, -6.7985);   // Salé
+        index.placer(3, 33.5731, -7.5898);   // Casablanca
+        index.placer(4, 34.0181, -5.0078);   // Fès
+
+        List<IndexGeographique.Voisin> voisins = index.autourDe(34.0209, -6.8416, 100, 0);
+        assertEquals(List.of(1L, 2L, 3L), voisins.stream().map(IndexGeographique.Voisin::getId).toList());
+        assertTrue(voisins.get(2).getDistanceKm() > 80 && voisins.get(2).getDistanceKm() < 90);
+
+        // Déplacement puis retrait : plus de trace dans l'ancienne cellule
+        index.placer(3, 34.0181, -5.0078);
+        index.retirer(2);
+        assertEquals(List.of(1L), index.autourDe(34.0209, -6.8416, 100, 0).stream()
+                .map(IndexGeographique.Voisin::getId).toList());
+        assertEquals(3, index.getNombrePoints());
+        // Grand rayon : parcours des cellules occupées plutôt que du rectangle
+        assertEquals(2, index.autourDe(34.0, -6.0, 500, 2).size());
+    }
+
+    @Test
+    void gazetteerPrivilegieLaDerniereVilleCitee() throws Exception {
+        Gazetteer gazetteer = new Gazetteer();
+        gazetteer.charger(new StringReader("# ville;lat;lon;autres noms\n"
+                + "Casablanca;33.5731;-7.5898;Casa|Dar el Beida\n"
+                + "Fès;34.0181;-5.0078;Fez\n"
+                + "Ksar El Kebir;35.0017;-5.9053;\n"));
+
+        assertEquals("Casablanca", gazetteer.localiser("12 rue de Fès, Casablanca").get().getNom());
+        assertEquals("Casablanca", gazetteer.localiser("Bd Zerktouni, CASA").get().getNom());
+        assertEquals("Ksar El Kebir", gazetteer.localiser("quartier Souk, ksar el kébir").get().getNom());
+        assertTrue(gazetteer.localiser("Paris").isEmpty());
+    }
+}
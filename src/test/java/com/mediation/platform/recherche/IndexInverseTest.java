@@ -0,0 +1,67 @@
+package com.mediation.platform.recherche;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexInverseTest {
+
+    private static void indexer(IndexInverse index, long id, String titre, String description) {
+        index.indexer(id, MoteurRechercheMemoire.poidsParTerme(titre, null, description));
+    }
+
+    private static List<Long> ids(ResultatsRecherche resultats) {
+        return resultats.getResultats().stream().map(ResultatsRecherche.Resultat::getId).toList();
+    }
+
+    @Test
+    void rechercheSansAccentsNiCasseAvecRacinisation() {
+        IndexInverse index = new IndexInverse();
+        indexer(index, 1, "Construction d'une École primaire", "Salles de classe pour 200 enfants");
+        indexer(index, 2, "Puits au village", "Accès à l'eau potable");
+
+        assertEquals(List.of(1L), ids(index.rechercher(AnalyseurTexte.termes("ecoles"), false, 0, 10)));
+        assertEquals(List.of(2L), ids(index.rechercher(AnalyseurTexte.termes("ACCES eau"), false, 0, 10)));
+        assertTrue(index.rechercher(AnalyseurTexte.termes("ecole puits"), false, 0, 10).getResultats().isEmpty());
+    }
+
+    @Test
+    void leTitrePeseDavantageQueLaDescription() {
+        IndexInverse index = new IndexInverse();
+        indexer(index, 1, "Bibliothèque de quartier", "Achat de livres");
+        indexer(index, 2, "Rénovation", "Une bibliothèque pour le quartier");
+
+        assertEquals(List.of(1L, 2L), ids(index.rechercher(AnalyseurTexte.termes("bibliotheque"), false, 0, 10)));
+    }
+
+    @Test
+    void miseAJourRemplaceLaVersionPrecedenteEtPagination() {
+        IndexInverse index = new IndexInverse();
+        for (long id = 1; id <= 25; id++) {
+            indexer(index, id, "Projet solidaire " + id, null);
+        }
+        indexer(index, 3, "Cantine scolaire", null);
+
+        ResultatsRecherche page = index.rechercher(AnalyseurTexte.termes("solidaire"), false, 2, 10);
+        assertEquals(24, page.getTotal());
+        assertEquals(4, page.getResultats().size());
+        assertEquals(List.of(3L), ids(index.rechercher(AnalyseurTexte.termes("cantine"), false, 0, 10)));
+
+        index.retirer(3);
+        assertEquals(24, index.getNombreDocuments());
+        assertTrue(index.rechercher(AnalyseurTexte.termes("cantine"), false, 0, 10).getResultats().isEmpty());
+    }
+
+    @Test
+    void recherchePrefixe() {
+        IndexInverse index = new IndexInverse();
+        indexer(index, 1, "Casablanca solidarité", null);
+        indexer(index, 2, "Caravane médicale", null);
+
+        assertEquals(List.of(1L), ids(index.rechercher(List.of("casa"), true, 0, 10)));
+        assertEquals(2, index.rechercher(List.of("ca"), true, 0, 10).getTotal());
+    }
+}
@@ -0,0 +1,184 @@
+package com.mediation.platform.recherche;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Banc d'essai de la recherche plein texte sur un grand volume de projets (1 000 000 par défaut).
+ * Lancement manuel (non exécuté par surefire) :
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.mediation.platform.recherche.RechercheProjetsBenchmark
+ *     [-Dbenchmark.projets=1000000] [-Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/mediation_db
+ *      -Dbenchmark.jdbc.user=postgres -Dbenchmark.jdbc.password=postgres]
+ * Sans URL JDBC, seul l'index en mémoire est mesuré. Avec une URL, la table projets
+ * (colonne recherche et index GIN créés par db/recherche-postgres.sql) est remplie par
+ * generate_series puis LIKE et tsvector sont comparés.
+ */
+public class RechercheProjetsBenchmark {
+
+    private static final String[] MOTS = {
+            "école", "puits", "eau", "santé", "enfants", "village", "bibliothèque", "cantine",
+            "femmes", "formation", "agriculture", "solidarité", "handicap", "orphelins", "médical",
+            "rénovation", "construction", "classe", "hiver", "couvertures", "ramadan", "coopérative",
+            "énergie", "solaire", "irrigation", "jeunesse", "sport", "culture", "numérique", "ordinateurs"
+    };
+
+    private static final String[] VILLES = {
+            "Casablanca", "Rabat", "Fès", "Marrakech", "Tanger", "Agadir", "Oujda", "Meknès", "Tétouan", "Ouarzazate"
+    };
+
+    private static final String[] REQUETES = {
+            "école", "puits eau", "santé enfants village", "énergie solaire", "ordinateurs jeunesse Agadir"
+    };
+
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int nombreProjets = Integer.getInteger("benchmark.projets", 1_000_000);
+        mesurerMemoire(nombreProjets);
+
+        String url = System.getProperty("benchmark.jdbc.url");
+        if (url != null) {
+            mesurerPostgres(url, nombreProjets);
+        }
+    }
+
+    private static void mesurerMemoire(int nombreProjets) {
+        Random aleatoire = new Random(42);
+        IndexInverse index = new IndexInverse();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long memoireAvant = runtime.totalMemory() - runtime.freeMemory();
+        long debut = System.nanoTime();
+        for (int i = 1; i <= nombreProjets; i++) {
+            index.indexer(i, MoteurRechercheMemoire.poidsParTerme(titre(aleatoire), null, description(aleatoire)));
+        }
+        long dureeConstruction = System.nanoTime() - debut;
+        System.gc();
+        long memoireApres = runtime.totalMemory() - runtime.freeMemory();
+
+        System.out.printf("Index mémoire : %d projets, %d termes, construit en %.1f s, ~%d Mo%n",
+                index.getNombreDocuments(), index.getNombreTermes(), dureeConstruction / 1e9,
+                (memoireApres - memoireAvant) / (1024 * 1024));
+
+        for (String requete : REQUETES) {
+            List<String> termes = AnalyseurTexte.termes(requete);
+            long[] durees = new long[ITERATIONS];
+            long total = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long t = System.nanoTime();
+                total = index.rechercher(termes, false, 0, 20).getTotal();
+                durees[i] = System.nanoTime() - t;
+            }
+            afficher("mémoire", requete, total, durees);
+        }
+    }
+
+    private static void mesurerPostgres(String url, int nombreProjets) throws Exception {
+        try (Connection connexion = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"))) {
+
+            try (Statement statement = connexion.createStatement()) {
+                ResultSet compte = statement.executeQuery("SELECT count(*) FROM projets");
+                compte.next();
+                long existants = compte.getLong(1);
+                if (existants < nombreProjets) {
+                    ResultSet association = statement.executeQuery("SELECT min(id_utilisateur) FROM associations");
+                    association.next();
+                    long idAssociation = association.getLong(1);
+
+                    long debut = System.nanoTime();
+                    statement.executeUpdate(
+                            "INSERT INTO projets (titre, description, objectif, montant_demande, montant_collecte, statut, id_association, date_creation) " +
+                                    "SELECT (ARRAY" + tableauSql(MOTS) + ")[1 + (g * 7) % " + MOTS.length + "] || ' ' || " +
+                                    "(ARRAY" + tableauSql(VILLES) + ")[1 + g % " + VILLES.length + "], " +
+                                    "(ARRAY" + tableauSql(MOTS) + ")[1 + (g * 13) % " + MOTS.length + "] || ' ' || " +
+                                    "(ARRAY" + tableauSql(MOTS) + ")[1 + (g * 17) % " + MOTS.length + "] || ' ' || " +
+                                    "(ARRAY" + tableauSql(MOTS) + ")[1 + (g * 31) % " + MOTS.length + "], " +
+                                    "'Projet de banc d''essai', 10000, 0, 'EN_COURS', " + idAssociation + ", now() " +
+                                    "FROM generate_series(1, " + (nombreProjets - existants) + ") g");
+                    statement.execute("ANALYZE projets");
+                    System.out.printf("PostgreSQL : %d projets insérés en %.1f s%n",
+                            nombreProjets - existants, (System.nanoTime() - debut) / 1e9);
+                }
+            }
+
+            for (String requete : REQUETES) {
+                mesurerSql(connexion, "postgres LIKE", requete,
+                        "SELECT id_projet FROM projets WHERE titre LIKE ? OR description LIKE ? OR objectif LIKE ? LIMIT 20",
+                        3, "%" + requete.split(" ")[0] + "%");
+                mesurerSql(connexion, "postgres tsvector", requete,
+                        "SELECT id_projet FROM projets p, websearch_to_tsquery('francais_sans_accents', ?) q " +
+                                "WHERE p.recherche @@ q ORDER BY ts_rank_cd(p.recherche, q) DESC LIMIT 20",
+                        1, requete);
+            }
+        }
+    }
+
+    private static void mesurerSql(Connection connexion, String libelle, String requete, String sql,
+                                   int nombreParametres, String valeur) throws Exception {
+        int iterations = ITERATIONS / 10;
+        long[] durees = new long[iterations];
+        long lignes = 0;
+        try (PreparedStatement statement = connexion.prepareStatement(sql)) {
+            for (int p = 1; p <= nombreParametres; p++) {
+                statement.setString(p, valeur);
+            }
+            for (int i = 0; i < iterations; i++) {
+                long t = System.nanoTime();
+                lignes = 0;
+                try (ResultSet resultats = statement.executeQuery()) {
+                    while (resultats.next()) {
+                        lignes++;
+                    }
+                }
+                durees[i] = System.nanoTime() - t;
+            }
+        }
+        afficher(libelle, requete, lignes, durees);
+    }
+
+    private static void afficher(String moteur, String requete, long total, long[] durees) {
+        Arrays.sort(durees);
+        System.out.printf("%-18s %-30s %8d résultats  p50=%8.3f ms  p99=%8.3f ms%n", moteur, "\"" + requete + "\"",
+                total, durees[durees.length / 2] / 1e6, durees[(int) (durees.length * 0.99)] / 1e6);
+    }
+
+    private static String titre(Random aleatoire) {
+        return MOTS[aleatoire.nextInt(MOTS.length)] + " " + MOTS[aleatoire.nextInt(MOTS.length)]
+                + " " + VILLES[aleatoire.nextInt(VILLES.length)];
+    }
+
+    private static String description(Random aleatoire) {
+        StringBuilder description = new StringBuilder(200);
+        int mots = 12 + aleatoire.nextInt(20);
+        for (int i = 0; i < mots; i++) {
+            // Vocabulaire courant + queue longue de termes rares (références, noms propres)
+            if (aleatoire.nextInt(4) == 0) {
+                description.append("ref").append(aleatoire.nextInt(200_000)).append(' ');
+            } else {
+                description.append(MOTS[aleatoire.nextInt(MOTS.length)]).append(' ');
+            }
+        }
+        return description.toString();
+    }
+
+    private static String tableauSql(String[] valeurs) {
+        StringBuilder tableau = new StringBuilder("[");
+        for (int i = 0; i < valeurs.length; i++) {
+            if (i > 0) {
+                tableau.append(',');
+            }
+            tableau.append('\'').append(valeurs[i].replace("'", "''")).append('\'');
+        }
+        return tableau.append(']').toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mediation.platform.recherche;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrieSuggestionsTest {
+
+    private static List<Long> ids(List<TrieSuggestions.Entree> entrees) {
+        return entrees.stream().map(TrieSuggestions.Entree::getId).toList();
+    }
+
+    @Test
+    void prefixeDeNimporteQuelMotClasseParScore() {
+        TrieSuggestions trie = new TrieSuggestions(10);
+        trie.indexer(1, "Construction d'une École", 5000);
+        trie.indexer(2, "Cantine scolaire", 12000);
+        trie.indexer(3, "Écoles rurales du Sud", 8000);
+
+        assertEquals(List.of(3L, 1L), ids(trie.suggerer("eco", 10)));
+        assertEquals(List.of(2L, 1L), ids(trie.suggerer("C", 10)));
+        assertEquals(List.of(1L), ids(trie.suggerer("une ec", 10)));
+        assertEquals(List.of(2L), ids(trie.suggerer("cantine ", 10)));
+        assertTrue(trie.suggerer("puits", 10).isEmpty());
+    }
+
+    @Test
+    void seulsLesKMeilleursSontGardesParPrefixe() {
+        TrieSuggestions trie = new TrieSuggestions(3);
+        for (int i = 1; i <= 20; i++) {
+            trie.indexer(i, "Projet " + i, i * 100.0);
+        }
+
+        assertEquals(List.of(20L, 19L, 18L), ids(trie.suggerer("proj", 10)));
+        assertEquals(List.of(20L), ids(trie.suggerer("pro", 1)));
+    }
+
+    @Test
+    void miseAJourDuScoreEtRetrait() {
+        TrieSuggestions trie = new TrieSuggestions(2);
+        trie.indexer(1, "Eau potable", 100);
+        trie.indexer(2, "Eau vive", 200);
+        trie.indexer(3, "Eau claire", 50);
+        assertEquals(List.of(2L, 1L), ids(trie.suggerer("eau", 10)));
+
+        trie.indexer(3, "Eau claire", 500);
+        assertEquals(List.of(3L, 2L), ids(trie.suggerer("eau", 10)));
+
+        trie.retirer(2);
+        trie.indexer(3, "Source claire", 500);
+        assertEquals(List.of(1L), ids(trie.suggerer("eau", 10)));
+        assertEquals(List.of(3L), ids(trie.suggerer("cla", 10)));
+        assertTrue(trie.suggerer("eau v", 10).isEmpty());
+    }
+}
@@ -0,0 +1,220 @@
+package com.mediation.platform.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mediation.platform.classement.Classements;
+import com.mediation.platform.dto.response.AssociationResume;
+import com.mediation.platform.dto.response.DonateurResume;
+import com.mediation.platform.dto.response.ProjetResume;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.service.DonateurService;
+import com.mediation.platform.service.NotificationService;
+import com.mediation.platform.service.ProximiteService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Les résumés servis par les listes et fiches (associations, projets, profil donateur) doivent
+ * coûter un nombre fixe de requêtes SQL, sérialisation JSON comprise, quel que soit le volume.
+ */
+@DataJpaTest
+@Import(DonateurService.class)
+@ActiveProfiles("jpa-h2")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ResumesRequetesTest {
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private DonateurService donateurService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @MockBean
+    private ProximiteService proximiteService;
+
+    @MockBean
+    private Classements classements;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private int sequence;
+
+    @Test
+    void listeDesAssociationsEnUneRequete() {
+        creerAssociations(2);
+        assertEquals(1, requetesPour(() -> associationRepository.findResumesValidees()));
+        creerAssociations(20);
+        assertEquals(1, requetesPour(() -> associationRepository.findResumesValidees()));
+
+        List<AssociationResume> resumes = associationRepository.findResumesValidees();
+        assertEquals(22, resumes.size());
+        assertEquals(2, resumes.get(0).getNombreProjets());
+        assertEquals(1, resumes.get(0).getNombreProjetsActifs());
+        assertEquals(1, resumes.get(0).getNombreProjetsTermines());
+    }
+
+    @Test
+    void listeDesProjetsEnUneRequete() {
+        creerAssociations(2);
+        assertEquals(1, requetesPour(() -> projetRepository.findResumesByStatut(StatutProjet.EN_COURS)));
+        creerAssociations(20);
+        assertEquals(1, requetesPour(() -> projetRepository.findResumesByStatut(StatutProjet.EN_COURS)));
+
+        ProjetResume projet = projetRepository.findResumesByStatut(StatutProjet.EN_COURS).get(0);
+        assertEquals(2, projet.getNombreDons());
+        assertEquals(1, projet.getNombreDonsValides());
+        assertEquals(2, projet.getNombreDonateurs());
+    }
+
+    @Test
+    void fichesAssociationEtProjetEnUneRequete() {
+        List<Association> associations = creerAssociations(5);
+        Long idAssociation = associations.get(0).getIdUtilisateur();
+        Long idProjet = associations.get(0).getProjets().get(0).getIdProjet();
+
+        assertEquals(1, requetesPour(() -> associationRepository.findResumeById(idAssociation).orElseThrow()));
+        assertEquals(1, requetesPour(() -> projetRepository.findResumeById(idProjet).orElseThrow()));
+    }
+
+    @Test
+    void resultatsDeRechercheEnUneRequete() {
+        List<Association> associations = creerAssociations(20);
+        List<Long> idsAssociations = associations.stream().map(Association::getIdUtilisateur).toList();
+        List<Long> idsProjets = associations.stream().map(a -> a.getProjets().get(0).getIdProjet()).toList();
+
+        assertEquals(1, requetesPour(() -> associationRepository.findResumesByIds(idsAssociations)));
+        assertEquals(1, requetesPour(() -> projetRepository.findResumesByIds(idsProjets)));
+        assertEquals(1, requetesPour(() -> projetRepository.findResumesByAssociationsEtStatut(idsAssociations, StatutProjet.EN_COURS)));
+        assertEquals(20, projetRepository.findResumesByAssociationsEtStatut(idsAssociations, StatutProjet.EN_COURS).size());
+    }
+
+    @Test
+    void statistiquesPubliquesEnAgregats() {
+        creerAssociations(3);
+        assertEquals(1, requetesPour(() -> projetRepository.countParStatut()));
+        assertEquals(1, requetesPour(() -> donRepository.agregerValides()));
+        assertEquals(1, requetesPour(() -> associationRepository.countValideesParDomaine()));
+
+        Object[] projets = projetRepository.countParStatut().get(0);
+        assertEquals(List.of(6L, 3L, 3L), List.of(((Number) projets[0]).longValue(),
+                ((Number) projets[1]).longValue(), ((Number) projets[2]).longValue()));
+        Object[] dons = donRepository.agregerValides().get(0);
+        assertEquals(6L, ((Number) dons[0]).longValue());
+        assertEquals(6L, ((Number) dons[1]).longValue());
+        assertEquals(300.0, ((Number) dons[2]).doubleValue());
+        Object[] domaine = associationRepository.countValideesParDomaine().get(0);
+        assertEquals("Santé", domaine[0]);
+        assertEquals(3L, ((Number) domaine[1]).longValue());
+    }
+
+    @Test
+    void profilDonateurSansParcourirSesDons() {
+        Donateur donateur = creerDonateur();
+        creerAssociations(2, donateur);
+        long peuDeDons = requetesPour(() -> donateurService.getResume(donateur.getIdUtilisateur()));
+        creerAssociations(20, donateur);
+        long beaucoupDeDons = requetesPour(() -> donateurService.getResume(donateur.getIdUtilisateur()));
+
+        assertEquals(3, peuDeDons);
+        assertEquals(peuDeDons, beaucoupDeDons);
+
+        DonateurResume resume = donateurService.getResume(donateur.getIdUtilisateur());
+        assertEquals(88, resume.getNombreDons());
+        assertEquals(44, resume.getNombreDonsValides());
+        assertEquals(22, resume.getNombreAssociationsSoutenues());
+        assertEquals(2200.0, resume.getMontantTotalDons());
+        assertEquals("Platine", resume.getNiveauDonateur());
+        assertEquals("Santé", resume.getDomainePreference());
+    }
+
+    /**
+     * Requêtes SQL exécutées pour produire le résultat et le sérialiser comme le ferait le contrôleur
+     */
+    private long requetesPour(Supplier<?> endpoint) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistiques = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+        try {
+            objectMapper.writeValueAsString(endpoint.get());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return statistiques.getPrepareStatementCount();
+    }
+
+    private List<Association> creerAssociations(int nombre) {
+        return creerAssociations(nombre, null);
+    }
+
+    /**
+     * Associations validées avec un projet en cours et un projet terminé, chacun avec un don
+     * validé et un don en attente (du donateur donné, sinon de donateurs distincts)
+     */
+    private List<Association> creerAssociations(int nombre, Donateur donateur) {
+        List<Association> associations = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            int n = ++sequence;
+            Association association = new Association("Nom" + n, "Prenom" + n, "association" + n + "@test.fr",
+                    "motdepasse", "Association " + n, "Paris", "Description", "Santé");
+            association.setStatutValidation(true);
+            associationRepository.save(association);
+
+            for (StatutProjet statut : List.of(StatutProjet.EN_COURS, StatutProjet.TERMINE)) {
+                Projet projet = new Projet("Projet " + n + " " + statut, "Description", 10000.0, association);
+                projet.setStatut(statut);
+                projetRepository.save(projet);
+                association.getProjets().add(projet);
+
+                for (StatutDon statutDon : List.of(StatutDon.VALIDE, StatutDon.EN_ATTENTE)) {
+                    Don don = new Don(50.0, donateur != null ? donateur : creerDonateur(), projet);
+                    don.setStatut(statutDon);
+                    donRepository.save(don);
+                }
+            }
+            associations.add(association);
+        }
+        return associations;
+    }
+
+    private Donateur creerDonateur() {
+        int n = ++sequence;
+        return donateurRepository.save(new Donateur("Nom" + n, "Prenom" + n, "donateur" + n + "@test.fr", "motdepasse"));
+    }
+}
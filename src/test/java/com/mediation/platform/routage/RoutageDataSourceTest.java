@@ -0,0 +1,140 @@
+package com.mediation.platform.routage;
+
+import com.mediation.platform.config.RoutageDataSourceConfig;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.repository.DonateurRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aiguillage sur deux bases H2 en mémoire : les transactions en lecture seule des rapports lisent
+ * la réplique, tout le reste le primaire ; retour sur le primaire si la réplique est en retard ou
+ * injoignable. Chaque base se reconnaît à DATABASE().
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RoutageDataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpa-h2")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaire;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "app.datasource.replica.url=jdbc:h2:mem:replique;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.requete-retard=SELECT ms FROM retard",
+        "app.datasource.replica.retard-max-ms=1000"
+})
+class RoutageDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SurveillanceReplique surveillance;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    private RoutageDataSource routage;
+    private JdbcTemplate replique;
+
+    @BeforeEach
+    void preparerReplique() throws Exception {
+        routage = dataSource.unwrap(RoutageDataSource.class);
+        replique = new JdbcTemplate(routage.getReplique());
+        replique.execute("CREATE TABLE IF NOT EXISTS retard (ms BIGINT)");
+        replique.update("DELETE FROM retard");
+        replique.update("INSERT INTO retard VALUES (0)");
+        surveillance.verifier();
+    }
+
+    @AfterEach
+    void nettoyer() {
+        donateurRepository.deleteAll();
+    }
+
+    @Test
+    void rapportsSurLaRepliqueLeResteSurLePrimaire() {
+        long lecturesReplique = routage.getLecturesReplique();
+
+        assertEquals("REPLIQUE", ContexteRapport.executer(() -> base(true)));
+        assertEquals("PRIMAIRE", ContexteRapport.executer(() -> base(false)));
+        assertEquals("PRIMAIRE", base(true));
+        assertEquals(lecturesReplique + 1, routage.getLecturesReplique());
+
+        // Écriture JPA puis relecture par le dépôt (lecture seule, hors rapport) : toutes deux sur
+        // le primaire, la réplique H2 n'ayant pas le schéma
+        donateurRepository.save(new Donateur("Routage", "Test", "routage@test.fr", "motdepasse"));
+        assertEquals(1, donateurRepository.count());
+        assertThrows(InvalidDataAccessResourceUsageException.class,
+                () -> ContexteRapport.executer(donateurRepository::count));
+    }
+
+    @Test
+    void repliqueEnRetardEcarteePuisRetablie() {
+        replique.update("UPDATE retard SET ms = 4000");
+        surveillance.verifier();
+
+        assertFalse(routage.isRepliqueUtilisable());
+        assertEquals(4000.0, surveillance.getRetardMs());
+        long lecturesPrimaire = routage.getLecturesPrimaire();
+        assertEquals("PRIMAIRE", rapport());
+        assertEquals(lecturesPrimaire + 1, routage.getLecturesPrimaire());
+
+        replique.update("UPDATE retard SET ms = 200");
+        surveillance.verifier();
+        assertTrue(routage.isRepliqueUtilisable());
+        assertEquals("REPLIQUE", rapport());
+    }
+
+    @Test
+    @DirtiesContext
+    void repliqueInjoignableLecturesSurLePrimaire() {
+        routage.getReplique().close();
+
+        assertEquals("PRIMAIRE", rapport());
+        assertFalse(routage.isRepliqueUtilisable());
+        assertEquals(1, routage.getEchecsReplique());
+
+        surveillance.verifier();
+        assertFalse(routage.isRepliqueUtilisable());
+    }
+
+    private String rapport() {
+        return ContexteRapport.executer(() -> base(true));
+    }
+
+    private String base(boolean lectureSeule) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(lectureSeule);
+        return transaction.execute(statut ->
+                (String) entityManager.createNativeQuery("SELECT DATABASE()").getSingleResult());
+    }
+}
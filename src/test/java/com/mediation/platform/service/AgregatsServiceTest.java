@@ -0,0 +1,194 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Les agrégats tenus à jour à chaque transition doivent égaler leur recalcul complet
+ */
+@DataJpaTest
+@Import({AgregatsService.class, CacheEntitesService.class})
+@ActiveProfiles("jpa-h2")
+class AgregatsServiceTest {
+
+    @Autowired
+    private AgregatsService agregatsService;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Association association;
+    private Projet projetA;
+    private Projet projetB;
+    private Donateur donateur;
+
+    @BeforeEach
+    void creerDonnees() {
+        association = new Association("Nom", "Prenom", "association@test.fr", "motdepasse",
+                "Association", "Paris", "Description", "Santé");
+        association.setStatutValidation(true);
+        associationRepository.save(association);
+        projetA = projetRepository.save(new Projet("Projet A", "Description", 10000.0, association));
+        projetB = projetRepository.save(new Projet("Projet B", "Description", 10000.0, association));
+        donateur = donateurRepository.save(new Donateur("Nom", "Prenom", "donateur@test.fr", "motdepasse"));
+    }
+
+    @Test
+    void transitionsDesDons() {
+        Don premier = valider(100.0, projetA, LocalDate.now().minusDays(10));
+        valider(50.0, projetA, LocalDate.now().minusDays(5));
+        Don dernier = valider(25.0, projetB, LocalDate.now());
+
+        Donateur d = recharger();
+        assertEquals(175.0, d.getMontantTotalDons());
+        assertEquals(3, d.getNombreDonsValides());
+        assertEquals(2, d.getNombreProjetsSoutenus());
+        assertEquals(1, d.getNombreAssociationsSoutenues());
+        assertEquals(LocalDate.now().minusDays(10), d.getDatePremierDon());
+        assertEquals(LocalDate.now(), d.getDateDernierDon());
+        assertEquals(3, associationRepository.findById(association.getIdUtilisateur()).orElseThrow().getNombreDonsValides());
+
+        retirer(dernier);
+        retirer(premier);
+
+        d = recharger();
+        assertEquals(50.0, d.getMontantTotalDons());
+        assertEquals(1, d.getNombreDonsValides());
+        assertEquals(1, d.getNombreProjetsSoutenus());
+        assertEquals(LocalDate.now().minusDays(5), d.getDatePremierDon());
+        assertEquals(LocalDate.now().minusDays(5), d.getDateDernierDon());
+        assertEquals(0, agregatsService.verifier(false).getEcartsDonateurs());
+    }
+
+    @Test
+    void montantCollecteDesProjets() {
+        projetA.setMontantCollecte(300.0);
+        projetB.setMontantCollecte(200.0);
+        agregatsService.montantProjetModifie(association.getIdUtilisateur());
+
+        entityManager.clear();
+        assertEquals(500.0, associationRepository.findById(association.getIdUtilisateur()).orElseThrow()
+                .getMontantTotalCollecte());
+    }
+
+    @Test
+    void verificateurCorrigeLesEcarts() {
+        valider(100.0, projetA, LocalDate.now());
+        jdbcTemplate.update("UPDATE donateurs SET nombre_dons_valides = 7, date_premier_don = NULL");
+        jdbcTemplate.update("UPDATE associations SET montant_total_collecte = 42");
+
+        AgregatsService.RapportVerification rapport = agregatsService.verifier(true);
+        assertEquals(1, rapport.getEcartsDonateurs());
+        assertEquals(1, rapport.getEcartsAssociations());
+
+        AgregatsService.RapportVerification apres = agregatsService.verifier(false);
+        assertEquals(0, apres.getEcartsDonateurs());
+        assertEquals(0, apres.getEcartsAssociations());
+        Donateur d = recharger();
+        assertEquals(1, d.getNombreDonsValides());
+        assertEquals(LocalDate.now(), d.getDatePremierDon());
+    }
+
+    @Test
+    void recalculCompletApresChargementHorsJpa() {
+        // Dons écrits directement en base : ni montant collecté ni agrégats à jour
+        entityManager.flush();
+        inserer(1L, 100.0, projetA, StatutDon.VALIDE, LocalDate.now().minusDays(3));
+        inserer(2L, 40.0, projetB, StatutDon.VALIDE, LocalDate.now());
+        inserer(3L, 999.0, projetB, StatutDon.REFUSE, LocalDate.now());
+        jdbcTemplate.update("UPDATE projets SET montant_collecte = 7 WHERE id_projet = ?", projetB.getIdProjet());
+
+        agregatsService.recalculerTout();
+
+        assertEquals(0, agregatsService.verifier(false).getEcartsDonateurs());
+        assertEquals(0, agregatsService.verifier(false).getEcartsAssociations());
+        entityManager.clear();
+        assertEquals(100.0, projetRepository.findById(projetA.getIdProjet()).orElseThrow().getMontantCollecte());
+        assertEquals(40.0, projetRepository.findById(projetB.getIdProjet()).orElseThrow().getMontantCollecte());
+        assertEquals(140.0, associationRepository.findById(association.getIdUtilisateur()).orElseThrow()
+                .getMontantTotalCollecte());
+        Donateur d = recharger();
+        assertEquals(2, d.getNombreProjetsSoutenus());
+        assertEquals(LocalDate.now().minusDays(3), d.getDatePremierDon());
+
+        jdbcTemplate.update("DELETE FROM dons");
+        agregatsService.recalculerTout();
+        assertEquals(0, recharger().getNombreDonsValides());
+        assertEquals(0.0, projetRepository.findById(projetA.getIdProjet()).orElseThrow().getMontantCollecte());
+    }
+
+    @Test
+    void donateurSansDon() {
+        Donateur d = recharger();
+        assertEquals(0.0, d.getMontantTotalDons());
+        assertEquals(0, d.getNombreDonsValides());
+        assertNull(d.getDatePremierDon());
+        assertEquals(0, agregatsService.verifier(false).getEcartsDonateurs());
+    }
+
+    private Don valider(double montant, Projet projet, LocalDate date) {
+        Don don = new Don(montant, donateur, projet);
+        don.setStatut(StatutDon.VALIDE);
+        donRepository.saveAndFlush(don);
+        // Date de création posée à l'insertion : antidater en base
+        jdbcTemplate.update("UPDATE dons SET date = ? WHERE id_don = ?", date, don.getIdDon());
+        don.setDate(date);
+        agregatsService.donValide(don);
+        return don;
+    }
+
+    private void inserer(long id, double montant, Projet projet, StatutDon statut, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO dons (id_don, montant, date, anonyme, statut, id_donateur, id_projet) "
+                        + "VALUES (?, ?, ?, FALSE, ?, ?, ?)", id + 1000, montant, date, statut.name(),
+                donateur.getIdUtilisateur(), projet.getIdProjet());
+    }
+
+    private void retirer(Don don) {
+        don.setStatut(StatutDon.REMBOURSE);
+        donRepository.save(don);
+        agregatsService.donRetire(don);
+    }
+
+    private Donateur recharger() {
+        entityManager.flush();
+        entityManager.clear();
+        Donateur d = donateurRepository.findById(donateur.getIdUtilisateur()).orElseThrow();
+        donateur = d;
+        return d;
+    }
+}
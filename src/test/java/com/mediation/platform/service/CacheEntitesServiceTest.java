@@ -0,0 +1,154 @@
+package com.mediation.platform.service;
+
+import com.mediation.platform.config.CacheConfig;
+import com.mediation.platform.dto.response.ProjetResume;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache de second niveau des projets : relecture servie sans SQL, à jour après une modification,
+ * rechargée après une éviction ; liste publique en cache de requêtes, invalidée par un nouveau don ;
+ * compteurs JCache par région lus dans Micrometer. Chaque appel du dépôt est sa propre transaction validée.
+ */
+@DataJpaTest
+@Import({CacheConfig.class, CacheEntitesService.class})
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpa-h2")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CacheEntitesServiceTest {
+
+    @Autowired
+    private CacheEntitesService cacheEntitesService;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long idProjet;
+
+    @BeforeEach
+    void creerProjet() {
+        Association association = new Association("Nom", "Prenom", "cache@test.fr", "motdepasse",
+                "Association", "Paris", "Description", "Santé");
+        association.setStatutValidation(true);
+        associationRepository.save(association);
+        idProjet = projetRepository.save(new Projet("Projet", "Description", 10000.0, association)).getIdProjet();
+
+        sessionFactory().getCache().evictAllRegions();
+        statistiques().clear();
+    }
+
+    @AfterEach
+    void nettoyer() {
+        donRepository.deleteAll();
+        projetRepository.deleteAll();
+        associationRepository.deleteAll();
+        donateurRepository.deleteAll();
+    }
+
+    @Test
+    void secondeLectureServieParLeCache() {
+        projetRepository.findById(idProjet).orElseThrow();
+        long requetes = statistiques().getPrepareStatementCount();
+        projetRepository.findById(idProjet).orElseThrow();
+
+        assertEquals(requetes, statistiques().getPrepareStatementCount());
+        assertEquals(1, statistiques().getDomainDataRegionStatistics(CacheConfig.REGION_PROJETS).getHitCount());
+    }
+
+    @Test
+    void modificationPuisEvictionInvalidentLEntree() {
+        Projet projet = projetRepository.findById(idProjet).orElseThrow();
+        projet.setTitre("Projet modifié");
+        projetRepository.save(projet);
+
+        long requetes = statistiques().getPrepareStatementCount();
+        assertEquals("Projet modifié", projetRepository.findById(idProjet).orElseThrow().getTitre());
+        assertEquals(requetes, statistiques().getPrepareStatementCount());
+
+        cacheEntitesService.evincerProjet(idProjet);
+        assertFalse(sessionFactory().getCache().containsEntity(Projet.class, idProjet));
+        assertEquals("Projet modifié", projetRepository.findById(idProjet).orElseThrow().getTitre());
+        assertTrue(statistiques().getPrepareStatementCount() > requetes);
+    }
+
+    @Test
+    void listePubliqueEnCacheDeRequetesJusquAuProchainDon() {
+        projetRepository.findResumesByStatut(StatutProjet.EN_COURS);
+        long requetes = statistiques().getPrepareStatementCount();
+        assertEquals(0, projetRepository.findResumesByStatut(StatutProjet.EN_COURS).get(0).getNombreDons());
+        assertEquals(requetes, statistiques().getPrepareStatementCount());
+
+        // Le don touche une table des sous-requêtes du résumé : résultat en cache périmé
+        Donateur donateur = donateurRepository.save(new Donateur("Nom", "Prenom", "donateur-cache@test.fr", "motdepasse"));
+        donRepository.save(new Don(50.0, donateur, projetRepository.findById(idProjet).orElseThrow()));
+        List<ProjetResume> resumes = projetRepository.findResumesByStatut(StatutProjet.EN_COURS);
+        assertEquals(1, resumes.get(0).getNombreDons());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compteursParRegionDansMicrometer() {
+        long succes = (long) ((Map<String, Object>) cacheEntitesService.getStatistiques().get("projets")).get("succes");
+        projetRepository.findById(idProjet).orElseThrow();
+        projetRepository.findById(idProjet).orElseThrow();
+
+        Map<String, Object> projets = (Map<String, Object>) cacheEntitesService.getStatistiques().get("projets");
+        assertEquals(succes + 1, projets.get("succes"));
+    }
+
+    private Statistics statistiques() {
+        return sessionFactory().getStatistics();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
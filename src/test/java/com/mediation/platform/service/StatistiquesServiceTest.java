@@ -0,0 +1,118 @@
+package com.mediation.platform.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Composition du tableau de bord des statistiques : une section lente, en erreur ou refusée par
+ * le pool est listée dans sectionsIndisponibles, les autres sont rendues normalement
+ */
+class StatistiquesServiceTest {
+
+    private final StatistiquesService statistiquesService = new StatistiquesService();
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void initialiser() {
+        // Un thread, une place en file, refus si plein (comme statistiquesExecutor)
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        ReflectionTestUtils.setField(statistiquesService, "statistiquesExecutor", executor);
+        ReflectionTestUtils.setField(statistiquesService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(statistiquesService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(statistiquesService, "tableauDeBordParallele", true);
+        ReflectionTestUtils.setField(statistiquesService, "timeoutSectionMs", 200L);
+    }
+
+    @AfterEach
+    void arreter() {
+        executor.shutdown();
+    }
+
+    @Test
+    void sectionHorsDelaiAnnuleeEtInterrompue() throws Exception {
+        CountDownLatch interrompue = new CountDownLatch(1);
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        sections.put("rapide", () -> "ok");
+        sections.put("lente", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrompue.countDown();
+            }
+            return "trop tard";
+        });
+
+        Map<String, Object> dashboard = statistiquesService.composer(sections);
+
+        assertFalse(dashboard.containsKey("lente"));
+        assertEquals("ok", ((JsonNode) dashboard.get("rapide")).asText());
+        assertEquals(Map.of("lente", "Délai dépassé (200 ms)"), dashboard.get("sectionsIndisponibles"));
+        assertTrue(interrompue.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void sectionEnErreurEnParalleleCommeEnSequence() {
+        for (boolean parallele : new boolean[] {true, false}) {
+            ReflectionTestUtils.setField(statistiquesService, "tableauDeBordParallele", parallele);
+            Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+            sections.put("enErreur", () -> {
+                throw new IllegalStateException("Base indisponible");
+            });
+            sections.put("valide", () -> 42);
+
+            Map<String, Object> dashboard = statistiquesService.composer(sections);
+
+            assertEquals(42, ((JsonNode) dashboard.get("valide")).asInt());
+            assertEquals(Map.of("enErreur", "Base indisponible"), dashboard.get("sectionsIndisponibles"));
+            assertEquals(List.of("enErreur", "valide"), List.copyOf(((Map<?, ?>) dashboard.get("durees")).keySet()));
+        }
+    }
+
+    @Test
+    void sectionRefuseeParLePoolPlein() {
+        ReflectionTestUtils.setField(statistiquesService, "timeoutSectionMs", 5000L);
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        // La première occupe le thread, la deuxième attend en file, la troisième est refusée
+        sections.put("premiere", () -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        sections.put("deuxieme", () -> 2);
+        sections.put("troisieme", () -> 3);
+
+        Map<String, Object> dashboard = statistiquesService.composer(sections);
+
+        assertEquals(1, ((JsonNode) dashboard.get("premiere")).asInt());
+        assertEquals(2, ((JsonNode) dashboard.get("deuxieme")).asInt());
+        assertFalse(dashboard.containsKey("troisieme"));
+        assertEquals(Map.of("troisieme", "File du pool de statistiques pleine"), dashboard.get("sectionsIndisponibles"));
+    }
+}
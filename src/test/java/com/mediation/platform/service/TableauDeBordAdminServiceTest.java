@@ -0,0 +1,173 @@
+package com.mediation.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediation.platform.entity.Association;
+import com.mediation.platform.entity.Don;
+import com.mediation.platform.entity.Donateur;
+import com.mediation.platform.entity.Projet;
+import com.mediation.platform.enums.StatutDon;
+import com.mediation.platform.enums.StatutProjet;
+import com.mediation.platform.repository.AssociationRepository;
+import com.mediation.platform.repository.DonRepository;
+import com.mediation.platform.repository.DonateurRepository;
+import com.mediation.platform.repository.ProjetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Les quatre requêtes agrégées du tableau de bord admin donnent les mêmes chiffres que les
+ * getGeneralStats() / calculerTendances() calculés sur les entités qu'elles remplacent
+ */
+@SpringBootTest
+@AutoConfigureObservability
+@ActiveProfiles({"h2", "test"})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tableau-de-bord-admin;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "app.geo.geocoder-au-demarrage=false",
+        "app.statistiques.publiques.intervalle-ms=3600000",
+        "app.classements.sauvegarde-ms=3600000"
+})
+class TableauDeBordAdminServiceTest {
+
+    @Autowired
+    private TableauDeBordAdminService tableauDeBordAdminService;
+
+    @Autowired
+    private AssociationService associationService;
+
+    @Autowired
+    private ProjetService projetService;
+
+    @Autowired
+    private DonService donService;
+
+    @Autowired
+    private DonateurService donateurService;
+
+    @Autowired
+    private AgregatsService agregatsService;
+
+    @Autowired
+    private AssociationRepository associationRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private DonateurRepository donateurRepository;
+
+    @Autowired
+    private DonRepository donRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int sequence;
+
+    @BeforeEach
+    void creerDonnees() {
+        LocalDate aujourdhui = LocalDate.now();
+        Association validee = association(true);
+        Association autreValidee = association(true);
+        Association enAttente = association(false);
+
+        // En cours et en retard, terminé, objectif atteint par les dons, brouillon du mois dernier,
+        // projet d'une association non validée
+        Projet enRetard = projet(validee, StatutProjet.EN_COURS, 5000.0);
+        enRetard.setDateFin(aujourdhui.minusDays(1));
+        projetRepository.save(enRetard);
+        projet(validee, StatutProjet.TERMINE, 500.0);
+        Projet atteint = projet(autreValidee, StatutProjet.EN_COURS, 200.0);
+        Projet brouillon = projet(autreValidee, StatutProjet.BROUILLON, 800.0);
+        jdbcTemplate.update("UPDATE projets SET date_creation = ? WHERE id_projet = ?",
+                aujourdhui.withDayOfMonth(1).minusDays(3).atStartOfDay(), brouillon.getIdProjet());
+        Projet nonValide = projet(enAttente, StatutProjet.EN_COURS, 300.0);
+
+        // Régulier (quatre dons validés), gros donateur du mois dernier, inactif avec un refus
+        // et un don anonyme en attente, donateur sans don
+        Donateur regulier = donateur();
+        for (int i = 0; i < 3; i++) {
+            don(regulier, enRetard, 100.0, StatutDon.VALIDE, aujourdhui);
+        }
+        don(regulier, atteint, 200.0, StatutDon.VALIDE, aujourdhui);
+        Donateur gros = donateur();
+        don(gros, enRetard, 1200.0, StatutDon.VALIDE, aujourdhui.withDayOfMonth(1).minusDays(2));
+        Donateur inactif = donateur();
+        don(inactif, nonValide, 50.0, StatutDon.VALIDE, aujourdhui.minusMonths(5));
+        don(inactif, enRetard, 70.0, StatutDon.REFUSE, aujourdhui);
+        Don anonyme = don(inactif, atteint, 30.0, StatutDon.EN_ATTENTE, aujourdhui);
+        anonyme.setAnonyme(true);
+        donRepository.save(anonyme);
+        donateur();
+
+        agregatsService.recalculerTout();
+    }
+
+    @AfterEach
+    void nettoyer() {
+        donRepository.deleteAll();
+        projetRepository.deleteAll();
+        associationRepository.deleteAll();
+        donateurRepository.deleteAll();
+    }
+
+    @Test
+    void memesChiffresQueLesStatistiquesSurLesEntites() {
+        Map<String, Object> dashboard = tableauDeBordAdminService.calculer();
+
+        assertEquals(json(associationService.getGeneralStats()), json(dashboard.get("statsAssociations")));
+        assertEquals(json(projetService.getGeneralStats()), json(dashboard.get("statsProjets")));
+        assertEquals(json(projetService.calculerTendances()), json(dashboard.get("tendancesProjets")));
+        assertEquals(json(donService.getGeneralStats()), json(dashboard.get("statsDons")));
+        assertEquals(json(donService.calculerTendances()), json(dashboard.get("tendancesDons")));
+        assertEquals(json(donateurService.getGeneralStats()), json(dashboard.get("statsDonateurs")));
+    }
+
+    private String json(Object stats) {
+        return objectMapper.valueToTree(stats).toString();
+    }
+
+    private Association association(boolean validee) {
+        int n = ++sequence;
+        Association association = new Association("Nom" + n, "Prenom" + n, "tableau" + n + "@test.fr",
+                "motdepasse", "Association " + n, "Paris", "Description", "Santé");
+        association.setStatutValidation(validee);
+        return associationRepository.save(association);
+    }
+
+    private Projet projet(Association association, StatutProjet statut, double montant) {
+        Projet projet = new Projet("Projet " + ++sequence, "Description", montant, association);
+        projet.setStatut(statut);
+        return projetRepository.save(projet);
+    }
+
+    private Donateur donateur() {
+        int n = ++sequence;
+        return donateurRepository.save(new Donateur("Nom" + n, "Prenom" + n, "donateur" + n + "@test.fr", "motdepasse"));
+    }
+
+    private Don don(Donateur donateur, Projet projet, double montant, StatutDon statut, LocalDate date) {
+        Don don = new Don(montant, donateur, projet);
+        don.setStatut(statut);
+        don = donRepository.save(don);
+        jdbcTemplate.update("UPDATE dons SET date = ? WHERE id_don = ?", date, don.getIdDon());
+        return don;
+    }
+}
@@ -0,0 +1,33 @@
+package com.mediation.platform.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModeleCompileTest {
+
+    @Test
+    void rendreRemplaceVariablesEtFormats() {
+        ModeleCompile modele = ModeleCompile.compiler("Bonjour {{prenom}}, don de {{montant:%.2f}} DH", Locale.FRENCH, false);
+
+        assertEquals("Bonjour Amal, don de 12,50 DH", modele.rendre(Map.of("prenom", "Amal", "montant", 12.5)));
+        assertEquals("Bonjour , don de  DH", modele.rendre(Map.of()));
+    }
+
+    @Test
+    void rendreEchappeLeHtml() {
+        ModeleCompile modele = ModeleCompile.compiler("<p>{{nomProjet}}</p>", Locale.FRENCH, true);
+
+        assertEquals("<p>&lt;b&gt;Puits &amp; école&lt;/b&gt;</p>", modele.rendre(Map.of("nomProjet", "<b>Puits & école</b>")));
+    }
+
+    @Test
+    void compilerRejetteUnModeleInvalide() {
+        assertThrows(IllegalArgumentException.class, () -> ModeleCompile.compiler("Bonjour {{prenom", Locale.FRENCH, false));
+        assertThrows(IllegalArgumentException.class, () -> ModeleCompile.compiler("Bonjour {{ }}", Locale.FRENCH, false));
+    }
+}
@@ -0,0 +1,64 @@
+package com.mediation.platform.tracage;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExportateurSpansMemoireTest {
+
+    @Test
+    void arbreDeLaTraceAvecTacheAsynchrone() throws Throwable {
+        ExportateurSpansMemoire exportateur = new ExportateurSpansMemoire(10, 60_000);
+        SdkTracerProvider fournisseur = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exportateur))
+                .build();
+        Tracer tracer = fournisseur.get("test");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Sans span courant : aucune trace
+        assertEquals("sans trace", Spans.dans(tracer, "Service.ignore", () -> "sans trace"));
+
+        Span racine = tracer.spanBuilder("http post /dons").startSpan();
+        try (Scope ignored = racine.makeCurrent()) {
+            Spans.executer(tracer, "DonController.creerDon", () -> {
+                assertThrows(IllegalStateException.class, () -> Spans.executer(tracer, "DonService.save", () -> {
+                    throw new IllegalStateException("refus");
+                }));
+                // Même décoration que les pools de AsyncConfig
+                executor.execute(Context.current().wrap(() -> Spans.executer(tracer, "smtp.envoi", () -> { })));
+            });
+        } finally {
+            racine.end();
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        List<Map<String, Object>> traces = exportateur.getTraces(10, 0);
+        assertEquals(1, traces.size());
+        assertEquals("http post /dons", traces.get(0).get("racine"));
+        assertEquals(4, traces.get(0).get("spans"));
+        assertEquals(true, traces.get(0).get("erreur"));
+
+        List<Map<String, Object>> spans = exportateur.getTrace(racine.getSpanContext().getTraceId());
+        assertEquals(List.of("http post /dons", "DonController.creerDon", "DonService.save", "smtp.envoi"),
+                spans.stream().map(s -> s.get("nom")).toList());
+        assertEquals(List.of(0, 1, 2, 2), spans.stream().map(s -> s.get("profondeur")).toList());
+        assertEquals("ERROR", spans.get(2).get("statut"));
+        assertNull(exportateur.getTrace("inconnue"));
+        fournisseur.close();
+    }
+}